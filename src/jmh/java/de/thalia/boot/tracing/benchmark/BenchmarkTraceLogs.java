@@ -0,0 +1,61 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.benchmark;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.database.QuerySpan;
+import de.thalia.boot.tracing.hystrix.HystrixSpan;
+import de.thalia.boot.tracing.resilience4j.CircuitBreakerSpan;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+
+/**
+ * Erzeugt realistische Trace-Logs als Testdaten für die Benchmarks.
+ */
+final class BenchmarkTraceLogs {
+
+    private BenchmarkTraceLogs() {
+    }
+
+    /**
+     * Erzeugt ein Trace-Log mit der übergebenen Anzahl Spans je Typ, dessen HTTP-Span wiederum ein Trace-Log eines aufgerufenen
+     * Services enthält.
+     */
+    static TraceLog nestedTraceLog(final int aSpansPerType) {
+        final long theStart = System.currentTimeMillis();
+        final TraceLog theNested = new TraceLog("search", "search-1.example.com", theStart + 2, 40, spans(theStart + 3, aSpansPerType, null));
+        return new TraceLog("frontend", "frontend-1.example.com", theStart, 100, spans(theStart, aSpansPerType, theNested));
+    }
+
+    private static List<Span> spans(final long aStart, final int aSpansPerType, final TraceLog aNested) {
+        final List<Span> theSpans = new ArrayList<>(aSpansPerType * 4);
+        for (int i = 0; i < aSpansPerType; i++) {
+            theSpans.add(new QuerySpan("dataSource", aStart + i, 1, 3, "dataSource"));
+            theSpans.add(new HystrixSpan("Search#SearchCommand", aStart + i, 12));
+            theSpans.add(new CircuitBreakerSpan("searchBreaker", aStart + i, 11));
+            theSpans.add(new HTTPSpan("SearchClient-RestTemplate", aStart + i, 10, HttpMethod.GET,
+                    URI.create("http://search.example.com/api/search?q=" + i), HttpStatus.OK, i == 0 ? aNested : null));
+        }
+        return theSpans;
+    }
+}
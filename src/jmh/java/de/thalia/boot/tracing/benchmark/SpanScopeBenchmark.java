@@ -0,0 +1,126 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.benchmark;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.SpanDescriptor;
+import de.thalia.boot.tracing.SpanDescriptors;
+import de.thalia.boot.tracing.SpanScope;
+import de.thalia.boot.tracing.Traced;
+import de.thalia.boot.tracing.TracedAspect;
+import de.thalia.boot.tracing.Tracer;
+
+/**
+ * Misst eigene Spans über {@link SpanScope}, {@link Tracer#trace(SpanDescriptor, java.util.function.Supplier)} und
+ * {@link Traced} im Vergleich zum unveränderten Aufruf, damit abgeschätzt werden kann, ob sie auf Methoden passen, die je
+ * Request tausendfach aufgerufen werden.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SpanScopeBenchmark {
+
+    private static final int MAX_SPANS = 1024;
+    private static final SpanDescriptor RANKING = SpanDescriptors.of(Span.class, "ranking");
+
+    private Tracer tracer;
+    private Ranking ranking;
+    private Ranking tracedRanking;
+    private int value;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        tracer = new Tracer();
+        ranking = new Ranking();
+        final AspectJProxyFactory theFactory = new AspectJProxyFactory(new Ranking());
+        theFactory.addAspect(new TracedAspect(tracer));
+        tracedRanking = theFactory.getProxy();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public int baseline() {
+        return ranking.rank(value++);
+    }
+
+    @Benchmark
+    public int scope() {
+        final int theResult;
+        try (SpanScope theScope = tracer.startSpan(RANKING)) {
+            theResult = ranking.rank(value++);
+        }
+        resetIfFull();
+        return theResult;
+    }
+
+    @Benchmark
+    public int lambda() {
+        final int theResult = tracer.trace(RANKING, () -> ranking.rank(value++));
+        resetIfFull();
+        return theResult;
+    }
+
+    @Benchmark
+    public int tracedAnnotation() {
+        final int theResult = tracedRanking.rank(value++);
+        resetIfFull();
+        return theResult;
+    }
+
+    private void resetIfFull() {
+        final List<Span> theSpans = tracer.getCollectedSpansForCurrentRequest().orElse(Collections.emptyList());
+        if (theSpans.size() >= MAX_SPANS) {
+            theSpans.clear();
+        }
+    }
+
+    public static class Ranking {
+
+        @Traced("ranking")
+        public int rank(final int aValue) {
+            return Integer.bitCount(aValue) * 31 + aValue % 7;
+        }
+    }
+}
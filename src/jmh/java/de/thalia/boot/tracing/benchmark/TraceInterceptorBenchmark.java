@@ -0,0 +1,116 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.Tracer;
+import de.thalia.boot.tracing.rest.TraceRestTemplateCustomizer;
+
+/**
+ * Misst den Interceptor des {@link TraceRestTemplateCustomizer} mit einem simulierten Aufruf, einmal ohne und einmal mit
+ * zurückgeliefertem Trace-Log des aufgerufenen Services.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TraceInterceptorBenchmark {
+
+    private static final int MAX_SPANS = 1024;
+    private static final byte[] NO_BODY = new byte[0];
+
+    private Tracer tracer;
+    private ClientHttpRequestInterceptor interceptor;
+    private MockClientHttpRequest request;
+    private ClientHttpRequestExecution plainExecution;
+    private ClientHttpRequestExecution nestedExecution;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        tracer = new Tracer();
+        final RestTemplate theTemplate = new RestTemplate();
+        new TraceRestTemplateCustomizer(tracer).customize(theTemplate);
+        interceptor = theTemplate.getInterceptors().get(0);
+        request = new MockClientHttpRequest(HttpMethod.GET, URI.create("http://search.example.com/api/search?q=tracing"));
+
+        final MockClientHttpResponse thePlainResponse = new MockClientHttpResponse(NO_BODY, HttpStatus.OK);
+        plainExecution = (aRequest, aBody) -> thePlainResponse;
+
+        final MockClientHttpResponse theNestedResponse = new MockClientHttpResponse(NO_BODY, HttpStatus.OK);
+        theNestedResponse.getHeaders().add(Tracer.TRACE_HEADER_NAME, BenchmarkTraceLogs.nestedTraceLog(10).toJSON());
+        nestedExecution = (aRequest, aBody) -> theNestedResponse;
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public ClientHttpResponse intercept() throws IOException {
+        final ClientHttpResponse theResponse = interceptor.intercept(request, NO_BODY, plainExecution);
+        resetIfFull();
+        return theResponse;
+    }
+
+    @Benchmark
+    public ClientHttpResponse interceptWithNestedTraceLog() throws IOException {
+        final ClientHttpResponse theResponse = interceptor.intercept(request, NO_BODY, nestedExecution);
+        resetIfFull();
+        return theResponse;
+    }
+
+    private void resetIfFull() {
+        final List<Span> theSpans = tracer.getCollectedSpansForCurrentRequest().orElse(Collections.emptyList());
+        if (theSpans.size() >= MAX_SPANS) {
+            theSpans.clear();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.codec.BinaryTraceFormat;
+
+/**
+ * Misst die JSON-Serialisierung und -Deserialisierung von {@link TraceLog}s unterschiedlicher Größe.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TraceLogBenchmark {
+
+    @Param({ "1", "25" })
+    public int spansPerType;
+
+    private TraceLog traceLog;
+    private String json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        traceLog = BenchmarkTraceLogs.nestedTraceLog(spansPerType);
+        json = traceLog.toJSON();
+        binary = BinaryTraceFormat.encode(traceLog);
+    }
+
+    @Benchmark
+    public String toJSON() throws JsonProcessingException {
+        return traceLog.toJSON();
+    }
+
+    @Benchmark
+    public TraceLog fromJSON() throws IOException {
+        return TraceLog.fromJSON(json);
+    }
+
+    @Benchmark
+    public byte[] toBinary() {
+        return BinaryTraceFormat.encode(traceLog);
+    }
+
+    @Benchmark
+    public TraceLog fromBinary() throws IOException {
+        return BinaryTraceFormat.decode(binary);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import de.thalia.boot.tracing.DefaultMetricExporter;
+import de.thalia.boot.tracing.TraceOutputFilter;
+import de.thalia.boot.tracing.Tracer;
+import de.thalia.boot.tracing.database.QuerySpan;
+import de.thalia.boot.tracing.hystrix.HystrixSpan;
+
+/**
+ * Misst den {@link TraceOutputFilter} von Anfang bis Ende für einen Request, der einige Spans erzeugt und einen kleinen Body
+ * schreibt. {@link #baseline()} führt dieselbe Verarbeitung ohne Filter aus.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TraceOutputFilterBenchmark {
+
+    private static final byte[] BODY = "{\"result\":\"ok\"}".getBytes();
+
+    @Param({ "false", "true" })
+    public boolean outputEnabled;
+
+    @Param({ "10" })
+    public int spansPerRequest;
+
+    private Tracer tracer;
+    private TraceOutputFilter filter;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() {
+        tracer = new Tracer();
+        filter = new TraceOutputFilter(tracer, new DefaultMetricExporter(), "benchmark", "localhost");
+        chain = (aRequest, aResponse) -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes((MockHttpServletRequest) aRequest));
+            try {
+                final long theNow = System.currentTimeMillis();
+                for (int i = 0; i < spansPerRequest; i++) {
+                    tracer.addToLog(i % 2 == 0 ? new HystrixSpan("Pool#Command", theNow, 3)
+                            : new QuerySpan("dataSource" + (i % 3), theNow, 1, 1, "dataSource" + (i % 3)));
+                }
+                aRequest.setAttribute("org.springframework.web.servlet.HandlerMapping.bestMatchingPattern", "/api/search/{term}");
+                aResponse.getOutputStream().write(BODY);
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        };
+    }
+
+    private MockHttpServletRequest request() {
+        final MockHttpServletRequest theRequest = new MockHttpServletRequest("GET", "/api/search/tracing");
+        if (outputEnabled) {
+            theRequest.addHeader(Tracer.TRACE_HEADER_NAME, "true");
+        }
+        return theRequest;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws IOException, ServletException {
+        final MockHttpServletResponse theResponse = new MockHttpServletResponse();
+        filter.doFilter(request(), theResponse, chain);
+        return theResponse;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse baseline() throws IOException, ServletException {
+        final MockHttpServletResponse theResponse = new MockHttpServletResponse();
+        chain.doFilter(request(), theResponse);
+        return theResponse;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.Tracer;
+import de.thalia.boot.tracing.hystrix.HystrixSpan;
+
+/**
+ * Misst {@link Tracer#addToLog(Span)} mit einem und mit mehreren Threads, die Spans in denselben Request schreiben (z.B. parallele
+ * Hystrix-Commands).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TracerBenchmark {
+
+    /**
+     * Die Liste der Spans wird regelmäßig geleert, damit sie während einer Messung nicht unbegrenzt wächst.
+     */
+    private static final int MAX_SPANS = 1024;
+
+    @State(Scope.Benchmark)
+    public static class SharedRequest {
+
+        final Tracer tracer = new Tracer();
+        final ServletRequestAttributes attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        final Span span = new HystrixSpan("Pool#Command", System.currentTimeMillis(), 5);
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            attributes.setAttribute(Tracer.TRACE_ATTRIBUTE_NAME, new BoundedSpans(), RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Eine Liste, die sich beim Erreichen von {@link #MAX_SPANS} selbst leert. {@link Tracer#addToLog(Span)} fügt unter der Sperre
+     * des Tracers hinzu, der Benchmark braucht daher keine eigene Sperre.
+     */
+    private static final class BoundedSpans extends ArrayList<Span> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public boolean add(final Span aSpan) {
+            if (size() >= MAX_SPANS) {
+                clear();
+            }
+            return super.add(aSpan);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BoundThread {
+
+        @Setup(Level.Iteration)
+        public void bind(final SharedRequest aRequest) {
+            RequestContextHolder.setRequestAttributes(aRequest.attributes);
+        }
+
+        @TearDown(Level.Iteration)
+        public void unbind() {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void addToLog(final SharedRequest aRequest, final BoundThread aThread) {
+        add(aRequest);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void addToLogContended(final SharedRequest aRequest, final BoundThread aThread) {
+        add(aRequest);
+    }
+
+    private static void add(final SharedRequest aRequest) {
+        aRequest.tracer.addToLog(aRequest.span);
+    }
+}
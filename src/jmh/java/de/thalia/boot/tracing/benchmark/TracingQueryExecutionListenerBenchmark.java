@@ -0,0 +1,109 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.benchmark;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.Tracer;
+import de.thalia.boot.tracing.database.TracingQueryExecutionListener;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+
+/**
+ * Misst {@link TracingQueryExecutionListener#afterQuery(ExecutionInfo, List)} für aufeinanderfolgende Queries auf derselben
+ * Datasource (Zusammenführung der Spans) und im Wechsel zweier Datasources (ein neuer Span je Query).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TracingQueryExecutionListenerBenchmark {
+
+    private static final int MAX_SPANS = 1024;
+
+    private Tracer tracer;
+    private TracingQueryExecutionListener listener;
+    private ExecutionInfo primary;
+    private ExecutionInfo secondary;
+    private List<QueryInfo> queries;
+    private boolean alternate;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        tracer = new Tracer();
+        listener = new TracingQueryExecutionListener(tracer);
+        primary = executionInfo("primaryDataSource");
+        secondary = executionInfo("secondaryDataSource");
+        queries = Collections.singletonList(new QueryInfo("SELECT * FROM serien"));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static ExecutionInfo executionInfo(final String aDataSourceName) {
+        final ExecutionInfo theInfo = new ExecutionInfo();
+        theInfo.setDataSourceName(aDataSourceName);
+        theInfo.setElapsedTime(1);
+        return theInfo;
+    }
+
+    @Benchmark
+    public void afterQueryMerged() {
+        listener.beforeQuery(primary, queries);
+        listener.afterQuery(primary, queries);
+        resetIfFull();
+    }
+
+    @Benchmark
+    public void afterQueryAlternating() {
+        final ExecutionInfo theInfo = alternate ? primary : secondary;
+        alternate = !alternate;
+        listener.beforeQuery(theInfo, queries);
+        listener.afterQuery(theInfo, queries);
+        resetIfFull();
+    }
+
+    private void resetIfFull() {
+        final List<Span> theSpans = tracer.getCollectedSpansForCurrentRequest().get();
+        if (theSpans.size() >= MAX_SPANS) {
+            theSpans.clear();
+        }
+    }
+}
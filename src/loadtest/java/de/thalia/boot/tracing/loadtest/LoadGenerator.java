@@ -0,0 +1,204 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import de.thalia.boot.tracing.Tracer;
+
+/**
+ * Geschlossener Lastgenerator: jeder Thread schickt den nächsten Request erst, wenn die Antwort des vorherigen vollständig gelesen
+ * wurde. Latenzen werden nur in der Messphase nach dem Warmup aufgezeichnet. Die Allokationsrate wird über alle Threads außer
+ * denen des Generators ermittelt und entspricht damit im Wesentlichen der Allokation der Anwendung.
+ */
+final class LoadGenerator {
+
+    private final URL url;
+    private final boolean traceOutput;
+    private final int threads;
+
+    private volatile boolean measuring;
+    private volatile boolean stopped;
+
+    LoadGenerator(final URL url, final boolean traceOutput, final int threads) {
+        this.url = url;
+        this.traceOutput = traceOutput;
+        this.threads = threads;
+    }
+
+    LoadTestResult run(final String mode, final long warmupSeconds, final long durationSeconds) throws InterruptedException {
+        final Worker[] workers = new Worker[threads];
+        final Set<Long> excludedThreads = new HashSet<>();
+        excludedThreads.add(Thread.currentThread().getId());
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker();
+            workers[i].setName("loadtest-" + i);
+            excludedThreads.add(workers[i].getId());
+            workers[i].start();
+        }
+
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        final Map<Long, Long> allocationsBefore = allocatedBytesPerThread(excludedThreads);
+        measuring = true;
+        final long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(durationSeconds);
+        measuring = false;
+        final long elapsedNanos = System.nanoTime() - start;
+        final long allocatedBytes = allocatedBytesSince(allocationsBefore, excludedThreads);
+        stopped = true;
+
+        long requests = 0;
+        long errors = 0;
+        final LongArray latencies = new LongArray();
+        for (final Worker worker : workers) {
+            worker.join();
+            requests += worker.latencies.size;
+            errors += worker.errors;
+            latencies.addAll(worker.latencies);
+        }
+        final long[] sorted = latencies.toSortedArray();
+        final double seconds = elapsedNanos / 1_000_000_000d;
+        return new LoadTestResult(mode, requests, errors, requests / seconds, percentile(sorted, 50), percentile(sorted, 90),
+                percentile(sorted, 99), percentile(sorted, 99.9), sorted.length > 0 ? sorted[sorted.length - 1] : 0,
+                allocatedBytes < 0 ? -1 : allocatedBytes / Math.max(1, requests),
+                allocatedBytes < 0 ? -1 : allocatedBytes / seconds / (1024 * 1024));
+    }
+
+    private static long percentile(final long[] sorted, final double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        final int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static Map<Long, Long> allocatedBytesPerThread(final Set<Long> excludedThreads) {
+        final Map<Long, Long> result = new HashMap<>();
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        final com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+        if (!sunBean.isThreadAllocatedMemorySupported() || !sunBean.isThreadAllocatedMemoryEnabled()) {
+            return null;
+        }
+        final long[] ids = sunBean.getAllThreadIds();
+        final long[] allocated = sunBean.getThreadAllocatedBytes(ids);
+        for (int i = 0; i < ids.length; i++) {
+            if (!excludedThreads.contains(ids[i]) && allocated[i] >= 0) {
+                result.put(ids[i], allocated[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Summiert die Allokationen seit der übergebenen Momentaufnahme. Threads, die in der Messphase beendet wurden, gehen dabei
+     * verloren; die Worker von Tomcat und Hystrix laufen aber durch.
+     */
+    private static long allocatedBytesSince(final Map<Long, Long> before, final Set<Long> excludedThreads) {
+        final Map<Long, Long> after = allocatedBytesPerThread(excludedThreads);
+        if (null == before || null == after) {
+            return -1;
+        }
+        long sum = 0;
+        for (final Map.Entry<Long, Long> entry : after.entrySet()) {
+            sum += entry.getValue() - before.getOrDefault(entry.getKey(), 0L);
+        }
+        return sum;
+    }
+
+    private final class Worker extends Thread {
+
+        private final LongArray latencies = new LongArray();
+        private final byte[] buffer = new byte[8192];
+        private long errors;
+
+        @Override
+        public void run() {
+            while (!stopped) {
+                final long start = System.nanoTime();
+                final boolean success = execute();
+                final long latencyMicros = (System.nanoTime() - start) / 1000;
+                if (measuring) {
+                    latencies.add(latencyMicros);
+                    if (!success) {
+                        errors++;
+                    }
+                }
+            }
+        }
+
+        private boolean execute() {
+            try {
+                final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                if (traceOutput) {
+                    connection.setRequestProperty(Tracer.TRACE_HEADER_NAME, "true");
+                }
+                final int status = connection.getResponseCode();
+                try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                    if (null != body) {
+                        while (body.read(buffer) >= 0) {
+                            // Body vollständig lesen, damit die Verbindung wiederverwendet wird
+                        }
+                    }
+                }
+                return status == HttpURLConnection.HTTP_OK;
+            } catch (final IOException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Wachsendes Array primitiver Werte, damit die Aufzeichnung der Latenzen selbst kaum Garbage erzeugt.
+     */
+    private static final class LongArray {
+
+        private long[] values = new long[64 * 1024];
+        private int size;
+
+        void add(final long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(final LongArray other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        long[] toSortedArray() {
+            final long[] result = Arrays.copyOf(values, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestTemplate;
+
+import com.netflix.hystrix.HystrixCommand;
+import com.netflix.hystrix.HystrixCommandGroupKey;
+
+import de.thalia.boot.tracing.TraceConfig;
+
+/**
+ * Beispielanwendung für den Lasttest. Ein Request auf {@code /api/search/{term}} führt eine Datenbankabfrage, einen
+ * HTTP-Aufruf auf den {@link StubDownstreamServer} und einen Hystrix-Command aus.
+ *
+ * Die Auto-Konfiguration ist bewusst auf Web-MVC, {@link RestTemplate} und den Starter beschränkt, damit die Messung nicht von
+ * weiteren Bibliotheken im Test-Classpath abhängt.
+ */
+@SpringBootConfiguration
+@ImportAutoConfiguration({ PropertyPlaceholderAutoConfiguration.class, ServletWebServerFactoryAutoConfiguration.class,
+        DispatcherServletAutoConfiguration.class, WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+        JacksonAutoConfiguration.class, RestTemplateAutoConfiguration.class, AopAutoConfiguration.class, TraceConfig.class })
+public class LoadTestApplication {
+
+    @Bean
+    public DataSource dataSource() {
+        //@formatter:off
+        return new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.HSQL)
+                .addScript("/database-tracing-setup.sql")
+                .build();
+        //@formatter:on
+    }
+
+    @RestController
+    public static class SearchResource {
+
+        private static final HystrixCommandGroupKey GROUP = HystrixCommandGroupKey.Factory.asKey("LoadTest");
+
+        private final JdbcTemplate jdbcTemplate;
+        private final RestTemplate restTemplate;
+        private final String downstreamUrl;
+
+        public SearchResource(final DataSource dataSource, final RestTemplateBuilder builder,
+                @Value("${loadtest.downstream-url}") final String downstreamUrl) {
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.restTemplate = builder.build();
+            this.downstreamUrl = downstreamUrl;
+        }
+
+        @GetMapping("/api/search/{term}")
+        public String search(@PathVariable("term") final String term) {
+            final List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT name FROM serien WHERE jahr > ?", 1990);
+            final String downstream = restTemplate.getForObject(downstreamUrl, String.class);
+            final String normalized = new HystrixCommand<String>(GROUP) {
+                @Override
+                protected String run() {
+                    return term.toLowerCase();
+                }
+            }.execute();
+            return "{\"term\":\"" + normalized + "\",\"hits\":" + rows.size() + ",\"downstream\":" + downstream + "}";
+        }
+    }
+}
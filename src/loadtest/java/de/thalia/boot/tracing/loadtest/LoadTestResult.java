@@ -0,0 +1,47 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.loadtest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Messergebnis eines Lasttest-Laufs. Latenzen in Mikrosekunden.
+ */
+@Getter
+@RequiredArgsConstructor
+public class LoadTestResult {
+
+    private final String mode;
+    private final long requests;
+    private final long errors;
+    private final double throughputPerSecond;
+    private final long latencyP50Micros;
+    private final long latencyP90Micros;
+    private final long latencyP99Micros;
+    private final long latencyP999Micros;
+    private final long latencyMaxMicros;
+
+    /**
+     * Allokierte Bytes je Request außerhalb des Lastgenerators, {@code -1} wenn die JVM das nicht messen kann.
+     */
+    private final long allocatedBytesPerRequest;
+
+    /**
+     * Allokationsrate in MB/s außerhalb des Lastgenerators, {@code -1} wenn die JVM das nicht messen kann.
+     */
+    private final double allocationRateMegabytesPerSecond;
+}
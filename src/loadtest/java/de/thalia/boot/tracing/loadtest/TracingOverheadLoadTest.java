@@ -0,0 +1,160 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lasttest für den Aufwand des Tracings. Die {@link LoadTestApplication} wird nacheinander mit deaktiviertem Tracing, mit aktivem
+ * Tracing ohne Ausgabe und mit {@code THALIATRACE}-Ausgabe gestartet und jeweils mit dem {@link LoadGenerator} belastet. Der
+ * Bericht wird als JSON geschrieben, so dass er über Releases hinweg verglichen werden kann.
+ *
+ * Die Modi werden in mehreren Runden abwechselnd gemessen, damit der JIT-Zustand der JVM keinen Modus bevorzugt. Je Modus geht
+ * die Runde mit dem mittleren Durchsatz in die Auswertung ein.
+ *
+ * Konfiguration über System-Properties: {@code loadtest.threads}, {@code loadtest.rounds}, {@code loadtest.warmupSeconds},
+ * {@code loadtest.durationSeconds}, {@code loadtest.report} und {@code loadtest.maxOverheadPercent}. Ist letztere nicht negativ
+ * und verliert das aktive Tracing ohne Ausgabe mehr Durchsatz, endet der Test mit Exit-Code 1.
+ */
+@Slf4j
+public final class TracingOverheadLoadTest {
+
+    private enum Mode {
+        DISABLED(false, false), ENABLED(true, false), ENABLED_WITH_OUTPUT(true, true);
+
+        private final boolean tracingEnabled;
+        private final boolean traceOutput;
+
+        Mode(final boolean tracingEnabled, final boolean traceOutput) {
+            this.tracingEnabled = tracingEnabled;
+            this.traceOutput = traceOutput;
+        }
+    }
+
+    private TracingOverheadLoadTest() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final int threads = Integer.getInteger("loadtest.threads", 8);
+        final int rounds = Integer.getInteger("loadtest.rounds", 3);
+        final long warmupSeconds = Long.getLong("loadtest.warmupSeconds", 10);
+        final long durationSeconds = Long.getLong("loadtest.durationSeconds", 30);
+        final double maxOverheadPercent = Double.parseDouble(System.getProperty("loadtest.maxOverheadPercent", "-1"));
+        final File reportFile = new File(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+
+        final List<LoadTestResult> allRounds = new ArrayList<>();
+        try (StubDownstreamServer downstream = new StubDownstreamServer()) {
+            for (int round = 1; round <= rounds; round++) {
+                for (final Mode mode : Mode.values()) {
+                    log.info("Runde {} von {}", round, rounds);
+                    allRounds.add(runMode(mode, downstream.url(), threads, warmupSeconds, durationSeconds));
+                }
+            }
+        }
+
+        final List<LoadTestResult> results = new ArrayList<>();
+        for (final Mode mode : Mode.values()) {
+            results.add(median(allRounds, mode));
+        }
+
+        final Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("threads", threads);
+        report.put("rounds", rounds);
+        report.put("warmupSeconds", warmupSeconds);
+        report.put("durationSeconds", durationSeconds);
+        report.put("results", results);
+        report.put("allRounds", allRounds);
+
+        final LoadTestResult baseline = results.get(0);
+        final Map<String, Double> overhead = new LinkedHashMap<>();
+        for (final LoadTestResult result : results.subList(1, results.size())) {
+            overhead.put(result.getMode(), throughputOverheadPercent(baseline, result));
+        }
+        report.put("throughputOverheadPercent", overhead);
+
+        final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        if (null != reportFile.getParentFile()) {
+            reportFile.getParentFile().mkdirs();
+        }
+        mapper.writeValue(reportFile, report);
+        log.info("Bericht geschrieben nach {}:\n{}", reportFile.getAbsolutePath(), mapper.writeValueAsString(report));
+
+        final double enabledOverhead = overhead.get(Mode.ENABLED.name());
+        if (maxOverheadPercent >= 0 && enabledOverhead > maxOverheadPercent) {
+            log.error("Durchsatzverlust durch das Tracing {}% liegt über der Grenze von {}%", enabledOverhead, maxOverheadPercent);
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static LoadTestResult median(final List<LoadTestResult> allRounds, final Mode mode) {
+        final List<LoadTestResult> sorted = allRounds.stream().filter(result -> result.getMode().equals(mode.name()))
+                .sorted(Comparator.comparingDouble(LoadTestResult::getThroughputPerSecond)).collect(Collectors.toList());
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static double throughputOverheadPercent(final LoadTestResult baseline, final LoadTestResult result) {
+        return (1 - result.getThroughputPerSecond() / baseline.getThroughputPerSecond()) * 100;
+    }
+
+    private static LoadTestResult runMode(final Mode mode, final String downstreamUrl, final int threads, final long warmupSeconds,
+            final long durationSeconds) throws IOException, InterruptedException {
+        log.info("Starte Lasttest im Modus {}", mode);
+        //@formatter:off
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(
+                LoadTestApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        "server.port=0",
+                        "spring.application.name=loadtest",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "logging.level.de.thalia.boot.tracing.loadtest=INFO",
+                        "tracing.enabled=" + mode.tracingEnabled,
+                        "tracing.database.enabled=true",
+                        "loadtest.downstream-url=" + downstreamUrl)
+                .run()) {
+        //@formatter:on
+            final URL url = new URL("http://127.0.0.1:" + context.getWebServer().getPort() + "/api/search/Tracing");
+            final LoadTestResult result = new LoadGenerator(url, mode.traceOutput, threads).run(mode.name(), warmupSeconds,
+                    durationSeconds);
+            log.info("{}: {} Requests/s, p99 {}us, {} Bytes/Request", mode, Math.round(result.getThroughputPerSecond()),
+                    result.getLatencyP99Micros(), result.getAllocatedBytesPerRequest());
+            return result;
+        }
+    }
+}
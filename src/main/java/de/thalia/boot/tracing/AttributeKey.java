@@ -0,0 +1,123 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.Getter;
+
+/**
+ * Der Schlüssel eines typisierten {@link SpanAttributes Span-Attributs}, z.B. {@code search.results} vom Typ
+ * {@link Type#LONG}. Je Name gibt es genau einen registrierten Schlüssel, solange die Registry nicht voll ist; Schlüssel
+ * sollten deshalb einmalig in einer Konstante abgelegt werden:
+ *
+ * <pre>
+ * private static final AttributeKey RESULTS = AttributeKey.ofLong("search.results");
+ * </pre>
+ */
+@Getter
+public final class AttributeKey {
+
+    public enum Type {
+        LONG, DOUBLE, BOOLEAN, STRING
+    }
+
+    /**
+     * Obergrenze der Registry, damit dynamisch erzeugte Namen den Speicher nicht fluten.
+     */
+    static final int MAX_KEYS = 1024;
+
+    private static final Map<String, AttributeKey> KEYS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final Type type;
+
+    private AttributeKey(final String aName, final Type aType) {
+        name = aName;
+        type = aType;
+    }
+
+    public static AttributeKey ofLong(final String aName) {
+        return of(aName, Type.LONG);
+    }
+
+    public static AttributeKey ofDouble(final String aName) {
+        return of(aName, Type.DOUBLE);
+    }
+
+    public static AttributeKey ofBoolean(final String aName) {
+        return of(aName, Type.BOOLEAN);
+    }
+
+    public static AttributeKey ofString(final String aName) {
+        return of(aName, Type.STRING);
+    }
+
+    /**
+     * Liefert den Schlüssel für einen Namen und Typ.
+     *
+     * @param aName
+     *            der Name des Attributs
+     * @param aType
+     *            der Typ der Werte
+     * @return der Schlüssel
+     * @throws IllegalArgumentException
+     *             falls der Name bereits mit einem anderen Typ registriert ist
+     */
+    public static AttributeKey of(final String aName, final Type aType) {
+        final AttributeKey theKey = lookup(aName, aType);
+        if (theKey.type != aType) {
+            throw new IllegalArgumentException("Das Attribut " + aName + " ist bereits als " + theKey.type + " registriert");
+        }
+        return theKey;
+    }
+
+    /**
+     * Liefert den Schlüssel für ein gelesenes Attribut, z.B. aus dem Trace-Log eines aufgerufenen Services. Gelesene Namen
+     * werden nie registriert, damit fremde Eingaben weder die Registry füllen noch einen Typ festlegen, mit dem eine spätere
+     * Konstante kollidiert. Ist der Name nicht oder mit einem anderen Typ registriert, wird ein nicht registrierter Schlüssel
+     * geliefert.
+     *
+     * @param aName
+     *            der Name des Attributs
+     * @param aType
+     *            der Typ des gelesenen Werts
+     * @return der Schlüssel
+     */
+    public static AttributeKey forValue(final String aName, final Type aType) {
+        final AttributeKey theKey = KEYS.get(aName);
+        return null != theKey && theKey.type == aType ? theKey : new AttributeKey(aName, aType);
+    }
+
+    private static AttributeKey lookup(final String aName, final Type aType) {
+        final AttributeKey theKey = KEYS.get(aName);
+        if (null != theKey) {
+            return theKey;
+        }
+        final AttributeKey theNewKey = new AttributeKey(aName, aType);
+        if (KEYS.size() < MAX_KEYS) {
+            final AttributeKey theExisting = KEYS.putIfAbsent(aName, theNewKey);
+            return null == theExisting ? theNewKey : theExisting;
+        }
+        return theNewKey;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletResponse;
+
+import de.thalia.boot.tracing.analysis.SpanCoverage;
+import de.thalia.boot.tracing.cache.CacheSpan;
+import de.thalia.boot.tracing.database.QuerySpan;
+
+/**
+ * Schreibt die {@code Server-Timing}-Header einer Response, die z.B. von Google Chrome in den Dev-Tools graphisch dargestellt
+ * werden.
+ *
+ * Die Spans werden nach Typ und Name zusammengefasst (Datenbank je Datasource, HTTP je Client, Hystrix je Command), so dass auch
+ * bei hunderten Queries nur wenige Header entstehen. Ausgegeben werden die {@link #maxEntries} Einträge mit der größten Dauer, der
+ * Rest wird unter {@code other} zusammengefasst. Namen und Beschreibungen werden einmal je Span-Name maskiert, siehe
+ * {@link SpanDescriptor}.
+ *
+ * @see <a href="https://w3c.github.io/server-timing/">Server Timing</a>
+ */
+public class ServerTimingHeaderWriter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+    public static final int DEFAULT_MAX_ENTRIES = 10;
+
+    private static final String TOTAL_PREFIX = "total;desc=\"Total\";dur=";
+    private static final String UNTRACED_PREFIX = "untraced;desc=\"Untraced\";dur=";
+    private static final String GAP_PREFIX = "gap;desc=\"Largest gap at +";
+    private static final String OTHER_PREFIX = "other;desc=\"Other";
+
+    private final int maxEntries;
+
+    public ServerTimingHeaderWriter(final int aMaxEntries) {
+        maxEntries = aMaxEntries;
+    }
+
+    /**
+     * Erzeugt die {@code Server-Timing}-Header mit den Informationen zu den Laufzeiten der einzelnen Verarbeitungsschritte.
+     *
+     * @param aTraceLog
+     *            das Trace-Log des aktuellen Aufrufs
+     * @param aResponse
+     *            die aktuelle Response
+     */
+    public void write(final TraceLog aTraceLog, final HttpServletResponse aResponse) {
+        aResponse.addHeader(SERVER_TIMING_HEADER, totalHeaderValue(aTraceLog));
+        final List<Span> theSpans = aTraceLog.getSpans();
+        if (null == theSpans || theSpans.isEmpty()) {
+            return;
+        }
+
+        // Ist die Registry voll, liefert sie je Span einen neuen Deskriptor, deshalb wird über die Kategorie zusammengefasst
+        final Map<String, Aggregate> theAggregates = new HashMap<>();
+        for (final Span theSpan : theSpans) {
+            final SpanDescriptor theDescriptor = SpanDescriptors.of(theSpan);
+            Aggregate theAggregate = theAggregates.get(theDescriptor.getCategory());
+            if (null == theAggregate) {
+                theAggregate = new Aggregate(theDescriptor.getServerTimingPrefix());
+                theAggregates.put(theDescriptor.getCategory(), theAggregate);
+            }
+            theAggregate.add(theSpan.getDuration(), countOf(theSpan));
+        }
+
+        final List<Aggregate> theSorted = new ArrayList<>(theAggregates.values());
+        theSorted.sort((a, b) -> Long.compare(b.duration, a.duration));
+
+        Aggregate theOther = null;
+        for (int i = 0; i < theSorted.size(); i++) {
+            final Aggregate theAggregate = theSorted.get(i);
+            if (i < maxEntries) {
+                aResponse.addHeader(SERVER_TIMING_HEADER, theAggregate.toHeaderValue());
+            } else {
+                if (null == theOther) {
+                    theOther = new Aggregate(OTHER_PREFIX);
+                }
+                theOther.add(theAggregate.duration, theAggregate.count);
+            }
+        }
+        if (null != theOther) {
+            aResponse.addHeader(SERVER_TIMING_HEADER, theOther.toHeaderValue());
+        }
+    }
+
+    /**
+     * Zusammengeführte Spans zählen mit der Anzahl der enthaltenen Queries bzw. Cache-Zugriffe.
+     */
+    private static int countOf(final Span aSpan) {
+        if (aSpan instanceof QuerySpan) {
+            return ((QuerySpan) aSpan).getNumberQueries();
+        }
+        if (aSpan instanceof CacheSpan) {
+            return ((CacheSpan) aSpan).getCount();
+        }
+        return 1;
+    }
+
+    /**
+     * Die nicht erfasste Zeit und die größte Lücke werden als weitere Metriken im selben Header wie die Gesamtzeit
+     * ausgegeben.
+     */
+    private static String totalHeaderValue(final TraceLog aTraceLog) {
+        final SpanCoverage theCoverage = aTraceLog.getCoverage();
+        if (null == theCoverage) {
+            return TOTAL_PREFIX + aTraceLog.getDuration();
+        }
+        return TOTAL_PREFIX + aTraceLog.getDuration() + ", " + UNTRACED_PREFIX + theCoverage.getUntracedTime() + ", "
+                + GAP_PREFIX + theCoverage.getLargestGapOffset() + "ms\";dur=" + theCoverage.getLargestGapDuration();
+    }
+
+    /**
+     * Ersetzt alle Zeichen, die in einem HTTP-Token nicht erlaubt sind (RFC 7230), durch {@code _}.
+     */
+    static String toToken(final String aValue) {
+        final StringBuilder theResult = new StringBuilder(aValue.length());
+        for (int i = 0; i < aValue.length(); i++) {
+            final char c = aValue.charAt(i);
+            final boolean theTokenChar = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || "!#$%&'*+-.^_`|~".indexOf(c) >= 0;
+            theResult.append(theTokenChar ? c : '_');
+        }
+        return theResult.toString();
+    }
+
+    /**
+     * Maskiert den Wert für einen Quoted-String (RFC 7230). Nicht darstellbare Zeichen werden durch {@code ?} ersetzt.
+     */
+    static String toQuotedStringContent(final String aValue) {
+        final StringBuilder theResult = new StringBuilder(aValue.length() + 8);
+        for (int i = 0; i < aValue.length(); i++) {
+            final char c = aValue.charAt(i);
+            if (c == '"' || c == '\\') {
+                theResult.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                theResult.append('?');
+            } else {
+                theResult.append(c);
+            }
+        }
+        return theResult.toString();
+    }
+
+    private static final class Aggregate {
+
+        private final String headerPrefix;
+        private long duration;
+        private int count;
+
+        Aggregate(final String aHeaderPrefix) {
+            headerPrefix = aHeaderPrefix;
+        }
+
+        void add(final long aDuration, final int aCount) {
+            duration += aDuration;
+            count += aCount;
+        }
+
+        String toHeaderValue() {
+            final StringBuilder theValue = new StringBuilder(headerPrefix.length() + 24).append(headerPrefix);
+            if (count > 1) {
+                theValue.append(" (").append(count).append("x)");
+            }
+            return theValue.append("\";dur=").append(duration).toString();
+        }
+    }
+}
@@ -16,8 +16,20 @@
 package de.thalia.boot.tracing;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import de.thalia.boot.tracing.cache.CacheSpan;
+import de.thalia.boot.tracing.database.QuerySpan;
+import de.thalia.boot.tracing.database.TransactionSpan;
+import de.thalia.boot.tracing.hystrix.HystrixSpan;
+import de.thalia.boot.tracing.mvc.MvcSpan;
+import de.thalia.boot.tracing.queue.QueueWaitSpan;
+import de.thalia.boot.tracing.resilience4j.CircuitBreakerSpan;
+import de.thalia.boot.tracing.rest.HTTPSpan;
 
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -25,21 +37,85 @@ import lombok.NoArgsConstructor;
 
 /**
  * Basisklasse für alle Zeitschlitze.
+ *
+ * Der Typ des Spans wird im JSON mitgeschrieben, damit die Trace-Logs aufgerufener Services inklusive ihrer eigenen
+ * {@link HTTPSpan}s wieder eingelesen werden können. Spans ohne Typ (ältere Versionen) werden als einfacher Span gelesen.
  */
 @JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type", defaultImpl = Span.class)
+@JsonSubTypes({ @JsonSubTypes.Type(value = QuerySpan.class, name = "query"), @JsonSubTypes.Type(value = HTTPSpan.class, name = "http"),
+        @JsonSubTypes.Type(value = HystrixSpan.class, name = "hystrix"),
+        @JsonSubTypes.Type(value = CircuitBreakerSpan.class, name = "circuitbreaker"),
+        @JsonSubTypes.Type(value = QueueWaitSpan.class, name = "queue"),
+        @JsonSubTypes.Type(value = MvcSpan.class, name = "mvc"),
+        @JsonSubTypes.Type(value = CacheSpan.class, name = "cache"),
+        @JsonSubTypes.Type(value = TransactionSpan.class, name = "transaction") })
 @Getter
-@NoArgsConstructor(access = AccessLevel.PRIVATE)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Span {
 
     private String name;
     private long startTime;
     private long duration;
 
+    /**
+     * Der vorab aufgelöste Deskriptor, sofern die Instrumentierung einen verwendet. Er wird nicht serialisiert.
+     */
+    @JsonIgnore
+    private SpanDescriptor descriptor;
+
+    /**
+     * Die typisierten Attribute, {@code null} solange keines gesetzt wurde.
+     */
+    private SpanAttributes attributes;
+
     public Span(String aName, long aStartTime, long aDuration) {
         name = aName;
         startTime = aStartTime;
         duration = aDuration;
     }
+
+    public Span(SpanDescriptor aDescriptor, long aStartTime, long aDuration) {
+        this(aDescriptor.getName(), aStartTime, aDuration);
+        descriptor = aDescriptor;
+    }
+
+    public void setAttribute(final AttributeKey aKey, final long aValue) {
+        attributes().put(aKey, aValue);
+    }
+
+    public void setAttribute(final AttributeKey aKey, final double aValue) {
+        attributes().put(aKey, aValue);
+    }
+
+    public void setAttribute(final AttributeKey aKey, final boolean aValue) {
+        attributes().put(aKey, aValue);
+    }
+
+    public void setAttribute(final AttributeKey aKey, final String aValue) {
+        attributes().put(aKey, aValue);
+    }
+
+    void setAttributes(final SpanAttributes aAttributes) {
+        attributes = aAttributes;
+    }
+
+    private SpanAttributes attributes() {
+        if (null == attributes) {
+            attributes = new SpanAttributes();
+        }
+        return attributes;
+    }
+
+    /**
+     * Verschiebt den Span zeitlich, z.B. um den Uhrenversatz eines aufgerufenen Services auszugleichen.
+     *
+     * @param aOffset
+     *            der Versatz in Millisekunden
+     */
+    public void shiftTime(final long aOffset) {
+        startTime += aOffset;
+    }
 }
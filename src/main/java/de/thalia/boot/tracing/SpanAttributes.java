@@ -0,0 +1,246 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import de.thalia.boot.tracing.AttributeKey.Type;
+
+/**
+ * Typisierte Attribute eines {@link Span}s, z.B. Anzahl der Treffer, Größe einer Antwort oder ob ein Wert aus dem Cache kam.
+ *
+ * Die Werte liegen ohne Boxing in einem {@code long}-Array: Ganzzahlen direkt, Gleitkommazahlen als Bitmuster, Wahrheitswerte
+ * als {@code 0} bzw. {@code 1}. Nur für Zeichenketten wird bei Bedarf ein zweites Array angelegt. Die Schlüssel werden über
+ * ihre Identität verglichen; bei den wenigen Attributen eines Spans ist die lineare Suche schneller als eine Map. Exporter
+ * lesen die Attribute über {@link #size()}, {@link #keyAt(int)} und die typisierten {@code ...At(int)}-Methoden.
+ *
+ * Im JSON werden die Attribute als Objekt mit den Namen der Schlüssel geschrieben.
+ */
+@JsonSerialize(using = SpanAttributes.Serializer.class)
+@JsonDeserialize(using = SpanAttributes.Deserializer.class)
+public final class SpanAttributes {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private AttributeKey[] keys = new AttributeKey[INITIAL_CAPACITY];
+    private long[] values = new long[INITIAL_CAPACITY];
+    private String[] strings;
+    private int size;
+
+    public void put(final AttributeKey aKey, final long aValue) {
+        if (Type.DOUBLE == aKey.getType()) {
+            put(aKey, (double) aValue);
+            return;
+        }
+        set(checked(aKey, Type.LONG), aValue, null);
+    }
+
+    public void put(final AttributeKey aKey, final double aValue) {
+        set(checked(aKey, Type.DOUBLE), Double.doubleToRawLongBits(aValue), null);
+    }
+
+    public void put(final AttributeKey aKey, final boolean aValue) {
+        set(checked(aKey, Type.BOOLEAN), aValue ? 1 : 0, null);
+    }
+
+    /**
+     * Setzt ein Attribut vom Typ {@link Type#STRING}. {@code null} wird ignoriert.
+     */
+    public void put(final AttributeKey aKey, final String aValue) {
+        if (null != aValue) {
+            set(checked(aKey, Type.STRING), 0, aValue);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return 0 == size;
+    }
+
+    public AttributeKey keyAt(final int aIndex) {
+        return keys[checkIndex(aIndex)];
+    }
+
+    public long longAt(final int aIndex) {
+        return values[checkIndex(aIndex)];
+    }
+
+    public double doubleAt(final int aIndex) {
+        return Double.longBitsToDouble(values[checkIndex(aIndex)]);
+    }
+
+    public boolean booleanAt(final int aIndex) {
+        return 0 != values[checkIndex(aIndex)];
+    }
+
+    public String stringAt(final int aIndex) {
+        return null == strings ? null : strings[checkIndex(aIndex)];
+    }
+
+    public boolean contains(final AttributeKey aKey) {
+        return indexOf(aKey) >= 0;
+    }
+
+    public long getLong(final AttributeKey aKey, final long aDefault) {
+        final int theIndex = indexOf(aKey);
+        return theIndex < 0 ? aDefault : values[theIndex];
+    }
+
+    public double getDouble(final AttributeKey aKey, final double aDefault) {
+        final int theIndex = indexOf(aKey);
+        return theIndex < 0 ? aDefault : Double.longBitsToDouble(values[theIndex]);
+    }
+
+    public boolean getBoolean(final AttributeKey aKey, final boolean aDefault) {
+        final int theIndex = indexOf(aKey);
+        return theIndex < 0 ? aDefault : 0 != values[theIndex];
+    }
+
+    public String getString(final AttributeKey aKey) {
+        final int theIndex = indexOf(aKey);
+        return theIndex < 0 ? null : strings[theIndex];
+    }
+
+    private static AttributeKey checked(final AttributeKey aKey, final Type aType) {
+        if (aKey.getType() != aType) {
+            throw new IllegalArgumentException("Das Attribut " + aKey.getName() + " hat den Typ " + aKey.getType());
+        }
+        return aKey;
+    }
+
+    private int checkIndex(final int aIndex) {
+        if (aIndex < 0 || aIndex >= size) {
+            throw new IndexOutOfBoundsException("Index " + aIndex + ", Anzahl " + size);
+        }
+        return aIndex;
+    }
+
+    private int indexOf(final AttributeKey aKey) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == aKey) {
+                return i;
+            }
+        }
+        // Gelesene Attribute tragen nicht registrierte Schlüssel, siehe AttributeKey#forValue
+        for (int i = 0; i < size; i++) {
+            if (keys[i].getType() == aKey.getType() && keys[i].getName().equals(aKey.getName())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void set(final AttributeKey aKey, final long aValue, final String aString) {
+        int theIndex = indexOf(aKey);
+        if (theIndex < 0) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+                if (null != strings) {
+                    strings = Arrays.copyOf(strings, size * 2);
+                }
+            }
+            theIndex = size++;
+            keys[theIndex] = aKey;
+        }
+        values[theIndex] = aValue;
+        if (null != aString) {
+            if (null == strings) {
+                strings = new String[keys.length];
+            }
+            strings[theIndex] = aString;
+        }
+    }
+
+    static class Serializer extends JsonSerializer<SpanAttributes> {
+
+        @Override
+        public void serialize(final SpanAttributes aAttributes, final JsonGenerator aGenerator,
+                final SerializerProvider aProvider) throws IOException {
+            aGenerator.writeStartObject();
+            for (int i = 0; i < aAttributes.size; i++) {
+                aGenerator.writeFieldName(aAttributes.keys[i].getName());
+                switch (aAttributes.keys[i].getType()) {
+                case LONG:
+                    aGenerator.writeNumber(aAttributes.longAt(i));
+                    break;
+                case DOUBLE:
+                    aGenerator.writeNumber(aAttributes.doubleAt(i));
+                    break;
+                case BOOLEAN:
+                    aGenerator.writeBoolean(aAttributes.booleanAt(i));
+                    break;
+                default:
+                    aGenerator.writeString(aAttributes.stringAt(i));
+                }
+            }
+            aGenerator.writeEndObject();
+        }
+
+        @Override
+        public boolean isEmpty(final SerializerProvider aProvider, final SpanAttributes aAttributes) {
+            return aAttributes.isEmpty();
+        }
+    }
+
+    static class Deserializer extends JsonDeserializer<SpanAttributes> {
+
+        @Override
+        public SpanAttributes deserialize(final JsonParser aParser, final DeserializationContext aContext) throws IOException {
+            final SpanAttributes theAttributes = new SpanAttributes();
+            if (aParser.getCurrentToken() != JsonToken.START_OBJECT) {
+                aParser.skipChildren();
+                return theAttributes;
+            }
+            while (aParser.nextToken() == JsonToken.FIELD_NAME) {
+                final String theName = aParser.getCurrentName();
+                switch (aParser.nextToken()) {
+                case VALUE_NUMBER_INT:
+                    theAttributes.put(AttributeKey.forValue(theName, Type.LONG), aParser.getLongValue());
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    theAttributes.put(AttributeKey.forValue(theName, Type.DOUBLE), aParser.getDoubleValue());
+                    break;
+                case VALUE_TRUE:
+                case VALUE_FALSE:
+                    theAttributes.put(AttributeKey.forValue(theName, Type.BOOLEAN), aParser.getBooleanValue());
+                    break;
+                case VALUE_STRING:
+                    theAttributes.put(AttributeKey.forValue(theName, Type.STRING), aParser.getText());
+                    break;
+                default:
+                    // Unbekannte Werte (Objekte, Arrays, null) werden übersprungen
+                    aParser.skipChildren();
+                }
+            }
+            return theAttributes;
+        }
+    }
+}
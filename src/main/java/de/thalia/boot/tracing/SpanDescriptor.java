@@ -0,0 +1,56 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing;
+
+import lombok.Getter;
+
+/**
+ * Die unveränderlichen Angaben zu einem Span-Namen: Name, Typ, Kategorie für die Aufschlüsselung und die bereits maskierte
+ * Form für den {@code Server-Timing}-Header.
+ *
+ * Instanzen werden über {@link SpanDescriptors#of(Class, String)} bezogen und einmal je Command, annotierter Methode oder
+ * Client-Bean aufgelöst, so dass die Instrumentierungen nicht bei jedem Aufruf Strings zusammenbauen müssen.
+ */
+@Getter
+public final class SpanDescriptor {
+
+    private final String type;
+    private final String name;
+
+    /**
+     * {@code <typ>.<name>}, z.B. {@code hystrix.Pool#Command}.
+     */
+    private final String category;
+
+    /**
+     * Der Anfang des Header-Werts bis einschließlich des maskierten Beschreibungstexts, z.B.
+     * {@code hystrix.Pool#Command;desc="Pool#Command}.
+     */
+    private final String serverTimingPrefix;
+
+    SpanDescriptor(final String aType, final String aName) {
+        type = aType;
+        name = aName;
+        category = aType + "." + aName;
+        serverTimingPrefix = aType + "." + ServerTimingHeaderWriter.toToken(aName) + ";desc=\""
+                + ServerTimingHeaderWriter.toQuotedStringContent(aName);
+    }
+
+    @Override
+    public String toString() {
+        return category;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.thalia.boot.tracing.cache.CacheSpan;
+import de.thalia.boot.tracing.database.QuerySpan;
+import de.thalia.boot.tracing.database.TransactionSpan;
+import de.thalia.boot.tracing.hystrix.HystrixSpan;
+import de.thalia.boot.tracing.mvc.MvcSpan;
+import de.thalia.boot.tracing.queue.QueueWaitSpan;
+import de.thalia.boot.tracing.resilience4j.CircuitBreakerSpan;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+
+/**
+ * Registry der {@link SpanDescriptor}s. Je Span-Typ und Name gibt es genau eine Instanz, solange die Registry nicht voll ist.
+ */
+public final class SpanDescriptors {
+
+    /**
+     * Typ für alle Spans ohne eigenen Eintrag, z.B. selbst definierte Spans einer Anwendung.
+     */
+    public static final String DEFAULT_TYPE = "span";
+
+    /**
+     * Obergrenze je Span-Typ, damit z.B. dynamisch erzeugte Span-Namen den Speicher nicht fluten.
+     */
+    static final int MAX_DESCRIPTORS_PER_TYPE = 1024;
+
+    private static final Map<Class<?>, String> TYPES = new HashMap<>();
+    private static final Map<Class<?>, Map<String, SpanDescriptor>> DESCRIPTORS = new ConcurrentHashMap<>();
+
+    static {
+        TYPES.put(QuerySpan.class, "db");
+        TYPES.put(HTTPSpan.class, "http");
+        TYPES.put(HystrixSpan.class, "hystrix");
+        TYPES.put(CircuitBreakerSpan.class, "cb");
+        TYPES.put(QueueWaitSpan.class, "queue");
+        TYPES.put(MvcSpan.class, "mvc");
+        TYPES.put(CacheSpan.class, "cache");
+        TYPES.put(TransactionSpan.class, "tx");
+    }
+
+    private SpanDescriptors() {
+    }
+
+    /**
+     * Liefert den Typ eines Spans, wie er im {@code Server-Timing}-Header und in der Aufschlüsselung verwendet wird.
+     *
+     * @param aSpanType
+     *            die Klasse des Spans
+     * @return der Typ, z.B. {@code db} oder {@code http}
+     */
+    public static String typeOf(final Class<? extends Span> aSpanType) {
+        return TYPES.getOrDefault(aSpanType, DEFAULT_TYPE);
+    }
+
+    /**
+     * Liefert den Deskriptor für einen Span-Namen. Ist die Registry für den Typ voll, wird ein neuer, nicht gespeicherter
+     * Deskriptor geliefert.
+     *
+     * @param aSpanType
+     *            die Klasse des Spans
+     * @param aName
+     *            der Name des Spans
+     * @return der Deskriptor
+     */
+    public static SpanDescriptor of(final Class<? extends Span> aSpanType, final String aName) {
+        final String theName = String.valueOf(aName);
+        Map<String, SpanDescriptor> theDescriptors = DESCRIPTORS.get(aSpanType);
+        if (null == theDescriptors) {
+            theDescriptors = DESCRIPTORS.computeIfAbsent(aSpanType, k -> new ConcurrentHashMap<>());
+        }
+        final SpanDescriptor theDescriptor = theDescriptors.get(theName);
+        if (null != theDescriptor) {
+            return theDescriptor;
+        }
+        final SpanDescriptor theNewDescriptor = new SpanDescriptor(typeOf(aSpanType), theName);
+        if (theDescriptors.size() < MAX_DESCRIPTORS_PER_TYPE) {
+            final SpanDescriptor theExisting = theDescriptors.putIfAbsent(theName, theNewDescriptor);
+            return null == theExisting ? theNewDescriptor : theExisting;
+        }
+        return theNewDescriptor;
+    }
+
+    /**
+     * Liefert den Deskriptor eines Spans. Spans, die ohne Deskriptor erzeugt oder aus JSON gelesen wurden, werden über
+     * ihren Namen nachgeschlagen.
+     *
+     * @param aSpan
+     *            der Span
+     * @return der Deskriptor
+     */
+    public static SpanDescriptor of(final Span aSpan) {
+        final SpanDescriptor theDescriptor = aSpan.getDescriptor();
+        return null != theDescriptor ? theDescriptor : of(aSpan.getClass(), aSpan.getName());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ein laufender, programmatisch gestarteter Span, siehe {@link Tracer#startSpan(SpanDescriptor)}. Beim Schließen wird der Span mit
+ * der bis dahin vergangenen Zeit in die Liste der Spans des Requests eingefügt. Gedacht für try-with-resources:
+ *
+ * <pre>
+ * try (SpanScope theScope = tracer.startSpan(RANKING)) {
+ *     final List&lt;Product&gt; theRanked = rank(theProducts);
+ *     theScope.setAttribute(RESULTS, theRanked.size());
+ *     return theRanked;
+ * }
+ * </pre>
+ *
+ * Ein Scope gehört zu dem Thread, in dem er gestartet wurde, und wird nur einmal geschlossen; weitere Aufrufe von
+ * {@link #close()} werden ignoriert.
+ */
+public final class SpanScope implements AutoCloseable {
+
+    /**
+     * Der Scope außerhalb eines Requests. Er erfasst nichts und wird für alle Aufrufe wiederverwendet.
+     */
+    static final SpanScope NOOP = new SpanScope(null, null, 0, 0);
+
+    private final Tracer tracer;
+    private final SpanDescriptor descriptor;
+    private final long startTime;
+    private final long startNanos;
+    private SpanAttributes attributes;
+    private boolean closed;
+
+    SpanScope(final Tracer aTracer, final SpanDescriptor aDescriptor, final long aStartTime, final long aStartNanos) {
+        tracer = aTracer;
+        descriptor = aDescriptor;
+        startTime = aStartTime;
+        startNanos = aStartNanos;
+    }
+
+    public void setAttribute(final AttributeKey aKey, final long aValue) {
+        if (null != tracer) {
+            attributes().put(aKey, aValue);
+        }
+    }
+
+    public void setAttribute(final AttributeKey aKey, final double aValue) {
+        if (null != tracer) {
+            attributes().put(aKey, aValue);
+        }
+    }
+
+    public void setAttribute(final AttributeKey aKey, final boolean aValue) {
+        if (null != tracer) {
+            attributes().put(aKey, aValue);
+        }
+    }
+
+    public void setAttribute(final AttributeKey aKey, final String aValue) {
+        if (null != tracer) {
+            attributes().put(aKey, aValue);
+        }
+    }
+
+    private SpanAttributes attributes() {
+        if (null == attributes) {
+            attributes = new SpanAttributes();
+        }
+        return attributes;
+    }
+
+    /**
+     * Beendet den Span.
+     */
+    @Override
+    public void close() {
+        if (null == tracer || closed) {
+            return;
+        }
+        final long theDuration = System.nanoTime() - startNanos;
+        closed = true;
+        final long theOverheadCpuStart = tracer.overheadCpuStart();
+        final long theOverheadAllocationStart = tracer.overheadAllocationStart();
+        final Span theSpan = new Span(descriptor, startTime, TimeUnit.NANOSECONDS.toMillis(theDuration));
+        theSpan.setAttributes(attributes);
+        tracer.addToLog(theSpan);
+        tracer.recordOverhead(theOverheadCpuStart, theOverheadAllocationStart);
+    }
+}
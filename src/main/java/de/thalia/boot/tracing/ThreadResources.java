@@ -0,0 +1,73 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Zugriff auf die CPU-Zeit und die allokierten Bytes des aktuellen Threads. Die Unterstützung durch die JVM wird einmalig
+ * geprüft; wird eine Messung nicht unterstützt, liefern die Methoden {@code -1}.
+ */
+@Slf4j
+public final class ThreadResources {
+
+    private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+
+    public static final boolean CPU_TIME_SUPPORTED = isCpuTimeSupported();
+    public static final boolean ALLOCATION_SUPPORTED = isAllocationSupported();
+
+    private ThreadResources() {
+    }
+
+    /**
+     * @return die CPU-Zeit des aktuellen Threads in Nanosekunden oder {@code -1}
+     */
+    public static long currentThreadCpuTime() {
+        return CPU_TIME_SUPPORTED ? THREAD_BEAN.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * @return die bisher vom aktuellen Thread allokierten Bytes oder {@code -1}
+     */
+    public static long currentThreadAllocatedBytes() {
+        return ALLOCATION_SUPPORTED
+                ? ((com.sun.management.ThreadMXBean) THREAD_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId())
+                : -1;
+    }
+
+    private static boolean isCpuTimeSupported() {
+        try {
+            return THREAD_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_BEAN.isThreadCpuTimeEnabled();
+        } catch (final UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    private static boolean isAllocationSupported() {
+        try {
+            if (THREAD_BEAN instanceof com.sun.management.ThreadMXBean) {
+                final com.sun.management.ThreadMXBean theBean = (com.sun.management.ThreadMXBean) THREAD_BEAN;
+                return theBean.isThreadAllocatedMemorySupported() && theBean.isThreadAllocatedMemoryEnabled();
+            }
+        } catch (final LinkageError | UnsupportedOperationException e) {
+            log.debug("Allokierte Bytes je Thread können auf dieser JVM nicht ermittelt werden", e);
+        }
+        return false;
+    }
+}
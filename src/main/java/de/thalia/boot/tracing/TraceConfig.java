@@ -15,37 +15,81 @@
  */
 package de.thalia.boot.tracing;
 
+import java.io.IOException;
 import java.net.InetAddress;
+import java.net.URL;
 import java.net.UnknownHostException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 
+import org.apache.catalina.startup.Tomcat;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 
 import com.netflix.hystrix.Hystrix;
 import com.netflix.hystrix.strategy.HystrixPlugins;
 
+import de.thalia.boot.tracing.cache.CacheManagerWrappingBeanPostProcessor;
 import de.thalia.boot.tracing.database.DatasourceWrappingBeanPostProcessor;
+import de.thalia.boot.tracing.export.BatchingTraceExporter;
+import de.thalia.boot.tracing.export.OtlpTraceExporter;
+import de.thalia.boot.tracing.export.ZipkinTraceExporter;
+import de.thalia.boot.tracing.gc.GcPauseRecorder;
 import de.thalia.boot.tracing.hystrix.HystrixRequestContextFilter;
+import de.thalia.boot.tracing.mvc.MvcPhaseInterceptor;
+import de.thalia.boot.tracing.mvc.MvcTracingConfigurer;
+import de.thalia.boot.tracing.mvc.TracingRequestMappingHandlerAdapter;
+import de.thalia.boot.tracing.queue.HeaderRequestStartResolver;
+import de.thalia.boot.tracing.queue.RequestStartResolver;
+import de.thalia.boot.tracing.queue.TomcatRequestStartValve;
+import de.thalia.boot.tracing.render.TraceRenderEndpoint;
+import de.thalia.boot.tracing.resilience4j.BulkheadModule;
 import de.thalia.boot.tracing.resilience4j.CircuitBreakerSpanAspect;
+import de.thalia.boot.tracing.resilience4j.RateLimiterModule;
+import de.thalia.boot.tracing.resilience4j.Resilience4JModule;
+import de.thalia.boot.tracing.resilience4j.RetryModule;
 import de.thalia.boot.tracing.rest.TraceRestTemplateCustomizer;
+import de.thalia.boot.tracing.statistics.BatchSizeEndpoint;
+import de.thalia.boot.tracing.statistics.BatchSizeHistogram;
+import de.thalia.boot.tracing.statistics.DependencyBreakdownAggregator;
+import de.thalia.boot.tracing.statistics.DependencyBreakdownEndpoint;
+import de.thalia.boot.tracing.statistics.PatternStatistics;
+import de.thalia.boot.tracing.statistics.TracingStatisticsEndpoint;
+import de.thalia.boot.tracing.store.TraceStore;
+import de.thalia.boot.tracing.store.TraceStoreEndpoint;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
 import lombok.AllArgsConstructor;
 
 @ConditionalOnWebApplication
+@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true", matchIfMissing = true)
 @Configuration
 public class TraceConfig {
 
     @Bean
-    public Tracer tracer() {
-        return new Tracer();
+    public Tracer tracer(@Value("${tracing.self-measurement.enabled:false}") final boolean measureOverhead) {
+        return new Tracer(measureOverhead);
     }
 
     @Bean
@@ -53,16 +97,204 @@ public class TraceConfig {
         return new TraceRestTemplateCustomizer(aTracer);
     }
 
+    @Bean
+    @ConditionalOnProperty(name = "tracing.traced.enabled", havingValue = "true", matchIfMissing = true)
+    public TracedAspect tracedAspect(final Tracer aTracer) {
+        return new TracedAspect(aTracer);
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public MetricExporter metricsExporter() {
         return new DefaultMetricExporter();
     }
 
+    @Bean
+    public ServerTimingHeaderWriter serverTimingHeaderWriter(
+            @Value("${tracing.server-timing.max-entries:" + ServerTimingHeaderWriter.DEFAULT_MAX_ENTRIES + "}") final int maxEntries) {
+        return new ServerTimingHeaderWriter(maxEntries);
+    }
+
+    @Bean
+    public PatternStatistics patternStatistics(
+            @Value("${tracing.statistics.max-patterns:" + PatternStatistics.DEFAULT_MAX_PATTERNS + "}") final int maxPatterns) {
+        return new PatternStatistics(maxPatterns);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TracingStatisticsEndpoint tracingStatisticsEndpoint(final PatternStatistics aPatternStatistics) {
+        return new TracingStatisticsEndpoint(aPatternStatistics);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TraceRenderEndpoint traceRenderEndpoint(final ObjectProvider<TraceStore> aStore) {
+        return new TraceRenderEndpoint(aStore.getIfAvailable());
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "tracing.breakdown.enabled", havingValue = "true", matchIfMissing = true)
+    static class DependencyBreakdownConfiguration {
+
+        @Bean
+        public DependencyBreakdownAggregator dependencyBreakdownAggregator(
+                @Value("${tracing.statistics.max-patterns:" + PatternStatistics.DEFAULT_MAX_PATTERNS + "}") final int maxPatterns,
+                @Value("${tracing.breakdown.max-categories:" + DependencyBreakdownAggregator.DEFAULT_MAX_CATEGORIES + "}") final int maxCategories) {
+            return new DependencyBreakdownAggregator(maxPatterns, maxCategories);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public DependencyBreakdownEndpoint dependencyBreakdownEndpoint(final DependencyBreakdownAggregator aAggregator) {
+            return new DependencyBreakdownEndpoint(aAggregator);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "tracing.store.enabled", havingValue = "true")
+    static class TraceStoreConfiguration {
+
+        @Bean
+        public TraceStore traceStore(@Value("${tracing.store.directory:${java.io.tmpdir}/trace-store}") final String directory,
+                @Value("${tracing.store.segment-size-mb:" + TraceStore.DEFAULT_SEGMENT_SIZE_MB + "}") final int segmentSizeMb,
+                @Value("${tracing.store.max-size-mb:" + TraceStore.DEFAULT_MAX_SIZE_MB + "}") final int maxSizeMb,
+                @Value("${tracing.store.min-duration:" + TraceStore.DEFAULT_MIN_DURATION + "}") final long minDuration,
+                @Value("${tracing.store.queue-capacity:" + TraceStore.DEFAULT_QUEUE_CAPACITY + "}") final int queueCapacity)
+                throws IOException {
+            if (segmentSizeMb < 1 || segmentSizeMb > TraceStore.MAX_SEGMENT_SIZE_MB) {
+                throw new IllegalArgumentException("tracing.store.segment-size-mb muss zwischen 1 und "
+                        + TraceStore.MAX_SEGMENT_SIZE_MB + " liegen, ist aber " + segmentSizeMb);
+            }
+            final TraceStore store = new TraceStore(Paths.get(directory), segmentSizeMb * 1024 * 1024, maxSizeMb * 1024L * 1024,
+                    minDuration, queueCapacity);
+            store.start();
+            return store;
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public TraceStoreEndpoint traceStoreEndpoint(final TraceStore aStore) {
+            return new TraceStoreEndpoint(aStore);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "tracing.export.otlp.enabled", havingValue = "true")
+    static class OtlpExportConfiguration {
+
+        @Bean
+        public OtlpTraceExporter otlpTraceExporter(
+                @Value("${tracing.export.otlp.endpoint:" + OtlpTraceExporter.DEFAULT_ENDPOINT + "}") final URL endpoint,
+                @Value("${tracing.export.queue-capacity:" + BatchingTraceExporter.DEFAULT_QUEUE_CAPACITY + "}") final int queueCapacity,
+                @Value("${tracing.export.batch-size:" + BatchingTraceExporter.DEFAULT_BATCH_SIZE + "}") final int batchSize,
+                @Value("${tracing.export.flush-interval:" + BatchingTraceExporter.DEFAULT_FLUSH_INTERVAL + "}") final long flushInterval) {
+            final OtlpTraceExporter exporter = new OtlpTraceExporter(endpoint, queueCapacity, batchSize, flushInterval);
+            exporter.start();
+            return exporter;
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "tracing.export.zipkin.enabled", havingValue = "true")
+    static class ZipkinExportConfiguration {
+
+        @Bean
+        public ZipkinTraceExporter zipkinTraceExporter(
+                @Value("${tracing.export.zipkin.endpoint:" + ZipkinTraceExporter.DEFAULT_ENDPOINT + "}") final URL endpoint,
+                @Value("${tracing.export.queue-capacity:" + BatchingTraceExporter.DEFAULT_QUEUE_CAPACITY + "}") final int queueCapacity,
+                @Value("${tracing.export.batch-size:" + BatchingTraceExporter.DEFAULT_BATCH_SIZE + "}") final int batchSize,
+                @Value("${tracing.export.flush-interval:" + BatchingTraceExporter.DEFAULT_FLUSH_INTERVAL + "}") final long flushInterval) {
+            final ZipkinTraceExporter exporter = new ZipkinTraceExporter(endpoint, queueCapacity, batchSize, flushInterval);
+            exporter.start();
+            return exporter;
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "com.sun.management.GarbageCollectionNotificationInfo")
+    @ConditionalOnProperty(name = "tracing.gc.enabled", havingValue = "true", matchIfMissing = true)
+    static class GcPauseConfiguration {
+
+        @Bean
+        public GcPauseRecorder gcPauseRecorder() {
+            final GcPauseRecorder recorder = new GcPauseRecorder(GcPauseRecorder.DEFAULT_CAPACITY);
+            recorder.start();
+            return recorder;
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "tracing.request-start.source", havingValue = "header")
+    static class HeaderRequestStartConfiguration {
+
+        @Bean
+        public HeaderRequestStartResolver headerRequestStartResolver(@Value("${tracing.request-start.headers:"
+                + HeaderRequestStartResolver.REQUEST_START_HEADER + "," + HeaderRequestStartResolver.QUEUE_START_HEADER
+                + "}") final List<String> headerNames) {
+            return new HeaderRequestStartResolver(headerNames);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass(Tomcat.class)
+    @ConditionalOnProperty(name = "tracing.request-start.source", havingValue = "tomcat")
+    static class TomcatRequestStartConfiguration {
+
+        @Bean
+        public TomcatRequestStartValve tomcatRequestStartValve() {
+            return new TomcatRequestStartValve();
+        }
+
+        @Bean
+        public WebServerFactoryCustomizer<TomcatServletWebServerFactory> tomcatRequestStartCustomizer(
+                final TomcatRequestStartValve aValve) {
+            return aFactory -> aFactory.addEngineValves(aValve);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass(WebMvcConfigurer.class)
+    @ConditionalOnProperty(name = "tracing.mvc.enabled", havingValue = "true")
+    static class MvcTracingConfiguration {
+
+        @Bean
+        public MvcPhaseInterceptor mvcPhaseInterceptor(final Tracer tracer) {
+            return new MvcPhaseInterceptor(tracer);
+        }
+
+        @Bean
+        public MvcTracingConfigurer mvcTracingConfigurer(final MvcPhaseInterceptor interceptor) {
+            return new MvcTracingConfigurer(interceptor);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean(WebMvcRegistrations.class)
+        public WebMvcRegistrations mvcTracingRegistrations(final Tracer tracer, final MvcPhaseInterceptor interceptor) {
+            return new WebMvcRegistrations() {
+
+                @Override
+                public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+                    return new TracingRequestMappingHandlerAdapter(tracer, interceptor);
+                }
+            };
+        }
+    }
+
     @Bean
     public TraceOutputFilter traceOutputFilter(@Value("${spring.application.name}") final String applicationName, final Tracer aTracer,
-            final MetricExporter aExporter) throws UnknownHostException {
-        return new TraceOutputFilter(aTracer, aExporter, applicationName, InetAddress.getLocalHost().getHostName());
+            final ObjectProvider<MetricExporter> aExporters, final ServerTimingHeaderWriter aServerTimingHeaderWriter,
+            final PatternStatistics aPatternStatistics, final ObjectProvider<GcPauseRecorder> aGcPauseRecorder,
+            final ObjectProvider<RequestStartResolver> aRequestStartResolver,
+            final ObjectProvider<DependencyBreakdownAggregator> aDependencyBreakdownAggregator,
+            @Value("${tracing.request-start.max-wait:" + TraceOutputFilter.DEFAULT_MAX_QUEUE_WAIT + "}") final long aMaxQueueWait,
+            final ObjectProvider<TraceLogExporter> aTraceLogExporters)
+            throws UnknownHostException {
+        return new TraceOutputFilter(aTracer, aExporters.orderedStream().collect(Collectors.toList()), applicationName,
+                InetAddress.getLocalHost().getHostName(), aServerTimingHeaderWriter, aPatternStatistics,
+                aGcPauseRecorder.getIfAvailable(), aRequestStartResolver.getIfAvailable(),
+                aDependencyBreakdownAggregator.getIfAvailable(), aMaxQueueWait,
+                aTraceLogExporters.orderedStream().collect(Collectors.toList()));
     }
 
     @ConditionalOnClass(Hystrix.class)
@@ -92,8 +324,30 @@ public class TraceConfig {
     static class DatasourceTracingInitializer {
 
         @Bean
-        public DatasourceWrappingBeanPostProcessor erzeugeDatasourceWrappingBeanPostProcessor(final Tracer tracer) {
-            return new DatasourceWrappingBeanPostProcessor(tracer);
+        public BatchSizeHistogram batchSizeHistogram() {
+            return new BatchSizeHistogram();
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public BatchSizeEndpoint batchSizeEndpoint(final BatchSizeHistogram aHistogram) {
+            return new BatchSizeEndpoint(aHistogram);
+        }
+
+        @Bean
+        public DatasourceWrappingBeanPostProcessor erzeugeDatasourceWrappingBeanPostProcessor(final Tracer tracer,
+                final BatchSizeHistogram batchSizeHistogram) {
+            return new DatasourceWrappingBeanPostProcessor(tracer, batchSizeHistogram);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "tracing.cache.enabled", havingValue = "true")
+    static class CacheTracingInitializer {
+
+        @Bean
+        public CacheManagerWrappingBeanPostProcessor cacheManagerWrappingBeanPostProcessor(final Tracer tracer) {
+            return new CacheManagerWrappingBeanPostProcessor(tracer);
         }
     }
 
@@ -103,8 +357,42 @@ public class TraceConfig {
     static class Resilience4JConfiguration {
 
         @Bean
-        public CircuitBreakerSpanAspect circuitBreakerSpanAspect(Tracer tracer) {
-            return new CircuitBreakerSpanAspect(tracer);
+        public CircuitBreakerSpanAspect circuitBreakerSpanAspect(Tracer tracer,
+                ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistry, ObjectProvider<Resilience4JModule> modules) {
+            return new CircuitBreakerSpanAspect(tracer, circuitBreakerRegistry.getIfAvailable(),
+                    modules.orderedStream().collect(Collectors.toList()));
+        }
+
+        // Die optionalen Module liegen in eigenen Konfigurationen, damit nur resilience4j-circuitbreaker vorausgesetzt wird
+
+        @ConditionalOnClass(Retry.class)
+        @Configuration
+        static class RetryModuleConfiguration {
+
+            @Bean
+            public RetryModule retryModule(ObjectProvider<RetryRegistry> retryRegistry) {
+                return new RetryModule(retryRegistry.getIfAvailable());
+            }
+        }
+
+        @ConditionalOnClass(RateLimiter.class)
+        @Configuration
+        static class RateLimiterModuleConfiguration {
+
+            @Bean
+            public RateLimiterModule rateLimiterModule(ObjectProvider<RateLimiterRegistry> rateLimiterRegistry) {
+                return new RateLimiterModule(rateLimiterRegistry.getIfAvailable());
+            }
+        }
+
+        @ConditionalOnClass(Bulkhead.class)
+        @Configuration
+        static class BulkheadModuleConfiguration {
+
+            @Bean
+            public BulkheadModule bulkheadModule(ObjectProvider<BulkheadRegistry> bulkheadRegistry) {
+                return new BulkheadModule(bulkheadRegistry.getIfAvailable());
+            }
         }
     }
 
@@ -23,9 +23,14 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import de.thalia.boot.tracing.analysis.ConcurrencyAnalysis;
+import de.thalia.boot.tracing.analysis.CriticalPath;
+import de.thalia.boot.tracing.analysis.SpanCoverage;
+import de.thalia.boot.tracing.rest.ClockSkew;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 /**
  * Das Tracelog ist die Sammlung aller Zeitschlitze, welche bei einem Aufruf des
@@ -50,6 +55,56 @@ public class TraceLog {
     private long duration;
     private List<Span> spans;
 
+    /**
+     * Der kritische Pfad des Aufrufs über alle eingebundenen Trace-Logs hinweg. Wird nur für das Trace-Log des aktuellen
+     * Services berechnet.
+     */
+    @Setter
+    private CriticalPath criticalPath;
+
+    /**
+     * Die Abdeckung des Aufrufs durch Spans und die größte nicht erfasste Lücke.
+     */
+    @Setter
+    private SpanCoverage coverage;
+
+    /**
+     * Die Nebenläufigkeit der Spans des Aufrufs.
+     */
+    @Setter
+    private ConcurrencyAnalysis concurrency;
+
+    /**
+     * Der geschätzte Uhrenversatz, wenn dieses Trace-Log von einem aufgerufenen Service stammt.
+     */
+    @Setter
+    private ClockSkew clockSkew;
+
+    /**
+     * Die CPU-Zeit des Request-Threads während des Aufrufs in Nanosekunden, sofern die JVM dies unterstützt. Bei asynchroner
+     * Verarbeitung ist nur der Anteil des Request-Threads enthalten.
+     */
+    @Setter
+    private Long cpuNanos;
+
+    /**
+     * Die vom Request-Thread während des Aufrufs allokierten Bytes, sofern die JVM dies unterstützt.
+     */
+    @Setter
+    private Long allocatedBytes;
+
+    /**
+     * Die Dauer der GC-Pausen, die in den Aufruf fallen, in Millisekunden. Nur gesetzt, wenn die Pausen erfasst werden.
+     */
+    @Setter
+    private Long gcPauseTime;
+
+    /**
+     * Der Aufwand des Tracings selbst ("Tracing-Steuer"), sofern {@code tracing.self-measurement.enabled} gesetzt ist.
+     */
+    @Setter
+    private TracingOverhead tracingOverhead;
+
     public TraceLog(String aApplicationName, String aHostname, long aStartTime, long aDuration,
             List<Span> aSpans) {
         applicationName = aApplicationName;
@@ -59,6 +114,21 @@ public class TraceLog {
         spans = aSpans;
     }
 
+    /**
+     * Verschiebt das Trace-Log inklusive aller Spans und eingebundenen Trace-Logs zeitlich.
+     *
+     * @param aOffset
+     *            der Versatz in Millisekunden
+     */
+    public void shiftTime(final long aOffset) {
+        startTime += aOffset;
+        if (null != spans) {
+            for (final Span theSpan : spans) {
+                theSpan.shiftTime(aOffset);
+            }
+        }
+    }
+
     public String toJSON() throws JsonProcessingException {
         return MAPPER.writeValueAsString(this);
     }
@@ -0,0 +1,25 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing;
+
+/**
+ * Erhält wie ein {@link MetricExporter} jedes Trace-Log eines Requests mit bekanntem Pattern, z.B. für den Trace-Store oder
+ * den Export an einen Collector. Implementierungen werden dem {@link TraceOutputFilter} getrennt von den
+ * {@link MetricExporter}n übergeben, damit sie den Standard-Exporter nicht ersetzen.
+ */
+public interface TraceLogExporter {
+    void export(TraceLog theLog, String invokedPattern);
+}
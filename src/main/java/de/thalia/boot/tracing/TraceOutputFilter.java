@@ -16,6 +16,11 @@
 package de.thalia.boot.tracing;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
 
 import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
@@ -31,6 +36,16 @@ import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.web.util.ContentCachingResponseWrapper;
 
+import de.thalia.boot.tracing.analysis.ConcurrencyAnalysis;
+import de.thalia.boot.tracing.analysis.CriticalPathAnalyzer;
+import de.thalia.boot.tracing.analysis.SpanCoverage;
+import de.thalia.boot.tracing.cache.CacheSpan;
+import de.thalia.boot.tracing.database.TransactionSpan;
+import de.thalia.boot.tracing.gc.GcPauseRecorder;
+import de.thalia.boot.tracing.queue.QueueWaitSpan;
+import de.thalia.boot.tracing.queue.RequestStartResolver;
+import de.thalia.boot.tracing.statistics.DependencyBreakdownAggregator;
+import de.thalia.boot.tracing.statistics.PatternStatistics;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -45,19 +60,95 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class TraceOutputFilter implements Filter {
 
-    private static final String SERVER_TIMING_HEADER = "Server-Timing";
+    /**
+     * Die längste Wartezeit vor dem Filter in Millisekunden, die noch als plausibel gilt.
+     */
+    public static final long DEFAULT_MAX_QUEUE_WAIT = 60_000;
 
     private final Tracer tracer;
-    private final MetricExporter metricExporter;
+    private final List<MetricExporter> metricExporters;
     private final String applicationName;
     private final String hostName;
+    private final ServerTimingHeaderWriter serverTimingHeaderWriter;
+    private final PatternStatistics patternStatistics;
+    private final GcPauseRecorder gcPauseRecorder;
+    private final RequestStartResolver requestStartResolver;
+    private final DependencyBreakdownAggregator dependencyBreakdownAggregator;
+    private final long maxQueueWait;
+    private final List<TraceLogExporter> traceLogExporters;
+
+    /**
+     * Die Messung der CPU-Zeit und der allokierten Bytes des Threads, {@code -1} wenn die JVM sie nicht unterstützt.
+     */
+    private LongSupplier cpuTime = ThreadResources::currentThreadCpuTime;
+    private LongSupplier allocatedBytes = ThreadResources::currentThreadAllocatedBytes;
 
     public TraceOutputFilter(final Tracer aTracer,
             final MetricExporter aMetricExporter, String aApplicationName, String aHostname) {
+        this(aTracer, Collections.singletonList(aMetricExporter), aApplicationName, aHostname,
+                new ServerTimingHeaderWriter(ServerTimingHeaderWriter.DEFAULT_MAX_ENTRIES), null, null, null, null);
+    }
+
+    /**
+     * @param aMetricExporters
+     *            die Exporter, die jedes Trace-Log eines Requests mit bekanntem Pattern erhalten
+     * @param aPatternStatistics
+     *            die Statistiken je aufgerufenem Pattern, oder {@code null}, wenn keine Statistiken geführt werden
+     * @param aGcPauseRecorder
+     *            die zuletzt aufgetretenen GC-Pausen, oder {@code null}, wenn diese nicht erfasst werden
+     * @param aRequestStartResolver
+     *            die Quelle für den tatsächlichen Start des Requests, oder {@code null}, wenn der Request mit dem Filter beginnt
+     * @param aDependencyBreakdownAggregator
+     *            die Aufteilung der Laufzeit je Pattern, oder {@code null}, wenn diese nicht aggregiert wird
+     */
+    public TraceOutputFilter(final Tracer aTracer, final List<MetricExporter> aMetricExporters, String aApplicationName,
+            String aHostname, final ServerTimingHeaderWriter aServerTimingHeaderWriter,
+            final PatternStatistics aPatternStatistics, final GcPauseRecorder aGcPauseRecorder,
+            final RequestStartResolver aRequestStartResolver, final DependencyBreakdownAggregator aDependencyBreakdownAggregator) {
+        this(aTracer, aMetricExporters, aApplicationName, aHostname, aServerTimingHeaderWriter, aPatternStatistics,
+                aGcPauseRecorder, aRequestStartResolver, aDependencyBreakdownAggregator, DEFAULT_MAX_QUEUE_WAIT,
+                Collections.emptyList());
+    }
+
+    /**
+     * @param aMaxQueueWait
+     *            die längste Wartezeit vor dem Filter in Millisekunden. Ein Start des Requests, der weiter zurückliegt, gilt als
+     *            ungültig, z.B. bei einem Header in einer unbekannten Einheit, und wird ignoriert
+     * @param aTraceLogExporters
+     *            die Empfänger, die wie die {@link MetricExporter} jedes Trace-Log eines Requests mit bekanntem Pattern erhalten,
+     *            z.B. der Trace-Store
+     * @see #TraceOutputFilter(Tracer, List, String, String, ServerTimingHeaderWriter, PatternStatistics, GcPauseRecorder,
+     *      RequestStartResolver, DependencyBreakdownAggregator)
+     */
+    public TraceOutputFilter(final Tracer aTracer, final List<MetricExporter> aMetricExporters, String aApplicationName,
+            String aHostname, final ServerTimingHeaderWriter aServerTimingHeaderWriter,
+            final PatternStatistics aPatternStatistics, final GcPauseRecorder aGcPauseRecorder,
+            final RequestStartResolver aRequestStartResolver, final DependencyBreakdownAggregator aDependencyBreakdownAggregator,
+            final long aMaxQueueWait, final List<TraceLogExporter> aTraceLogExporters) {
         tracer = aTracer;
-        metricExporter = aMetricExporter;
+        metricExporters = aMetricExporters;
         applicationName = aApplicationName;
         hostName = aHostname;
+        serverTimingHeaderWriter = aServerTimingHeaderWriter;
+        patternStatistics = aPatternStatistics;
+        gcPauseRecorder = aGcPauseRecorder;
+        requestStartResolver = aRequestStartResolver;
+        dependencyBreakdownAggregator = aDependencyBreakdownAggregator;
+        maxQueueWait = aMaxQueueWait;
+        traceLogExporters = aTraceLogExporters;
+    }
+
+    /**
+     * Ersetzt die Messung der Ressourcen des Threads, z.B. um das Verhalten auf einer JVM ohne Unterstützung zu prüfen.
+     *
+     * @param aCpuTime
+     *            liefert die CPU-Zeit des aktuellen Threads in Nanosekunden oder {@code -1}
+     * @param aAllocatedBytes
+     *            liefert die bisher vom aktuellen Thread allokierten Bytes oder {@code -1}
+     */
+    void measureThreadResourcesWith(final LongSupplier aCpuTime, final LongSupplier aAllocatedBytes) {
+        cpuTime = aCpuTime;
+        allocatedBytes = aAllocatedBytes;
     }
 
     @Override
@@ -72,23 +163,61 @@ public class TraceOutputFilter implements Filter {
         // Wir müssen nur REQUESTS tracen, und keine INCLUDES oder FORWARDS
         if (DispatcherType.REQUEST == aRequest.getDispatcherType()) {
 
+            long theOverheadCpuStart = tracer.overheadCpuStart();
+            long theOverheadAllocationStart = tracer.overheadAllocationStart();
+
             // Feature Toggle Output aktiv?
             final boolean theOutputAktiv = tracer.registerFeatureToggleStatusFrom(theRequest);
 
             // Voller Trace-Lauf
-            final long theStart = System.currentTimeMillis();
+            final long theCpuStart = cpuTime.getAsLong();
+            final long theAllocationStart = allocatedBytes.getAsLong();
+            final long theFilterStart = System.currentTimeMillis();
+            final long theStart = requestStartOf(theRequest, theFilterStart);
             final HttpServletResponse theResponse = (HttpServletResponse) aResponse;
             final ContentCachingResponseWrapper theResponseWrapper = new ContentCachingResponseWrapper(theResponse);
+            if (theStart < theFilterStart) {
+                // Die Wartezeit vor dem Filter wird als eigener Span sichtbar
+                tracer.addToLog(theRequest, new QueueWaitSpan(requestStartResolver.getName(), theStart, theFilterStart - theStart));
+            }
             try {
+                tracer.recordOverhead(aRequest, theOverheadCpuStart, theOverheadAllocationStart);
                 aChain.doFilter(theRequest, theResponseWrapper);
             } finally {
+                theOverheadCpuStart = tracer.overheadCpuStart();
+                theOverheadAllocationStart = tracer.overheadAllocationStart();
 
                 final String theInvokedPattern = (String) aRequest
                         .getAttribute("org.springframework.web.servlet.HandlerMapping.bestMatchingPattern");
 
                 final long theDuration = System.currentTimeMillis() - theStart;
+                final long theCpuEnd = cpuTime.getAsLong();
+                final long theAllocationEnd = allocatedBytes.getAsLong();
+                // Die Exporter reichen das Trace-Log an eigene Threads weiter, während z.B. Hystrix-Threads noch Spans anfügen
                 final TraceLog theLog = new TraceLog(applicationName,
-                        hostName, theStart, theDuration, tracer.collectedSpansFor(aRequest));
+                        hostName, theStart, theDuration, tracer.snapshotOfSpansFor(aRequest));
+                if (theCpuStart >= 0) {
+                    theLog.setCpuNanos(theCpuEnd - theCpuStart);
+                }
+                if (theAllocationStart >= 0) {
+                    theLog.setAllocatedBytes(theAllocationEnd - theAllocationStart);
+                }
+                if (null != gcPauseRecorder) {
+                    theLog.setGcPauseTime(gcPauseRecorder.pauseTimeBetween(theStart, theStart + theDuration));
+                }
+                // Die Analysen werden nur für Ausgabe, Statistiken und Exporter berechnet
+                final boolean theStatisticsAktiv = null != patternStatistics && null != theInvokedPattern;
+                final boolean theExportAktiv = (!metricExporters.isEmpty() || !traceLogExporters.isEmpty())
+                        && null != theInvokedPattern;
+                if (theOutputAktiv || theExportAktiv) {
+                    theLog.setCriticalPath(CriticalPathAnalyzer.analyze(theLog));
+                }
+                if (theOutputAktiv || theStatisticsAktiv) {
+                    theLog.setCoverage(SpanCoverage.of(theLog));
+                    theLog.setConcurrency(ConcurrencyAnalysis.of(theLog));
+                }
+                final TracingOverhead theOverhead = tracer.overheadFor(aRequest);
+                theLog.setTracingOverhead(theOverhead);
 
                 // Das Tracing ist immer aktiv.
                 // Nur wenn jedoch das Toggle-Flag gesetzt ist, wird auch eine
@@ -96,14 +225,40 @@ public class TraceOutputFilter implements Filter {
                 if (theOutputAktiv) {
                     theResponseWrapper.addHeader(Tracer.TRACE_HEADER_NAME, theLog.toJSON());
                     // https://w3c.github.io/server-timing/#introduction
-                    writeServerTimingHeader(theLog, theResponseWrapper);
+                    serverTimingHeaderWriter.write(theLog, theResponseWrapper);
                 }
 
-                if (theInvokedPattern != null) {
-                    metricExporter.exportMetricsFor(theLog, theInvokedPattern);
+                if (theStatisticsAktiv) {
+                    recordStatistics(theInvokedPattern, theLog);
+                }
+                if (null != dependencyBreakdownAggregator && null != theInvokedPattern) {
+                    dependencyBreakdownAggregator.record(theLog, theInvokedPattern);
                 }
 
                 theResponseWrapper.copyBodyToResponse();
+
+                // Der Aufwand für Ausgabe, Auswertung und Pufferung ist erst jetzt vollständig bekannt
+                tracer.recordOverhead(aRequest, theOverheadCpuStart, theOverheadAllocationStart);
+
+                if (theInvokedPattern != null) {
+                    theOverheadCpuStart = tracer.overheadCpuStart();
+                    theOverheadAllocationStart = tracer.overheadAllocationStart();
+                    if (null != theOverhead) {
+                        // Der Aufwand wird bis zum Ende des Requests weiter aufaddiert
+                        theLog.setTracingOverhead(theOverhead.snapshot());
+                    }
+                    for (final MetricExporter theExporter : metricExporters) {
+                        theExporter.exportMetricsFor(theLog, theInvokedPattern);
+                    }
+                    for (final TraceLogExporter theExporter : traceLogExporters) {
+                        theExporter.export(theLog, theInvokedPattern);
+                    }
+                    tracer.recordOverhead(aRequest, theOverheadCpuStart, theOverheadAllocationStart);
+                }
+                if (null != theOverhead && theStatisticsAktiv) {
+                    patternStatistics.record(theInvokedPattern, "tracingOverhead.cpuNanos", theOverhead.getCpuNanos());
+                    patternStatistics.record(theInvokedPattern, "tracingOverhead.allocatedBytes", theOverhead.getAllocatedBytes());
+                }
             }
         } else {
             // Passiert z.B. bei einem Forward in der Handler-Chain
@@ -114,26 +269,101 @@ public class TraceOutputFilter implements Filter {
         }
     }
 
-    /**
-     * Erzeugt einen {@code Server-Timing}-Header mit den Informationen zu den Laufzeiten der einzelnen Verarbeitungsschritte, der
-     * z.B. von Google Chrome in den Dev-Tools graphisch dargestellt werden kann.
-     * 
-     * @param traceLog
-     *            das Trace-Log des aktuellen Aufrufs
-     * @param response
-     *            die aktuelle Response
-     */
-    private static void writeServerTimingHeader(final TraceLog traceLog, final HttpServletResponse response) {
-        response.addHeader(SERVER_TIMING_HEADER, "total;desc=\"Total\";dur=" + traceLog.getDuration());
-        if (null != traceLog.getSpans()) {
-            int index = 0;
-            for (final Span span : traceLog.getSpans()) {
-                response.addHeader(SERVER_TIMING_HEADER, "S" + index + ";desc=\"" + span.getName() + "\";dur=" + span.getDuration());
-                index++;
+    private long requestStartOf(final HttpServletRequest aRequest, final long aFilterStart) {
+        if (null == requestStartResolver) {
+            return aFilterStart;
+        }
+        final long theRequestStart = requestStartResolver.requestStartOf(aRequest);
+        // Unbekannte oder unplausible Startzeiten und Uhren, die vorgehen, werden ignoriert
+        return theRequestStart > 0 && theRequestStart < aFilterStart && aFilterStart - theRequestStart <= maxQueueWait
+                ? theRequestStart
+                : aFilterStart;
+    }
+
+    private void recordStatistics(final String aInvokedPattern, final TraceLog aLog) {
+        patternStatistics.record(aInvokedPattern, "untracedTime", aLog.getCoverage().getUntracedTime());
+        patternStatistics.record(aInvokedPattern, "largestGap", aLog.getCoverage().getLargestGapDuration());
+        recordConcurrency(aInvokedPattern, aLog.getConcurrency());
+        if (null != aLog.getCpuNanos()) {
+            patternStatistics.record(aInvokedPattern, "cpuNanos", aLog.getCpuNanos());
+        }
+        if (null != aLog.getAllocatedBytes()) {
+            patternStatistics.record(aInvokedPattern, "allocatedBytes", aLog.getAllocatedBytes());
+        }
+        if (null != requestStartResolver) {
+            patternStatistics.record(aInvokedPattern, "queueWait", queueWaitOf(aLog));
+        }
+        if (null != aLog.getGcPauseTime()) {
+            // Die Summe ergibt die Anzahl der von GC-Pausen betroffenen Requests
+            patternStatistics.record(aInvokedPattern, "gcAffectedRequests", aLog.getGcPauseTime() > 0 ? 1 : 0);
+            patternStatistics.record(aInvokedPattern, "gcPauseTime", aLog.getGcPauseTime());
+        }
+        recordCacheEffectiveness(aInvokedPattern, aLog.getSpans());
+        recordTransactions(aInvokedPattern, aLog.getSpans());
+    }
+
+    private void recordTransactions(final String aInvokedPattern, final List<Span> aSpans) {
+        if (null == aSpans) {
+            return;
+        }
+        for (final Span theSpan : aSpans) {
+            if (theSpan instanceof TransactionSpan) {
+                final TransactionSpan theTransaction = (TransactionSpan) theSpan;
+                final String thePrefix = "transaction." + theTransaction.getDatasourceName() + ".";
+                patternStatistics.record(aInvokedPattern, thePrefix + "duration", theTransaction.getDuration());
+                patternStatistics.record(aInvokedPattern, thePrefix + "completionTime", theTransaction.getCompletionTime());
+                patternStatistics.record(aInvokedPattern, thePrefix + "queries", theTransaction.getNumberQueries());
+                // Die Summe ergibt die Anzahl der Rollbacks
+                patternStatistics.record(aInvokedPattern, thePrefix + "rollbacks",
+                        TransactionSpan.ROLLBACK.equals(theTransaction.getOutcome()) ? 1 : 0);
             }
         }
     }
 
+    private void recordCacheEffectiveness(final String aInvokedPattern, final List<Span> aSpans) {
+        if (null == aSpans) {
+            return;
+        }
+        // Je Cache die Treffer, Fehlschläge und die eingesparte Zeit des Requests
+        final Map<String, long[]> theCaches = new HashMap<>();
+        for (final Span theSpan : aSpans) {
+            if (theSpan instanceof CacheSpan && CacheSpan.GET.equals(((CacheSpan) theSpan).getOperation())) {
+                final CacheSpan theCacheSpan = (CacheSpan) theSpan;
+                final long[] theValues = theCaches.computeIfAbsent(theCacheSpan.getName(), k -> new long[3]);
+                theValues[theCacheSpan.getHit() ? 0 : 1] += theCacheSpan.getCount();
+                theValues[2] += null == theCacheSpan.getSavedTime() ? 0 : theCacheSpan.getSavedTime();
+            }
+        }
+        theCaches.forEach((theName, theValues) -> {
+            patternStatistics.record(aInvokedPattern, "cache." + theName + ".hits", theValues[0]);
+            patternStatistics.record(aInvokedPattern, "cache." + theName + ".misses", theValues[1]);
+            patternStatistics.record(aInvokedPattern, "cache." + theName + ".savedTime", theValues[2]);
+        });
+    }
+
+    private void recordConcurrency(final String aInvokedPattern, final ConcurrencyAnalysis aConcurrency) {
+        // Die Statistiken führen nur ganze Zahlen, die Faktoren werden deshalb in Prozent erfasst
+        // Ohne Spans gibt es keine Parallelität, die den Mittelwert verzerren dürfte
+        if (null != aConcurrency.getParallelism()) {
+            patternStatistics.record(aInvokedPattern, "concurrency.parallelismPercent",
+                    Math.round(aConcurrency.getParallelism() * 100));
+        }
+        patternStatistics.record(aInvokedPattern, "concurrency.peak", aConcurrency.getPeakConcurrency());
+        patternStatistics.record(aInvokedPattern, "concurrency.sumToWallClockPercent",
+                Math.round(aConcurrency.getSumToWallClockRatio() * 100));
+        patternStatistics.record(aInvokedPattern, "concurrency.sequentialCalls",
+                null == aConcurrency.getSequentialCalls() ? 0 : aConcurrency.getSequentialCalls().size());
+        patternStatistics.record(aInvokedPattern, "concurrency.fanOutSavings", aConcurrency.getFanOutSavings());
+    }
+
+    private static long queueWaitOf(final TraceLog aLog) {
+        // Der Span der Wartezeit ist immer der erste
+        final List<Span> theSpans = aLog.getSpans();
+        return null != theSpans && !theSpans.isEmpty() && theSpans.get(0) instanceof QueueWaitSpan
+                ? theSpans.get(0).getDuration()
+                : 0;
+    }
+
     @Override
     public void destroy() {
     }
@@ -0,0 +1,73 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+
+/**
+ * Erfasst die Aufrufe von mit {@link Traced} annotierten Methoden über {@link Tracer#startSpan(SpanDescriptor)}. Der Aspekt
+ * läuft als letzter, der Span umfasst also nur die Methode selbst.
+ */
+@Aspect
+public class TracedAspect implements Ordered {
+
+    private final Tracer tracer;
+
+    /**
+     * Die Deskriptoren je annotierter Methode, damit die Annotation nicht bei jedem Aufruf gelesen werden muss.
+     */
+    private final Map<Method, SpanDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    public TracedAspect(final Tracer aTracer) {
+        tracer = aTracer;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Around("@annotation(de.thalia.boot.tracing.Traced) || @within(de.thalia.boot.tracing.Traced)")
+    public Object trace(final ProceedingJoinPoint aJoinPoint) throws Throwable {
+        final Method theMethod = ((MethodSignature) aJoinPoint.getSignature()).getMethod();
+        SpanDescriptor theDescriptor = descriptors.get(theMethod);
+        if (null == theDescriptor) {
+            theDescriptor = descriptors.computeIfAbsent(theMethod, TracedAspect::resolve);
+        }
+        try (SpanScope theScope = tracer.startSpan(theDescriptor)) {
+            return aJoinPoint.proceed();
+        }
+    }
+
+    private static SpanDescriptor resolve(final Method aMethod) {
+        Traced theAnnotation = aMethod.getAnnotation(Traced.class);
+        if (null == theAnnotation) {
+            theAnnotation = aMethod.getDeclaringClass().getAnnotation(Traced.class);
+        }
+        final String theName = null == theAnnotation || theAnnotation.value().isEmpty()
+                ? aMethod.getDeclaringClass().getSimpleName() + "." + aMethod.getName()
+                : theAnnotation.value();
+        return SpanDescriptors.of(Span.class, theName);
+    }
+}
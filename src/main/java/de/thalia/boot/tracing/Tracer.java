@@ -18,6 +18,7 @@ package de.thalia.boot.tracing;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import javax.servlet.ServletRequest;
 import javax.servlet.http.HttpServletRequest;
@@ -35,6 +36,104 @@ public class Tracer {
     public static final String TRACE_ATTRIBUTE_NAME = Tracer.class.getName() + ".TRACELOG";
     public static final String TRACE_HEADER_NAME = "THALIATRACE";
     private static final String TRACE_TOGGLE_ATTRIBUTE_NAME = Tracer.class.getName() + ".TRACELOGTOGGLE";
+    private static final String OVERHEAD_ATTRIBUTE_NAME = Tracer.class.getName() + ".OVERHEAD";
+
+    private final boolean measureOverhead;
+
+    public Tracer() {
+        this(false);
+    }
+
+    /**
+     * @param aMeasureOverhead
+     *            {@code true}, wenn der Aufwand des Tracings selbst je Request gemessen werden soll
+     */
+    public Tracer(final boolean aMeasureOverhead) {
+        measureOverhead = aMeasureOverhead;
+    }
+
+    public boolean isMeasuringOverhead() {
+        return measureOverhead;
+    }
+
+    /**
+     * Beginnt die Messung eines Abschnitts, der dem Tracing selbst zuzurechnen ist.
+     *
+     * @return die aktuelle CPU-Zeit des Threads oder {@code 0}, falls nicht gemessen wird
+     */
+    public long overheadCpuStart() {
+        return measureOverhead ? ThreadResources.currentThreadCpuTime() : 0;
+    }
+
+    /**
+     * Beginnt die Messung eines Abschnitts, der dem Tracing selbst zuzurechnen ist.
+     *
+     * @return die bisher vom Thread allokierten Bytes oder {@code 0}, falls nicht gemessen wird
+     */
+    public long overheadAllocationStart() {
+        return measureOverhead ? ThreadResources.currentThreadAllocatedBytes() : 0;
+    }
+
+    /**
+     * Rechnet den seit {@link #overheadCpuStart()} bzw. {@link #overheadAllocationStart()} angefallenen Aufwand dem aktuellen
+     * Request zu, sofern ein Request bestimmbar ist.
+     *
+     * @param aCpuStart
+     *            der Startwert der CPU-Zeit
+     * @param aAllocationStart
+     *            der Startwert der allokierten Bytes
+     */
+    public void recordOverhead(final long aCpuStart, final long aAllocationStart) {
+        if (measureOverhead) {
+            final RequestAttributes theCurrentRequest = RequestContextHolder.getRequestAttributes();
+            if (null != theCurrentRequest) {
+                TracingOverhead theOverhead;
+                synchronized (this) {
+                    theOverhead = (TracingOverhead) theCurrentRequest.getAttribute(OVERHEAD_ATTRIBUTE_NAME,
+                            RequestAttributes.SCOPE_REQUEST);
+                    if (null == theOverhead) {
+                        theOverhead = new TracingOverhead();
+                        theCurrentRequest.setAttribute(OVERHEAD_ATTRIBUTE_NAME, theOverhead, RequestAttributes.SCOPE_REQUEST);
+                    }
+                }
+                addOverhead(theOverhead, aCpuStart, aAllocationStart);
+            }
+        }
+    }
+
+    public void recordOverhead(final ServletRequest aRequest, final long aCpuStart, final long aAllocationStart) {
+        if (measureOverhead && null != aRequest) {
+            addOverhead(overheadFor(aRequest), aCpuStart, aAllocationStart);
+        }
+    }
+
+    /**
+     * Liefert den bisher für den Request gemessenen Aufwand des Tracings. Der Wert wird bis zum Ende des Requests weiter
+     * aufaddiert.
+     *
+     * @param aRequest
+     *            der Request
+     * @return der gemessene Aufwand oder {@code null}, falls nicht gemessen wird
+     */
+    public TracingOverhead overheadFor(final ServletRequest aRequest) {
+        if (!measureOverhead) {
+            return null;
+        }
+        synchronized (this) {
+            TracingOverhead theOverhead = (TracingOverhead) aRequest.getAttribute(OVERHEAD_ATTRIBUTE_NAME);
+            if (null == theOverhead) {
+                theOverhead = new TracingOverhead();
+                aRequest.setAttribute(OVERHEAD_ATTRIBUTE_NAME, theOverhead);
+            }
+            return theOverhead;
+        }
+    }
+
+    private static void addOverhead(final TracingOverhead aOverhead, final long aCpuStart, final long aAllocationStart) {
+        final long theCpuTime = ThreadResources.currentThreadCpuTime();
+        final long theAllocatedBytes = ThreadResources.currentThreadAllocatedBytes();
+        aOverhead.add(theCpuTime < 0 ? 0 : theCpuTime - aCpuStart, theAllocatedBytes < 0 ? 0 : theAllocatedBytes - aAllocationStart);
+    }
 
     /**
      * Fügt den übergebenen Span in die Liste der Spans für den aktuellen Request ein, sofern ein Request bestimmbar ist.
@@ -47,6 +146,63 @@ public class Tracer {
         aktuelleSpans.ifPresent(spanList -> spanList.add(aSpan));
     }
 
+    /**
+     * Startet einen eigenen Span für den aktuellen Request, der mit {@link SpanScope#close()} beendet wird. Außerhalb eines
+     * Requests wird ein Scope geliefert, der nichts erfasst.
+     *
+     * @param aName
+     *            der Name des Spans
+     * @return der laufende Span
+     * @see #startSpan(SpanDescriptor)
+     */
+    public SpanScope startSpan(final String aName) {
+        return startSpan(SpanDescriptors.of(Span.class, aName));
+    }
+
+    /**
+     * Startet einen eigenen Span für den aktuellen Request. Für häufig aufgerufenen Code sollte der Deskriptor einmalig mit
+     * {@link SpanDescriptors#of(Class, String)} ermittelt und hier übergeben werden.
+     *
+     * @param aDescriptor
+     *            der Deskriptor des Spans
+     * @return der laufende Span, außerhalb eines Requests ein Scope, der nichts erfasst
+     */
+    public SpanScope startSpan(final SpanDescriptor aDescriptor) {
+        if (null == RequestContextHolder.getRequestAttributes()) {
+            return SpanScope.NOOP;
+        }
+        return new SpanScope(this, aDescriptor, System.currentTimeMillis(), System.nanoTime());
+    }
+
+    /**
+     * Führt den übergebenen Code aus und erfasst ihn als Span.
+     *
+     * @param aDescriptor
+     *            der Deskriptor des Spans
+     * @param aSupplier
+     *            der auszuführende Code
+     * @return das Ergebnis des Codes
+     */
+    public <T> T trace(final SpanDescriptor aDescriptor, final Supplier<T> aSupplier) {
+        try (SpanScope theScope = startSpan(aDescriptor)) {
+            return aSupplier.get();
+        }
+    }
+
+    /**
+     * Führt den übergebenen Code aus und erfasst ihn als Span.
+     *
+     * @param aDescriptor
+     *            der Deskriptor des Spans
+     * @param aRunnable
+     *            der auszuführende Code
+     */
+    public void trace(final SpanDescriptor aDescriptor, final Runnable aRunnable) {
+        try (SpanScope theScope = startSpan(aDescriptor)) {
+            aRunnable.run();
+        }
+    }
+
     public synchronized void addToLog(final HttpServletRequest aRequest, final Span aSpan) {
         List<Span> theSpans = (List<Span>) aRequest.getAttribute(TRACE_ATTRIBUTE_NAME);
         if (null == theSpans) {
@@ -60,6 +216,20 @@ public class Tracer {
         return (List<Span>) aRequest.getAttribute(Tracer.TRACE_ATTRIBUTE_NAME);
     }
 
+    /**
+     * Liefert eine Kopie der bisher für den Request gesammelten Spans. Die Kopie entsteht unter derselben Sperre, unter der Spans
+     * hinzugefügt werden, und kann deshalb auch dann an andere Threads übergeben werden, wenn aus asynchroner Verarbeitung noch
+     * Spans hinzukommen.
+     *
+     * @param aRequest
+     *            der Request
+     * @return die Kopie oder {@code null}, wenn keine Spans gesammelt wurden
+     */
+    public synchronized List<Span> snapshotOfSpansFor(final ServletRequest aRequest) {
+        final List<Span> theSpans = collectedSpansFor(aRequest);
+        return null == theSpans ? null : new ArrayList<>(theSpans);
+    }
+
     /**
      * Ersetzt den letzten Span in der Liste mit dem übergebenen.
      * 
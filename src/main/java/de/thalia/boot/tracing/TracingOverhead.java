@@ -0,0 +1,66 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Der Aufwand, den das Tracing selbst bei der Verarbeitung eines Requests verursacht hat ("Tracing-Steuer"): Erzeugung der Spans,
+ * Auswertung, JSON-Serialisierung, Export und Pufferung der Response. Werte, die die JVM nicht messen kann, bleiben {@code 0}.
+ *
+ * Die Werte werden während des Requests von mehreren Threads (z.B. Hystrix) aufaddiert. Die Kosten für die Ausgabe des
+ * Trace-Logs selbst sind im ausgegebenen JSON noch nicht enthalten, wohl aber in den Werten für die Exporter und in den
+ * Statistiken je Pattern. Die Kosten des Exports sind nur in den Statistiken enthalten.
+ */
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TracingOverhead {
+
+    private long cpuNanos;
+    private long allocatedBytes;
+
+    /**
+     * Addiert einen gemessenen Abschnitt.
+     *
+     * @param aCpuNanos
+     *            verbrauchte CPU-Zeit in Nanosekunden
+     * @param aAllocatedBytes
+     *            allokierte Bytes
+     */
+    public synchronized void add(final long aCpuNanos, final long aAllocatedBytes) {
+        cpuNanos += aCpuNanos;
+        allocatedBytes += aAllocatedBytes;
+    }
+
+    /**
+     * @return eine Kopie mit den bisher gemessenen Werten, die sich nicht mehr ändert
+     */
+    public synchronized TracingOverhead snapshot() {
+        final TracingOverhead theSnapshot = new TracingOverhead();
+        theSnapshot.cpuNanos = cpuNanos;
+        theSnapshot.allocatedBytes = allocatedBytes;
+        return theSnapshot;
+    }
+
+    public synchronized long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.hystrix.HystrixSpan;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Analyse der Nebenläufigkeit eines Aufrufs. Die Summe der Span-Dauern ist bei parallelen Aufrufen größer als die Laufzeit;
+ * diese Analyse setzt beides ins Verhältnis und zeigt sequentielle Aufrufe, die parallelisiert werden könnten.
+ *
+ * Spans, die vollständig in einem anderen Span liegen (z.B. ein HTTP-Aufruf innerhalb eines Hystrix-Commands), sind
+ * Verschachtelung und keine Parallelität; sie werden deshalb nicht berücksichtigt. Wegen der Auflösung von Millisekunden gilt
+ * das auch für Spans mit identischem Zeitraum.
+ */
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ConcurrencyAnalysis {
+
+    private static final Comparator<Span> BY_START_LONGEST_FIRST = Comparator.comparingLong(Span::getStartTime)
+            .thenComparing(Comparator.comparingLong(Span::getDuration).reversed());
+
+    /**
+     * Summe der Span-Dauern geteilt durch die von Spans abgedeckte Zeit; {@code 1.0} bedeutet rein sequentielle Verarbeitung.
+     * {@code null}, wenn die Spans keine Zeit abdecken.
+     */
+    private Double parallelism;
+
+    /**
+     * Die größte Anzahl gleichzeitig aktiver Spans.
+     */
+    private int peakConcurrency;
+
+    /**
+     * Summe der Span-Dauern geteilt durch die Laufzeit des Aufrufs.
+     */
+    private double sumToWallClockRatio;
+
+    /**
+     * Die Namen der Aufrufe anderer Services (HTTP, Hystrix), die sich mit keinem anderen solchen Aufruf überlappen. Nur
+     * gesetzt, wenn es mindestens zwei davon gibt.
+     */
+    private List<String> sequentialCalls;
+
+    /**
+     * Die Zeit, die eine Parallelisierung der {@link #sequentialCalls} höchstens einsparen würde (Summe minus längster Aufruf).
+     */
+    private long fanOutSavings;
+
+    public ConcurrencyAnalysis(final Double parallelism, final int peakConcurrency, final double sumToWallClockRatio,
+            final List<String> sequentialCalls, final long fanOutSavings) {
+        this.parallelism = parallelism;
+        this.peakConcurrency = peakConcurrency;
+        this.sumToWallClockRatio = sumToWallClockRatio;
+        this.sequentialCalls = sequentialCalls;
+        this.fanOutSavings = fanOutSavings;
+    }
+
+    /**
+     * Analysiert die Nebenläufigkeit des übergebenen Trace-Logs.
+     *
+     * @param traceLog
+     *            das Trace-Log des aktuellen Aufrufs
+     * @return das Ergebnis der Analyse
+     */
+    public static ConcurrencyAnalysis of(final TraceLog traceLog) {
+        final List<Span> spans = outermostSpans(traceLog.getSpans());
+
+        long sum = 0;
+        for (final Span span : spans) {
+            sum += span.getDuration();
+        }
+        final long covered = SpanIntervals.of(spans, Long.MIN_VALUE, Long.MAX_VALUE).getCoveredTime();
+
+        // Aufrufe anderer Services stecken oft in einem umschließenden Span (z.B. Controller-Methode, Transaktion), sie werden
+        // deshalb aus allen Spans ermittelt. Ein HTTP-Aufruf innerhalb eines Hystrix-Commands bleibt ein einziger Aufruf.
+        final List<Span> calls = new ArrayList<>();
+        if (null != traceLog.getSpans()) {
+            for (final Span span : traceLog.getSpans()) {
+                if (span instanceof HTTPSpan || span instanceof HystrixSpan) {
+                    calls.add(span);
+                }
+            }
+        }
+        final List<Span> downstream = outermostSpans(calls);
+        List<String> sequentialCalls = new ArrayList<>();
+        long sequentialSum = 0;
+        long sequentialMax = 0;
+        for (final Span span : downstream) {
+            if (!overlapsAny(span, downstream)) {
+                sequentialCalls.add(span.getName());
+                sequentialSum += span.getDuration();
+                sequentialMax = Math.max(sequentialMax, span.getDuration());
+            }
+        }
+        if (sequentialCalls.size() < 2) {
+            sequentialCalls = null;
+            sequentialSum = 0;
+            sequentialMax = 0;
+        }
+
+        return new ConcurrencyAnalysis(covered == 0 ? null : (double) sum / covered, peakConcurrencyOf(spans),
+                traceLog.getDuration() == 0 ? 0 : (double) sum / traceLog.getDuration(), sequentialCalls,
+                sequentialSum - sequentialMax);
+    }
+
+    /**
+     * Entfernt alle Spans, die vollständig in einem anderen Span liegen.
+     */
+    static List<Span> outermostSpans(final List<Span> spans) {
+        final List<Span> result = new ArrayList<>();
+        if (null == spans) {
+            return result;
+        }
+        final List<Span> sorted = new ArrayList<>(spans);
+        sorted.sort(BY_START_LONGEST_FIRST);
+        // Nach Start sortiert ist ein Span genau dann enthalten, wenn ein früherer Span mindestens so lange dauert
+        long maxEnd = Long.MIN_VALUE;
+        for (final Span span : sorted) {
+            final long end = span.getStartTime() + span.getDuration();
+            if (end > maxEnd) {
+                result.add(span);
+                maxEnd = end;
+            }
+        }
+        return result;
+    }
+
+    private static boolean overlapsAny(final Span span, final List<Span> others) {
+        final long end = span.getStartTime() + span.getDuration();
+        for (final Span other : others) {
+            if (other != span && other.getStartTime() < end && span.getStartTime() < other.getStartTime() + other.getDuration()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int peakConcurrencyOf(final List<Span> spans) {
+        final long[] starts = new long[spans.size()];
+        final long[] ends = new long[spans.size()];
+        for (int i = 0; i < spans.size(); i++) {
+            starts[i] = spans.get(i).getStartTime();
+            ends[i] = starts[i] + spans.get(i).getDuration();
+        }
+        Arrays.sort(starts);
+        Arrays.sort(ends);
+        int peak = 0;
+        int active = 0;
+        int e = 0;
+        for (final long start : starts) {
+            // Ein Span, der endet, wenn ein anderer beginnt, überlappt nicht
+            while (e < ends.length && ends[e] <= start) {
+                active--;
+                e++;
+            }
+            active++;
+            peak = Math.max(peak, active);
+        }
+        return peak;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.analysis;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Zusammenfassung des kritischen Pfads eines Aufrufs über alle beteiligten Services hinweg. Der kritische Pfad ist die Kette
+ * von Abschnitten, die die Gesamtlaufzeit bestimmt: wird einer dieser Abschnitte schneller, wird auch der Aufruf schneller.
+ */
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CriticalPath {
+
+    /**
+     * Die Abschnitte des kritischen Pfads in zeitlicher Reihenfolge.
+     */
+    private List<CriticalPathSegment> segments;
+
+    /**
+     * Zeit auf dem kritischen Pfad je Service, inklusive der Spans, die der Service selbst verantwortet (z.B. Datenbank).
+     */
+    private Map<String, Long> selfTimeByService;
+
+    /**
+     * Zeit auf dem kritischen Pfad je Span, Schlüssel ist {@code <Service>/<Span-Name>}.
+     */
+    private Map<String, Long> selfTimeBySpan;
+
+    /**
+     * Der Service mit dem größten Anteil am kritischen Pfad.
+     */
+    private String bottleneckService;
+
+    public CriticalPath(final List<CriticalPathSegment> segments, final Map<String, Long> selfTimeByService,
+            final Map<String, Long> selfTimeBySpan, final String bottleneckService) {
+        this.segments = segments;
+        this.selfTimeByService = selfTimeByService;
+        this.selfTimeBySpan = selfTimeBySpan;
+        this.bottleneckService = bottleneckService;
+    }
+}
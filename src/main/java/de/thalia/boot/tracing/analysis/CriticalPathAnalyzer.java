@@ -0,0 +1,230 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.analysis;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+
+/**
+ * Ermittelt den kritischen Pfad eines {@link TraceLog}s inklusive aller über {@link HTTPSpan#getNestedTraceLog()}
+ * eingebundenen Trace-Logs der aufgerufenen Services.
+ *
+ * Ausgehend vom Ende eines Trace-Logs wird rückwärts jeweils der Span gewählt, der als letzter vor dem aktuellen Zeitpunkt
+ * beendet wurde. Zeit, in der kein Span aktiv war, ist Eigenzeit des Services. Umschließt der gewählte Span andere Spans (z.B.
+ * ein Hystrix-Command seinen HTTP-Aufruf), wird in diese abgestiegen; dem umschließenden Span bleibt seine Eigenzeit. Enthält ein {@link HTTPSpan} das Trace-Log des
+ * aufgerufenen Services, wird in dieses abgestiegen; die vom Trace-Log nicht abgedeckte Zeit des Spans (Netzwerk,
+ * Serialisierung, Warteschlangen) wird dem aufgerufenen Service zugerechnet.
+ */
+public final class CriticalPathAnalyzer {
+
+    private static final Comparator<EnclosingSpan> BY_END_DESCENDING = Comparator
+            .<EnclosingSpan> comparingLong(candidate -> endOf(candidate.span)).reversed();
+
+    /**
+     * Sortiert nach Start, bei gleichem Start den längsten Span zuerst. Bei identischem Zeitraum kommt ein {@link HTTPSpan} mit
+     * eingebundenem Trace-Log zuletzt und wird so zum innersten Span, in den abgestiegen wird.
+     */
+    private static final Comparator<Span> BY_START_OUTERMOST_FIRST = Comparator.comparingLong(Span::getStartTime)
+            .thenComparing(Comparator.comparingLong(Span::getDuration).reversed())
+            .thenComparingInt(span -> span instanceof HTTPSpan && null != ((HTTPSpan) span).getNestedTraceLog() ? 1 : 0);
+
+    private static final String UNKNOWN_SERVICE = "unknown";
+
+    private CriticalPathAnalyzer() {
+    }
+
+    /**
+     * Berechnet den kritischen Pfad des übergebenen Trace-Logs.
+     *
+     * @param traceLog
+     *            das Trace-Log des aktuellen Aufrufs
+     * @return die Zusammenfassung des kritischen Pfads
+     */
+    public static CriticalPath analyze(final TraceLog traceLog) {
+        final List<CriticalPathSegment> segments = new ArrayList<>();
+        walk(traceLog, traceLog.getStartTime(), endOf(traceLog), segments);
+        // Die Abschnitte werden vom Ende her gesammelt
+        Collections.reverse(segments);
+
+        final Map<String, Long> selfTimeByService = new LinkedHashMap<>();
+        final Map<String, Long> selfTimeBySpan = new LinkedHashMap<>();
+        for (final CriticalPathSegment segment : segments) {
+            selfTimeByService.merge(segment.getService(), segment.getDuration(), Long::sum);
+            if (null != segment.getSpanName()) {
+                selfTimeBySpan.merge(segment.getService() + "/" + segment.getSpanName(), segment.getDuration(), Long::sum);
+            }
+        }
+
+        String bottleneckService = null;
+        long bottleneckTime = -1;
+        for (final Map.Entry<String, Long> entry : selfTimeByService.entrySet()) {
+            if (entry.getValue() > bottleneckTime) {
+                bottleneckService = entry.getKey();
+                bottleneckTime = entry.getValue();
+            }
+        }
+        return new CriticalPath(segments, selfTimeByService, selfTimeBySpan, bottleneckService);
+    }
+
+    /**
+     * Läuft rückwärts über das Intervall {@code [from, to]} des übergebenen Trace-Logs und sammelt die Abschnitte des kritischen
+     * Pfads in umgekehrter Reihenfolge.
+     */
+    private static void walk(final TraceLog traceLog, final long from, final long to, final List<CriticalPathSegment> segments) {
+        final String service = serviceOf(traceLog);
+        walkSpans(service, service, null, traceLog.getSpans(), from, to, segments);
+    }
+
+    /**
+     * Läuft rückwärts über die äußersten der übergebenen Spans. Zeit, in der keiner von ihnen aktiv war, wird {@code gapService}
+     * und {@code gapSpanName} zugerechnet, also dem Service selbst oder dem umschließenden Span.
+     */
+    private static void walkSpans(final String service, final String gapService, final String gapSpanName, final List<Span> spans,
+            final long from, final long to, final List<CriticalPathSegment> segments) {
+        long cursor = to;
+        if (null != spans && !spans.isEmpty()) {
+            final List<EnclosingSpan> candidates = EnclosingSpan.of(spans);
+            candidates.sort(BY_END_DESCENDING);
+            for (final EnclosingSpan candidate : candidates) {
+                final Span span = candidate.span;
+                if (cursor <= from) {
+                    break;
+                }
+                // Spans, die erst nach dem aktuellen Zeitpunkt beginnen, liegen nicht mehr auf dem Pfad
+                if (span.getStartTime() >= cursor) {
+                    continue;
+                }
+                final long spanEnd = Math.min(endOf(span), cursor);
+                if (spanEnd <= from) {
+                    // Alle weiteren Kandidaten enden noch früher
+                    break;
+                }
+                addSegment(segments, gapService, gapSpanName, spanEnd, cursor - spanEnd);
+                final long spanStart = Math.max(span.getStartTime(), from);
+                walkSpan(service, candidate, spanStart, spanEnd, segments);
+                cursor = spanStart;
+            }
+        }
+        addSegment(segments, gapService, gapSpanName, from, cursor - from);
+    }
+
+    private static void walkSpan(final String service, final EnclosingSpan candidate, final long from, final long to,
+            final List<CriticalPathSegment> segments) {
+        final Span span = candidate.span;
+        if (!(span instanceof HTTPSpan)) {
+            // Ein umschließender Span (z.B. Hystrix-Command oder Controller-Methode) trägt nur seine Eigenzeit bei
+            if (candidate.enclosed.isEmpty()) {
+                addSegment(segments, service, span.getName(), from, to - from);
+            } else {
+                walkSpans(service, service, span.getName(), candidate.enclosed, from, to, segments);
+            }
+            return;
+        }
+
+        final HTTPSpan httpSpan = (HTTPSpan) span;
+        final String remoteService = remoteServiceOf(httpSpan);
+        final TraceLog nestedTraceLog = httpSpan.getNestedTraceLog();
+        if (null != nestedTraceLog) {
+            final long nestedFrom = Math.max(nestedTraceLog.getStartTime(), from);
+            final long nestedTo = Math.min(endOf(nestedTraceLog), to);
+            if (nestedTo > nestedFrom) {
+                addSegment(segments, remoteService, span.getName(), nestedTo, to - nestedTo);
+                walk(nestedTraceLog, nestedFrom, nestedTo, segments);
+                addSegment(segments, remoteService, span.getName(), from, nestedFrom - from);
+                return;
+            }
+        }
+        if (candidate.enclosed.isEmpty()) {
+            addSegment(segments, remoteService, span.getName(), from, to - from);
+        } else {
+            walkSpans(service, remoteService, span.getName(), candidate.enclosed, from, to, segments);
+        }
+    }
+
+    private static void addSegment(final List<CriticalPathSegment> segments, final String service, final String spanName,
+            final long startTime, final long duration) {
+        if (duration > 0) {
+            segments.add(new CriticalPathSegment(service, spanName, startTime, duration));
+        }
+    }
+
+    /**
+     * Ermittelt den Service, der hinter einem {@link HTTPSpan} steht. Ohne eingebundenes Trace-Log wird der Host der URI
+     * verwendet, da der aufgerufene Service selbst nicht instrumentiert ist.
+     */
+    private static String remoteServiceOf(final HTTPSpan span) {
+        if (null != span.getNestedTraceLog()) {
+            return serviceOf(span.getNestedTraceLog());
+        }
+        final URI uri = span.getRequestURI();
+        if (null != uri && null != uri.getHost()) {
+            return uri.getHost();
+        }
+        return span.getName();
+    }
+
+    private static String serviceOf(final TraceLog traceLog) {
+        return null != traceLog.getApplicationName() ? traceLog.getApplicationName() : UNKNOWN_SERVICE;
+    }
+
+    private static long endOf(final Span span) {
+        return span.getStartTime() + span.getDuration();
+    }
+
+    private static long endOf(final TraceLog traceLog) {
+        return traceLog.getStartTime() + traceLog.getDuration();
+    }
+
+    /**
+     * Ein Span, der in keinem anderen Span liegt, mit allen Spans, die er umschließt (z.B. der HTTP-Aufruf eines
+     * Hystrix-Commands).
+     */
+    private static final class EnclosingSpan {
+
+        private final Span span;
+        private final List<Span> enclosed = new ArrayList<>();
+
+        private EnclosingSpan(final Span span) {
+            this.span = span;
+        }
+
+        private static List<EnclosingSpan> of(final List<Span> spans) {
+            final List<Span> sorted = new ArrayList<>(spans);
+            sorted.sort(BY_START_OUTERMOST_FIRST);
+            final List<EnclosingSpan> result = new ArrayList<>();
+            EnclosingSpan current = null;
+            for (final Span span : sorted) {
+                // Nach Start sortiert liegt ein Span genau dann in einem anderen, wenn er nicht nach dem bisher spätesten endet
+                if (null != current && endOf(span) <= endOf(current.span)) {
+                    current.enclosed.add(span);
+                } else {
+                    current = new EnclosingSpan(span);
+                    result.add(current);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.analysis;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ein Abschnitt des kritischen Pfads. Ein Abschnitt ist entweder Eigenzeit eines Services (dann ist {@link #spanName}
+ * {@code null}) oder Zeit, die in einem Span dieses Services verbracht wurde.
+ */
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CriticalPathSegment {
+
+    /**
+     * Der Service, dem die Zeit des Abschnitts zugerechnet wird.
+     */
+    private String service;
+
+    /**
+     * Der Name des Spans oder {@code null}, wenn es sich um Eigenzeit des Services handelt.
+     */
+    private String spanName;
+
+    private long startTime;
+    private long duration;
+
+    public CriticalPathSegment(final String service, final String spanName, final long startTime, final long duration) {
+        this.service = service;
+        this.spanName = spanName;
+        this.startTime = startTime;
+        this.duration = duration;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.analysis;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.SpanDescriptors;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.database.QuerySpan;
+import de.thalia.boot.tracing.queue.QueueWaitSpan;
+
+/**
+ * Teilt die Laufzeit eines {@link TraceLog}s auf Abhängigkeiten auf: Datenbank ({@code db}), aufgerufene Services je
+ * RestTemplate ({@code http.<bean>}), Hystrix je Command ({@code hystrix.<pool#command>}), durch einen Circuit-Breaker
+ * geschützter Code ({@code cb.<name>}), Wartezeit vor dem Trace-Filter ({@code queue}), Phasen von Spring MVC
+ * ({@code mvc.<phase>}), Cache-Zugriffe ({@code cache.<name>}), offene Datenbanktransaktionen ({@code tx.<datasource>})
+ * und nicht durch Spans erfasste Zeit ({@link #UNTRACED}).
+ *
+ * Je Kategorie wird die Vereinigung der Spans gezählt. Da sich Spans verschiedener Kategorien überlappen können (z.B. ein
+ * HTTP-Aufruf innerhalb eines Hystrix-Commands oder parallele Aufrufe), kann die Summe der Kategorien größer als die Laufzeit
+ * sein.
+ */
+public final class DependencyBreakdown {
+
+    public static final String UNTRACED = "untraced";
+
+    private DependencyBreakdown() {
+    }
+
+    /**
+     * @param traceLog
+     *            das Trace-Log des aktuellen Aufrufs
+     * @return die Zeit in Millisekunden je Kategorie, in der Reihenfolge des ersten Auftretens
+     */
+    public static Map<String, Long> of(final TraceLog traceLog) {
+        final long from = traceLog.getStartTime();
+        final long to = from + traceLog.getDuration();
+        final Map<String, List<Span>> spansByCategory = new LinkedHashMap<>();
+        if (null != traceLog.getSpans()) {
+            for (final Span span : traceLog.getSpans()) {
+                spansByCategory.computeIfAbsent(categoryOf(span), k -> new ArrayList<>()).add(span);
+            }
+        }
+
+        final Map<String, Long> result = new LinkedHashMap<>();
+        spansByCategory.forEach((category, spans) -> result.put(category, SpanIntervals.of(spans, from, to).getCoveredTime()));
+        result.put(UNTRACED, SpanIntervals.of(traceLog.getSpans(), from, to).getUncoveredTime());
+        return result;
+    }
+
+    static String categoryOf(final Span span) {
+        if (span instanceof QuerySpan) {
+            return "db";
+        }
+        if (span instanceof QueueWaitSpan) {
+            return "queue";
+        }
+        return SpanDescriptors.of(span).getCategory();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.analysis;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import de.thalia.boot.tracing.TraceLog;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Die Abdeckung eines Aufrufs durch Spans. Die nicht abgedeckte Zeit ist Eigenzeit des Services, die durch keine
+ * Instrumentierung erklärt wird, z.B. CPU-intensives Mapping, Template-Rendering oder das Warten auf Locks.
+ */
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class SpanCoverage {
+
+    /**
+     * Die von mindestens einem Span abgedeckte Zeit. Parallele Spans werden nur einmal gezählt.
+     */
+    private long coveredTime;
+
+    /**
+     * Die von keinem Span abgedeckte Zeit.
+     */
+    private long untracedTime;
+
+    /**
+     * Beginn der größten Lücke relativ zum Beginn des Aufrufs.
+     */
+    private long largestGapOffset;
+
+    /**
+     * Länge der größten Lücke.
+     */
+    private long largestGapDuration;
+
+    public SpanCoverage(final long coveredTime, final long untracedTime, final long largestGapOffset,
+            final long largestGapDuration) {
+        this.coveredTime = coveredTime;
+        this.untracedTime = untracedTime;
+        this.largestGapOffset = largestGapOffset;
+        this.largestGapDuration = largestGapDuration;
+    }
+
+    /**
+     * Berechnet die Abdeckung des übergebenen Trace-Logs.
+     *
+     * @param traceLog
+     *            das Trace-Log des aktuellen Aufrufs
+     * @return die Abdeckung
+     */
+    public static SpanCoverage of(final TraceLog traceLog) {
+        final long from = traceLog.getStartTime();
+        final SpanIntervals intervals = SpanIntervals.of(traceLog.getSpans(), from, from + traceLog.getDuration());
+        final long[] largestGap = intervals.getLargestGap();
+        return new SpanCoverage(intervals.getCoveredTime(), intervals.getUncoveredTime(), largestGap[0] - from, largestGap[1]);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.analysis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import de.thalia.boot.tracing.Span;
+
+/**
+ * Die Vereinigung der Zeitintervalle einer Menge von Spans innerhalb eines Zeitraums. Überlappende Spans, z.B. aus parallelen
+ * Aufrufen, werden dabei nur einmal gezählt; Anteile außerhalb des Zeitraums werden abgeschnitten.
+ */
+public final class SpanIntervals {
+
+    private final long from;
+    private final long to;
+    /**
+     * Sortierte, disjunkte Intervalle als Paare von Start und Ende.
+     */
+    private final long[] bounds;
+    private final int count;
+
+    private SpanIntervals(final long from, final long to, final long[] bounds, final int count) {
+        this.from = from;
+        this.to = to;
+        this.bounds = bounds;
+        this.count = count;
+    }
+
+    /**
+     * Bildet die Vereinigung der übergebenen Spans im Zeitraum {@code [from, to]}.
+     *
+     * @param spans
+     *            die Spans, darf {@code null} sein
+     * @param from
+     *            Beginn des Zeitraums
+     * @param to
+     *            Ende des Zeitraums
+     * @return die Vereinigung
+     */
+    public static SpanIntervals of(final Collection<? extends Span> spans, final long from, final long to) {
+        if (null == spans || spans.isEmpty() || to <= from) {
+            return new SpanIntervals(from, Math.max(from, to), new long[0], 0);
+        }
+        final List<long[]> clipped = new ArrayList<>(spans.size());
+        for (final Span span : spans) {
+            final long start = Math.max(span.getStartTime(), from);
+            final long end = Math.min(span.getStartTime() + span.getDuration(), to);
+            if (end > start) {
+                clipped.add(new long[] { start, end });
+            }
+        }
+        clipped.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        final long[] bounds = new long[clipped.size() * 2];
+        int count = 0;
+        for (final long[] interval : clipped) {
+            if (count > 0 && interval[0] <= bounds[count * 2 - 1]) {
+                bounds[count * 2 - 1] = Math.max(bounds[count * 2 - 1], interval[1]);
+            } else {
+                bounds[count * 2] = interval[0];
+                bounds[count * 2 + 1] = interval[1];
+                count++;
+            }
+        }
+        return new SpanIntervals(from, to, bounds, count);
+    }
+
+    /**
+     * @return die von mindestens einem Span abgedeckte Zeit
+     */
+    public long getCoveredTime() {
+        long covered = 0;
+        for (int i = 0; i < count; i++) {
+            covered += bounds[i * 2 + 1] - bounds[i * 2];
+        }
+        return covered;
+    }
+
+    /**
+     * @return die von keinem Span abgedeckte Zeit des Zeitraums
+     */
+    public long getUncoveredTime() {
+        return to - from - getCoveredTime();
+    }
+
+    /**
+     * Ermittelt die größte Lücke zwischen den Spans, inklusive der Zeit vor dem ersten und nach dem letzten Span. Bei gleich
+     * großen Lücken gewinnt die früheste.
+     *
+     * @return Beginn und Länge der größten Lücke; die Länge ist {@code 0}, wenn der Zeitraum vollständig abgedeckt ist
+     */
+    public long[] getLargestGap() {
+        long gapStart = from;
+        long gapLength = 0;
+        long cursor = from;
+        for (int i = 0; i <= count; i++) {
+            final long next = i < count ? bounds[i * 2] : to;
+            if (next - cursor > gapLength) {
+                gapStart = cursor;
+                gapLength = next - cursor;
+            }
+            if (i < count) {
+                cursor = bounds[i * 2 + 1];
+            }
+        }
+        return new long[] { gapStart, gapLength };
+    }
+}
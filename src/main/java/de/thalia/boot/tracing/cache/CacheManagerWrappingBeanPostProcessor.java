@@ -0,0 +1,46 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.cache;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
+
+import de.thalia.boot.tracing.Tracer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link BeanPostProcessor} der {@link CacheManager}-Instanzen für das Tracing in einen {@link TracingCacheManager} verpackt.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CacheManagerWrappingBeanPostProcessor implements BeanPostProcessor {
+
+    /**
+     * Der Tracer, mit dem die Zugriffe aufgezeichnet werden.
+     */
+    private final Tracer tracer;
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (!(bean instanceof CacheManager) || bean instanceof TracingCacheManager) {
+            return bean;
+        }
+
+        log.debug("postProcessAfterInitialization() - Wrappe CacheManager '{}'", beanName);
+        return new TracingCacheManager((CacheManager) bean, tracer);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.cache;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import de.thalia.boot.tracing.Span;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ein oder mehrere direkt aufeinander folgende Zugriffe auf einen Spring {@link org.springframework.cache.Cache}. Der Name des
+ * Spans ist der Name des Caches.
+ */
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE, force = true)
+public class CacheSpan extends Span {
+
+    public static final String GET = "get";
+    public static final String PUT = "put";
+    public static final String EVICT = "evict";
+    public static final String CLEAR = "clear";
+
+    /**
+     * Die Art des Zugriffs, siehe {@link #GET}, {@link #PUT}, {@link #EVICT} und {@link #CLEAR}.
+     */
+    private final String operation;
+
+    /**
+     * Bei Lesezugriffen, ob der Wert im Cache gefunden wurde.
+     */
+    private final Boolean hit;
+
+    /**
+     * Die Anzahl der zusammengefassten Zugriffe.
+     */
+    private final int count;
+
+    /**
+     * Die Zeit in Millisekunden, die nach Fehlschlägen für das Laden der Werte benötigt wurde, sofern bekannt.
+     */
+    private final Long loadTime;
+
+    /**
+     * Bei Treffern die geschätzte eingesparte Zeit in Millisekunden, d.h. die bisherige mittlere Ladezeit des Caches je Treffer.
+     */
+    private final Long savedTime;
+
+    /**
+     * Erzeugt eine neue Instanz und konfiguriert sie mit den übergebenen Werten.
+     *
+     * @param name
+     *            der Name des Caches
+     * @param startTime
+     *            siehe {@link Span}
+     * @param duration
+     *            siehe {@link Span}
+     * @param operation
+     *            siehe Feldbeschreibung
+     * @param hit
+     *            siehe Feldbeschreibung
+     * @param count
+     *            siehe Feldbeschreibung
+     * @param loadTime
+     *            siehe Feldbeschreibung
+     * @param savedTime
+     *            siehe Feldbeschreibung
+     */
+    public CacheSpan(final String name, final long startTime, final long duration, final String operation, final Boolean hit,
+            final int count, final Long loadTime, final Long savedTime) {
+        super(name, startTime, duration);
+        this.operation = operation;
+        this.hit = hit;
+        this.count = count;
+        this.loadTime = loadTime;
+        this.savedTime = savedTime;
+    }
+
+    /**
+     * Prüft, ob der übergebene Span ein unmittelbar zuvor erfasster, gleichartiger Zugriff auf denselben Cache ist, mit dem dieser
+     * zusammengefasst werden kann.
+     *
+     * @param span
+     *            der zuletzt erfasste Span
+     * @return {@code true}, falls die Spans zusammengefasst werden können
+     */
+    boolean canMergeWith(final Span span) {
+        if (!(span instanceof CacheSpan)) {
+            return false;
+        }
+        final CacheSpan other = (CacheSpan) span;
+        return getName().equals(other.getName()) && operation.equals(other.operation)
+                && (null == hit ? null == other.hit : hit.equals(other.hit));
+    }
+
+    /**
+     * Fasst diesen Span mit dem direkt folgenden, gleichartigen Span zusammen.
+     *
+     * @param next
+     *            der folgende Span
+     * @return der zusammengefasste Span
+     */
+    CacheSpan mergeWith(final CacheSpan next) {
+        return new CacheSpan(getName(), getStartTime(), getDuration() + next.getDuration(), operation, hit, count + next.count,
+                sum(loadTime, next.loadTime), sum(savedTime, next.savedTime));
+    }
+
+    private static Long sum(final Long first, final Long second) {
+        if (null == first) {
+            return second;
+        }
+        return null == second ? first : first + second;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.cache;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.cache.Cache;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.Tracer;
+import lombok.Getter;
+
+/**
+ * Decorator für einen Spring {@link Cache}, der jeden Zugriff mit Dauer und Ergebnis als {@link CacheSpan} im Trace des aktuellen
+ * Requests erfasst.
+ *
+ * Die Ladezeit eines Werts ist bei {@link #get(Object, Callable)} die Dauer des Loaders. Bei {@code @Cacheable} liest Spring
+ * zunächst mit {@link #get(Object)} und schreibt den in der Methode ermittelten Wert anschließend mit {@link #put(Object, Object)};
+ * die Ladezeit ist dann die Zeit zwischen Fehlschlag und Schreiben desselben Schlüssels im selben Request. Aus den Ladezeiten
+ * ergibt sich die je Treffer eingesparte Zeit.
+ */
+public class TracingCache implements Cache {
+
+    /**
+     * Der letzte Fehlschlag im aktuellen Request, dessen Wert noch nicht geschrieben wurde. Er liegt im Request statt in einem
+     * ThreadLocal, damit ein Fehlschlag ohne anschließendes Schreiben (z.B. bei einer Exception im Loader oder {@code unless})
+     * mit dem Request verfällt und nicht in einem späteren Request desselben Threads als Ladezeit erscheint.
+     */
+    private static final String PENDING_LOAD_ATTRIBUTE_NAME = TracingCache.class.getName() + ".PENDINGLOAD";
+
+    /**
+     * Der eigentliche Cache.
+     */
+    @Getter
+    private final Cache delegate;
+
+    /**
+     * Der Tracer, in dem die Zugriffe erfasst werden.
+     */
+    private final Tracer tracer;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    public TracingCache(final Cache delegate, final Tracer tracer) {
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(final Object key) {
+        final long startTime = System.currentTimeMillis();
+        final long start = System.nanoTime();
+        final ValueWrapper value = delegate.get(key);
+        recordGet(key, startTime, start, null != value);
+        return value;
+    }
+
+    @Override
+    public <T> T get(final Object key, final Class<T> type) {
+        final long startTime = System.currentTimeMillis();
+        final long start = System.nanoTime();
+        final T value = delegate.get(key, type);
+        recordGet(key, startTime, start, null != value);
+        return value;
+    }
+
+    @Override
+    public <T> T get(final Object key, final Callable<T> valueLoader) {
+        final long startTime = System.currentTimeMillis();
+        final long start = System.nanoTime();
+        final long[] load = { -1 };
+        try {
+            return delegate.get(key, () -> {
+                final long loadStart = System.nanoTime();
+                try {
+                    return valueLoader.call();
+                } finally {
+                    load[0] = System.nanoTime() - loadStart;
+                }
+            });
+        } finally {
+            final boolean hit = load[0] < 0;
+            Long loadTime = null;
+            if (!hit) {
+                recordLoad(load[0]);
+                loadTime = TimeUnit.NANOSECONDS.toMillis(load[0]);
+            }
+            addSpan(new CacheSpan(getName(), startTime, millisSince(start), CacheSpan.GET, hit, 1, loadTime,
+                    hit ? meanLoadTime() : null));
+        }
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        final long startTime = System.currentTimeMillis();
+        final long start = System.nanoTime();
+        delegate.put(key, value);
+        recordPut(key, startTime, start);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(final Object key, final Object value) {
+        final long startTime = System.currentTimeMillis();
+        final long start = System.nanoTime();
+        final ValueWrapper existing = delegate.putIfAbsent(key, value);
+        recordPut(key, startTime, start);
+        return existing;
+    }
+
+    @Override
+    public void evict(final Object key) {
+        final long startTime = System.currentTimeMillis();
+        final long start = System.nanoTime();
+        delegate.evict(key);
+        addSpan(new CacheSpan(getName(), startTime, millisSince(start), CacheSpan.EVICT, null, 1, null, null));
+    }
+
+    @Override
+    public void clear() {
+        final long startTime = System.currentTimeMillis();
+        final long start = System.nanoTime();
+        delegate.clear();
+        addSpan(new CacheSpan(getName(), startTime, millisSince(start), CacheSpan.CLEAR, null, 1, null, null));
+    }
+
+    /**
+     * Liefert die bisherige mittlere Ladezeit der Werte dieses Caches.
+     *
+     * @return die mittlere Ladezeit in Millisekunden oder {@code null}, falls noch kein Ladevorgang beobachtet wurde
+     */
+    public Long meanLoadTime() {
+        final long count = loads.sum();
+        return 0 == count ? null : TimeUnit.NANOSECONDS.toMillis(loadNanos.sum() / count);
+    }
+
+    private void recordGet(final Object key, final long startTime, final long start, final boolean hit) {
+        final long duration = millisSince(start);
+        if (hit) {
+            addSpan(new CacheSpan(getName(), startTime, duration, CacheSpan.GET, true, 1, null, meanLoadTime()));
+        } else {
+            final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            if (null != attributes) {
+                attributes.setAttribute(PENDING_LOAD_ATTRIBUTE_NAME, new PendingLoad(this, key, System.nanoTime()),
+                        RequestAttributes.SCOPE_REQUEST);
+            }
+            addSpan(new CacheSpan(getName(), startTime, duration, CacheSpan.GET, false, 1, null, null));
+        }
+    }
+
+    private void recordPut(final Object key, final long startTime, final long start) {
+        Long loadTime = null;
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        final PendingLoad pending = null == attributes ? null
+                : (PendingLoad) attributes.getAttribute(PENDING_LOAD_ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST);
+        if (null != pending) {
+            attributes.removeAttribute(PENDING_LOAD_ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST);
+            if (this == pending.cache && Objects.equals(pending.key, key)) {
+                final long nanos = start - pending.missedAt;
+                recordLoad(nanos);
+                loadTime = TimeUnit.NANOSECONDS.toMillis(nanos);
+            }
+        }
+        addSpan(new CacheSpan(getName(), startTime, millisSince(start), CacheSpan.PUT, null, 1, loadTime, null));
+    }
+
+    private void recordLoad(final long nanos) {
+        loads.increment();
+        loadNanos.add(nanos);
+    }
+
+    private void addSpan(final CacheSpan span) {
+        final long overheadCpuStart = tracer.overheadCpuStart();
+        final long overheadAllocationStart = tracer.overheadAllocationStart();
+        final Optional<List<Span>> requestSpans = tracer.getCollectedSpansForCurrentRequest();
+        if (requestSpans.isPresent()) {
+            final List<Span> spans = requestSpans.get();
+            final Span latest = spans.isEmpty() ? null : spans.get(spans.size() - 1);
+            if (span.canMergeWith(latest)) {
+                tracer.replaceLatestSpan(((CacheSpan) latest).mergeWith(span));
+            } else {
+                tracer.addToLog(span);
+            }
+        }
+        tracer.recordOverhead(overheadCpuStart, overheadAllocationStart);
+    }
+
+    private static long millisSince(final long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static final class PendingLoad {
+
+        private final TracingCache cache;
+        private final Object key;
+        private final long missedAt;
+
+        private PendingLoad(final TracingCache cache, final Object key, final long missedAt) {
+            this.cache = cache;
+            this.key = key;
+            this.missedAt = missedAt;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.cache;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import de.thalia.boot.tracing.Tracer;
+import lombok.Getter;
+
+/**
+ * Decorator für einen {@link CacheManager}, der alle Caches in einen {@link TracingCache} verpackt.
+ */
+public class TracingCacheManager implements CacheManager {
+
+    /**
+     * Der eigentliche CacheManager.
+     */
+    @Getter
+    private final CacheManager delegate;
+
+    /**
+     * Der Tracer, in dem die Zugriffe erfasst werden.
+     */
+    private final Tracer tracer;
+
+    /**
+     * Die verpackten Caches, damit die Ladezeiten über alle Zugriffe hinweg erhalten bleiben.
+     */
+    private final ConcurrentMap<String, TracingCache> caches = new ConcurrentHashMap<>();
+
+    public TracingCacheManager(final CacheManager delegate, final Tracer tracer) {
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Cache getCache(final String name) {
+        final Cache cache = delegate.getCache(name);
+        if (null == cache) {
+            return null;
+        }
+        final TracingCache existing = caches.get(name);
+        if (null != existing && existing.getDelegate() == cache) {
+            return existing;
+        }
+        // Manche CacheManager erzeugen Caches bei Bedarf neu, dann wird auch der Decorator neu erzeugt
+        return caches.compute(name,
+                (key, traced) -> null != traced && traced.getDelegate() == cache ? traced : new TracingCache(cache, tracer));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
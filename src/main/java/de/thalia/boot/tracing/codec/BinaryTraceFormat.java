@@ -0,0 +1,106 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import de.thalia.boot.tracing.TraceLog;
+
+/**
+ * Kompaktes Binärformat für {@link TraceLog}s.
+ *
+ * Ein Stream beginnt mit {@link #MAGIC} und der {@link #VERSION}, danach folgen beliebig viele Trace-Logs. Zahlen werden als
+ * Varint geschrieben, Zeitpunkte der Spans als Abstand zum Start ihres Trace-Logs. Zeichenketten (Namen von Beans, Datasources
+ * und Commands, URIs, ...) landen beim ersten Auftreten in einem Wörterbuch des Streams und werden danach nur noch über ihren
+ * Index referenziert. Jeder Span beginnt mit einem Typ-Kennzeichen, siehe {@code TYPE_*}.
+ *
+ * Die Analysen (kritischer Pfad, Abdeckung, Nebenläufigkeit) sind nicht enthalten, da sie sich aus den Spans berechnen lassen.
+ */
+public final class BinaryTraceFormat {
+
+    static final byte[] MAGIC = { 'T', 'L', 'B' };
+    static final byte VERSION = 1;
+
+    static final int TYPE_SPAN = 0;
+    static final int TYPE_QUERY = 1;
+    static final int TYPE_HTTP = 2;
+    static final int TYPE_HYSTRIX = 3;
+    static final int TYPE_CIRCUIT_BREAKER = 4;
+    static final int TYPE_QUEUE_WAIT = 5;
+    static final int TYPE_MVC = 6;
+    static final int TYPE_CACHE = 7;
+    static final int TYPE_TRANSACTION = 8;
+    /**
+     * Ein {@link de.thalia.boot.tracing.resilience4j.CircuitBreakerSpan} mit Zustand, Ergebnis, Wartezeiten und Versuchen. Spans
+     * ohne diese Angaben werden weiterhin als {@link #TYPE_CIRCUIT_BREAKER} geschrieben.
+     */
+    static final int TYPE_CIRCUIT_BREAKER_DETAILS = 9;
+
+    /**
+     * Wird mit dem Typ-Kennzeichen verknüpft, wenn der Span {@link de.thalia.boot.tracing.SpanAttributes Attribute} hat. Sie
+     * folgen nach den Feldern des Typs als Anzahl und je Attribut Name, Typ und Wert.
+     */
+    static final int ATTRIBUTES_FLAG = 0x80;
+
+    /**
+     * Die maximale Anzahl der Einträge im Wörterbuch eines Streams. Weitere Zeichenketten werden ausgeschrieben, damit lange
+     * Streams den Speicher nicht füllen.
+     */
+    static final int MAX_DICTIONARY_SIZE = 4096;
+
+    private BinaryTraceFormat() {
+    }
+
+    /**
+     * Kodiert ein einzelnes Trace-Log als eigenen Stream.
+     *
+     * @param aLog
+     *            das Trace-Log
+     * @return die kodierten Bytes
+     */
+    public static byte[] encode(final TraceLog aLog) {
+        final ByteArrayOutputStream theBytes = new ByteArrayOutputStream(512);
+        try (BinaryTraceLogEncoder theEncoder = new BinaryTraceLogEncoder(theBytes)) {
+            theEncoder.write(aLog);
+        } catch (final IOException e) {
+            // Kann bei einem ByteArrayOutputStream nicht auftreten
+            throw new UncheckedIOException(e);
+        }
+        return theBytes.toByteArray();
+    }
+
+    /**
+     * Dekodiert ein einzelnes, mit {@link #encode(TraceLog)} kodiertes Trace-Log.
+     *
+     * @param aBytes
+     *            die kodierten Bytes
+     * @return das Trace-Log
+     * @throws IOException
+     *             falls die Bytes kein gültiges Trace-Log enthalten
+     */
+    public static TraceLog decode(final byte[] aBytes) throws IOException {
+        try (BinaryTraceLogDecoder theDecoder = new BinaryTraceLogDecoder(new ByteArrayInputStream(aBytes))) {
+            final TraceLog theLog = theDecoder.read();
+            if (null == theLog) {
+                throw new IOException("Kein Trace-Log enthalten");
+            }
+            return theLog;
+        }
+    }
+}
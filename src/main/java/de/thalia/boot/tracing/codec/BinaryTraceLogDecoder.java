@@ -0,0 +1,349 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.codec;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import de.thalia.boot.tracing.AttributeKey;
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.TracingOverhead;
+import de.thalia.boot.tracing.cache.CacheSpan;
+import de.thalia.boot.tracing.database.QuerySpan;
+import de.thalia.boot.tracing.database.TransactionSpan;
+import de.thalia.boot.tracing.hystrix.HystrixSpan;
+import de.thalia.boot.tracing.mvc.MvcSpan;
+import de.thalia.boot.tracing.queue.QueueWaitSpan;
+import de.thalia.boot.tracing.resilience4j.CircuitBreakerAttempt;
+import de.thalia.boot.tracing.resilience4j.CircuitBreakerSpan;
+import de.thalia.boot.tracing.rest.ClockSkew;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+import de.thalia.boot.tracing.rest.HttpPhases;
+
+/**
+ * Liest {@link TraceLog}s im {@link BinaryTraceFormat} aus einem Stream, der mit einem {@link BinaryTraceLogEncoder} geschrieben
+ * wurde. Nicht thread-safe.
+ */
+public class BinaryTraceLogDecoder implements Closeable {
+
+    private final InputStream in;
+    private final List<String> dictionary = new ArrayList<>();
+    private final byte[] buffer = new byte[4096];
+    private int position;
+    private int limit;
+    private boolean headerRead;
+
+    public BinaryTraceLogDecoder(final InputStream aIn) {
+        in = aIn;
+    }
+
+    /**
+     * Liest das nächste Trace-Log.
+     *
+     * @return das Trace-Log oder {@code null} am Ende des Streams
+     * @throws IOException
+     *             falls der Stream nicht gelesen werden kann oder kein gültiges Trace-Log enthält
+     */
+    public TraceLog read() throws IOException {
+        if (!headerRead) {
+            if (!fill()) {
+                return null;
+            }
+            for (final byte theByte : BinaryTraceFormat.MAGIC) {
+                if (readByte() != theByte) {
+                    throw new IOException("Kein binäres Trace-Log");
+                }
+            }
+            final int theVersion = readByte();
+            if (theVersion != BinaryTraceFormat.VERSION) {
+                throw new IOException("Nicht unterstützte Version " + theVersion + " des binären Trace-Logs");
+            }
+            headerRead = true;
+        }
+        if (position == limit && !fill()) {
+            return null;
+        }
+        return readTraceLog();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private TraceLog readTraceLog() throws IOException {
+        final int theFlags = readByte();
+        final String theApplicationName = readString();
+        final String theHostName = readString();
+        final long theStartTime = readSignedVarLong();
+        final long theDuration = readSignedVarLong();
+        final Long theCpuNanos = readOptional(theFlags, 0);
+        final Long theAllocatedBytes = readOptional(theFlags, 1);
+        final Long theGcPauseTime = readOptional(theFlags, 2);
+        TracingOverhead theOverhead = null;
+        if (isSet(theFlags, 3)) {
+            theOverhead = new TracingOverhead();
+            theOverhead.add(readSignedVarLong(), readSignedVarLong());
+        }
+        ClockSkew theClockSkew = null;
+        if (isSet(theFlags, 4)) {
+            final long theOffset = readSignedVarLong();
+            final long theRoundTrip = readSignedVarLong();
+            final int theSkewFlags = readByte();
+            theClockSkew = new ClockSkew(theOffset, theRoundTrip, isSet(theSkewFlags, 0), isSet(theSkewFlags, 1));
+        }
+        List<Span> theSpans = null;
+        if (isSet(theFlags, 5)) {
+            final int theCount = (int) readVarLong();
+            theSpans = new ArrayList<>(theCount);
+            for (int i = 0; i < theCount; i++) {
+                theSpans.add(readSpan(theStartTime));
+            }
+        }
+        final TraceLog theLog = new TraceLog(theApplicationName, theHostName, theStartTime, theDuration, theSpans);
+        theLog.setCpuNanos(theCpuNanos);
+        theLog.setAllocatedBytes(theAllocatedBytes);
+        theLog.setGcPauseTime(theGcPauseTime);
+        theLog.setTracingOverhead(theOverhead);
+        theLog.setClockSkew(theClockSkew);
+        return theLog;
+    }
+
+    private Span readSpan(final long aLogStart) throws IOException {
+        final int theTag = readByte();
+        final Span theSpan = readSpan(theTag & ~BinaryTraceFormat.ATTRIBUTES_FLAG, aLogStart);
+        if ((theTag & BinaryTraceFormat.ATTRIBUTES_FLAG) != 0) {
+            readAttributes(theSpan);
+        }
+        return theSpan;
+    }
+
+    private Span readSpan(final int aType, final long aLogStart) throws IOException {
+        final String theName = readString();
+        final long theStartTime = aLogStart + readSignedVarLong();
+        final long theDuration = readSignedVarLong();
+        switch (aType) {
+        case BinaryTraceFormat.TYPE_SPAN:
+            return new Span(theName, theStartTime, theDuration);
+        case BinaryTraceFormat.TYPE_QUERY: {
+            final int theFlags = readByte();
+            final int theNumberQueries = (int) readVarLong();
+            final String theDatasourceName = readString();
+            final Long theBatchSize = readOptional(theFlags, 0);
+            return new QuerySpan(theName, theStartTime, theDuration, theNumberQueries, theDatasourceName,
+                    null == theBatchSize ? null : theBatchSize.intValue(), readOptional(theFlags, 1));
+        }
+        case BinaryTraceFormat.TYPE_HTTP:
+            return readHttpSpan(theName, theStartTime, theDuration);
+        case BinaryTraceFormat.TYPE_HYSTRIX:
+            return new HystrixSpan(theName, theStartTime, theDuration);
+        case BinaryTraceFormat.TYPE_CIRCUIT_BREAKER:
+            return new CircuitBreakerSpan(theName, theStartTime, theDuration);
+        case BinaryTraceFormat.TYPE_CIRCUIT_BREAKER_DETAILS:
+            return readCircuitBreakerSpan(theName, theStartTime, theDuration, aLogStart);
+        case BinaryTraceFormat.TYPE_QUEUE_WAIT:
+            return new QueueWaitSpan(theName, theStartTime, theDuration);
+        case BinaryTraceFormat.TYPE_MVC:
+            return new MvcSpan(theName, theStartTime, theDuration);
+        case BinaryTraceFormat.TYPE_CACHE: {
+            final int theFlags = readByte();
+            final String theOperation = readString();
+            final int theHit = readByte();
+            final int theCount = (int) readVarLong();
+            return new CacheSpan(theName, theStartTime, theDuration, theOperation, 0 == theHit ? null : theHit == 2, theCount,
+                    readOptional(theFlags, 0), readOptional(theFlags, 1));
+        }
+        case BinaryTraceFormat.TYPE_TRANSACTION:
+            return new TransactionSpan(theName, theStartTime, theDuration, readString(), readSignedVarLong(),
+                    (int) readVarLong(), readString());
+        default:
+            throw new IOException("Unbekannter Span-Typ " + aType);
+        }
+    }
+
+    private void readAttributes(final Span aSpan) throws IOException {
+        final int theCount = (int) readVarLong();
+        for (int i = 0; i < theCount; i++) {
+            final String theName = readString();
+            final int theType = readByte();
+            switch (theType) {
+            case 0:
+                aSpan.setAttribute(AttributeKey.forValue(theName, AttributeKey.Type.LONG), readSignedVarLong());
+                break;
+            case 1:
+                aSpan.setAttribute(AttributeKey.forValue(theName, AttributeKey.Type.DOUBLE),
+                        Double.longBitsToDouble(readFixedLong()));
+                break;
+            case 2:
+                aSpan.setAttribute(AttributeKey.forValue(theName, AttributeKey.Type.BOOLEAN), 0 != readByte());
+                break;
+            case 3:
+                aSpan.setAttribute(AttributeKey.forValue(theName, AttributeKey.Type.STRING), readString());
+                break;
+            default:
+                throw new IOException("Unbekannter Attribut-Typ " + theType);
+            }
+        }
+    }
+
+    private CircuitBreakerSpan readCircuitBreakerSpan(final String aName, final long aStartTime, final long aDuration,
+            final long aLogStart) throws IOException {
+        final int theFlags = readByte();
+        final String theState = readString();
+        final String theOutcome = readString();
+        final Long theRetryWait = readOptional(theFlags, 0);
+        final Long theRateLimiterWait = readOptional(theFlags, 1);
+        final Long theBulkheadWait = readOptional(theFlags, 2);
+        List<CircuitBreakerAttempt> theAttempts = null;
+        if (isSet(theFlags, 3)) {
+            final int theCount = (int) readVarLong();
+            theAttempts = new ArrayList<>(theCount);
+            for (int i = 0; i < theCount; i++) {
+                final long theAttemptStart = aLogStart + readSignedVarLong();
+                final long theAttemptDuration = readSignedVarLong();
+                final String theAttemptOutcome = readString();
+                final int theAttemptFlags = readByte();
+                theAttempts.add(new CircuitBreakerAttempt(theAttemptStart, theAttemptDuration, theAttemptOutcome,
+                        readOptional(theAttemptFlags, 0), readOptional(theAttemptFlags, 1)));
+            }
+        }
+        return new CircuitBreakerSpan(aName, aStartTime, aDuration, theState, theOutcome, theRetryWait, theRateLimiterWait,
+                theBulkheadWait, theAttempts);
+    }
+
+    private HTTPSpan readHttpSpan(final String aName, final long aStartTime, final long aDuration) throws IOException {
+        final int theFlags = readByte();
+        final String theMethod = readString();
+        final String theUri = readString();
+        final int theStatus = (int) readVarLong();
+        final TraceLog theNested = isSet(theFlags, 0) ? readTraceLog() : null;
+        HttpPhases thePhases = null;
+        if (isSet(theFlags, 1)) {
+            thePhases = new HttpPhases();
+            final int thePhaseFlags = readByte();
+            // Die Phasen werden in Nanosekunden addiert, die Mikrosekunden bleiben dabei exakt erhalten
+            if (isSet(thePhaseFlags, 0)) {
+                thePhases.addLeaseWait(readSignedVarLong() * 1000);
+            }
+            if (isSet(thePhaseFlags, 1)) {
+                thePhases.addConnect(readSignedVarLong() * 1000);
+            }
+            if (isSet(thePhaseFlags, 2)) {
+                thePhases.addTlsHandshake(readSignedVarLong() * 1000);
+            }
+            if (isSet(thePhaseFlags, 3)) {
+                thePhases.addTimeToFirstByte(readSignedVarLong() * 1000);
+            }
+            if (isSet(thePhaseFlags, 4)) {
+                thePhases.addBodyRead(readSignedVarLong() * 1000);
+            }
+        }
+        return new HTTPSpan(aName, aStartTime, aDuration, null == theMethod ? null : HttpMethod.resolve(theMethod),
+                null == theUri ? null : URI.create(theUri), 0 == theStatus ? null : HttpStatus.resolve(theStatus), theNested,
+                thePhases);
+    }
+
+    private static boolean isSet(final int aFlags, final int aBit) {
+        return (aFlags & (1 << aBit)) != 0;
+    }
+
+    private Long readOptional(final int aFlags, final int aBit) throws IOException {
+        return isSet(aFlags, aBit) ? readSignedVarLong() : null;
+    }
+
+    private String readString() throws IOException {
+        final long theTag = readVarLong();
+        if (0 == theTag) {
+            return null;
+        }
+        if ((theTag & 1) == 0) {
+            final int theIndex = (int) (theTag >>> 1) - 1;
+            if (theIndex >= dictionary.size()) {
+                throw new IOException("Ungültiger Verweis " + theIndex + " in das Wörterbuch");
+            }
+            return dictionary.get(theIndex);
+        }
+        final int theLength = (int) (theTag >>> 2);
+        final byte[] theBytes = new byte[theLength];
+        int theRead = 0;
+        while (theRead < theLength) {
+            if (position == limit && !fill()) {
+                throw new EOFException();
+            }
+            final int theChunk = Math.min(theLength - theRead, limit - position);
+            System.arraycopy(buffer, position, theBytes, theRead, theChunk);
+            position += theChunk;
+            theRead += theChunk;
+        }
+        final String theValue = new String(theBytes, StandardCharsets.UTF_8);
+        if ((theTag & 2) != 0) {
+            dictionary.add(theValue);
+        }
+        return theValue;
+    }
+
+    private long readSignedVarLong() throws IOException {
+        final long theValue = readVarLong();
+        return (theValue >>> 1) ^ -(theValue & 1);
+    }
+
+    private long readVarLong() throws IOException {
+        long theValue = 0;
+        for (int theShift = 0; theShift < 64; theShift += 7) {
+            final int theByte = readByte();
+            theValue |= (long) (theByte & 0x7F) << theShift;
+            if ((theByte & 0x80) == 0) {
+                return theValue;
+            }
+        }
+        throw new IOException("Ungültiger Varint");
+    }
+
+    private long readFixedLong() throws IOException {
+        long theValue = 0;
+        for (int i = 0; i < 8; i++) {
+            theValue |= (long) readByte() << (8 * i);
+        }
+        return theValue;
+    }
+
+    private int readByte() throws IOException {
+        if (position == limit && !fill()) {
+            throw new EOFException();
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        final int theRead = in.read(buffer, 0, buffer.length);
+        if (theRead <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = theRead;
+        return true;
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.codec;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.thalia.boot.tracing.AttributeKey;
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.SpanAttributes;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.TracingOverhead;
+import de.thalia.boot.tracing.cache.CacheSpan;
+import de.thalia.boot.tracing.database.QuerySpan;
+import de.thalia.boot.tracing.database.TransactionSpan;
+import de.thalia.boot.tracing.hystrix.HystrixSpan;
+import de.thalia.boot.tracing.mvc.MvcSpan;
+import de.thalia.boot.tracing.queue.QueueWaitSpan;
+import de.thalia.boot.tracing.resilience4j.CircuitBreakerAttempt;
+import de.thalia.boot.tracing.resilience4j.CircuitBreakerSpan;
+import de.thalia.boot.tracing.rest.ClockSkew;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+import de.thalia.boot.tracing.rest.HttpPhases;
+
+/**
+ * Schreibt {@link TraceLog}s im {@link BinaryTraceFormat} in einen Stream. Das Wörterbuch der Zeichenketten gilt für alle
+ * Trace-Logs des Streams, je mehr Trace-Logs ein Encoder schreibt, desto kompakter werden sie also. Nicht thread-safe.
+ */
+public class BinaryTraceLogEncoder implements Flushable, Closeable {
+
+    private final OutputStream out;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private byte[] buffer = new byte[1024];
+    private int position;
+    private boolean headerWritten;
+
+    public BinaryTraceLogEncoder(final OutputStream aOut) {
+        out = aOut;
+    }
+
+    /**
+     * Schreibt ein Trace-Log. Die Bytes werden erst nach dem vollständigen Trace-Log an den Stream übergeben.
+     *
+     * @param aLog
+     *            das Trace-Log
+     * @throws IOException
+     *             falls der Stream nicht beschrieben werden kann
+     */
+    public void write(final TraceLog aLog) throws IOException {
+        if (!headerWritten) {
+            for (final byte theByte : BinaryTraceFormat.MAGIC) {
+                writeByte(theByte);
+            }
+            writeByte(BinaryTraceFormat.VERSION);
+            headerWritten = true;
+        }
+        writeTraceLog(aLog);
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeTraceLog(final TraceLog aLog) {
+        final TracingOverhead theOverhead = aLog.getTracingOverhead();
+        final ClockSkew theClockSkew = aLog.getClockSkew();
+        final List<Span> theSpans = aLog.getSpans();
+        writeByte(flags(aLog.getCpuNanos(), aLog.getAllocatedBytes(), aLog.getGcPauseTime(), theOverhead, theClockSkew,
+                theSpans));
+        writeString(aLog.getApplicationName());
+        writeString(aLog.getHostName());
+        writeSignedVarLong(aLog.getStartTime());
+        writeSignedVarLong(aLog.getDuration());
+        writeOptional(aLog.getCpuNanos());
+        writeOptional(aLog.getAllocatedBytes());
+        writeOptional(aLog.getGcPauseTime());
+        if (null != theOverhead) {
+            writeSignedVarLong(theOverhead.getCpuNanos());
+            writeSignedVarLong(theOverhead.getAllocatedBytes());
+        }
+        if (null != theClockSkew) {
+            writeSignedVarLong(theClockSkew.getOffset());
+            writeSignedVarLong(theClockSkew.getRoundTrip());
+            writeByte((theClockSkew.isCorrected() ? 1 : 0) | (theClockSkew.isExceedsRoundTrip() ? 2 : 0));
+        }
+        if (null != theSpans) {
+            writeVarLong(theSpans.size());
+            for (final Span theSpan : theSpans) {
+                writeSpan(theSpan, aLog.getStartTime());
+            }
+        }
+    }
+
+    private void writeSpan(final Span aSpan, final long aLogStart) {
+        final SpanAttributes theAttributes = aSpan.getAttributes();
+        final boolean theHasAttributes = null != theAttributes && !theAttributes.isEmpty();
+        writeByte(typeOf(aSpan) | (theHasAttributes ? BinaryTraceFormat.ATTRIBUTES_FLAG : 0));
+        writeString(aSpan.getName());
+        writeSignedVarLong(aSpan.getStartTime() - aLogStart);
+        writeSignedVarLong(aSpan.getDuration());
+        if (aSpan instanceof QuerySpan) {
+            final QuerySpan theQuery = (QuerySpan) aSpan;
+            writeByte(flags(theQuery.getBatchSize(), theQuery.getRowsAffected()));
+            writeVarLong(theQuery.getNumberQueries());
+            writeString(theQuery.getDatasourceName());
+            writeOptional(null == theQuery.getBatchSize() ? null : theQuery.getBatchSize().longValue());
+            writeOptional(theQuery.getRowsAffected());
+        } else if (aSpan instanceof HTTPSpan) {
+            writeHttpSpan((HTTPSpan) aSpan);
+        } else if (aSpan instanceof CacheSpan) {
+            final CacheSpan theCache = (CacheSpan) aSpan;
+            writeByte(flags(theCache.getLoadTime(), theCache.getSavedTime()));
+            writeString(theCache.getOperation());
+            writeByte(null == theCache.getHit() ? 0 : theCache.getHit() ? 2 : 1);
+            writeVarLong(theCache.getCount());
+            writeOptional(theCache.getLoadTime());
+            writeOptional(theCache.getSavedTime());
+        } else if (aSpan instanceof TransactionSpan) {
+            final TransactionSpan theTransaction = (TransactionSpan) aSpan;
+            writeString(theTransaction.getOutcome());
+            writeSignedVarLong(theTransaction.getCompletionTime());
+            writeVarLong(theTransaction.getNumberQueries());
+            writeString(theTransaction.getDatasourceName());
+        } else if (aSpan instanceof CircuitBreakerSpan && ((CircuitBreakerSpan) aSpan).hasDetails()) {
+            writeCircuitBreakerSpan((CircuitBreakerSpan) aSpan, aLogStart);
+        }
+        if (theHasAttributes) {
+            writeAttributes(theAttributes);
+        }
+    }
+
+    private void writeAttributes(final SpanAttributes aAttributes) {
+        writeVarLong(aAttributes.size());
+        for (int i = 0; i < aAttributes.size(); i++) {
+            final AttributeKey theKey = aAttributes.keyAt(i);
+            writeString(theKey.getName());
+            writeByte(theKey.getType().ordinal());
+            switch (theKey.getType()) {
+            case LONG:
+                writeSignedVarLong(aAttributes.longAt(i));
+                break;
+            case DOUBLE:
+                writeFixedLong(Double.doubleToRawLongBits(aAttributes.doubleAt(i)));
+                break;
+            case BOOLEAN:
+                writeByte(aAttributes.booleanAt(i) ? 1 : 0);
+                break;
+            default:
+                writeString(aAttributes.stringAt(i));
+            }
+        }
+    }
+
+    private void writeCircuitBreakerSpan(final CircuitBreakerSpan aSpan, final long aLogStart) {
+        final List<CircuitBreakerAttempt> theAttempts = aSpan.getAttempts();
+        writeByte(flags(aSpan.getRetryWaitMicros(), aSpan.getRateLimiterWaitMicros(), aSpan.getBulkheadWaitMicros(), theAttempts));
+        writeString(aSpan.getState());
+        writeString(aSpan.getOutcome());
+        writeOptional(aSpan.getRetryWaitMicros());
+        writeOptional(aSpan.getRateLimiterWaitMicros());
+        writeOptional(aSpan.getBulkheadWaitMicros());
+        if (null != theAttempts) {
+            writeVarLong(theAttempts.size());
+            for (final CircuitBreakerAttempt theAttempt : theAttempts) {
+                writeSignedVarLong(theAttempt.getStartTime() - aLogStart);
+                writeSignedVarLong(theAttempt.getDuration());
+                writeString(theAttempt.getOutcome());
+                writeByte(flags(theAttempt.getRateLimiterWaitMicros(), theAttempt.getBulkheadWaitMicros()));
+                writeOptional(theAttempt.getRateLimiterWaitMicros());
+                writeOptional(theAttempt.getBulkheadWaitMicros());
+            }
+        }
+    }
+
+    private void writeHttpSpan(final HTTPSpan aSpan) {
+        final HttpPhases thePhases = aSpan.getPhases();
+        writeByte(flags(aSpan.getNestedTraceLog(), thePhases));
+        writeString(null == aSpan.getRequestMethod() ? null : aSpan.getRequestMethod().name());
+        writeString(null == aSpan.getRequestURI() ? null : aSpan.getRequestURI().toString());
+        writeVarLong(null == aSpan.getResponseStatus() ? 0 : aSpan.getResponseStatus().value());
+        if (null != aSpan.getNestedTraceLog()) {
+            writeTraceLog(aSpan.getNestedTraceLog());
+        }
+        if (null != thePhases) {
+            writeByte(flags(thePhases.getLeaseWaitMicros(), thePhases.getConnectMicros(), thePhases.getTlsHandshakeMicros(),
+                    thePhases.getTimeToFirstByteMicros(), thePhases.getBodyReadMicros()));
+            writeOptional(thePhases.getLeaseWaitMicros());
+            writeOptional(thePhases.getConnectMicros());
+            writeOptional(thePhases.getTlsHandshakeMicros());
+            writeOptional(thePhases.getTimeToFirstByteMicros());
+            writeOptional(thePhases.getBodyReadMicros());
+        }
+    }
+
+    private static int typeOf(final Span aSpan) {
+        if (aSpan instanceof QuerySpan) {
+            return BinaryTraceFormat.TYPE_QUERY;
+        }
+        if (aSpan instanceof HTTPSpan) {
+            return BinaryTraceFormat.TYPE_HTTP;
+        }
+        if (aSpan instanceof HystrixSpan) {
+            return BinaryTraceFormat.TYPE_HYSTRIX;
+        }
+        if (aSpan instanceof CircuitBreakerSpan) {
+            return ((CircuitBreakerSpan) aSpan).hasDetails() ? BinaryTraceFormat.TYPE_CIRCUIT_BREAKER_DETAILS
+                    : BinaryTraceFormat.TYPE_CIRCUIT_BREAKER;
+        }
+        if (aSpan instanceof QueueWaitSpan) {
+            return BinaryTraceFormat.TYPE_QUEUE_WAIT;
+        }
+        if (aSpan instanceof MvcSpan) {
+            return BinaryTraceFormat.TYPE_MVC;
+        }
+        if (aSpan instanceof CacheSpan) {
+            return BinaryTraceFormat.TYPE_CACHE;
+        }
+        if (aSpan instanceof TransactionSpan) {
+            return BinaryTraceFormat.TYPE_TRANSACTION;
+        }
+        return BinaryTraceFormat.TYPE_SPAN;
+    }
+
+    /**
+     * @return ein Byte, in dem für jeden vorhandenen Wert das entsprechende Bit gesetzt ist
+     */
+    private static int flags(final Object... aValues) {
+        int theFlags = 0;
+        for (int i = 0; i < aValues.length; i++) {
+            if (null != aValues[i]) {
+                theFlags |= 1 << i;
+            }
+        }
+        return theFlags;
+    }
+
+    private void writeOptional(final Long aValue) {
+        if (null != aValue) {
+            writeSignedVarLong(aValue);
+        }
+    }
+
+    /**
+     * Schreibt eine Zeichenkette. Das Kennzeichen ist {@code 0} für {@code null}, bei gesetztem Bit 0 folgt die Zeichenkette
+     * selbst (Bit 1: sie wird ins Wörterbuch aufgenommen, ab Bit 2: Länge in Bytes), sonst ist es der um eins erhöhte Index im
+     * Wörterbuch ab Bit 1.
+     */
+    private void writeString(final String aValue) {
+        if (null == aValue) {
+            writeVarLong(0);
+            return;
+        }
+        final Integer theIndex = dictionary.get(aValue);
+        if (null != theIndex) {
+            writeVarLong((theIndex + 1L) << 1);
+            return;
+        }
+        final boolean theAdded = dictionary.size() < BinaryTraceFormat.MAX_DICTIONARY_SIZE;
+        if (theAdded) {
+            dictionary.put(aValue, dictionary.size());
+        }
+        final byte[] theBytes = aValue.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(((long) theBytes.length << 2) | (theAdded ? 2 : 0) | 1);
+        ensureCapacity(theBytes.length);
+        System.arraycopy(theBytes, 0, buffer, position, theBytes.length);
+        position += theBytes.length;
+    }
+
+    private void writeSignedVarLong(final long aValue) {
+        // ZigZag, damit kleine negative Werte ebenfalls kurz bleiben
+        writeVarLong((aValue << 1) ^ (aValue >> 63));
+    }
+
+    private void writeVarLong(final long aValue) {
+        ensureCapacity(10);
+        long theValue = aValue;
+        while ((theValue & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((theValue & 0x7F) | 0x80);
+            theValue >>>= 7;
+        }
+        buffer[position++] = (byte) theValue;
+    }
+
+    private void writeFixedLong(final long aValue) {
+        ensureCapacity(8);
+        for (int i = 0; i < 8; i++) {
+            buffer[position++] = (byte) (aValue >>> (8 * i));
+        }
+    }
+
+    private void writeByte(final int aValue) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) aValue;
+    }
+
+    private void ensureCapacity(final int aBytes) {
+        if (position + aBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + aBytes));
+        }
+    }
+}
@@ -21,6 +21,7 @@ import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.core.Ordered;
 
 import de.thalia.boot.tracing.Tracer;
+import de.thalia.boot.tracing.statistics.BatchSizeHistogram;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.ttddyy.dsproxy.support.ProxyDataSource;
@@ -47,6 +48,21 @@ public class DatasourceWrappingBeanPostProcessor implements BeanPostProcessor, O
      */
     private final Tracer tracer;
 
+    /**
+     * Das Histogramm, in dem die Batchgrößen schreibender Statements gesammelt werden.
+     */
+    private final BatchSizeHistogram batchSizeHistogram;
+
+    /**
+     * Erzeugt einen Processor mit eigenem, nicht veröffentlichtem Histogramm der Batchgrößen.
+     * 
+     * @param tracer
+     *            der Tracer, mit dem die Daten aufgezeichnet werden
+     */
+    public DatasourceWrappingBeanPostProcessor(final Tracer tracer) {
+        this(tracer, new BatchSizeHistogram());
+    }
+
     /**
      * Vor der Initialisierung der Datasource brauchen wir nichts zu tun, daher reicht diese Methode die Bean nur durch.
      * 
@@ -63,7 +79,7 @@ public class DatasourceWrappingBeanPostProcessor implements BeanPostProcessor, O
 
     /**
      * Wrappt die übergebene Bean in eine {@link net.ttddyy.dsproxy.support.ProxyDataSource}, sofern es sich um eine Datasource
-     * handelt und konfiguriert den Tracing-Listener für diese Datasource.
+     * handelt und konfiguriert die Tracing-Listener für Queries und Transaktionen dieser Datasource.
      * 
      * @param bean
      *            die evtl. zu wrappende Bean
@@ -86,8 +102,10 @@ public class DatasourceWrappingBeanPostProcessor implements BeanPostProcessor, O
         log.debug("postProcessBeforeInitialization() - Wrappe DataSource '{}'", beanName);
 
         final DataSource dataSource = (DataSource) bean;
+        final TracingTransactionListener transactionListener = new TracingTransactionListener(tracer);
         return ProxyDataSourceBuilder.create(dataSource).name(beanName)
-                .listener(new TracingQueryExecutionListener(tracer)).build();
+                .listener(new TracingQueryExecutionListener(tracer, batchSizeHistogram)).listener(transactionListener)
+                .methodListener(transactionListener).build();
 
     }
 
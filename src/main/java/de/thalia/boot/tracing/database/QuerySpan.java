@@ -19,7 +19,9 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 import de.thalia.boot.tracing.Span;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 /**
  * Definiert ein Objekt, dass die Tracing-Daten für einen Datenbankaufruf enthält.
@@ -30,6 +32,7 @@ import lombok.Getter;
 @JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE, force = true)
 public class QuerySpan extends Span {
 
     /**
@@ -38,6 +41,17 @@ public class QuerySpan extends Span {
      */
     private final int numberQueries;
 
+    /**
+     * Die Anzahl der Einträge, die als Batch an die Datenbank geschickt wurden, oder {@code null}, falls keine Batches ausgeführt
+     * wurden.
+     */
+    private final Integer batchSize;
+
+    /**
+     * Die Anzahl der laut Treiber geänderten Zeilen oder {@code null}, falls keine Änderungen gemeldet wurden.
+     */
+    private final Long rowsAffected;
+
     /**
      * Der (Bean-)Name der Datasource, mit der die Aktion ausgeführt wurde.
      */
@@ -59,8 +73,42 @@ public class QuerySpan extends Span {
      */
     public QuerySpan(final String name, final long startTime, final long duration, final int numberQueries,
             final String datasourceName) {
+        this(name, startTime, duration, numberQueries, datasourceName, null, null);
+    }
+
+    /**
+     * Erzeugt eine neue Instanz und konfiguriert sie mit den übergebenen Werten.
+     * 
+     * @param name
+     *            siehe Feldbeschreibung
+     * @param startTime
+     *            siehe Feldbeschreibung
+     * @param duration
+     *            siehe Feldbeschreibung
+     * @param numberQueries
+     *            siehe Feldbeschreibung
+     * @param datasourceName
+     *            siehe Feldbeschreibung
+     * @param batchSize
+     *            siehe Feldbeschreibung
+     * @param rowsAffected
+     *            siehe Feldbeschreibung
+     */
+    public QuerySpan(final String name, final long startTime, final long duration, final int numberQueries,
+            final String datasourceName, final Integer batchSize, final Long rowsAffected) {
         super(name, startTime, duration);
         this.numberQueries = numberQueries;
         this.datasourceName = datasourceName;
+        this.batchSize = batchSize;
+        this.rowsAffected = rowsAffected;
+    }
+
+    /**
+     * Liefert die mittlere Zeit je geänderter Zeile.
+     *
+     * @return die Zeit in Mikrosekunden oder {@code null}, falls keine geänderten Zeilen gemeldet wurden
+     */
+    public Long getMicrosPerRow() {
+        return null == rowsAffected || rowsAffected <= 0 ? null : getDuration() * 1000 / rowsAffected;
     }
 }
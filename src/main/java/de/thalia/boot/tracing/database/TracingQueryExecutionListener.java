@@ -21,6 +21,7 @@ import java.util.Optional;
 
 import de.thalia.boot.tracing.Span;
 import de.thalia.boot.tracing.Tracer;
+import de.thalia.boot.tracing.statistics.BatchSizeHistogram;
 import lombok.RequiredArgsConstructor;
 import net.ttddyy.dsproxy.ExecutionInfo;
 import net.ttddyy.dsproxy.QueryInfo;
@@ -40,11 +41,26 @@ public class TracingQueryExecutionListener implements QueryExecutionListener {
      */
     private final Tracer tracer;
 
+    /**
+     * Das Histogramm, in dem die Batchgrößen schreibender Statements gesammelt werden.
+     */
+    private final BatchSizeHistogram batchSizeHistogram;
+
     /**
      * Die Startzeit der Datenbankoperation.
      */
     private final ThreadLocal<Long> startTime = new ThreadLocal<>();
 
+    /**
+     * Erzeugt einen Listener mit eigenem, nicht veröffentlichtem Histogramm der Batchgrößen.
+     * 
+     * @param tracer
+     *            der Tracer, in dem die Tracing-Informationen aggregiert werden
+     */
+    public TracingQueryExecutionListener(final Tracer tracer) {
+        this(tracer, new BatchSizeHistogram());
+    }
+
     /**
      * Hält die Startzeit der Datenbankoperation fest.
      * 
@@ -55,7 +71,10 @@ public class TracingQueryExecutionListener implements QueryExecutionListener {
      */
     @Override
     public void beforeQuery(final ExecutionInfo executionInfo, final List<QueryInfo> list) {
+        final long overheadCpuStart = tracer.overheadCpuStart();
+        final long overheadAllocationStart = tracer.overheadAllocationStart();
         startTime.set(System.currentTimeMillis());
+        tracer.recordOverhead(overheadCpuStart, overheadAllocationStart);
     }
 
     /**
@@ -69,8 +88,17 @@ public class TracingQueryExecutionListener implements QueryExecutionListener {
      */
     @Override
     public void afterQuery(final ExecutionInfo executionInfo, final List<QueryInfo> list) {
+        final long overheadCpuStart = tracer.overheadCpuStart();
+        final long overheadAllocationStart = tracer.overheadAllocationStart();
+        final Integer batchSize = executionInfo.isBatch() ? executionInfo.getBatchSize() : null;
+        final Long rowsAffected = rowsAffectedOf(executionInfo.getResult());
+        if (null != batchSize) {
+            batchSizeHistogram.record(executionInfo.getDataSourceName(), batchSize, null == rowsAffected ? 0 : rowsAffected);
+        } else if (null != rowsAffected) {
+            batchSizeHistogram.record(executionInfo.getDataSourceName(), 1, rowsAffected);
+        }
         final QuerySpan span = new QuerySpan(executionInfo.getDataSourceName(), startTime.get(), executionInfo.getElapsedTime(),
-                list.size(), executionInfo.getDataSourceName());
+                list.size(), executionInfo.getDataSourceName(), batchSize, rowsAffected);
 
         final Optional<List<Span>> requestSpans = tracer.getCollectedSpansForCurrentRequest();
         final QuerySpan mergeSpan = findeKandidatenFuerMerge(requestSpans.orElse(Collections.emptyList()),
@@ -79,11 +107,55 @@ public class TracingQueryExecutionListener implements QueryExecutionListener {
         if (null != mergeSpan) {
             final QuerySpan mergedSpan = new QuerySpan(executionInfo.getDataSourceName(), mergeSpan.getStartTime(),
                     mergeSpan.getDuration() + span.getDuration(), mergeSpan.getNumberQueries() + span.getNumberQueries(),
-                    mergeSpan.getDatasourceName());
+                    mergeSpan.getDatasourceName(), sum(mergeSpan.getBatchSize(), batchSize),
+                    sum(mergeSpan.getRowsAffected(), rowsAffected));
             tracer.replaceLatestSpan(mergedSpan);
         } else {
             tracer.addToLog(span);
         }
+        tracer.recordOverhead(overheadCpuStart, overheadAllocationStart);
+    }
+
+    /**
+     * Ermittelt die Anzahl der geänderten Zeilen aus dem Ergebnis eines Statements. Bei Batches werden die Einträge ohne Angabe
+     * ({@link java.sql.Statement#SUCCESS_NO_INFO}) oder mit Fehler nicht mitgezählt.
+     * 
+     * @param result
+     *            das Ergebnis von {@code executeUpdate()}, {@code executeBatch()} o.ä.
+     * @return die Anzahl der geänderten Zeilen oder {@code null}, falls das Ergebnis keine Anzahl enthält
+     */
+    static Long rowsAffectedOf(final Object result) {
+        if (result instanceof Integer || result instanceof Long) {
+            return ((Number) result).longValue();
+        }
+        long rows = 0;
+        if (result instanceof int[]) {
+            for (final int count : (int[]) result) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        if (result instanceof long[]) {
+            for (final long count : (long[]) result) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        return null;
+    }
+
+    private static Integer sum(final Integer first, final Integer second) {
+        if (null == first) {
+            return second;
+        }
+        return null == second ? first : Integer.valueOf(first + second);
+    }
+
+    private static Long sum(final Long first, final Long second) {
+        if (null == first) {
+            return second;
+        }
+        return null == second ? first : Long.valueOf(first + second);
     }
 
     /**
@@ -0,0 +1,149 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.database;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.thalia.boot.tracing.Tracer;
+import lombok.RequiredArgsConstructor;
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Mit diesem Listener werden die Transaktionen auf der verbundenen {@link javax.sql.DataSource} aufgezeichnet.
+ *
+ * Eine Transaktion beginnt mit {@link Connection#setAutoCommit(boolean) setAutoCommit(false)} oder, falls die Connection bereits
+ * ohne Auto-Commit aus dem Pool kommt, mit der ersten Query. Mit {@link Connection#commit()} bzw. {@link Connection#rollback()}
+ * wird ein {@link TransactionSpan} erzeugt. Queries im Auto-Commit-Modus beginnen zwar ebenfalls eine Transaktion, diese wird
+ * aber ohne Span verworfen, sobald die Connection geschlossen wird.
+ */
+@RequiredArgsConstructor
+public class TracingTransactionListener implements QueryExecutionListener, MethodExecutionListener {
+
+    /**
+     * Der Tracer, in dem die Tracing-Informationen aggregiert werden.
+     */
+    private final Tracer tracer;
+
+    /**
+     * Die offenen Transaktionen je Connection. Jede {@link javax.sql.DataSource} erhält einen eigenen Listener, die Connection-ID
+     * ist daher eindeutig.
+     */
+    private final Map<String, OpenTransaction> transactions = new ConcurrentHashMap<>();
+
+    /**
+     * Beginnt bei Bedarf eine Transaktion und zählt die Queries der offenen Transaktion.
+     *
+     * @param executionInfo
+     *            Informationen zur Ausführung der Datenbankoperation
+     * @param list
+     *            Liste von auszuführenden Queries
+     */
+    @Override
+    public void beforeQuery(final ExecutionInfo executionInfo, final List<QueryInfo> list) {
+        final long overheadCpuStart = tracer.overheadCpuStart();
+        final long overheadAllocationStart = tracer.overheadAllocationStart();
+        OpenTransaction transaction = transactions.get(executionInfo.getConnectionId());
+        if (null == transaction) {
+            transaction = transactions.computeIfAbsent(executionInfo.getConnectionId(),
+                    key -> new OpenTransaction(System.currentTimeMillis()));
+        }
+        transaction.numberQueries += list.size();
+        tracer.recordOverhead(overheadCpuStart, overheadAllocationStart);
+    }
+
+    @Override
+    public void afterQuery(final ExecutionInfo executionInfo, final List<QueryInfo> list) {
+    }
+
+    @Override
+    public void beforeMethod(final MethodExecutionContext executionContext) {
+    }
+
+    /**
+     * Wertet die Aufrufe an der {@link Connection} aus, die eine Transaktion beginnen oder beenden.
+     *
+     * @param executionContext
+     *            Informationen zum Aufruf
+     */
+    @Override
+    public void afterMethod(final MethodExecutionContext executionContext) {
+        if (!(executionContext.getTarget() instanceof Connection) || null == executionContext.getConnectionInfo()) {
+            return;
+        }
+        final Method method = executionContext.getMethod();
+        final ConnectionInfo connectionInfo = executionContext.getConnectionInfo();
+        final String key = connectionInfo.getConnectionId();
+        final long overheadCpuStart = tracer.overheadCpuStart();
+        final long overheadAllocationStart = tracer.overheadAllocationStart();
+        switch (method.getName()) {
+        case "setAutoCommit":
+            if (Boolean.FALSE.equals(executionContext.getMethodArgs()[0])) {
+                transactions.put(key, new OpenTransaction(System.currentTimeMillis()));
+            } else {
+                transactions.remove(key);
+            }
+            break;
+        case "commit":
+            endTransaction(key, TransactionSpan.COMMIT, executionContext, connectionInfo.getDataSourceName());
+            break;
+        case "rollback":
+            // Ein Rollback auf einen Savepoint beendet die Transaktion nicht
+            if (0 == method.getParameterCount()) {
+                endTransaction(key, TransactionSpan.ROLLBACK, executionContext, connectionInfo.getDataSourceName());
+            }
+            break;
+        case "close":
+            transactions.remove(key);
+            break;
+        default:
+            break;
+        }
+        tracer.recordOverhead(overheadCpuStart, overheadAllocationStart);
+    }
+
+    private void endTransaction(final String key, final String outcome, final MethodExecutionContext executionContext,
+            final String dataSourceName) {
+        final OpenTransaction transaction = transactions.remove(key);
+        if (null == transaction || null != executionContext.getThrown()) {
+            return;
+        }
+        tracer.addToLog(new TransactionSpan(dataSourceName, transaction.startTime,
+                System.currentTimeMillis() - transaction.startTime, outcome, executionContext.getElapsedTime(),
+                transaction.numberQueries, dataSourceName));
+    }
+
+    /**
+     * Eine Transaktion, die noch nicht beendet wurde. Sie wird immer nur vom Thread der Connection verändert.
+     */
+    private static final class OpenTransaction {
+
+        private final long startTime;
+        private int numberQueries;
+
+        private OpenTransaction(final long startTime) {
+            this.startTime = startTime;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.database;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import de.thalia.boot.tracing.Span;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Definiert ein Objekt, das die Tracing-Daten für eine Datenbanktransaktion vom Beginn bis zum Commit oder Rollback enthält. Die
+ * {@link QuerySpan}s der Transaktion liegen innerhalb dieses Spans.
+ */
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE, force = true)
+public class TransactionSpan extends Span {
+
+    public static final String COMMIT = "commit";
+    public static final String ROLLBACK = "rollback";
+
+    /**
+     * Der Ausgang der Transaktion, siehe {@link #COMMIT} und {@link #ROLLBACK}.
+     */
+    private final String outcome;
+
+    /**
+     * Die Dauer des Commits bzw. Rollbacks selbst in Millisekunden, z.B. für fsync, Freigabe der Sperren oder Replikation.
+     */
+    private final long completionTime;
+
+    /**
+     * Die Anzahl der SQL-Queries, die innerhalb der Transaktion ausgeführt wurden.
+     */
+    private final int numberQueries;
+
+    /**
+     * Der (Bean-)Name der Datasource, auf der die Transaktion lief.
+     */
+    private final String datasourceName;
+
+    /**
+     * Erzeugt eine neue Instanz und konfiguriert sie mit den übergebenen Werten.
+     *
+     * @param name
+     *            siehe {@link Span}
+     * @param startTime
+     *            siehe {@link Span}
+     * @param duration
+     *            siehe {@link Span}
+     * @param outcome
+     *            siehe Feldbeschreibung
+     * @param completionTime
+     *            siehe Feldbeschreibung
+     * @param numberQueries
+     *            siehe Feldbeschreibung
+     * @param datasourceName
+     *            siehe Feldbeschreibung
+     */
+    public TransactionSpan(final String name, final long startTime, final long duration, final String outcome,
+            final long completionTime, final int numberQueries, final String datasourceName) {
+        super(name, startTime, duration);
+        this.outcome = outcome;
+        this.completionTime = completionTime;
+        this.numberQueries = numberQueries;
+        this.datasourceName = datasourceName;
+    }
+}
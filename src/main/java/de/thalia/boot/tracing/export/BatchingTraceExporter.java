@@ -0,0 +1,252 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.export;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+import de.thalia.boot.tracing.TraceLogExporter;
+import de.thalia.boot.tracing.TraceLog;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Basisklasse für Exporter, die Trace-Logs gesammelt an einen Collector senden.
+ *
+ * Wie beim Trace-Store legt der Request-Thread das Trace-Log nur in eine begrenzte Warteschlange; ist sie voll, wird das
+ * Trace-Log verworfen und gezählt. Ein eigener Thread sammelt bis zu {@link #batchSize} Trace-Logs oder wartet höchstens
+ * {@link #flushInterval} Millisekunden, wandelt sie um und sendet sie gzip-komprimiert per HTTP-POST. Schlägt das Senden fehl,
+ * wird der Batch verworfen, damit der Speicherbedarf begrenzt bleibt.
+ */
+@Slf4j
+public abstract class BatchingTraceExporter implements TraceLogExporter, AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 2048;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+
+    private static final int CONNECT_TIMEOUT = 2000;
+    private static final int READ_TIMEOUT = 5000;
+
+    private final URL endpoint;
+    private final int batchSize;
+    private final long flushInterval;
+    private final BlockingQueue<PendingTrace> queue;
+    private final Random random = new Random();
+    private final LongAdder droppedTraces = new LongAdder();
+    private final LongAdder exportedSpans = new LongAdder();
+    private final LongAdder sentBatches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+
+    private volatile boolean running;
+    private Thread sender;
+
+    /**
+     * @param aEndpoint
+     *            die URL des Collectors
+     * @param aQueueCapacity
+     *            die Anzahl der Trace-Logs, die maximal auf das Senden warten
+     * @param aBatchSize
+     *            die maximale Anzahl der Trace-Logs je Request an den Collector
+     * @param aFlushInterval
+     *            die maximale Wartezeit in Millisekunden, bis ein nicht voller Batch gesendet wird
+     */
+    BatchingTraceExporter(final URL aEndpoint, final int aQueueCapacity, final int aBatchSize, final long aFlushInterval) {
+        endpoint = aEndpoint;
+        batchSize = aBatchSize;
+        flushInterval = aFlushInterval;
+        queue = new ArrayBlockingQueue<>(aQueueCapacity);
+    }
+
+    /**
+     * Kodiert die Spans eines Batches.
+     *
+     * @param aSpans
+     *            die Spans aller Trace-Logs des Batches
+     * @return der Body des Requests an den Collector, noch nicht komprimiert
+     * @throws IOException
+     *             falls die Spans nicht kodiert werden können
+     */
+    abstract byte[] encode(List<ExportedSpan> aSpans) throws IOException;
+
+    abstract String getContentType();
+
+    /**
+     * Startet den Thread, der die Trace-Logs sendet.
+     */
+    public synchronized void start() {
+        running = true;
+        sender = new Thread(this::sendLoop, "trace-export-" + getClass().getSimpleName());
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    /**
+     * Der {@link de.thalia.boot.tracing.TraceOutputFilter} übergibt einen Stand des Trace-Logs, der sich nicht mehr ändert und
+     * deshalb im Hintergrund verarbeitet werden kann.
+     */
+    @Override
+    public void export(final TraceLog theLog, final String invokedPattern) {
+        if (!queue.offer(new PendingTrace(theLog, invokedPattern))) {
+            droppedTraces.increment();
+        }
+    }
+
+    private void sendLoop() {
+        final List<PendingTrace> theBatch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                final PendingTrace theFirst = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+                if (null == theFirst) {
+                    continue;
+                }
+                theBatch.add(theFirst);
+                final long theDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushInterval);
+                while (theBatch.size() < batchSize) {
+                    queue.drainTo(theBatch, batchSize - theBatch.size());
+                    final long theRemaining = theDeadline - System.nanoTime();
+                    if (theBatch.size() >= batchSize || theRemaining <= 0) {
+                        break;
+                    }
+                    final PendingTrace theNext = queue.poll(theRemaining, TimeUnit.NANOSECONDS);
+                    if (null == theNext) {
+                        break;
+                    }
+                    theBatch.add(theNext);
+                }
+                send(theBatch);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                theBatch.clear();
+            }
+        }
+    }
+
+    /**
+     * Sendet alle wartenden Trace-Logs im aufrufenden Thread.
+     */
+    void flush() {
+        final List<PendingTrace> theBatch = new ArrayList<>(batchSize);
+        while (queue.drainTo(theBatch, batchSize) > 0) {
+            send(theBatch);
+            theBatch.clear();
+        }
+    }
+
+    private void send(final List<PendingTrace> aBatch) {
+        final List<ExportedSpan> theSpans = new ArrayList<>();
+        for (final PendingTrace theTrace : aBatch) {
+            theSpans.addAll(TraceLogConverter.convert(theTrace.log, theTrace.pattern, random));
+        }
+        try {
+            post(encode(theSpans));
+            exportedSpans.add(theSpans.size());
+            sentBatches.increment();
+        } catch (final IOException | RuntimeException e) {
+            failedBatches.increment();
+            log.warn("{} Trace-Logs konnten nicht an {} gesendet werden: {}", aBatch.size(), endpoint, e.toString());
+        }
+    }
+
+    private void post(final byte[] aBody) throws IOException {
+        final HttpURLConnection theConnection = (HttpURLConnection) endpoint.openConnection();
+        boolean theSent = false;
+        try {
+            theConnection.setConnectTimeout(CONNECT_TIMEOUT);
+            theConnection.setReadTimeout(READ_TIMEOUT);
+            theConnection.setRequestMethod("POST");
+            theConnection.setDoOutput(true);
+            theConnection.setRequestProperty("Content-Type", getContentType());
+            theConnection.setRequestProperty("Content-Encoding", "gzip");
+            try (OutputStream theOut = new GZIPOutputStream(theConnection.getOutputStream())) {
+                theOut.write(aBody);
+            }
+            final int theStatus = theConnection.getResponseCode();
+            if (theStatus >= 300) {
+                throw new IOException("HTTP " + theStatus);
+            }
+            try (InputStream theIn = theConnection.getInputStream()) {
+                // Die Antwort wird vollständig gelesen und der Stream geschlossen, damit die Verbindung per Keep-Alive
+                // wiederverwendet wird
+                final byte[] theBuffer = new byte[256];
+                while (theIn.read(theBuffer) >= 0) {
+                    // ignorieren
+                }
+            }
+            theSent = true;
+        } finally {
+            if (!theSent) {
+                // Nach einem Fehler ist der Zustand der Verbindung unbekannt
+                theConnection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Stoppt den Thread und sendet die noch wartenden Trace-Logs.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        final Thread theSender;
+        synchronized (this) {
+            running = false;
+            theSender = sender;
+        }
+        if (null != theSender) {
+            theSender.join(READ_TIMEOUT + CONNECT_TIMEOUT + flushInterval);
+        }
+        flush();
+    }
+
+    public long getDroppedTraces() {
+        return droppedTraces.sum();
+    }
+
+    public long getExportedSpans() {
+        return exportedSpans.sum();
+    }
+
+    public long getSentBatches() {
+        return sentBatches.sum();
+    }
+
+    public long getFailedBatches() {
+        return failedBatches.sum();
+    }
+
+    private static final class PendingTrace {
+
+        private final TraceLog log;
+        private final String pattern;
+
+        PendingTrace(final TraceLog aLog, final String aPattern) {
+            log = aLog;
+            pattern = aPattern;
+        }
+    }
+}
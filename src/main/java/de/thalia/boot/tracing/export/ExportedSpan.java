@@ -0,0 +1,88 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.export;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import de.thalia.boot.tracing.SpanAttributes;
+import lombok.Getter;
+
+/**
+ * Ein Span im Modell von OpenTelemetry und Zipkin: Trace- und Span-Id, Elternbeziehung, Art und Attribute. Die Zeiten bleiben
+ * in Millisekunden, die Formate rechnen sie selbst um.
+ */
+@Getter
+final class ExportedSpan {
+
+    enum Kind {
+        SERVER, CLIENT, INTERNAL
+    }
+
+    private final long traceIdHigh;
+    private final long traceIdLow;
+    private final long spanId;
+
+    /**
+     * Die Id des Eltern-Spans, {@code 0} für den Wurzel-Span.
+     */
+    private final long parentId;
+    private final String name;
+    private final Kind kind;
+    private final String serviceName;
+    private final String hostName;
+    private final long startTime;
+    private final long duration;
+
+    /**
+     * Die Attribute als {@link String}, {@link Long} oder {@link Boolean}.
+     */
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+
+    /**
+     * Die typisierten Attribute des Spans, die von den Formaten ohne Boxing gelesen werden, oder {@code null}.
+     */
+    private SpanAttributes spanAttributes;
+    private boolean error;
+
+    ExportedSpan(final long aTraceIdHigh, final long aTraceIdLow, final long aSpanId, final long aParentId, final String aName,
+            final Kind aKind, final String aServiceName, final String aHostName, final long aStartTime, final long aDuration) {
+        traceIdHigh = aTraceIdHigh;
+        traceIdLow = aTraceIdLow;
+        spanId = aSpanId;
+        parentId = aParentId;
+        name = aName;
+        kind = aKind;
+        serviceName = aServiceName;
+        hostName = aHostName;
+        startTime = aStartTime;
+        duration = aDuration;
+    }
+
+    void putAttribute(final String aKey, final Object aValue) {
+        if (null != aValue) {
+            attributes.put(aKey, aValue instanceof Integer ? Long.valueOf((Integer) aValue) : aValue);
+        }
+    }
+
+    void setSpanAttributes(final SpanAttributes aAttributes) {
+        spanAttributes = aAttributes;
+    }
+
+    void markError() {
+        error = true;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.export;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import de.thalia.boot.tracing.SpanAttributes;
+import de.thalia.boot.tracing.export.ExportedSpan.Kind;
+
+/**
+ * Sendet Trace-Logs per OTLP/HTTP als Protobuf an einen OpenTelemetry Collector, z.B. an
+ * {@code http://localhost:4318/v1/traces}.
+ *
+ * Die Spans werden je Service und Host zu {@code ResourceSpans} mit den Attributen {@code service.name} und {@code host.name}
+ * zusammengefasst.
+ *
+ * @see <a href="https://github.com/open-telemetry/opentelemetry-proto/blob/main/opentelemetry/proto/trace/v1/trace.proto">trace.proto</a>
+ */
+public class OtlpTraceExporter extends BatchingTraceExporter {
+
+    public static final String DEFAULT_ENDPOINT = "http://localhost:4318/v1/traces";
+
+    static final String SCOPE_NAME = "de.thalia.boot.tracing";
+
+    // ExportTraceServiceRequest
+    private static final int REQUEST_RESOURCE_SPANS = 1;
+    // ResourceSpans
+    private static final int RESOURCE_SPANS_RESOURCE = 1;
+    private static final int RESOURCE_SPANS_SCOPE_SPANS = 2;
+    // Resource
+    private static final int RESOURCE_ATTRIBUTES = 1;
+    // ScopeSpans
+    private static final int SCOPE_SPANS_SCOPE = 1;
+    private static final int SCOPE_SPANS_SPANS = 2;
+    // InstrumentationScope
+    private static final int SCOPE_NAME_FIELD = 1;
+    // Span
+    private static final int SPAN_TRACE_ID = 1;
+    private static final int SPAN_SPAN_ID = 2;
+    private static final int SPAN_PARENT_SPAN_ID = 4;
+    private static final int SPAN_NAME = 5;
+    private static final int SPAN_KIND = 6;
+    private static final int SPAN_START_TIME = 7;
+    private static final int SPAN_END_TIME = 8;
+    private static final int SPAN_ATTRIBUTES = 9;
+    private static final int SPAN_STATUS = 15;
+    // Status
+    private static final int STATUS_CODE = 3;
+    private static final int STATUS_CODE_ERROR = 2;
+    // KeyValue und AnyValue
+    private static final int KEY_VALUE_KEY = 1;
+    private static final int KEY_VALUE_VALUE = 2;
+    private static final int ANY_VALUE_STRING = 1;
+    private static final int ANY_VALUE_BOOL = 2;
+    private static final int ANY_VALUE_INT = 3;
+    private static final int ANY_VALUE_DOUBLE = 4;
+
+    /**
+     * @param aEndpoint
+     *            die URL des Collectors
+     * @param aQueueCapacity
+     *            die Anzahl der Trace-Logs, die maximal auf das Senden warten
+     * @param aBatchSize
+     *            die maximale Anzahl der Trace-Logs je Request an den Collector
+     * @param aFlushInterval
+     *            die maximale Wartezeit in Millisekunden, bis ein nicht voller Batch gesendet wird
+     */
+    public OtlpTraceExporter(final URL aEndpoint, final int aQueueCapacity, final int aBatchSize, final long aFlushInterval) {
+        super(aEndpoint, aQueueCapacity, aBatchSize, aFlushInterval);
+    }
+
+    @Override
+    String getContentType() {
+        return "application/x-protobuf";
+    }
+
+    @Override
+    byte[] encode(final List<ExportedSpan> aSpans) {
+        final Map<String, List<ExportedSpan>> theSpansByResource = new LinkedHashMap<>();
+        for (final ExportedSpan theSpan : aSpans) {
+            theSpansByResource.computeIfAbsent(theSpan.getServiceName() + '\n' + theSpan.getHostName(), k -> new ArrayList<>())
+                    .add(theSpan);
+        }
+
+        final ProtobufWriter theRequest = new ProtobufWriter(aSpans.size() * 128);
+        for (final List<ExportedSpan> theSpans : theSpansByResource.values()) {
+            final ProtobufWriter theResource = new ProtobufWriter();
+            theResource.writeMessage(RESOURCE_ATTRIBUTES, keyValue("service.name", theSpans.get(0).getServiceName()));
+            theResource.writeMessage(RESOURCE_ATTRIBUTES, keyValue("host.name", theSpans.get(0).getHostName()));
+
+            final ProtobufWriter theScope = new ProtobufWriter();
+            theScope.writeString(SCOPE_NAME_FIELD, SCOPE_NAME);
+            final ProtobufWriter theScopeSpans = new ProtobufWriter(theSpans.size() * 128);
+            theScopeSpans.writeMessage(SCOPE_SPANS_SCOPE, theScope);
+            for (final ExportedSpan theSpan : theSpans) {
+                theScopeSpans.writeMessage(SCOPE_SPANS_SPANS, span(theSpan));
+            }
+
+            final ProtobufWriter theResourceSpans = new ProtobufWriter(theScopeSpans.size() + 64);
+            theResourceSpans.writeMessage(RESOURCE_SPANS_RESOURCE, theResource);
+            theResourceSpans.writeMessage(RESOURCE_SPANS_SCOPE_SPANS, theScopeSpans);
+            theRequest.writeMessage(REQUEST_RESOURCE_SPANS, theResourceSpans);
+        }
+        return theRequest.toByteArray();
+    }
+
+    private static ProtobufWriter span(final ExportedSpan aSpan) {
+        final ProtobufWriter theSpan = new ProtobufWriter(128);
+        theSpan.writeBytes(SPAN_TRACE_ID, toBytes(aSpan.getTraceIdHigh(), aSpan.getTraceIdLow()));
+        theSpan.writeBytes(SPAN_SPAN_ID, toBytes(aSpan.getSpanId()));
+        if (0 != aSpan.getParentId()) {
+            theSpan.writeBytes(SPAN_PARENT_SPAN_ID, toBytes(aSpan.getParentId()));
+        }
+        theSpan.writeString(SPAN_NAME, aSpan.getName());
+        theSpan.writeVarint(SPAN_KIND, kindOf(aSpan.getKind()));
+        theSpan.writeFixed64(SPAN_START_TIME, TimeUnit.MILLISECONDS.toNanos(aSpan.getStartTime()));
+        theSpan.writeFixed64(SPAN_END_TIME, TimeUnit.MILLISECONDS.toNanos(aSpan.getStartTime() + aSpan.getDuration()));
+        for (final Map.Entry<String, Object> theAttribute : aSpan.getAttributes().entrySet()) {
+            theSpan.writeMessage(SPAN_ATTRIBUTES, keyValue(theAttribute.getKey(), theAttribute.getValue()));
+        }
+        final SpanAttributes theAttributes = aSpan.getSpanAttributes();
+        if (null != theAttributes) {
+            for (int i = 0; i < theAttributes.size(); i++) {
+                theSpan.writeMessage(SPAN_ATTRIBUTES, keyValue(theAttributes, i));
+            }
+        }
+        if (aSpan.isError()) {
+            final ProtobufWriter theStatus = new ProtobufWriter(4);
+            theStatus.writeVarint(STATUS_CODE, STATUS_CODE_ERROR);
+            theSpan.writeMessage(SPAN_STATUS, theStatus);
+        }
+        return theSpan;
+    }
+
+    private static ProtobufWriter keyValue(final String aKey, final Object aValue) {
+        final ProtobufWriter theValue = new ProtobufWriter(16);
+        if (aValue instanceof Long) {
+            theValue.writeVarint(ANY_VALUE_INT, (Long) aValue);
+        } else if (aValue instanceof Boolean) {
+            theValue.writeBool(ANY_VALUE_BOOL, (Boolean) aValue);
+        } else {
+            theValue.writeString(ANY_VALUE_STRING, String.valueOf(aValue));
+        }
+        return keyValue(aKey, theValue);
+    }
+
+    private static ProtobufWriter keyValue(final SpanAttributes aAttributes, final int aIndex) {
+        final ProtobufWriter theValue = new ProtobufWriter(16);
+        switch (aAttributes.keyAt(aIndex).getType()) {
+        case LONG:
+            theValue.writeVarint(ANY_VALUE_INT, aAttributes.longAt(aIndex));
+            break;
+        case DOUBLE:
+            theValue.writeFixed64(ANY_VALUE_DOUBLE, Double.doubleToRawLongBits(aAttributes.doubleAt(aIndex)));
+            break;
+        case BOOLEAN:
+            theValue.writeBool(ANY_VALUE_BOOL, aAttributes.booleanAt(aIndex));
+            break;
+        default:
+            theValue.writeString(ANY_VALUE_STRING, aAttributes.stringAt(aIndex));
+        }
+        return keyValue(aAttributes.keyAt(aIndex).getName(), theValue);
+    }
+
+    private static ProtobufWriter keyValue(final String aKey, final ProtobufWriter aValue) {
+        final ProtobufWriter theKeyValue = new ProtobufWriter(aKey.length() + aValue.size() + 4);
+        theKeyValue.writeString(KEY_VALUE_KEY, aKey);
+        theKeyValue.writeMessage(KEY_VALUE_VALUE, aValue);
+        return theKeyValue;
+    }
+
+    private static int kindOf(final Kind aKind) {
+        switch (aKind) {
+        case SERVER:
+            return 2;
+        case CLIENT:
+            return 3;
+        default:
+            return 1;
+        }
+    }
+
+    private static byte[] toBytes(final long... aValues) {
+        final byte[] theBytes = new byte[aValues.length * 8];
+        for (int i = 0; i < aValues.length; i++) {
+            for (int j = 0; j < 8; j++) {
+                theBytes[i * 8 + j] = (byte) (aValues[i] >>> (56 - 8 * j));
+            }
+        }
+        return theBytes;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.export;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Schreibt Nachrichten im Wire-Format von Protocol Buffers, ohne generierte Klassen. Eingebettete Nachrichten werden in einem
+ * eigenen Writer aufgebaut und mit {@link #writeMessage(int, ProtobufWriter)} samt Länge übernommen.
+ *
+ * @see <a href="https://developers.google.com/protocol-buffers/docs/encoding">Encoding</a>
+ */
+final class ProtobufWriter {
+
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_FIXED64 = 1;
+    private static final int WIRE_LENGTH_DELIMITED = 2;
+
+    private byte[] buffer;
+    private int size;
+
+    ProtobufWriter() {
+        this(64);
+    }
+
+    ProtobufWriter(final int aInitialCapacity) {
+        buffer = new byte[aInitialCapacity];
+    }
+
+    void writeVarint(final int aField, final long aValue) {
+        writeTag(aField, WIRE_VARINT);
+        writeRawVarint(aValue);
+    }
+
+    void writeBool(final int aField, final boolean aValue) {
+        writeVarint(aField, aValue ? 1 : 0);
+    }
+
+    void writeFixed64(final int aField, final long aValue) {
+        writeTag(aField, WIRE_FIXED64);
+        ensureCapacity(8);
+        for (int i = 0; i < 8; i++) {
+            buffer[size++] = (byte) (aValue >>> (8 * i));
+        }
+    }
+
+    void writeString(final int aField, final String aValue) {
+        if (null != aValue) {
+            writeBytes(aField, aValue.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    void writeBytes(final int aField, final byte[] aValue) {
+        writeTag(aField, WIRE_LENGTH_DELIMITED);
+        writeRawVarint(aValue.length);
+        writeRaw(aValue, 0, aValue.length);
+    }
+
+    void writeMessage(final int aField, final ProtobufWriter aMessage) {
+        writeTag(aField, WIRE_LENGTH_DELIMITED);
+        writeRawVarint(aMessage.size);
+        writeRaw(aMessage.buffer, 0, aMessage.size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void writeTag(final int aField, final int aWireType) {
+        writeRawVarint((aField << 3) | aWireType);
+    }
+
+    private void writeRawVarint(final long aValue) {
+        ensureCapacity(10);
+        long theValue = aValue;
+        while ((theValue & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((theValue & 0x7F) | 0x80);
+            theValue >>>= 7;
+        }
+        buffer[size++] = (byte) theValue;
+    }
+
+    private void writeRaw(final byte[] aBytes, final int aOffset, final int aLength) {
+        ensureCapacity(aLength);
+        System.arraycopy(aBytes, aOffset, buffer, size, aLength);
+        size += aLength;
+    }
+
+    private void ensureCapacity(final int aAdditional) {
+        if (size + aAdditional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + aAdditional));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.export;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.SpanDescriptors;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.cache.CacheSpan;
+import de.thalia.boot.tracing.database.QuerySpan;
+import de.thalia.boot.tracing.database.TransactionSpan;
+import de.thalia.boot.tracing.export.ExportedSpan.Kind;
+import de.thalia.boot.tracing.resilience4j.CircuitBreakerSpan;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+
+/**
+ * Wandelt ein {@link TraceLog} in {@link ExportedSpan}s um.
+ *
+ * Jedes Trace-Log wird zu einem Server-Span mit dem aufgerufenen Pattern als Namen, seine Spans zu dessen Kindern. Die Trace-Logs
+ * aufgerufener Services werden rekursiv unter ihrem {@link HTTPSpan} eingehängt und teilen sich die Trace-Id des Aufrufers.
+ */
+final class TraceLogConverter {
+
+    static final String DEFAULT_ROOT_NAME = "request";
+
+    private TraceLogConverter() {
+    }
+
+    /**
+     * @param aLog
+     *            das Trace-Log des Requests
+     * @param aInvokedPattern
+     *            das aufgerufene Pattern oder {@code null}
+     * @param aRandom
+     *            die Quelle für Trace- und Span-Ids
+     * @return die Spans, Wurzel-Spans vor ihren Kindern
+     */
+    static List<ExportedSpan> convert(final TraceLog aLog, final String aInvokedPattern, final Random aRandom) {
+        final List<ExportedSpan> theResult = new ArrayList<>();
+        final ExportedSpan theRoot = addTraceLog(theResult, aLog, null == aInvokedPattern ? DEFAULT_ROOT_NAME : aInvokedPattern,
+                nextId(aRandom), nextId(aRandom), 0, aRandom);
+        theRoot.putAttribute("http.route", aInvokedPattern);
+        return theResult;
+    }
+
+    private static ExportedSpan addTraceLog(final List<ExportedSpan> aResult, final TraceLog aLog, final String aName,
+            final long aTraceIdHigh, final long aTraceIdLow, final long aParentId, final Random aRandom) {
+        final ExportedSpan theRoot = new ExportedSpan(aTraceIdHigh, aTraceIdLow, nextId(aRandom), aParentId, aName, Kind.SERVER,
+                aLog.getApplicationName(), aLog.getHostName(), aLog.getStartTime(), aLog.getDuration());
+        theRoot.putAttribute("cpuNanos", aLog.getCpuNanos());
+        theRoot.putAttribute("allocatedBytes", aLog.getAllocatedBytes());
+        theRoot.putAttribute("gcPauseTime", aLog.getGcPauseTime());
+        aResult.add(theRoot);
+        if (null == aLog.getSpans()) {
+            return theRoot;
+        }
+        for (final Span theSpan : aLog.getSpans()) {
+            final ExportedSpan theExported = new ExportedSpan(aTraceIdHigh, aTraceIdLow, nextId(aRandom), theRoot.getSpanId(),
+                    SpanDescriptors.of(theSpan).getCategory(), kindOf(theSpan), aLog.getApplicationName(), aLog.getHostName(),
+                    theSpan.getStartTime(), theSpan.getDuration());
+            addAttributes(theExported, theSpan);
+            theExported.setSpanAttributes(theSpan.getAttributes());
+            aResult.add(theExported);
+            if (theSpan instanceof HTTPSpan && null != ((HTTPSpan) theSpan).getNestedTraceLog()) {
+                final HTTPSpan theHttpSpan = (HTTPSpan) theSpan;
+                final URI theURI = theHttpSpan.getRequestURI();
+                addTraceLog(aResult, theHttpSpan.getNestedTraceLog(), null == theURI ? theSpan.getName() : theURI.getPath(),
+                        aTraceIdHigh, aTraceIdLow, theExported.getSpanId(), aRandom);
+            }
+        }
+        return theRoot;
+    }
+
+    private static Kind kindOf(final Span aSpan) {
+        return aSpan instanceof HTTPSpan || aSpan instanceof QuerySpan ? Kind.CLIENT : Kind.INTERNAL;
+    }
+
+    private static void addAttributes(final ExportedSpan aExported, final Span aSpan) {
+        if (aSpan instanceof HTTPSpan) {
+            final HTTPSpan theSpan = (HTTPSpan) aSpan;
+            aExported.putAttribute("http.method", null == theSpan.getRequestMethod() ? null : theSpan.getRequestMethod().name());
+            aExported.putAttribute("http.url", null == theSpan.getRequestURI() ? null : theSpan.getRequestURI().toString());
+            if (null == theSpan.getResponseStatus() || theSpan.getResponseStatus().is5xxServerError()) {
+                aExported.markError();
+            }
+            if (null != theSpan.getResponseStatus()) {
+                aExported.putAttribute("http.status_code", theSpan.getResponseStatus().value());
+            }
+        } else if (aSpan instanceof QuerySpan) {
+            final QuerySpan theSpan = (QuerySpan) aSpan;
+            aExported.putAttribute("db.instance", theSpan.getDatasourceName());
+            aExported.putAttribute("db.queries", theSpan.getNumberQueries());
+            aExported.putAttribute("db.batchSize", theSpan.getBatchSize());
+            aExported.putAttribute("db.rowsAffected", theSpan.getRowsAffected());
+        } else if (aSpan instanceof TransactionSpan) {
+            final TransactionSpan theSpan = (TransactionSpan) aSpan;
+            aExported.putAttribute("db.instance", theSpan.getDatasourceName());
+            aExported.putAttribute("db.queries", theSpan.getNumberQueries());
+            aExported.putAttribute("tx.outcome", theSpan.getOutcome());
+            aExported.putAttribute("tx.completionTime", theSpan.getCompletionTime());
+        } else if (aSpan instanceof CacheSpan) {
+            final CacheSpan theSpan = (CacheSpan) aSpan;
+            aExported.putAttribute("cache.operation", theSpan.getOperation());
+            aExported.putAttribute("cache.hit", theSpan.getHit());
+            aExported.putAttribute("cache.count", theSpan.getCount());
+        } else if (aSpan instanceof CircuitBreakerSpan) {
+            final CircuitBreakerSpan theSpan = (CircuitBreakerSpan) aSpan;
+            aExported.putAttribute("cb.state", theSpan.getState());
+            aExported.putAttribute("cb.outcome", theSpan.getOutcome());
+            aExported.putAttribute("cb.attempts", null == theSpan.getAttempts() ? null : theSpan.getAttempts().size());
+            aExported.putAttribute("cb.retryWaitMicros", theSpan.getRetryWaitMicros());
+            aExported.putAttribute("cb.rateLimiterWaitMicros", theSpan.getRateLimiterWaitMicros());
+            aExported.putAttribute("cb.bulkheadWaitMicros", theSpan.getBulkheadWaitMicros());
+            if (null != theSpan.getOutcome() && !CircuitBreakerSpan.SUCCESS.equals(theSpan.getOutcome())) {
+                aExported.markError();
+            }
+        }
+    }
+
+    private static long nextId(final Random aRandom) {
+        long theId;
+        do {
+            theId = aRandom.nextLong();
+        } while (0 == theId);
+        return theId;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import de.thalia.boot.tracing.SpanAttributes;
+import de.thalia.boot.tracing.export.ExportedSpan.Kind;
+
+/**
+ * Sendet Trace-Logs als JSON im Format Zipkin v2 an einen Zipkin-Server, z.B. an {@code http://localhost:9411/api/v2/spans}.
+ *
+ * Zipkin kennt nur Tags mit Strings, alle Attribute werden deshalb als String geschrieben. Der Host steht im Tag
+ * {@code host.name}, da der lokale Endpunkt nur IP-Adressen aufnimmt.
+ *
+ * @see <a href="https://zipkin.io/zipkin-api/#/default/post_spans">Zipkin API</a>
+ */
+public class ZipkinTraceExporter extends BatchingTraceExporter {
+
+    public static final String DEFAULT_ENDPOINT = "http://localhost:9411/api/v2/spans";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * @param aEndpoint
+     *            die URL des Zipkin-Servers
+     * @param aQueueCapacity
+     *            die Anzahl der Trace-Logs, die maximal auf das Senden warten
+     * @param aBatchSize
+     *            die maximale Anzahl der Trace-Logs je Request an den Zipkin-Server
+     * @param aFlushInterval
+     *            die maximale Wartezeit in Millisekunden, bis ein nicht voller Batch gesendet wird
+     */
+    public ZipkinTraceExporter(final URL aEndpoint, final int aQueueCapacity, final int aBatchSize, final long aFlushInterval) {
+        super(aEndpoint, aQueueCapacity, aBatchSize, aFlushInterval);
+    }
+
+    @Override
+    String getContentType() {
+        return "application/json";
+    }
+
+    @Override
+    byte[] encode(final List<ExportedSpan> aSpans) throws IOException {
+        final ByteArrayOutputStream theBytes = new ByteArrayOutputStream(aSpans.size() * 256);
+        try (JsonGenerator theJson = JSON_FACTORY.createGenerator(theBytes)) {
+            theJson.writeStartArray();
+            for (final ExportedSpan theSpan : aSpans) {
+                writeSpan(theJson, theSpan);
+            }
+            theJson.writeEndArray();
+        }
+        return theBytes.toByteArray();
+    }
+
+    private static void writeSpan(final JsonGenerator aJson, final ExportedSpan aSpan) throws IOException {
+        aJson.writeStartObject();
+        aJson.writeStringField("traceId", toHex(aSpan.getTraceIdHigh()) + toHex(aSpan.getTraceIdLow()));
+        aJson.writeStringField("id", toHex(aSpan.getSpanId()));
+        if (0 != aSpan.getParentId()) {
+            aJson.writeStringField("parentId", toHex(aSpan.getParentId()));
+        }
+        if (Kind.INTERNAL != aSpan.getKind()) {
+            aJson.writeStringField("kind", aSpan.getKind().name());
+        }
+        aJson.writeStringField("name", aSpan.getName());
+        aJson.writeNumberField("timestamp", TimeUnit.MILLISECONDS.toMicros(aSpan.getStartTime()));
+        // Eine Dauer von 0 bedeutet für Zipkin "unbekannt", deshalb wird mindestens eine Mikrosekunde geschrieben
+        aJson.writeNumberField("duration", Math.max(1, TimeUnit.MILLISECONDS.toMicros(aSpan.getDuration())));
+        aJson.writeObjectFieldStart("localEndpoint");
+        aJson.writeStringField("serviceName", aSpan.getServiceName());
+        aJson.writeEndObject();
+        aJson.writeObjectFieldStart("tags");
+        aJson.writeStringField("host.name", aSpan.getHostName());
+        for (final Map.Entry<String, Object> theAttribute : aSpan.getAttributes().entrySet()) {
+            aJson.writeStringField(theAttribute.getKey(), String.valueOf(theAttribute.getValue()));
+        }
+        final SpanAttributes theAttributes = aSpan.getSpanAttributes();
+        if (null != theAttributes) {
+            for (int i = 0; i < theAttributes.size(); i++) {
+                aJson.writeStringField(theAttributes.keyAt(i).getName(), toString(theAttributes, i));
+            }
+        }
+        if (aSpan.isError()) {
+            aJson.writeStringField("error", "true");
+        }
+        aJson.writeEndObject();
+        aJson.writeEndObject();
+    }
+
+    private static String toString(final SpanAttributes aAttributes, final int aIndex) {
+        switch (aAttributes.keyAt(aIndex).getType()) {
+        case LONG:
+            return Long.toString(aAttributes.longAt(aIndex));
+        case DOUBLE:
+            return Double.toString(aAttributes.doubleAt(aIndex));
+        case BOOLEAN:
+            return aAttributes.booleanAt(aIndex) ? "true" : "false";
+        default:
+            return aAttributes.stringAt(aIndex);
+        }
+    }
+
+    private static String toHex(final long aValue) {
+        final String theHex = Long.toHexString(aValue);
+        return theHex.length() == 16 ? theHex : "0000000000000000".substring(theHex.length()) + theHex;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.gc;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Merkt sich die letzten Pausen der Garbage-Collection, um sie mit Requests in Beziehung zu setzen. Die Pausen werden über die
+ * Notifications der {@link GarbageCollectorMXBean}s gemeldet und in einem Ring fester Größe ohne Locks abgelegt.
+ *
+ * Als Pause gilt die gemeldete Dauer eines Collectors. Collectors, die überwiegend nebenläufig arbeiten (CMS,
+ * {@code Cycles}-Beans von ZGC und Shenandoah), werden nicht berücksichtigt, da ihre Dauer keine Pause ist. Die Notifications
+ * werden asynchron zugestellt; eine Pause direkt vor dem Ende eines Requests kann deshalb fehlen. Benötigt die
+ * HotSpot-spezifischen Klassen aus {@code com.sun.management}.
+ */
+@Slf4j
+public class GcPauseRecorder implements NotificationListener, AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final AtomicReferenceArray<long[]> pauses;
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final long jvmStartTime;
+
+    public GcPauseRecorder(final int aCapacity) {
+        pauses = new AtomicReferenceArray<>(aCapacity);
+        jvmStartTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    /**
+     * Meldet den Recorder bei allen Garbage-Collectoren an, die Notifications unterstützen.
+     *
+     * @return {@code true}, wenn mindestens ein Collector Pausen meldet
+     */
+    public synchronized boolean start() {
+        for (final GarbageCollectorMXBean theBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (theBean instanceof NotificationEmitter && isPausing(theBean.getName())) {
+                final NotificationEmitter theEmitter = (NotificationEmitter) theBean;
+                theEmitter.addNotificationListener(this, null, null);
+                emitters.add(theEmitter);
+            }
+        }
+        if (emitters.isEmpty()) {
+            log.info("Keiner der Garbage-Collectoren meldet Pausen, GC-Pausen werden nicht erfasst");
+        }
+        return isActive();
+    }
+
+    public synchronized boolean isActive() {
+        return !emitters.isEmpty();
+    }
+
+    @Override
+    public synchronized void close() {
+        for (final NotificationEmitter theEmitter : emitters) {
+            try {
+                theEmitter.removeNotificationListener(this);
+            } catch (final ListenerNotFoundException e) {
+                log.debug("Listener war nicht registriert", e);
+            }
+        }
+        emitters.clear();
+    }
+
+    @Override
+    public void handleNotification(final Notification aNotification, final Object aHandback) {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(aNotification.getType())) {
+            final GcInfo theInfo = GarbageCollectionNotificationInfo.from((CompositeData) aNotification.getUserData()).getGcInfo();
+            // Die Zeiten sind relativ zum Start der JVM
+            recordPause(jvmStartTime + theInfo.getStartTime(), jvmStartTime + theInfo.getEndTime());
+        }
+    }
+
+    /**
+     * Legt eine Pause im Ring ab und überschreibt dabei ggf. die älteste.
+     *
+     * @param aStart
+     *            Beginn der Pause in Millisekunden seit 1970
+     * @param aEnd
+     *            Ende der Pause in Millisekunden seit 1970
+     */
+    void recordPause(final long aStart, final long aEnd) {
+        final int theSlot = (int) (sequence.getAndIncrement() % pauses.length());
+        pauses.set(theSlot, new long[] { aStart, aEnd });
+    }
+
+    /**
+     * @return die Anzahl der seit dem Start gemeldeten Pausen
+     */
+    public long getRecordedPauses() {
+        return sequence.get();
+    }
+
+    /**
+     * Ermittelt die Dauer der Pausen, die in den übergebenen Zeitraum fallen.
+     *
+     * @param aFrom
+     *            Beginn des Zeitraums in Millisekunden seit 1970
+     * @param aTo
+     *            Ende des Zeitraums in Millisekunden seit 1970
+     * @return die überlappende Pausenzeit in Millisekunden
+     */
+    public long pauseTimeBetween(final long aFrom, final long aTo) {
+        long theTotal = 0;
+        for (int i = 0; i < pauses.length(); i++) {
+            final long[] thePause = pauses.get(i);
+            if (null != thePause) {
+                final long theOverlap = Math.min(thePause[1], aTo) - Math.max(thePause[0], aFrom);
+                if (theOverlap > 0) {
+                    theTotal += theOverlap;
+                }
+            }
+        }
+        return theTotal;
+    }
+
+    private static boolean isPausing(final String aCollectorName) {
+        return !aCollectorName.contains("ConcurrentMarkSweep") && !aCollectorName.contains("Cycles");
+    }
+}
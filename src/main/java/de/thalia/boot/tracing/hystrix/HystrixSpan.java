@@ -16,10 +16,18 @@
 package de.thalia.boot.tracing.hystrix;
 
 import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.SpanDescriptor;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
 
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class HystrixSpan extends Span {
 
     public HystrixSpan(final String name, final long startTime, final long duration) {
         super(name, startTime, duration);
     }
+
+    public HystrixSpan(final SpanDescriptor descriptor, final long startTime, final long duration) {
+        super(descriptor, startTime, duration);
+    }
 }
@@ -15,10 +15,18 @@
  */
 package de.thalia.boot.tracing.hystrix;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.http.HttpServletRequest;
+
+import de.thalia.boot.tracing.SpanDescriptor;
+import de.thalia.boot.tracing.SpanDescriptors;
 import de.thalia.boot.tracing.Tracer;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.netflix.hystrix.HystrixInvokable;
+import com.netflix.hystrix.HystrixCommandKey;
 import com.netflix.hystrix.HystrixInvokableInfo;
 import com.netflix.hystrix.strategy.concurrency.HystrixRequestContext;
 import com.netflix.hystrix.strategy.executionhook.HystrixCommandExecutionHook;
@@ -31,8 +39,16 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class TracingHystrixCommandExecutionHook extends HystrixCommandExecutionHook {
 
+    private static final SpanDescriptor UNKNOWN_COMMAND = SpanDescriptors.of(HystrixSpan.class, "Hystrix");
+
     private final ThreadLocal<Long> startTime = new ThreadLocal<>();
 
+    /**
+     * Die Deskriptoren je Command. Hystrix legt den Thread-Pool eines Commands beim ersten Aufruf fest, deshalb reicht der
+     * Command-Key als Schlüssel.
+     */
+    private final Map<HystrixCommandKey, SpanDescriptor> descriptors = new ConcurrentHashMap<>();
+
     @Autowired
     private Tracer tracer;
 
@@ -60,17 +76,24 @@ public class TracingHystrixCommandExecutionHook extends HystrixCommandExecutionH
             log.debug("HystrixRequestContext ist nicht initialisiert. Dies ist wahrscheinlich kein Aufruf aus einem WebRequest");
             return;
         }
-        final String name;
+        SpanDescriptor descriptor;
         if (commandInstance instanceof HystrixInvokableInfo) {
             final HystrixInvokableInfo<?> info = (HystrixInvokableInfo<?>) commandInstance;
-            name = info.getThreadPoolKey().name() + "#" + info.getCommandKey().name();
+            descriptor = descriptors.get(info.getCommandKey());
+            if (null == descriptor) {
+                descriptor = descriptors.computeIfAbsent(info.getCommandKey(),
+                        key -> SpanDescriptors.of(HystrixSpan.class, info.getThreadPoolKey().name() + "#" + key.name()));
+            }
         } else {
-            name = "Hystrix";
+            descriptor = UNKNOWN_COMMAND;
         }
 
         if (tracer != null) {
-            tracer.addToLog(HystrixRequestHolder.getInstance().get(),
-                    new HystrixSpan(name, startTime.get(), System.currentTimeMillis() - startTime.get()));
+            final long overheadCpuStart = tracer.overheadCpuStart();
+            final long overheadAllocationStart = tracer.overheadAllocationStart();
+            final HttpServletRequest request = HystrixRequestHolder.getInstance().get();
+            tracer.addToLog(request, new HystrixSpan(descriptor, startTime.get(), System.currentTimeMillis() - startTime.get()));
+            tracer.recordOverhead(request, overheadCpuStart, overheadAllocationStart);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.mvc;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import de.thalia.boot.tracing.Tracer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Misst die Zeit der übrigen {@code HandlerInterceptor}s und das Rendern der View. Dieser Interceptor wird als erster
+ * registriert; sein {@code preHandle} läuft deshalb vor, sein {@code postHandle} und {@code afterCompletion} nach denen der
+ * anderen Interceptors. Zusammen mit den Zeitpunkten, die der {@link TracingRequestMappingHandlerAdapter} um den Aufruf des
+ * Handlers setzt, ergeben sich daraus die Phasen.
+ */
+@RequiredArgsConstructor
+public class MvcPhaseInterceptor extends HandlerInterceptorAdapter {
+
+    static final String MARK_ATTRIBUTE_NAME = MvcPhaseInterceptor.class.getName() + ".MARK";
+
+    private final Tracer tracer;
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+        mark(request, System.currentTimeMillis());
+        return true;
+    }
+
+    @Override
+    public void postHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler,
+            final ModelAndView modelAndView) {
+        mark(request, endPhase(request, MvcSpan.POST_HANDLE));
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response, final Object handler,
+            final Exception ex) {
+        // Umfasst auch die Behandlung von Exceptions des Handlers
+        endPhase(request, MvcSpan.RENDER);
+        request.removeAttribute(MARK_ATTRIBUTE_NAME);
+    }
+
+    static void mark(final HttpServletRequest request, final long time) {
+        request.setAttribute(MARK_ATTRIBUTE_NAME, time);
+    }
+
+    /**
+     * Beendet die Phase, die mit dem letzten Zeitpunkt begonnen hat, und fügt sie als Span ein.
+     *
+     * @return das Ende der Phase
+     */
+    long endPhase(final HttpServletRequest request, final String phase) {
+        final long now = System.currentTimeMillis();
+        final Object mark = request.getAttribute(MARK_ATTRIBUTE_NAME);
+        if (mark instanceof Long) {
+            tracer.addToLog(request, new MvcSpan(phase, (Long) mark, now - (Long) mark));
+        }
+        return now;
+    }
+}
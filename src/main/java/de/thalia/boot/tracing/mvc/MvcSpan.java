@@ -0,0 +1,43 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.mvc;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.SpanDescriptor;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Eine Phase der Verarbeitung in Spring MVC, z.B. die {@code HandlerInterceptor}s, die Auflösung der Argumente, die
+ * Controller-Methode, die Verarbeitung des Rückgabewerts inklusive {@code HttpMessageConverter} oder das Rendern der View.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class MvcSpan extends Span {
+
+    public static final String PRE_HANDLE = "preHandle";
+    public static final String ARGUMENTS = "arguments";
+    public static final String RETURN_VALUE = "returnValue";
+    public static final String POST_HANDLE = "postHandle";
+    public static final String RENDER = "render";
+
+    public MvcSpan(final String name, final long startTime, final long duration) {
+        super(name, startTime, duration);
+    }
+
+    public MvcSpan(final SpanDescriptor descriptor, final long startTime, final long duration) {
+        super(descriptor, startTime, duration);
+    }
+}
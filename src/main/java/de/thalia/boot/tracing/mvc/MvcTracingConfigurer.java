@@ -0,0 +1,42 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.mvc;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Registriert den {@link MvcPhaseInterceptor} vor den Interceptors anderer {@link WebMvcConfigurer}. Interceptors, die als
+ * {@code MappedInterceptor}-Beans registriert sind, laufen davor und werden deshalb nicht erfasst.
+ */
+@RequiredArgsConstructor
+public class MvcTracingConfigurer implements WebMvcConfigurer, Ordered {
+
+    private final MvcPhaseInterceptor interceptor;
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.mvc;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.AsyncHandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+import de.thalia.boot.tracing.SpanDescriptor;
+import de.thalia.boot.tracing.SpanDescriptors;
+import de.thalia.boot.tracing.Tracer;
+
+/**
+ * Misst die Phasen innerhalb eines Handler-Aufrufs: die Auflösung der Argumente (inklusive Lesen des Request-Bodys), die
+ * Controller-Methode und die Verarbeitung des Rückgabewerts (inklusive Serialisierung durch {@code HttpMessageConverter}).
+ * Die Converter selbst werden dabei nicht gekapselt, damit z.B. {@code @JsonView} weiter funktioniert.
+ */
+public class TracingRequestMappingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    private static final SpanDescriptor ARGUMENTS = SpanDescriptors.of(MvcSpan.class, MvcSpan.ARGUMENTS);
+    private static final SpanDescriptor RETURN_VALUE = SpanDescriptors.of(MvcSpan.class, MvcSpan.RETURN_VALUE);
+
+    private final Tracer tracer;
+    private final MvcPhaseInterceptor interceptor;
+
+    /**
+     * Die Deskriptoren der Controller-Methoden je Controller, damit der Name nicht bei jedem Request zusammengesetzt wird. Geerbte
+     * Methoden teilen sich das {@link Method}-Objekt, daher der Controller als erster Schlüssel.
+     */
+    private final Map<Class<?>, Map<Method, SpanDescriptor>> descriptors = new ConcurrentHashMap<>();
+
+    public TracingRequestMappingHandlerAdapter(final Tracer tracer, final MvcPhaseInterceptor interceptor) {
+        this.tracer = tracer;
+        this.interceptor = interceptor;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        final List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>();
+        for (final HandlerMethodReturnValueHandler handler : getReturnValueHandlers()) {
+            handlers.add(new TimingReturnValueHandler(handler));
+        }
+        setReturnValueHandlers(handlers);
+    }
+
+    @Override
+    protected ModelAndView handleInternal(final HttpServletRequest request, final HttpServletResponse response,
+            final HandlerMethod handlerMethod) throws Exception {
+        // Die Zeit seit dem preHandle des ersten Interceptors
+        interceptor.endPhase(request, MvcSpan.PRE_HANDLE);
+        try {
+            return super.handleInternal(request, response, handlerMethod);
+        } finally {
+            MvcPhaseInterceptor.mark(request, System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(final HandlerMethod handlerMethod) {
+        final Class<?> beanType = handlerMethod.getBeanType();
+        Map<Method, SpanDescriptor> methods = descriptors.get(beanType);
+        if (null == methods) {
+            methods = descriptors.computeIfAbsent(beanType, type -> new ConcurrentHashMap<>());
+        }
+        SpanDescriptor descriptor = methods.get(handlerMethod.getMethod());
+        if (null == descriptor) {
+            descriptor = methods.computeIfAbsent(handlerMethod.getMethod(),
+                    method -> SpanDescriptors.of(MvcSpan.class, beanType.getSimpleName() + "#" + method.getName()));
+        }
+        return new TracingInvocableHandlerMethod(handlerMethod, descriptor);
+    }
+
+    private class TracingInvocableHandlerMethod extends ServletInvocableHandlerMethod {
+
+        private final SpanDescriptor descriptor;
+
+        TracingInvocableHandlerMethod(final HandlerMethod handlerMethod, final SpanDescriptor descriptor) {
+            super(handlerMethod);
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        protected Object[] getMethodArgumentValues(final NativeWebRequest request, final ModelAndViewContainer mavContainer,
+                final Object... providedArgs) throws Exception {
+            final long start = System.currentTimeMillis();
+            try {
+                return super.getMethodArgumentValues(request, mavContainer, providedArgs);
+            } finally {
+                tracer.addToLog(new MvcSpan(ARGUMENTS, start, System.currentTimeMillis() - start));
+            }
+        }
+
+        @Override
+        protected Object doInvoke(final Object... args) throws Exception {
+            final long start = System.currentTimeMillis();
+            try {
+                return super.doInvoke(args);
+            } finally {
+                tracer.addToLog(new MvcSpan(descriptor, start, System.currentTimeMillis() - start));
+            }
+        }
+    }
+
+    private class TimingReturnValueHandler implements AsyncHandlerMethodReturnValueHandler {
+
+        private final HandlerMethodReturnValueHandler delegate;
+
+        TimingReturnValueHandler(final HandlerMethodReturnValueHandler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean supportsReturnType(final MethodParameter returnType) {
+            return delegate.supportsReturnType(returnType);
+        }
+
+        @Override
+        public boolean isAsyncReturnValue(final Object returnValue, final MethodParameter returnType) {
+            return delegate instanceof AsyncHandlerMethodReturnValueHandler
+                    && ((AsyncHandlerMethodReturnValueHandler) delegate).isAsyncReturnValue(returnValue, returnType);
+        }
+
+        @Override
+        public void handleReturnValue(final Object returnValue, final MethodParameter returnType,
+                final ModelAndViewContainer mavContainer, final NativeWebRequest webRequest) throws Exception {
+            final long start = System.currentTimeMillis();
+            try {
+                delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+            } finally {
+                tracer.addToLog(new MvcSpan(RETURN_VALUE, start, System.currentTimeMillis() - start));
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.queue;
+
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Liest den Start eines Requests aus einem Header, den ein vorgelagerter Proxy oder Load-Balancer setzt, z.B.
+ * {@code X-Request-Start: t=1561385292123}. Unterstützt werden Sekunden mit Nachkommastellen (nginx {@code $msec}) sowie
+ * ganzzahlige Sekunden, Milli-, Mikro- und Nanosekunden, jeweils mit oder ohne {@code t=}.
+ *
+ * Der Zeitstempel stammt von der Uhr des Proxys; ein Uhrenversatz zwischen den Hosts geht deshalb direkt in die Wartezeit ein.
+ */
+public class HeaderRequestStartResolver implements RequestStartResolver {
+
+    public static final String REQUEST_START_HEADER = "X-Request-Start";
+    public static final String QUEUE_START_HEADER = "X-Queue-Start";
+
+    private final List<String> headerNames;
+
+    public HeaderRequestStartResolver(final List<String> aHeaderNames) {
+        headerNames = aHeaderNames;
+    }
+
+    @Override
+    public long requestStartOf(final HttpServletRequest aRequest) {
+        for (final String theHeaderName : headerNames) {
+            final String theValue = aRequest.getHeader(theHeaderName);
+            if (null != theValue) {
+                return parseTimestamp(theValue);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String getName() {
+        return "proxy";
+    }
+
+    static long parseTimestamp(final String aValue) {
+        String theValue = aValue.trim();
+        if (theValue.startsWith("t=")) {
+            theValue = theValue.substring(2);
+        }
+        try {
+            if (theValue.indexOf('.') >= 0) {
+                return Math.round(Double.parseDouble(theValue) * 1000);
+            }
+            final long theTimestamp = Long.parseLong(theValue);
+            // Die Einheit wird an der Größenordnung erkannt
+            if (theTimestamp > 100_000_000_000_000_000L) {
+                return theTimestamp / 1_000_000;
+            }
+            if (theTimestamp > 100_000_000_000_000L) {
+                return theTimestamp / 1_000;
+            }
+            if (theTimestamp > 100_000_000_000L) {
+                return theTimestamp;
+            }
+            return theTimestamp * 1000;
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.queue;
+
+import de.thalia.boot.tracing.Span;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Die Zeit, die ein Request vor dem Trace-Filter verbracht hat, z.B. in der Warteschlange des Load-Balancers oder des
+ * Servlet-Containers.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class QueueWaitSpan extends Span {
+
+    public QueueWaitSpan(final String name, final long startTime, final long duration) {
+        super(name, startTime, duration);
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.queue;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Ermittelt, wann ein Request tatsächlich angekommen ist, bevor er den Trace-Filter erreicht hat.
+ */
+public interface RequestStartResolver {
+
+    /**
+     * @param aRequest
+     *            der aktuelle Request
+     * @return der Zeitpunkt in Millisekunden seit 1970, oder {@code -1}, wenn er nicht bekannt ist
+     */
+    long requestStartOf(HttpServletRequest aRequest);
+
+    /**
+     * @return der Name der Quelle, z.B. für den Namen des {@link QueueWaitSpan}
+     */
+    String getName();
+}
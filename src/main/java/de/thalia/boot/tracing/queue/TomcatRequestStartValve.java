@@ -0,0 +1,55 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.queue;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+
+/**
+ * Übernimmt die Startzeit, die Tomcat beim Lesen der Request-Zeile setzt, als Request-Attribut. Sie umfasst das Parsen des
+ * Requests und die Valves, nicht aber die Wartezeit in der Queue des Executors, da Tomcat die Zeit erst im Worker-Thread setzt.
+ */
+public class TomcatRequestStartValve extends ValveBase implements RequestStartResolver {
+
+    static final String START_ATTRIBUTE_NAME = TomcatRequestStartValve.class.getName() + ".START";
+
+    public TomcatRequestStartValve() {
+        super(true);
+    }
+
+    @Override
+    public void invoke(final Request aRequest, final Response aResponse) throws IOException, ServletException {
+        aRequest.setAttribute(START_ATTRIBUTE_NAME, aRequest.getCoyoteRequest().getStartTime());
+        getNext().invoke(aRequest, aResponse);
+    }
+
+    @Override
+    public long requestStartOf(final HttpServletRequest aRequest) {
+        final Object theStart = aRequest.getAttribute(START_ATTRIBUTE_NAME);
+        return theStart instanceof Long && (Long) theStart > 0 ? (Long) theStart : -1;
+    }
+
+    @Override
+    public String getName() {
+        return "tomcat";
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.render;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.SpanDescriptors;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+
+/**
+ * Schreibt ein {@link TraceLog} im Trace Event Format, das {@code chrome://tracing} und Perfetto anzeigen.
+ *
+ * Jedes Trace-Log, auch das eines aufgerufenen Services, wird ein eigener Prozess. Der Request selbst liegt in der ersten Spur,
+ * die Spans werden so auf weitere Spuren verteilt, dass sich Spans einer Spur nicht überlappen. Ineinander liegende Spans
+ * werden nicht verschachtelt dargestellt, da das Trace-Log keine Eltern-Beziehung kennt und z.B. parallele Queries sonst wie
+ * Teile eines HTTP-Aufrufs aussähen. Die Zeiten sind Mikrosekunden seit 1970.
+ *
+ * @see <a href="https://docs.google.com/document/d/1CvAClvFfyA5R-PhYUmn5OOQtYMH4h6I0nSsKchNAySU">Trace Event Format</a>
+ */
+public final class ChromeTraceFormat {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Comparator<Span> BY_START = Comparator.comparingLong(Span::getStartTime);
+
+    private final JsonGenerator json;
+    private final List<PendingLog> pending = new ArrayList<>();
+    private int nextProcessId = 1;
+
+    private ChromeTraceFormat(final JsonGenerator aJson) {
+        json = aJson;
+    }
+
+    /**
+     * @param aLog
+     *            das Trace-Log
+     * @param aName
+     *            der Name des Requests, z.B. das aufgerufene Pattern
+     * @return das Trace-Log im Trace Event Format
+     */
+    public static String of(final TraceLog aLog, final String aName) {
+        final StringWriter theResult = new StringWriter();
+        try {
+            write(aLog, aName, theResult);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return theResult.toString();
+    }
+
+    /**
+     * Schreibt das Trace-Log im Trace Event Format.
+     *
+     * @param aLog
+     *            das Trace-Log
+     * @param aName
+     *            der Name des Requests, z.B. das aufgerufene Pattern
+     * @param aWriter
+     *            das Ziel, wird nicht geschlossen
+     * @throws IOException
+     *             falls nicht geschrieben werden kann
+     */
+    public static void write(final TraceLog aLog, final String aName, final Writer aWriter) throws IOException {
+        try (JsonGenerator theJson = MAPPER.getFactory().createGenerator(aWriter)) {
+            theJson.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            theJson.writeStartObject();
+            theJson.writeStringField("displayTimeUnit", "ms");
+            theJson.writeArrayFieldStart("traceEvents");
+            final ChromeTraceFormat theFormat = new ChromeTraceFormat(theJson);
+            theFormat.pending.add(new PendingLog(aLog, aName));
+            // Die Trace-Logs aufgerufener Services werden nach dem Aufrufer geschrieben, damit die Prozesse in der Reihenfolge
+            // der Aufrufe nummeriert sind
+            for (int i = 0; i < theFormat.pending.size(); i++) {
+                theFormat.writeTraceLog(theFormat.pending.get(i));
+            }
+            theJson.writeEndArray();
+            theJson.writeEndObject();
+        }
+    }
+
+    private void writeTraceLog(final PendingLog aPending) throws IOException {
+        final TraceLog theLog = aPending.log;
+        final int thePid = nextProcessId++;
+        writeMetadata("process_name", thePid, 0, "name", theLog.getApplicationName() + " (" + theLog.getHostName() + ")");
+        writeMetadata("process_sort_index", thePid, 0, "sort_index", thePid);
+        writeMetadata("thread_name", thePid, 0, "name", "request");
+
+        final ObjectNode theRequestArgs = MAPPER.createObjectNode();
+        putIfNotNull(theRequestArgs, "cpuNanos", theLog.getCpuNanos());
+        putIfNotNull(theRequestArgs, "allocatedBytes", theLog.getAllocatedBytes());
+        putIfNotNull(theRequestArgs, "gcPauseTime", theLog.getGcPauseTime());
+        writeCompleteEvent(aPending.name, "request", thePid, 0, theLog.getStartTime(), theLog.getDuration(), theRequestArgs);
+
+        if (null == theLog.getSpans()) {
+            return;
+        }
+        final List<Span> theSpans = new ArrayList<>(theLog.getSpans());
+        theSpans.sort(BY_START);
+        final List<Long> theLaneEnds = new ArrayList<>();
+        for (final Span theSpan : theSpans) {
+            final int theLane = laneFor(theLaneEnds, theSpan);
+            if (theLane == theLaneEnds.size()) {
+                theLaneEnds.add(0L);
+                writeMetadata("thread_name", thePid, theLane + 1, "name", "spans " + (theLane + 1));
+            }
+            theLaneEnds.set(theLane, theSpan.getStartTime() + theSpan.getDuration());
+
+            final ObjectNode theArgs = MAPPER.valueToTree(theSpan);
+            theArgs.remove("name");
+            theArgs.remove("startTime");
+            theArgs.remove("duration");
+            theArgs.remove("nestedTraceLog");
+            writeCompleteEvent(theSpan.getName(), SpanDescriptors.typeOf(theSpan.getClass()), thePid, theLane + 1,
+                    theSpan.getStartTime(), theSpan.getDuration(), theArgs);
+
+            if (theSpan instanceof HTTPSpan && null != ((HTTPSpan) theSpan).getNestedTraceLog()) {
+                final URI theURI = ((HTTPSpan) theSpan).getRequestURI();
+                pending.add(new PendingLog(((HTTPSpan) theSpan).getNestedTraceLog(),
+                        null == theURI ? theSpan.getName() : theURI.getPath()));
+            }
+        }
+    }
+
+    /**
+     * Liefert die erste Spur, deren letzter Span vor dem Start des Spans endet, oder eine neue Spur.
+     */
+    private static int laneFor(final List<Long> aLaneEnds, final Span aSpan) {
+        for (int i = 0; i < aLaneEnds.size(); i++) {
+            if (aLaneEnds.get(i) <= aSpan.getStartTime()) {
+                return i;
+            }
+        }
+        return aLaneEnds.size();
+    }
+
+    private void writeCompleteEvent(final String aName, final String aCategory, final int aPid, final int aTid,
+            final long aStartTime, final long aDuration, final ObjectNode aArgs) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("name", String.valueOf(aName));
+        json.writeStringField("cat", aCategory);
+        json.writeStringField("ph", "X");
+        json.writeNumberField("pid", aPid);
+        json.writeNumberField("tid", aTid);
+        json.writeNumberField("ts", TimeUnit.MILLISECONDS.toMicros(aStartTime));
+        json.writeNumberField("dur", TimeUnit.MILLISECONDS.toMicros(aDuration));
+        if (aArgs.size() > 0) {
+            json.writeFieldName("args");
+            json.writeTree(aArgs);
+        }
+        json.writeEndObject();
+    }
+
+    private void writeMetadata(final String aName, final int aPid, final int aTid, final String aArgName, final Object aArgValue)
+            throws IOException {
+        json.writeStartObject();
+        json.writeStringField("name", aName);
+        json.writeStringField("ph", "M");
+        json.writeNumberField("pid", aPid);
+        json.writeNumberField("tid", aTid);
+        json.writeObjectFieldStart("args");
+        json.writeObjectField(aArgName, aArgValue);
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private static void putIfNotNull(final ObjectNode aNode, final String aField, final Long aValue) {
+        if (null != aValue) {
+            aNode.put(aField, aValue);
+        }
+    }
+
+    private static final class PendingLog {
+
+        private final TraceLog log;
+        private final String name;
+
+        PendingLog(final TraceLog aLog, final String aName) {
+            log = aLog;
+            name = aName;
+        }
+    }
+}
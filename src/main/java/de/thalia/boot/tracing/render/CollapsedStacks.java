@@ -0,0 +1,140 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.render;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.SpanDescriptors;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.analysis.SpanIntervals;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+
+/**
+ * Schreibt ein {@link TraceLog} als "collapsed stacks", das Eingabeformat von {@code flamegraph.pl} und Speedscope: je Zeile
+ * ein Stapel von durch {@code ;} getrennten Frames und die Zeit in Millisekunden, die genau in diesem Frame verbracht wurde.
+ *
+ * Unter dem Request liegen die Spans je Kategorie, z.B. {@code db.dataSource}; gleiche Stapel werden addiert. Ein Span, der
+ * zeitlich in einem anderen liegt (z.B. der HTTP-Aufruf eines Hystrix-Commands oder die Queries einer Controller-Methode),
+ * wird dessen Kind-Frame; dem umschließenden Span wie dem Request selbst bleibt die nicht durch Kinder erfasste Zeit. Das
+ * Trace-Log eines aufgerufenen Services liegt unter seinem HTTP-Span, der dann nur noch die Differenz zur Laufzeit des
+ * Services (Netzwerk, Warteschlangen) behält. Parallele Spans werden addiert, die Breite eines Frames kann deshalb größer
+ * als die Laufzeit des Requests sein.
+ */
+public final class CollapsedStacks {
+
+    private CollapsedStacks() {
+    }
+
+    /**
+     * @param aLog
+     *            das Trace-Log
+     * @param aName
+     *            der Name des Requests, z.B. das aufgerufene Pattern
+     * @return eine Zeile je Stapel
+     */
+    public static String of(final TraceLog aLog, final String aName) {
+        final Map<String, Long> theStacks = new LinkedHashMap<>();
+        add(theStacks, frame(aName), aLog);
+        final StringBuilder theResult = new StringBuilder();
+        theStacks.forEach((theStack, theTime) -> {
+            if (theTime > 0) {
+                theResult.append(theStack).append(' ').append(theTime).append('\n');
+            }
+        });
+        return theResult.toString();
+    }
+
+    private static void add(final Map<String, Long> aStacks, final String aStack, final TraceLog aLog) {
+        final List<Span> theSpans = null == aLog.getSpans() ? Collections.emptyList() : aLog.getSpans();
+        add(aStacks, aStack, theSpans, aLog.getStartTime(), aLog.getStartTime() + aLog.getDuration());
+    }
+
+    /**
+     * Schreibt die nicht durch die Spans erfasste Zeit in {@code [aFrom, aTo]} als Eigenzeit des Stapels und die Spans als
+     * Frames darüber.
+     */
+    private static void add(final Map<String, Long> aStacks, final String aStack, final List<Span> aSpans, final long aFrom,
+            final long aTo) {
+        aStacks.merge(aStack, SpanIntervals.of(aSpans, aFrom, aTo).getUncoveredTime(), Long::sum);
+        for (final Frame theFrame : Frame.of(aSpans)) {
+            final Span theSpan = theFrame.span;
+            final String theStack = aStack + ';' + frame(SpanDescriptors.of(theSpan).getCategory());
+            final TraceLog theNested = theSpan instanceof HTTPSpan ? ((HTTPSpan) theSpan).getNestedTraceLog() : null;
+            if (null != theNested) {
+                aStacks.merge(theStack, Math.max(0, theSpan.getDuration() - theNested.getDuration()), Long::sum);
+                add(aStacks, theStack + ';' + frame(theNested.getApplicationName()), theNested);
+            } else if (theFrame.children.isEmpty()) {
+                aStacks.merge(theStack, theSpan.getDuration(), Long::sum);
+            } else {
+                add(aStacks, theStack, theFrame.children, theSpan.getStartTime(), theSpan.getStartTime() + theSpan.getDuration());
+            }
+        }
+    }
+
+    /**
+     * Trennzeichen und Zeilenumbrüche würden das Format zerstören.
+     */
+    static String frame(final String aName) {
+        return String.valueOf(aName).replace(';', ',').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    /**
+     * Ein Span mit allen Spans, die zeitlich in ihm liegen. Ein {@link HTTPSpan} hat keine Kinder: Was während eines Aufrufs
+     * eines anderen Services lokal passiert, läuft parallel dazu.
+     */
+    private static final class Frame {
+
+        private static final Comparator<Span> BY_START_LONGEST_FIRST = Comparator.comparingLong(Span::getStartTime)
+                .thenComparing(Comparator.comparingLong(Span::getDuration).reversed());
+
+        private final Span span;
+        private final List<Span> children = new ArrayList<>();
+
+        private Frame(final Span aSpan) {
+            span = aSpan;
+        }
+
+        private static List<Frame> of(final List<Span> aSpans) {
+            final List<Span> theSorted = new ArrayList<>(aSpans);
+            theSorted.sort(BY_START_LONGEST_FIRST);
+            final List<Frame> theFrames = new ArrayList<>();
+            Frame theParent = null;
+            for (final Span theSpan : theSorted) {
+                // Nach Start sortiert liegt ein Span genau dann im letzten möglichen Elternteil, wenn er nicht nach ihm endet
+                if (null != theParent && endOf(theSpan) <= endOf(theParent.span)) {
+                    theParent.children.add(theSpan);
+                } else {
+                    final Frame theFrame = new Frame(theSpan);
+                    theFrames.add(theFrame);
+                    if (!(theSpan instanceof HTTPSpan)) {
+                        theParent = theFrame;
+                    }
+                }
+            }
+            return theFrames;
+        }
+
+        private static long endOf(final Span aSpan) {
+            return aSpan.getStartTime() + aSpan.getDuration();
+        }
+    }
+}
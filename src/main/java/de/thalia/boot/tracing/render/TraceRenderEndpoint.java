@@ -0,0 +1,84 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.render;
+
+import java.io.IOException;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.store.TraceStore;
+
+/**
+ * Actuator-Endpoint {@code tracingrender}, der ein Trace-Log im {@link ChromeTraceFormat} ({@code chrome}) oder als
+ * {@link CollapsedStacks} für einen Flame-Graph ({@code flamegraph}) ausgibt.
+ *
+ * Das Trace-Log kann aus dem Header eines Aufrufs stammen, z.B. {@code POST /actuator/tracingrender/chrome} mit
+ * {@code {"traceLog": "<Inhalt des Headers>"}}, oder aus dem {@link TraceStore}, z.B.
+ * {@code GET /actuator/tracingrender/flamegraph/3-1024}.
+ */
+@Endpoint(id = "tracingrender")
+public class TraceRenderEndpoint {
+
+    public static final String CHROME = "chrome";
+    public static final String FLAMEGRAPH = "flamegraph";
+
+    private static final String JSON = "application/json";
+    private static final String TEXT = "text/plain";
+
+    private final TraceStore store;
+
+    /**
+     * @param aStore
+     *            der Trace-Store oder {@code null}, falls er nicht aktiviert ist
+     */
+    public TraceRenderEndpoint(@Nullable final TraceStore aStore) {
+        store = aStore;
+    }
+
+    @WriteOperation(produces = { JSON, TEXT })
+    public String render(@Selector final String format, final String traceLog) {
+        final TraceLog theLog;
+        try {
+            theLog = TraceLog.fromJSON(traceLog);
+        } catch (final IOException e) {
+            throw new InvalidEndpointRequestException("Kein gültiges Trace-Log: " + e.getMessage(), "Invalid trace log");
+        }
+        return render(format, theLog, theLog.getApplicationName());
+    }
+
+    @ReadOperation(produces = { JSON, TEXT })
+    public String renderStored(@Selector final String format, @Selector final String id) throws IOException {
+        final TraceLog theLog = null == store ? null : store.read(id);
+        return null == theLog ? null : render(format, theLog, theLog.getApplicationName());
+    }
+
+    static String render(final String aFormat, final TraceLog aLog, final String aName) {
+        if (CHROME.equals(aFormat)) {
+            return ChromeTraceFormat.of(aLog, aName);
+        }
+        if (FLAMEGRAPH.equals(aFormat)) {
+            return CollapsedStacks.of(aLog, aName);
+        }
+        throw new InvalidEndpointRequestException("Unbekanntes Format " + aFormat + ", erlaubt sind " + CHROME + " und " + FLAMEGRAPH,
+                "Unknown format");
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.resilience4j;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Wertet {@code @Bulkhead} aus. Die Erlaubnis bzw. Ablehnung durch das Bulkhead beendet seine Wartezeit. Ein
+ * Thread-Pool-Bulkhead führt den Aufruf in einem anderen Thread aus und veröffentlicht seine Events dort, es wird deshalb nur
+ * mit seinem Namen erfasst.
+ */
+@RequiredArgsConstructor
+public class BulkheadModule implements Resilience4JModule {
+
+    public static final int ORDER = 300;
+
+    private final BulkheadRegistry registry;
+
+    private final Set<Bulkhead> subscribed = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public String name(final Method method) {
+        final io.github.resilience4j.bulkhead.annotation.Bulkhead annotation = annotation(method);
+        return null == annotation ? null : annotation.name();
+    }
+
+    @Override
+    public Object subscribe(final Method method, final Events events) {
+        final io.github.resilience4j.bulkhead.annotation.Bulkhead annotation = annotation(method);
+        if (null == annotation || null == registry
+                || io.github.resilience4j.bulkhead.annotation.Bulkhead.Type.SEMAPHORE != annotation.type()) {
+            return null;
+        }
+        final Bulkhead bulkhead = registry.bulkhead(annotation.name());
+        if (subscribed.add(bulkhead)) {
+            bulkhead.getEventPublisher()
+                    .onCallPermitted(event -> events.bulkheadPermit(bulkhead, false))
+                    .onCallRejected(event -> events.bulkheadPermit(bulkhead, true));
+        }
+        return bulkhead;
+    }
+
+    private static io.github.resilience4j.bulkhead.annotation.Bulkhead annotation(final Method method) {
+        return Resilience4JModule.annotation(method, io.github.resilience4j.bulkhead.annotation.Bulkhead.class);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.resilience4j;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ein einzelner Versuch innerhalb eines {@link CircuitBreakerSpan}, d.h. ein Durchlauf durch Circuit Breaker, Rate Limiter und
+ * Bulkhead bis zum Ende des eigentlichen Aufrufs. Ohne {@link io.github.resilience4j.retry.annotation.Retry} gibt es genau einen
+ * Versuch.
+ */
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PRIVATE, force = true)
+public class CircuitBreakerAttempt {
+
+    /**
+     * Der Beginn des Versuchs in Millisekunden seit 1970.
+     */
+    private final long startTime;
+
+    /**
+     * Die Dauer des Versuchs in Millisekunden, einschließlich der Wartezeiten auf Rate Limiter und Bulkhead.
+     */
+    private final long duration;
+
+    /**
+     * Das Ergebnis des Versuchs, siehe {@link CircuitBreakerSpan#SUCCESS} usw.
+     */
+    private final String outcome;
+
+    /**
+     * Die Wartezeit auf eine Erlaubnis des Rate Limiters in Mikrosekunden, sofern ein Rate Limiter beteiligt war.
+     */
+    private final Long rateLimiterWaitMicros;
+
+    /**
+     * Die Wartezeit auf einen freien Platz im Bulkhead in Mikrosekunden, sofern ein Bulkhead beteiligt war.
+     */
+    private final Long bulkheadWaitMicros;
+}
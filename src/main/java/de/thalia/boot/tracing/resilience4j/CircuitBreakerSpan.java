@@ -1,5 +1,5 @@
 /*
- * (c) Copyright 2018 Thalia Bücher GmbH
+ * (c) Copyright 2026 Thalia Bücher GmbH
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,11 +15,127 @@
  */
 package de.thalia.boot.tracing.resilience4j;
 
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.SpanDescriptor;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
 
+/**
+ * Ein Aufruf einer mit den Resilience4J-Annotationen {@code @CircuitBreaker}, {@code @Retry}, {@code @RateLimiter} oder
+ * {@code @Bulkhead} versehenen Methode. Der Name des Spans ist der Name des Circuit Breakers, ersatzweise der des Retrys, Rate
+ * Limiters oder Bulkheads.
+ */
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE, force = true)
 public class CircuitBreakerSpan extends Span {
 
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+    public static final String NOT_PERMITTED = "notPermitted";
+    public static final String RATE_LIMITED = "rateLimited";
+    public static final String BULKHEAD_FULL = "bulkheadFull";
+
+    /**
+     * Der Zustand des Circuit Breakers zu Beginn des Aufrufs (z.B. {@code CLOSED} oder {@code OPEN}), sofern ein Circuit Breaker
+     * beteiligt war.
+     */
+    private final String state;
+
+    /**
+     * Das Ergebnis des letzten Versuchs, siehe {@link #SUCCESS}, {@link #ERROR}, {@link #NOT_PERMITTED}, {@link #RATE_LIMITED}
+     * und {@link #BULKHEAD_FULL}.
+     */
+    private final String outcome;
+
+    /**
+     * Die Summe der Wartezeiten zwischen den Versuchen in Mikrosekunden, sofern wiederholt wurde.
+     */
+    private final Long retryWaitMicros;
+
+    /**
+     * Die Summe der Wartezeiten auf den Rate Limiter über alle Versuche in Mikrosekunden.
+     */
+    private final Long rateLimiterWaitMicros;
+
+    /**
+     * Die Summe der Wartezeiten auf das Bulkhead über alle Versuche in Mikrosekunden.
+     */
+    private final Long bulkheadWaitMicros;
+
+    /**
+     * Die einzelnen Versuche, nur bei mehr als einem Versuch.
+     */
+    private final List<CircuitBreakerAttempt> attempts;
+
     public CircuitBreakerSpan(final String name, final long startTime, final long duration) {
+        this(name, startTime, duration, null, null, null, null, null, null);
+    }
+
+    public CircuitBreakerSpan(final SpanDescriptor descriptor, final long startTime, final long duration) {
+        this(descriptor, startTime, duration, null, null, null, null, null, null);
+    }
+
+    /**
+     * Erzeugt eine neue Instanz und konfiguriert sie mit den übergebenen Werten.
+     *
+     * @param name
+     *            der Name des Circuit Breakers
+     * @param startTime
+     *            siehe {@link Span}
+     * @param duration
+     *            siehe {@link Span}
+     * @param state
+     *            siehe Feldbeschreibung
+     * @param outcome
+     *            siehe Feldbeschreibung
+     * @param retryWaitMicros
+     *            siehe Feldbeschreibung
+     * @param rateLimiterWaitMicros
+     *            siehe Feldbeschreibung
+     * @param bulkheadWaitMicros
+     *            siehe Feldbeschreibung
+     * @param attempts
+     *            siehe Feldbeschreibung
+     */
+    public CircuitBreakerSpan(final String name, final long startTime, final long duration, final String state,
+            final String outcome, final Long retryWaitMicros, final Long rateLimiterWaitMicros, final Long bulkheadWaitMicros,
+            final List<CircuitBreakerAttempt> attempts) {
         super(name, startTime, duration);
+        this.state = state;
+        this.outcome = outcome;
+        this.retryWaitMicros = retryWaitMicros;
+        this.rateLimiterWaitMicros = rateLimiterWaitMicros;
+        this.bulkheadWaitMicros = bulkheadWaitMicros;
+        this.attempts = attempts;
+    }
+
+    CircuitBreakerSpan(final SpanDescriptor descriptor, final long startTime, final long duration, final String state,
+            final String outcome, final Long retryWaitMicros, final Long rateLimiterWaitMicros, final Long bulkheadWaitMicros,
+            final List<CircuitBreakerAttempt> attempts) {
+        super(descriptor, startTime, duration);
+        this.state = state;
+        this.outcome = outcome;
+        this.retryWaitMicros = retryWaitMicros;
+        this.rateLimiterWaitMicros = rateLimiterWaitMicros;
+        this.bulkheadWaitMicros = bulkheadWaitMicros;
+        this.attempts = attempts;
+    }
+
+    /**
+     * @return {@code true}, wenn mehr als die Gesamtdauer erfasst wurde
+     */
+    @JsonIgnore
+    public boolean hasDetails() {
+        return null != state || null != outcome || null != retryWaitMicros || null != rateLimiterWaitMicros
+                || null != bulkheadWaitMicros || null != attempts;
     }
 }
@@ -1,44 +1,343 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
 package de.thalia.boot.tracing.resilience4j;
 
 import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.OrderComparator;
 import org.springframework.core.Ordered;
+import org.springframework.util.ClassUtils;
 
+import de.thalia.boot.tracing.SpanDescriptor;
+import de.thalia.boot.tracing.SpanDescriptors;
 import de.thalia.boot.tracing.Tracer;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Erfasst Aufrufe von Methoden mit den Resilience4J-Annotationen {@code @CircuitBreaker}, {@code @Retry}, {@code @RateLimiter}
+ * und {@code @Bulkhead} als {@link CircuitBreakerSpan}.
+ *
+ * Der Aspekt umschließt die Aspekte von Resilience4J. Die einzelnen Versuche und Wartezeiten werden aus den Events der
+ * beteiligten Instanzen abgeleitet, die synchron im aufrufenden Thread veröffentlicht werden: Die Erlaubnis von Rate Limiter bzw.
+ * Bulkhead beendet die jeweilige Wartezeit, ein Retry-Event beendet einen Versuch. Ohne die jeweilige Registry wird nur die
+ * Gesamtdauer erfasst.
+ *
+ * Der Aspekt setzt nur resilience4j-circuitbreaker voraus. Retry, Rate Limiter und Bulkhead werden über
+ * {@link Resilience4JModule}e ausgewertet, der Pointcut nennt die Annotationen nur über ein Muster, damit fehlende Module nicht
+ * aufgelöst werden müssen.
+ */
 @Aspect
 @Slf4j
-@RequiredArgsConstructor
 public class CircuitBreakerSpanAspect implements Ordered {
 
+    private static final String RETRY_CLASS = "io.github.resilience4j.retry.Retry";
+    private static final String RATE_LIMITER_CLASS = "io.github.resilience4j.ratelimiter.RateLimiter";
+    private static final String BULKHEAD_CLASS = "io.github.resilience4j.bulkhead.Bulkhead";
+
+    /**
+     * Für Methoden, die nur andere Annotationen aus den Paketen von Resilience4J tragen.
+     */
+    private static final Metadata UNTRACED = new Metadata(null, null, new Object[0]);
+
     private final Tracer tracer;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final List<Resilience4JModule> modules;
+    private final Resilience4JModule.Events events = new Events();
+
+    /**
+     * Die Metadaten je annotierter Methode, damit die Annotationen nicht bei jedem Aufruf gelesen werden müssen.
+     */
+    private final Map<Method, Metadata> metadata = new ConcurrentHashMap<>();
+
+    /**
+     * Die Circuit Breaker, für deren Events bereits ein Listener registriert wurde.
+     */
+    private final Set<CircuitBreaker> subscribed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Die laufenden Aufrufe des aktuellen Threads, der innerste zuoberst.
+     */
+    private final ThreadLocal<Deque<Invocation>> invocations = new ThreadLocal<>();
+
+    /**
+     * Erfasst nur die Gesamtdauer und die Namen der Instanzen aller vorhandenen Module.
+     */
+    public CircuitBreakerSpanAspect(final Tracer tracer) {
+        this(tracer, null, availableModules());
+    }
+
+    public CircuitBreakerSpanAspect(final Tracer tracer, final CircuitBreakerRegistry circuitBreakerRegistry,
+            final List<Resilience4JModule> modules) {
+        this.tracer = tracer;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.modules = new ArrayList<>(modules);
+        this.modules.sort(OrderComparator.INSTANCE);
+    }
+
+    private static List<Resilience4JModule> availableModules() {
+        final ClassLoader classLoader = CircuitBreakerSpanAspect.class.getClassLoader();
+        final List<Resilience4JModule> modules = new ArrayList<>(3);
+        if (ClassUtils.isPresent(RETRY_CLASS, classLoader)) {
+            modules.add(new RetryModule(null));
+        }
+        if (ClassUtils.isPresent(RATE_LIMITER_CLASS, classLoader)) {
+            modules.add(new RateLimiterModule(null));
+        }
+        if (ClassUtils.isPresent(BULKHEAD_CLASS, classLoader)) {
+            modules.add(new BulkheadModule(null));
+        }
+        return modules;
+    }
 
     @Override
     public int getOrder() {
         return Ordered.HIGHEST_PRECEDENCE;
     }
 
-    @Around(value = "@annotation(io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker)")
+    @Around(value = "execution(@(io.github.resilience4j.*.annotation.*) * *(..))"
+            + " || within(@(io.github.resilience4j.*.annotation.*) *)")
     public Object handle(final ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+        if (tracer == null) {
+            return proceedingJoinPoint.proceed();
+        }
+        final long overheadCpuStart = tracer.overheadCpuStart();
+        final long overheadAllocationStart = tracer.overheadAllocationStart();
         final long startTime = System.currentTimeMillis();
-        log.debug("Started at {}", startTime);
         final Method method = ((MethodSignature) proceedingJoinPoint.getSignature()).getMethod();
-        final String spanName = method.getAnnotation(CircuitBreaker.class).name();
-        try {
+        Metadata resolved = metadata.get(method);
+        if (null == resolved) {
+            resolved = metadata.computeIfAbsent(method, this::resolve);
+        }
+        if (UNTRACED == resolved) {
+            tracer.recordOverhead(overheadCpuStart, overheadAllocationStart);
             return proceedingJoinPoint.proceed();
+        }
+        log.debug("Started at {}", startTime);
+        final Invocation invocation = new Invocation(resolved, startTime);
+        Deque<Invocation> running = invocations.get();
+        if (null == running) {
+            running = new ArrayDeque<>();
+            invocations.set(running);
+        }
+        running.push(invocation);
+        tracer.recordOverhead(overheadCpuStart, overheadAllocationStart);
+        boolean failed = true;
+        try {
+            final Object result = proceedingJoinPoint.proceed();
+            failed = false;
+            return result;
         } finally {
+            final long finishOverheadCpuStart = tracer.overheadCpuStart();
+            final long finishOverheadAllocationStart = tracer.overheadAllocationStart();
+            running.pop();
+            if (running.isEmpty()) {
+                invocations.remove();
+            }
             final long duration = System.currentTimeMillis() - startTime;
             log.debug("Finished, duration = {}", duration);
-            if (tracer != null) {
-                tracer.addToLog(new CircuitBreakerSpan(spanName, startTime, duration));
+            tracer.addToLog(invocation.toSpan(duration, failed));
+            tracer.recordOverhead(finishOverheadCpuStart, finishOverheadAllocationStart);
+        }
+    }
+
+    private Metadata resolve(final Method method) {
+        final io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker circuitBreakerAnnotation = Resilience4JModule
+                .annotation(method, io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker.class);
+        String name = null == circuitBreakerAnnotation ? null : circuitBreakerAnnotation.name();
+        final Object[] instances = new Object[modules.size()];
+        for (int i = 0; i < instances.length; i++) {
+            final Resilience4JModule module = modules.get(i);
+            if (null == name) {
+                name = module.name(method);
+            }
+            instances[i] = module.subscribe(method, events);
+        }
+        if (null == name) {
+            return UNTRACED;
+        }
+        final CircuitBreaker circuitBreaker = null == circuitBreakerAnnotation || null == circuitBreakerRegistry ? null
+                : subscribe(circuitBreakerRegistry.circuitBreaker(circuitBreakerAnnotation.name()));
+        return new Metadata(SpanDescriptors.of(CircuitBreakerSpan.class, name), circuitBreaker, instances);
+    }
+
+    private CircuitBreaker subscribe(final CircuitBreaker circuitBreaker) {
+        if (subscribed.add(circuitBreaker)) {
+            circuitBreaker.getEventPublisher().onCallNotPermitted(event -> onEvent(circuitBreaker, Invocation::notPermitted));
+        }
+        return circuitBreaker;
+    }
+
+    /**
+     * Ordnet ein Event dem innersten laufenden Aufruf des aktuellen Threads zu, sofern die Instanz daran beteiligt ist. Events
+     * aus anderen Threads oder von nicht erfassten Aufrufen werden ignoriert.
+     */
+    private void onEvent(final Object instance, final Consumer<Invocation> action) {
+        final Deque<Invocation> running = invocations.get();
+        final Invocation invocation = null == running ? null : running.peek();
+        if (null != invocation && invocation.metadata.involves(instance)) {
+            action.accept(invocation);
+        }
+    }
+
+    private final class Events implements Resilience4JModule.Events {
+
+        @Override
+        public void retry(final Object instance, final long intervalMillis) {
+            onEvent(instance, invocation -> invocation.retry(intervalMillis));
+        }
+
+        @Override
+        public void rateLimiterPermit(final Object instance, final boolean rejected) {
+            onEvent(instance, invocation -> invocation.rateLimiterPermit(rejected));
+        }
+
+        @Override
+        public void bulkheadPermit(final Object instance, final boolean rejected) {
+            onEvent(instance, invocation -> invocation.bulkheadPermit(rejected));
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Metadata {
+
+        private final SpanDescriptor descriptor;
+        private final CircuitBreaker circuitBreaker;
+        private final Object[] instances;
+
+        boolean involves(final Object instance) {
+            if (instance == circuitBreaker) {
+                return true;
+            }
+            for (final Object candidate : instances) {
+                if (instance == candidate) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Der Zustand eines laufenden Aufrufs. Alle Zeitpunkte stammen aus {@link System#nanoTime()}.
+     */
+    private static final class Invocation {
+
+        private final Metadata metadata;
+        private final long startTime;
+        private final long startNanos;
+        private final String state;
+
+        private List<CircuitBreakerAttempt> attempts;
+        private long attemptStartNanos;
+        private long waitStartNanos;
+        private Long rateLimiterWaitNanos;
+        private Long bulkheadWaitNanos;
+        private String outcome;
+
+        private Long retryWaitMillis;
+        private Long totalRateLimiterWaitNanos;
+        private Long totalBulkheadWaitNanos;
+        private String lastOutcome;
+
+        Invocation(final Metadata metadata, final long startTime) {
+            this.metadata = metadata;
+            this.startTime = startTime;
+            this.startNanos = System.nanoTime();
+            this.state = null == metadata.circuitBreaker ? null : metadata.circuitBreaker.getState().name();
+            this.attemptStartNanos = startNanos;
+            this.waitStartNanos = startNanos;
+        }
+
+        void notPermitted() {
+            outcome = CircuitBreakerSpan.NOT_PERMITTED;
+        }
+
+        void rateLimiterPermit(final boolean rejected) {
+            final long now = System.nanoTime();
+            rateLimiterWaitNanos = now - waitStartNanos;
+            waitStartNanos = now;
+            if (rejected) {
+                outcome = CircuitBreakerSpan.RATE_LIMITED;
+            }
+        }
+
+        void bulkheadPermit(final boolean rejected) {
+            final long now = System.nanoTime();
+            bulkheadWaitNanos = now - waitStartNanos;
+            waitStartNanos = now;
+            if (rejected) {
+                outcome = CircuitBreakerSpan.BULKHEAD_FULL;
             }
         }
+
+        void retry(final long intervalMillis) {
+            final long now = System.nanoTime();
+            finishAttempt(now, CircuitBreakerSpan.ERROR);
+            retryWaitMillis = sum(retryWaitMillis, intervalMillis);
+            attemptStartNanos = now + TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+            waitStartNanos = attemptStartNanos;
+        }
+
+        private void finishAttempt(final long now, final String defaultOutcome) {
+            lastOutcome = null == outcome ? defaultOutcome : outcome;
+            if (null == attempts) {
+                attempts = new ArrayList<>(2);
+            }
+            attempts.add(new CircuitBreakerAttempt(startTime + TimeUnit.NANOSECONDS.toMillis(attemptStartNanos - startNanos),
+                    TimeUnit.NANOSECONDS.toMillis(now - attemptStartNanos), lastOutcome, toMicros(rateLimiterWaitNanos),
+                    toMicros(bulkheadWaitNanos)));
+            totalRateLimiterWaitNanos = sum(totalRateLimiterWaitNanos, rateLimiterWaitNanos);
+            totalBulkheadWaitNanos = sum(totalBulkheadWaitNanos, bulkheadWaitNanos);
+            rateLimiterWaitNanos = null;
+            bulkheadWaitNanos = null;
+            outcome = null;
+        }
+
+        CircuitBreakerSpan toSpan(final long duration, final boolean failed) {
+            finishAttempt(System.nanoTime(), failed ? CircuitBreakerSpan.ERROR : CircuitBreakerSpan.SUCCESS);
+            return new CircuitBreakerSpan(metadata.descriptor, startTime, duration, state, lastOutcome,
+                    null == retryWaitMillis ? null : TimeUnit.MILLISECONDS.toMicros(retryWaitMillis),
+                    toMicros(totalRateLimiterWaitNanos), toMicros(totalBulkheadWaitNanos), attempts.size() > 1 ? attempts : null);
+        }
+
+        private static Long sum(final Long total, final Long value) {
+            if (null == value) {
+                return total;
+            }
+            return null == total ? value : total + value;
+        }
+
+        private static Long toMicros(final Long nanos) {
+            return null == nanos ? null : TimeUnit.NANOSECONDS.toMicros(nanos);
+        }
     }
 }
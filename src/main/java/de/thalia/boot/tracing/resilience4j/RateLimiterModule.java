@@ -0,0 +1,64 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.resilience4j;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Wertet {@code @RateLimiter} aus. Die Erlaubnis bzw. Ablehnung durch den Rate Limiter beendet seine Wartezeit.
+ */
+@RequiredArgsConstructor
+public class RateLimiterModule implements Resilience4JModule {
+
+    public static final int ORDER = 200;
+
+    private final RateLimiterRegistry registry;
+
+    private final Set<RateLimiter> subscribed = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public String name(final Method method) {
+        final io.github.resilience4j.ratelimiter.annotation.RateLimiter annotation = Resilience4JModule.annotation(method,
+                io.github.resilience4j.ratelimiter.annotation.RateLimiter.class);
+        return null == annotation ? null : annotation.name();
+    }
+
+    @Override
+    public Object subscribe(final Method method, final Events events) {
+        final String name = name(method);
+        if (null == name || null == registry) {
+            return null;
+        }
+        final RateLimiter rateLimiter = registry.rateLimiter(name);
+        if (subscribed.add(rateLimiter)) {
+            rateLimiter.getEventPublisher()
+                    .onSuccess(event -> events.rateLimiterPermit(rateLimiter, false))
+                    .onFailure(event -> events.rateLimiterPermit(rateLimiter, true));
+        }
+        return rateLimiter;
+    }
+}
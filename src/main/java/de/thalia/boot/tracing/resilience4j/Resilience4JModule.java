@@ -0,0 +1,61 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.resilience4j;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Ein optionales Modul von Resilience4J (Retry, Rate Limiter, Bulkhead), dessen Annotationen und Events der
+ * {@link CircuitBreakerSpanAspect} auswertet. Die Module liegen in eigenen Klassen, damit der Aspekt selbst nur
+ * resilience4j-circuitbreaker voraussetzt. Die Reihenfolge bestimmt, welche Annotation den Namen des Spans liefert, falls die
+ * Methode keinen Circuit Breaker hat.
+ */
+public interface Resilience4JModule extends Ordered {
+
+    /**
+     * @return der Name der Instanz aus der Annotation der Methode bzw. ihrer Klasse oder {@code null}, wenn die Methode nicht
+     *         annotiert ist
+     */
+    String name(Method method);
+
+    /**
+     * Ermittelt die Instanz für die Methode und meldet deren Events einmalig an {@code events}.
+     *
+     * @return die Instanz oder {@code null}, wenn die Methode nicht annotiert ist, keine Registry vorliegt oder die Events nicht
+     *         im aufrufenden Thread veröffentlicht werden
+     */
+    Object subscribe(Method method, Events events);
+
+    /**
+     * Die Events, die der {@link CircuitBreakerSpanAspect} dem innersten laufenden Aufruf des aktuellen Threads zuordnet.
+     */
+    interface Events {
+
+        void retry(Object instance, long intervalMillis);
+
+        void rateLimiterPermit(Object instance, boolean rejected);
+
+        void bulkheadPermit(Object instance, boolean rejected);
+    }
+
+    static <A extends Annotation> A annotation(final Method method, final Class<A> type) {
+        final A annotation = method.getAnnotation(type);
+        return null != annotation ? annotation : method.getDeclaringClass().getAnnotation(type);
+    }
+}
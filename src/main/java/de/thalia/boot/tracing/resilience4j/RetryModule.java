@@ -0,0 +1,66 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.resilience4j;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Wertet {@code @Retry} aus. Ein Retry-Event beendet einen Versuch, die Wartezeit vor der Wiederholung wird der
+ * {@link io.github.resilience4j.retry.RetryConfig#getIntervalFunction() Intervallfunktion} entnommen.
+ */
+@RequiredArgsConstructor
+public class RetryModule implements Resilience4JModule {
+
+    public static final int ORDER = 100;
+
+    private final RetryRegistry registry;
+
+    private final Set<Retry> subscribed = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public String name(final Method method) {
+        final io.github.resilience4j.retry.annotation.Retry annotation = Resilience4JModule.annotation(method,
+                io.github.resilience4j.retry.annotation.Retry.class);
+        return null == annotation ? null : annotation.name();
+    }
+
+    @Override
+    public Object subscribe(final Method method, final Events events) {
+        final String name = name(method);
+        if (null == name || null == registry) {
+            return null;
+        }
+        final Retry retry = registry.retry(name);
+        if (subscribed.add(retry)) {
+            final Function<Integer, Long> intervals = retry.getRetryConfig().getIntervalFunction();
+            retry.getEventPublisher()
+                    .onRetry(event -> events.retry(retry, intervals.apply(event.getNumberOfRetryAttempts())));
+        }
+        return retry;
+    }
+}
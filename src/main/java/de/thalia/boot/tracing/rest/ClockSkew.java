@@ -0,0 +1,62 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.rest;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Die geschätzte Abweichung der Uhr eines aufgerufenen Services gegenüber der lokalen Uhr. Die Schätzung folgt dem NTP-Verfahren
+ * und nutzt Start und Ende des lokalen Aufrufs sowie Start und Ende des Trace-Logs des aufgerufenen Services.
+ */
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ClockSkew {
+
+    /**
+     * Um so viele Millisekunden geht die Uhr des aufgerufenen Services gegenüber der lokalen Uhr vor.
+     */
+    private long offset;
+
+    /**
+     * Die reine Netzwerkzeit des Aufrufs, also die lokal gemessene Dauer abzüglich der Verarbeitungszeit im aufgerufenen Service.
+     */
+    private long roundTrip;
+
+    /**
+     * {@code true}, wenn das Trace-Log des aufgerufenen Services um {@link #offset} in die lokale Zeit verschoben wurde.
+     */
+    private boolean corrected;
+
+    /**
+     * {@code true}, wenn die geschätzte Abweichung größer als die Netzwerkzeit ist. Dann liegt mit hoher Wahrscheinlichkeit ein
+     * echter Uhrenversatz vor und nicht nur eine asymmetrische Netzwerklaufzeit.
+     */
+    private boolean exceedsRoundTrip;
+
+    public ClockSkew(final long offset, final long roundTrip, final boolean corrected, final boolean exceedsRoundTrip) {
+        this.offset = offset;
+        this.roundTrip = roundTrip;
+        this.corrected = corrected;
+        this.exceedsRoundTrip = exceedsRoundTrip;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.rest;
+
+import de.thalia.boot.tracing.TraceLog;
+
+/**
+ * Schätzt den Uhrenversatz zwischen dem lokalen Host und einem aufgerufenen Service und verschiebt dessen Trace-Log bei Bedarf in
+ * die lokale Zeit.
+ *
+ * Mit t1/t4 als lokalem Start/Ende des Aufrufs und t2/t3 als Start/Ende des entfernten Trace-Logs ergibt sich der Versatz zu
+ * {@code ((t2 - t1) + (t3 - t4)) / 2} und die Netzwerkzeit zu {@code (t4 - t1) - (t3 - t2)}. Korrigiert wird nur, wenn das
+ * entfernte Trace-Log nicht innerhalb des lokalen Aufrufs liegt. Bei synchronen Uhren würde eine Korrektur sonst nur eine
+ * asymmetrische Netzwerklaufzeit verschmieren.
+ */
+public final class ClockSkewCorrection {
+
+    private ClockSkewCorrection() {
+    }
+
+    /**
+     * Schätzt den Versatz für das übergebene Trace-Log eines aufgerufenen Services.
+     *
+     * @param aLocalStart
+     *            lokaler Startzeitpunkt des Aufrufs
+     * @param aLocalDuration
+     *            lokal gemessene Dauer des Aufrufs
+     * @param aRemoteLog
+     *            das Trace-Log des aufgerufenen Services
+     * @return der geschätzte Versatz
+     */
+    public static ClockSkew estimate(final long aLocalStart, final long aLocalDuration, final TraceLog aRemoteLog) {
+        final long theLocalEnd = aLocalStart + aLocalDuration;
+        final long theRemoteStart = aRemoteLog.getStartTime();
+        final long theRemoteEnd = theRemoteStart + aRemoteLog.getDuration();
+
+        final long theOffset = ((theRemoteStart - aLocalStart) + (theRemoteEnd - theLocalEnd)) / 2;
+        final long theRoundTrip = Math.max(0, aLocalDuration - aRemoteLog.getDuration());
+        final boolean theOutside = theRemoteStart < aLocalStart || theRemoteEnd > theLocalEnd;
+        return new ClockSkew(theOffset, theRoundTrip, theOutside && theOffset != 0, Math.abs(theOffset) > theRoundTrip);
+    }
+
+    /**
+     * Schätzt den Versatz, verschiebt das Trace-Log inklusive aller eingebundenen Trace-Logs bei Bedarf in die lokale Zeit und
+     * vermerkt das Ergebnis am Trace-Log.
+     *
+     * @param aRemoteLog
+     *            das Trace-Log des aufgerufenen Services
+     * @param aLocalStart
+     *            lokaler Startzeitpunkt des Aufrufs
+     * @param aLocalDuration
+     *            lokal gemessene Dauer des Aufrufs
+     */
+    public static void correct(final TraceLog aRemoteLog, final long aLocalStart, final long aLocalDuration) {
+        final ClockSkew theSkew = estimate(aLocalStart, aLocalDuration, aRemoteLog);
+        if (theSkew.isCorrected()) {
+            aRemoteLog.shiftTime(-theSkew.getOffset());
+        }
+        aRemoteLog.setClockSkew(theSkew);
+    }
+}
@@ -18,6 +18,7 @@ package de.thalia.boot.tracing.rest;
 import java.net.URI;
 
 import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.SpanDescriptor;
 import de.thalia.boot.tracing.TraceLog;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
@@ -25,7 +26,9 @@ import org.springframework.http.HttpStatus;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 /**
  * Ein HTTP Span ist ein Zeitschlitz, in welchen ein Remote-Aufruf statt gefunden hat.
@@ -37,6 +40,7 @@ import lombok.Getter;
 @JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class HTTPSpan extends Span {
 
     private HttpMethod requestMethod;
@@ -44,12 +48,42 @@ public class HTTPSpan extends Span {
     private HttpStatus responseStatus;
     private TraceLog nestedTraceLog;
 
+    /**
+     * Die Phasen des Aufrufs, sofern der HTTP-Client instrumentiert ist. Das Lesen des Bodys geschieht erst nach dem Ende des
+     * Spans und ist deshalb nicht in dessen Dauer enthalten.
+     */
+    private HttpPhases phases;
+
     public HTTPSpan(String aName, long aStartTime, long aDuration, HttpMethod aRequestMethod, URI aRequestURI,
             HttpStatus aResponseStatus, TraceLog aNestedTraceLog) {
+        this(aName, aStartTime, aDuration, aRequestMethod, aRequestURI, aResponseStatus, aNestedTraceLog, null);
+    }
+
+    public HTTPSpan(String aName, long aStartTime, long aDuration, HttpMethod aRequestMethod, URI aRequestURI,
+            HttpStatus aResponseStatus, TraceLog aNestedTraceLog, HttpPhases aPhases) {
         super(aName, aStartTime, aDuration);
         requestMethod = aRequestMethod;
         requestURI = aRequestURI;
         responseStatus = aResponseStatus;
         nestedTraceLog = aNestedTraceLog;
+        phases = aPhases;
+    }
+
+    public HTTPSpan(SpanDescriptor aDescriptor, long aStartTime, long aDuration, HttpMethod aRequestMethod, URI aRequestURI,
+            HttpStatus aResponseStatus, TraceLog aNestedTraceLog, HttpPhases aPhases) {
+        super(aDescriptor, aStartTime, aDuration);
+        requestMethod = aRequestMethod;
+        requestURI = aRequestURI;
+        responseStatus = aResponseStatus;
+        nestedTraceLog = aNestedTraceLog;
+        phases = aPhases;
+    }
+
+    @Override
+    public void shiftTime(final long aOffset) {
+        super.shiftTime(aOffset);
+        if (null != nestedTraceLog) {
+            nestedTraceLog.shiftTime(aOffset);
+        }
     }
 }
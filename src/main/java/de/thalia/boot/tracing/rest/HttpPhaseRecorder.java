@@ -0,0 +1,61 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.rest;
+
+/**
+ * Stellt die {@link HttpPhases} des laufenden HTTP-Aufrufs im aufrufenden Thread bereit. Der Interceptor des RestTemplates
+ * beginnt die Aufzeichnung, die Instrumentierung des HTTP-Clients trägt die einzelnen Phasen ein.
+ */
+public final class HttpPhaseRecorder {
+
+    // Markiert einen laufenden Aufruf, für den noch keine Phase erfasst wurde. Die HttpPhases werden erst mit der ersten
+    // Phase angelegt, so dass für nicht instrumentierte Clients nichts alloziert wird.
+    private static final Object STARTED = new Object();
+
+    private static final ThreadLocal<Object> CURRENT = new ThreadLocal<>();
+
+    private HttpPhaseRecorder() {
+    }
+
+    static void start() {
+        CURRENT.set(STARTED);
+    }
+
+    /**
+     * @return die bisher erfassten Phasen des laufenden Aufrufs oder {@code null}, wenn noch keine Phase erfasst wurde
+     */
+    static HttpPhases recorded() {
+        final Object theCurrent = CURRENT.get();
+        return theCurrent instanceof HttpPhases ? (HttpPhases) theCurrent : null;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return die Phasen des laufenden Aufrufs oder {@code null}, wenn kein Aufruf über ein RestTemplate läuft
+     */
+    public static HttpPhases current() {
+        final Object theCurrent = CURRENT.get();
+        if (STARTED == theCurrent) {
+            final HttpPhases thePhases = new HttpPhases();
+            CURRENT.set(thePhases);
+            return thePhases;
+        }
+        return (HttpPhases) theCurrent;
+    }
+}
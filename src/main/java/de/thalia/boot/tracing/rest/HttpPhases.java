@@ -0,0 +1,81 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.rest;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Die Phasen eines HTTP-Aufrufs in Mikrosekunden: Warten auf eine Verbindung aus dem Pool, Verbindungsaufbau, TLS-Handshake,
+ * Zeit bis zum ersten Byte der Antwort und Lesen des Bodys. Phasen, die nicht angefallen sind (z.B. der Verbindungsaufbau bei
+ * einer Verbindung aus dem Pool), bleiben {@code null}. Bei Wiederholungen oder Redirects werden die Zeiten aufsummiert.
+ *
+ * Die Phasen werden nur für RestTemplates erfasst, deren Apache HttpClient über
+ * {@link de.thalia.boot.tracing.rest.httpclient.HttpPhaseTracing} instrumentiert wurde.
+ */
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+public class HttpPhases {
+
+    private Long leaseWaitMicros;
+    private Long connectMicros;
+    private Long tlsHandshakeMicros;
+    private Long timeToFirstByteMicros;
+    private Long bodyReadMicros;
+
+    @Getter(AccessLevel.NONE)
+    private transient long bodyReadNanos;
+
+    public void addLeaseWait(final long aNanos) {
+        leaseWaitMicros = add(leaseWaitMicros, aNanos);
+    }
+
+    public void addConnect(final long aNanos) {
+        connectMicros = add(connectMicros, aNanos);
+    }
+
+    public void addTlsHandshake(final long aNanos) {
+        tlsHandshakeMicros = add(tlsHandshakeMicros, aNanos);
+    }
+
+    public void addTimeToFirstByte(final long aNanos) {
+        timeToFirstByteMicros = add(timeToFirstByteMicros, aNanos);
+    }
+
+    public void addBodyRead(final long aNanos) {
+        // Der Body wird in vielen kleinen Stücken gelesen, deshalb wird in Nanosekunden summiert
+        bodyReadNanos += aNanos;
+        bodyReadMicros = bodyReadNanos / 1000;
+    }
+
+    /**
+     * @return {@code true}, wenn mindestens eine Phase erfasst wurde, der Aufruf also über einen instrumentierten Client lief
+     */
+    @JsonIgnore
+    public boolean isRecorded() {
+        return null != leaseWaitMicros || null != connectMicros || null != tlsHandshakeMicros || null != timeToFirstByteMicros;
+    }
+
+    private static Long add(final Long aMicros, final long aNanos) {
+        final long theMicros = aNanos / 1000;
+        return null == aMicros ? theMicros : aMicros + theMicros;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.rest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Misst die Zeit, die beim Lesen des Bodys einer Response in {@code read}-Aufrufen verbracht wird. Die Verarbeitung der
+ * gelesenen Daten, z.B. durch Jackson, ist nicht enthalten.
+ */
+class PhaseTimingClientHttpResponse implements ClientHttpResponse {
+
+    private final ClientHttpResponse response;
+    private final HttpPhases phases;
+    private InputStream body;
+
+    PhaseTimingClientHttpResponse(final ClientHttpResponse aResponse, final HttpPhases aPhases) {
+        response = aResponse;
+        phases = aPhases;
+    }
+
+    @Override
+    public InputStream getBody() throws IOException {
+        if (null == body) {
+            body = new TimingInputStream(response.getBody());
+        }
+        return body;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return response.getHeaders();
+    }
+
+    @Override
+    public HttpStatus getStatusCode() throws IOException {
+        return response.getStatusCode();
+    }
+
+    @Override
+    public int getRawStatusCode() throws IOException {
+        return response.getRawStatusCode();
+    }
+
+    @Override
+    public String getStatusText() throws IOException {
+        return response.getStatusText();
+    }
+
+    @Override
+    public void close() {
+        response.close();
+    }
+
+    private class TimingInputStream extends FilterInputStream {
+
+        TimingInputStream(final InputStream aDelegate) {
+            super(aDelegate);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final long theStart = System.nanoTime();
+            try {
+                return super.read();
+            } finally {
+                phases.addBodyRead(System.nanoTime() - theStart);
+            }
+        }
+
+        @Override
+        public int read(final byte[] aBuffer, final int aOffset, final int aLength) throws IOException {
+            final long theStart = System.nanoTime();
+            try {
+                return super.read(aBuffer, aOffset, aLength);
+            } finally {
+                phases.addBodyRead(System.nanoTime() - theStart);
+            }
+        }
+
+        @Override
+        public long skip(final long aCount) throws IOException {
+            final long theStart = System.nanoTime();
+            try {
+                return super.skip(aCount);
+            } finally {
+                phases.addBodyRead(System.nanoTime() - theStart);
+            }
+        }
+    }
+}
@@ -33,6 +33,8 @@ import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 
+import de.thalia.boot.tracing.SpanDescriptor;
+import de.thalia.boot.tracing.SpanDescriptors;
 import de.thalia.boot.tracing.TraceLog;
 import de.thalia.boot.tracing.Tracer;
 import lombok.extern.slf4j.Slf4j;
@@ -47,45 +49,71 @@ public class TraceRestTemplateCustomizer implements RestTemplateCustomizer {
 
     private static class TraceInterceptor implements ClientHttpRequestInterceptor {
 
-        private final String beanName;
+        private final SpanDescriptor descriptor;
         private final Tracer tracer;
 
         public TraceInterceptor(String aBeanName, Tracer aTracer) {
-            beanName = aBeanName;
+            descriptor = SpanDescriptors.of(HTTPSpan.class, aBeanName);
             tracer = aTracer;
         }
 
         @Override
         public ClientHttpResponse intercept(HttpRequest aRequest, byte[] aBytes, ClientHttpRequestExecution aExecution)
                 throws IOException {
+            long theOverheadCpuStart = tracer.overheadCpuStart();
+            long theOverheadAllocationStart = tracer.overheadAllocationStart();
             long theStartTime = System.currentTimeMillis();
             HttpMethod theRequestMethod = aRequest.getMethod();
             URI theURI = aRequest.getURI();
             HttpStatus theResponseStatus = null;
             TraceLog theTraceLog = null;
+            HttpPhases thePhases = null;
+            HttpPhaseRecorder.start();
             try {
                 // Das Feature-Toggle wird weiter propagiert
                 tracer.propagateFeatureToggle(aRequest);
 
                 // Und weiter mit dem Aufruf
+                tracer.recordOverhead(theOverheadCpuStart, theOverheadAllocationStart);
                 ClientHttpResponse theResponse = aExecution.execute(aRequest, aBytes);
+                theOverheadCpuStart = tracer.overheadCpuStart();
+                theOverheadAllocationStart = tracer.overheadAllocationStart();
                 theResponseStatus = theResponse.getStatusCode();
-                String theTraceLogAsStr = theResponse.getHeaders().getFirst(Tracer.TRACE_ATTRIBUTE_NAME);
+                String theTraceLogAsStr = theResponse.getHeaders().getFirst(Tracer.TRACE_HEADER_NAME);
                 if (!StringUtils.isEmpty(theTraceLogAsStr)) {
                     try {
                         theTraceLog = TraceLog.fromJSON(theTraceLogAsStr);
+                        // Der kritische Pfad wird beim Aufrufer über den gesamten Baum neu berechnet
+                        theTraceLog.setCriticalPath(null);
                     } catch (Exception e) {
                         log.warn(
                                 "Konnte {} nicht als Tracelog deserialisieren. Die Verarbeitung kann jedoch fortgesetzt werden.",
                                 theTraceLogAsStr, e);
                     }
                 }
+                thePhases = HttpPhaseRecorder.recorded();
+                if (null != thePhases && thePhases.isRecorded()) {
+                    // Der Body wird erst nach dem Interceptor gelesen
+                    theResponse = new PhaseTimingClientHttpResponse(theResponse, thePhases);
+                }
                 return theResponse;
             } finally {
+                if (null == thePhases) {
+                    thePhases = HttpPhaseRecorder.recorded();
+                }
+                HttpPhaseRecorder.stop();
+                if (null != thePhases && !thePhases.isRecorded()) {
+                    thePhases = null;
+                }
                 long theDuration = System.currentTimeMillis() - theStartTime;
+                if (null != theTraceLog) {
+                    // Die Zeiten des aufgerufenen Services stammen von einer anderen Uhr
+                    ClockSkewCorrection.correct(theTraceLog, theStartTime, theDuration);
+                }
 
-                tracer.addToLog(new HTTPSpan(beanName, theStartTime, theDuration,
-                        theRequestMethod, theURI, theResponseStatus, theTraceLog));
+                tracer.addToLog(new HTTPSpan(descriptor, theStartTime, theDuration,
+                        theRequestMethod, theURI, theResponseStatus, theTraceLog, thePhases));
+                tracer.recordOverhead(theOverheadCpuStart, theOverheadAllocationStart);
             }
         }
     }
@@ -0,0 +1,93 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.rest.httpclient;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import de.thalia.boot.tracing.rest.HttpPhases;
+
+/**
+ * Instrumentiert einen Apache HttpClient, so dass die {@link HttpPhases} eines Aufrufs über ein RestTemplate erfasst werden:
+ *
+ * <pre>
+ * PoolingHttpClientConnectionManager connectionManager = HttpPhaseTracing.connectionManager();
+ * connectionManager.setMaxTotal(50);
+ * HttpClient client = HttpPhaseTracing.instrument(HttpClientBuilder.create(), connectionManager).build();
+ * RestTemplate template = builder.requestFactory(() -&gt; new HttpComponentsClientHttpRequestFactory(client)).build();
+ * </pre>
+ *
+ * Die Phasen werden im aufrufenden Thread erfasst und nur, wenn der Aufruf über ein RestTemplate mit dem Trace-Interceptor
+ * läuft.
+ */
+public final class HttpPhaseTracing {
+
+    private HttpPhaseTracing() {
+    }
+
+    /**
+     * @return ein Pool, dessen Verbindungsaufbau inklusive TLS-Handshake gemessen wird
+     */
+    public static PoolingHttpClientConnectionManager connectionManager() {
+        return new PoolingHttpClientConnectionManager(socketFactoryRegistry(SSLContexts.createDefault()));
+    }
+
+    /**
+     * @param aSSLContext
+     *            der SSL-Kontext für HTTPS-Verbindungen
+     * @return die Socket-Factories für HTTP und HTTPS, bei HTTPS mit Messung des TLS-Handshakes
+     */
+    public static Registry<ConnectionSocketFactory> socketFactoryRegistry(final SSLContext aSSLContext) {
+        return RegistryBuilder.<ConnectionSocketFactory> create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", new PhaseTimingSSLConnectionSocketFactory(aSSLContext,
+                        SSLConnectionSocketFactory.getDefaultHostnameVerifier()))
+                .build();
+    }
+
+    /**
+     * Misst das Warten auf eine Verbindung aus dem Pool, den Verbindungsaufbau und die Zeit bis zum ersten Byte der Antwort.
+     *
+     * @param aBuilder
+     *            der zu instrumentierende Builder
+     * @param aConnectionManager
+     *            der Pool, für die Messung des TLS-Handshakes von {@link #connectionManager()}
+     * @return der Builder
+     */
+    public static HttpClientBuilder instrument(final HttpClientBuilder aBuilder,
+            final HttpClientConnectionManager aConnectionManager) {
+        return aBuilder.setConnectionManager(new PhaseTimingConnectionManager(aConnectionManager))
+                .setRequestExecutor(new PhaseTimingRequestExecutor());
+    }
+
+    /**
+     * @return eine Request-Factory mit instrumentiertem HttpClient und Standardeinstellungen
+     */
+    public static HttpComponentsClientHttpRequestFactory requestFactory() {
+        return new HttpComponentsClientHttpRequestFactory(instrument(HttpClientBuilder.create().useSystemProperties(),
+                connectionManager()).build());
+    }
+}
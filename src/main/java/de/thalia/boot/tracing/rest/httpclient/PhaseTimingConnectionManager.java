@@ -0,0 +1,122 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.rest.httpclient;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.protocol.HttpContext;
+
+import de.thalia.boot.tracing.rest.HttpPhaseRecorder;
+import de.thalia.boot.tracing.rest.HttpPhases;
+
+/**
+ * Misst das Warten auf eine Verbindung aus dem Pool und den Aufbau neuer Verbindungen. Ein TLS-Handshake während des
+ * Verbindungsaufbaus wird von {@link PhaseTimingSSLConnectionSocketFactory} gemessen und hier wieder abgezogen.
+ */
+class PhaseTimingConnectionManager implements HttpClientConnectionManager {
+
+    private final HttpClientConnectionManager delegate;
+
+    PhaseTimingConnectionManager(final HttpClientConnectionManager aDelegate) {
+        delegate = aDelegate;
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(final HttpRoute aRoute, final Object aState) {
+        final ConnectionRequest theRequest = delegate.requestConnection(aRoute, aState);
+        return new ConnectionRequest() {
+
+            @Override
+            public HttpClientConnection get(final long aTimeout, final TimeUnit aUnit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                final long theStart = System.nanoTime();
+                try {
+                    return theRequest.get(aTimeout, aUnit);
+                } finally {
+                    final HttpPhases thePhases = HttpPhaseRecorder.current();
+                    if (null != thePhases) {
+                        thePhases.addLeaseWait(System.nanoTime() - theStart);
+                    }
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return theRequest.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void connect(final HttpClientConnection aConnection, final HttpRoute aRoute, final int aConnectTimeout,
+            final HttpContext aContext) throws IOException {
+        final HttpPhases thePhases = HttpPhaseRecorder.current();
+        final Long theTlsBefore = null != thePhases ? thePhases.getTlsHandshakeMicros() : null;
+        final long theStart = System.nanoTime();
+        try {
+            delegate.connect(aConnection, aRoute, aConnectTimeout, aContext);
+        } finally {
+            if (null != thePhases) {
+                final long theTlsMicros = valueOf(thePhases.getTlsHandshakeMicros()) - valueOf(theTlsBefore);
+                thePhases.addConnect(System.nanoTime() - theStart - theTlsMicros * 1000);
+            }
+        }
+    }
+
+    @Override
+    public void upgrade(final HttpClientConnection aConnection, final HttpRoute aRoute, final HttpContext aContext)
+            throws IOException {
+        delegate.upgrade(aConnection, aRoute, aContext);
+    }
+
+    @Override
+    public void routeComplete(final HttpClientConnection aConnection, final HttpRoute aRoute, final HttpContext aContext)
+            throws IOException {
+        delegate.routeComplete(aConnection, aRoute, aContext);
+    }
+
+    @Override
+    public void releaseConnection(final HttpClientConnection aConnection, final Object aNewState, final long aValidDuration,
+            final TimeUnit aTimeUnit) {
+        delegate.releaseConnection(aConnection, aNewState, aValidDuration, aTimeUnit);
+    }
+
+    @Override
+    public void closeIdleConnections(final long aIdletime, final TimeUnit aTimeUnit) {
+        delegate.closeIdleConnections(aIdletime, aTimeUnit);
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        delegate.closeExpiredConnections();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    private static long valueOf(final Long aValue) {
+        return null == aValue ? 0 : aValue;
+    }
+}
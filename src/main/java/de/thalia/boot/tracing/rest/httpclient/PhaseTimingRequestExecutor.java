@@ -0,0 +1,48 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.rest.httpclient;
+
+import java.io.IOException;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import de.thalia.boot.tracing.rest.HttpPhaseRecorder;
+import de.thalia.boot.tracing.rest.HttpPhases;
+
+/**
+ * Misst die Zeit vom Beginn des Sendens eines Requests bis zum Empfang der Header der Antwort (Time to First Byte).
+ */
+class PhaseTimingRequestExecutor extends HttpRequestExecutor {
+
+    @Override
+    public HttpResponse execute(final HttpRequest aRequest, final HttpClientConnection aConnection, final HttpContext aContext)
+            throws IOException, HttpException {
+        final long theStart = System.nanoTime();
+        try {
+            return super.execute(aRequest, aConnection, aContext);
+        } finally {
+            final HttpPhases thePhases = HttpPhaseRecorder.current();
+            if (null != thePhases) {
+                thePhases.addTimeToFirstByte(System.nanoTime() - theStart);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.rest.httpclient;
+
+import java.io.IOException;
+import java.net.Socket;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+
+import de.thalia.boot.tracing.rest.HttpPhaseRecorder;
+import de.thalia.boot.tracing.rest.HttpPhases;
+
+/**
+ * Misst den TLS-Handshake, der beim Erzeugen des SSL-Sockets über der bestehenden TCP-Verbindung stattfindet.
+ */
+class PhaseTimingSSLConnectionSocketFactory extends SSLConnectionSocketFactory {
+
+    PhaseTimingSSLConnectionSocketFactory(final SSLContext aSSLContext, final HostnameVerifier aHostnameVerifier) {
+        super(aSSLContext, aHostnameVerifier);
+    }
+
+    @Override
+    public Socket createLayeredSocket(final Socket aSocket, final String aTarget, final int aPort, final HttpContext aContext)
+            throws IOException {
+        final long theStart = System.nanoTime();
+        try {
+            return super.createLayeredSocket(aSocket, aTarget, aPort, aContext);
+        } finally {
+            final HttpPhases thePhases = HttpPhaseRecorder.current();
+            if (null != thePhases) {
+                thePhases.addTlsHandshake(System.nanoTime() - theStart);
+            }
+        }
+    }
+}
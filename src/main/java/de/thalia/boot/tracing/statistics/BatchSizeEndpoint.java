@@ -0,0 +1,38 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.statistics;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Actuator-Endpoint {@code tracingbatches}, der das {@link BatchSizeHistogram} je Datasource ausliefert.
+ */
+@Endpoint(id = "tracingbatches")
+@RequiredArgsConstructor
+public class BatchSizeEndpoint {
+
+    private final BatchSizeHistogram histogram;
+
+    @ReadOperation
+    public Map<String, BatchSizeSnapshot> batchSizes() {
+        return histogram.snapshot();
+    }
+}
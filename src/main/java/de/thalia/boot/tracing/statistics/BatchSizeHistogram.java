@@ -0,0 +1,105 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.statistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramm der Batchgrößen schreibender Statements je Datasource. Ein einzeln ausgeführtes Statement zählt als Batch der Größe
+ * 1, so dass fehlende oder zu kleine Batches erkennbar werden. Die Größen werden in Zweierpotenzen eingeteilt, die letzte Klasse
+ * umfasst alle Batches ab {@link #LARGEST_BUCKET} Einträgen.
+ */
+public class BatchSizeHistogram {
+
+    public static final int LARGEST_BUCKET = 1024;
+    private static final int BUCKETS = Integer.numberOfTrailingZeros(LARGEST_BUCKET) + 1;
+
+    private final Map<String, DatasourceHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Nimmt die Ausführung eines schreibenden Statements auf.
+     *
+     * @param aDatasourceName
+     *            der Name der Datasource
+     * @param aBatchSize
+     *            die Anzahl der Einträge des Batches, {@code 1} für ein einzelnes Statement
+     * @param aRowsAffected
+     *            die Anzahl der geänderten Zeilen
+     */
+    public void record(final String aDatasourceName, final int aBatchSize, final long aRowsAffected) {
+        DatasourceHistogram theHistogram = histograms.get(aDatasourceName);
+        if (null == theHistogram) {
+            theHistogram = histograms.computeIfAbsent(aDatasourceName, k -> new DatasourceHistogram());
+        }
+        theHistogram.record(aBatchSize, aRowsAffected);
+    }
+
+    /**
+     * @return je Datasource die Anzahl der Batches je Größenklasse sowie Kennzahlen zu Größe und geänderten Zeilen
+     */
+    public Map<String, BatchSizeSnapshot> snapshot() {
+        final Map<String, BatchSizeSnapshot> theResult = new TreeMap<>();
+        histograms.forEach((theName, theHistogram) -> theResult.put(theName, theHistogram.snapshot()));
+        return theResult;
+    }
+
+    static int bucketOf(final int aBatchSize) {
+        if (aBatchSize <= 1) {
+            return 0;
+        }
+        return Math.min(31 - Integer.numberOfLeadingZeros(aBatchSize), BUCKETS - 1);
+    }
+
+    static String labelOf(final int aBucket) {
+        final int theLower = 1 << aBucket;
+        if (aBucket == BUCKETS - 1) {
+            return theLower + "+";
+        }
+        final int theUpper = (theLower << 1) - 1;
+        return theLower == theUpper ? String.valueOf(theLower) : theLower + "-" + theUpper;
+    }
+
+    private static class DatasourceHistogram {
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private final StatisticValue sizes = new StatisticValue();
+        private final StatisticValue rows = new StatisticValue();
+
+        DatasourceHistogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(final int aBatchSize, final long aRowsAffected) {
+            buckets[bucketOf(aBatchSize)].increment();
+            sizes.record(aBatchSize);
+            rows.record(aRowsAffected);
+        }
+
+        BatchSizeSnapshot snapshot() {
+            final Map<String, Long> theBuckets = new LinkedHashMap<>();
+            for (int i = 0; i < BUCKETS; i++) {
+                theBuckets.put(labelOf(i), buckets[i].sum());
+            }
+            return new BatchSizeSnapshot(theBuckets, sizes.snapshot(), rows.snapshot());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.statistics;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+
+import lombok.Getter;
+
+/**
+ * Momentaufnahme des {@link BatchSizeHistogram}s einer Datasource.
+ */
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
+@Getter
+public class BatchSizeSnapshot {
+
+    /**
+     * Die Anzahl der Batches je Größenklasse, z.B. {@code 4-7}.
+     */
+    private final Map<String, Long> buckets;
+    private final StatisticSnapshot batchSize;
+    private final StatisticSnapshot rowsAffected;
+
+    public BatchSizeSnapshot(final Map<String, Long> aBuckets, final StatisticSnapshot aBatchSize,
+            final StatisticSnapshot aRowsAffected) {
+        buckets = aBuckets;
+        batchSize = aBatchSize;
+        rowsAffected = aRowsAffected;
+    }
+}
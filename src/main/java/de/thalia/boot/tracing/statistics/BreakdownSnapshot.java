@@ -0,0 +1,60 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.statistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+
+import lombok.Getter;
+
+/**
+ * Die Aufteilung der Laufzeit eines Patterns in einem Zeitfenster.
+ */
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
+@Getter
+public class BreakdownSnapshot {
+
+    private final long requests;
+    private final long wallTime;
+    private final Map<String, Share> categories = new LinkedHashMap<>();
+
+    public BreakdownSnapshot(final long aRequests, final long aWallTime, final Map<String, Long> aTimes) {
+        requests = aRequests;
+        wallTime = aWallTime;
+        aTimes.forEach((theCategory, theTime) -> categories.put(theCategory, new Share(theTime,
+                aRequests == 0 ? 0 : (double) theTime / aRequests, aWallTime == 0 ? 0 : 100.0 * theTime / aWallTime)));
+    }
+
+    /**
+     * Der Anteil einer Kategorie: Summe und Mittelwert je Request in Millisekunden sowie Prozent der Laufzeit.
+     */
+    @JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
+    @Getter
+    public static class Share {
+
+        private final long time;
+        private final double meanTime;
+        private final double percent;
+
+        Share(final long aTime, final double aMeanTime, final double aPercent) {
+            time = aTime;
+            meanTime = aMeanTime;
+            percent = aPercent;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.statistics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.analysis.DependencyBreakdown;
+
+/**
+ * Aggregiert die {@link DependencyBreakdown Aufteilung der Laufzeit} je aufgerufenem Pattern über gleitende Zeitfenster.
+ *
+ * Je Pattern wird ein Ring aus Minuten-Buckets geführt, die beim Wechsel der Minute wiederverwendet werden. Die Zähler sind
+ * gestreift ({@link LongAdder}), die Anzahl der Patterns und der Kategorien je Pattern ist begrenzt, so dass der Speicherbedarf
+ * fest bleibt. Ein Fenster von {@code n} Minuten umfasst die letzten {@code n} vollständigen Minuten und die laufende Minute.
+ *
+ * Der {@link de.thalia.boot.tracing.TraceOutputFilter} übergibt jedes Trace-Log eines Requests mit bekanntem Pattern direkt, der
+ * Aggregator ist bewusst kein {@link de.thalia.boot.tracing.MetricExporter}.
+ */
+public class DependencyBreakdownAggregator {
+
+    public static final int DEFAULT_MAX_CATEGORIES = 32;
+    public static final String OVERFLOW_CATEGORY = "(other)";
+
+    static final long BUCKET_MILLIS = 60_000;
+    static final int[] WINDOW_MINUTES = { 1, 5, 15 };
+    private static final int BUCKETS = 16;
+
+    private final int maxPatterns;
+    private final int maxCategories;
+    private final LongSupplier clock;
+    private final Map<String, PatternWindow> windows = new ConcurrentHashMap<>();
+
+    public DependencyBreakdownAggregator(final int aMaxPatterns, final int aMaxCategories) {
+        this(aMaxPatterns, aMaxCategories, System::currentTimeMillis);
+    }
+
+    DependencyBreakdownAggregator(final int aMaxPatterns, final int aMaxCategories, final LongSupplier aClock) {
+        maxPatterns = aMaxPatterns;
+        maxCategories = aMaxCategories;
+        clock = aClock;
+    }
+
+    /**
+     * Erfasst die Aufteilung der Laufzeit eines Requests.
+     *
+     * @param aLog
+     *            das Trace-Log des Requests
+     * @param aInvokedPattern
+     *            das aufgerufene Pattern
+     */
+    public void record(final TraceLog aLog, final String aInvokedPattern) {
+        PatternWindow theWindow = windows.get(aInvokedPattern);
+        if (null == theWindow) {
+            final String thePattern = windows.size() < maxPatterns ? aInvokedPattern : PatternStatistics.OVERFLOW_PATTERN;
+            theWindow = windows.computeIfAbsent(thePattern, k -> new PatternWindow());
+        }
+        theWindow.bucketFor(clock.getAsLong() / BUCKET_MILLIS).record(aLog.getDuration(), DependencyBreakdown.of(aLog),
+                maxCategories);
+    }
+
+    /**
+     * @return je Pattern und Zeitfenster (z.B. {@code 5m}) die Aufteilung der Laufzeit
+     */
+    public Map<String, Map<String, BreakdownSnapshot>> snapshot() {
+        final long theCurrentBucket = clock.getAsLong() / BUCKET_MILLIS;
+        final Map<String, Map<String, BreakdownSnapshot>> theResult = new TreeMap<>();
+        windows.forEach((thePattern, theWindow) -> {
+            final Map<String, BreakdownSnapshot> theSnapshots = new TreeMap<>();
+            for (final int theMinutes : WINDOW_MINUTES) {
+                theSnapshots.put(theMinutes + "m", theWindow.snapshot(theCurrentBucket, theMinutes));
+            }
+            theResult.put(thePattern, theSnapshots);
+        });
+        return theResult;
+    }
+
+    private static class PatternWindow {
+
+        private final AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<>(BUCKETS);
+
+        Bucket bucketFor(final long aIndex) {
+            final int theSlot = (int) Math.floorMod(aIndex, BUCKETS);
+            Bucket theBucket = buckets.get(theSlot);
+            if (null == theBucket) {
+                buckets.compareAndSet(theSlot, null, new Bucket());
+                theBucket = buckets.get(theSlot);
+            }
+            theBucket.rollTo(aIndex);
+            return theBucket;
+        }
+
+        BreakdownSnapshot snapshot(final long aCurrentIndex, final int aMinutes) {
+            long theRequests = 0;
+            long theWallTime = 0;
+            final Map<String, Long> theTimes = new TreeMap<>();
+            for (long theIndex = aCurrentIndex - aMinutes; theIndex <= aCurrentIndex; theIndex++) {
+                final Bucket theBucket = buckets.get((int) Math.floorMod(theIndex, BUCKETS));
+                if (null != theBucket && theBucket.index == theIndex) {
+                    theRequests += theBucket.requests.sum();
+                    theWallTime += theBucket.wallTime.sum();
+                    theBucket.categories.forEach((theCategory, theTime) -> theTimes.merge(theCategory, theTime.sum(), Long::sum));
+                }
+            }
+            return new BreakdownSnapshot(theRequests, theWallTime, theTimes);
+        }
+    }
+
+    private static class Bucket {
+
+        private volatile long index = -1;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder wallTime = new LongAdder();
+        private final Map<String, LongAdder> categories = new ConcurrentHashMap<>();
+
+        void rollTo(final long aIndex) {
+            if (index != aIndex) {
+                synchronized (this) {
+                    // Werte, die parallel noch in die alte Minute geschrieben werden, können dabei verloren gehen
+                    if (index < aIndex) {
+                        requests.reset();
+                        wallTime.reset();
+                        categories.clear();
+                        index = aIndex;
+                    }
+                }
+            }
+        }
+
+        void record(final long aDuration, final Map<String, Long> aBreakdown, final int aMaxCategories) {
+            requests.increment();
+            wallTime.add(aDuration);
+            aBreakdown.forEach((theCategory, theTime) -> {
+                LongAdder theAdder = categories.get(theCategory);
+                if (null == theAdder) {
+                    final String theKey = categories.size() < aMaxCategories ? theCategory : OVERFLOW_CATEGORY;
+                    theAdder = categories.computeIfAbsent(theKey, k -> new LongAdder());
+                }
+                theAdder.add(theTime);
+            });
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.statistics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sammelt Kennzahlen des Tracings je aufgerufenem Pattern (z.B. {@code /search/{term}}) und Kennzahl. Die Anzahl der Patterns ist
+ * begrenzt, damit der Speicherbedarf auch bei fehlerhaft aufgelösten Patterns fest bleibt; weitere Patterns werden unter
+ * {@link #OVERFLOW_PATTERN} zusammengefasst.
+ */
+public class PatternStatistics {
+
+    public static final int DEFAULT_MAX_PATTERNS = 500;
+    public static final String OVERFLOW_PATTERN = "(other)";
+
+    private final int maxPatterns;
+    private final Map<String, Map<String, StatisticValue>> statistics = new ConcurrentHashMap<>();
+
+    public PatternStatistics(final int aMaxPatterns) {
+        maxPatterns = aMaxPatterns;
+    }
+
+    /**
+     * Nimmt einen Messwert für eine Kennzahl eines Patterns auf.
+     *
+     * @param aPattern
+     *            das aufgerufene Pattern
+     * @param aMetric
+     *            der Name der Kennzahl
+     * @param aValue
+     *            der Messwert
+     */
+    public void record(final String aPattern, final String aMetric, final long aValue) {
+        valueFor(aPattern, aMetric).record(aValue);
+    }
+
+    private StatisticValue valueFor(final String aPattern, final String aMetric) {
+        Map<String, StatisticValue> theMetrics = statistics.get(aPattern);
+        if (null == theMetrics) {
+            final String thePattern = statistics.size() < maxPatterns ? aPattern : OVERFLOW_PATTERN;
+            theMetrics = statistics.computeIfAbsent(thePattern, k -> new ConcurrentHashMap<>());
+        }
+        final StatisticValue theValue = theMetrics.get(aMetric);
+        return null != theValue ? theValue : theMetrics.computeIfAbsent(aMetric, k -> new StatisticValue());
+    }
+
+    /**
+     * @return eine sortierte Momentaufnahme aller Kennzahlen je Pattern
+     */
+    public Map<String, Map<String, StatisticSnapshot>> snapshot() {
+        final Map<String, Map<String, StatisticSnapshot>> theResult = new TreeMap<>();
+        statistics.forEach((thePattern, theMetrics) -> {
+            final Map<String, StatisticSnapshot> theSnapshots = new TreeMap<>();
+            theMetrics.forEach((theMetric, theValue) -> theSnapshots.put(theMetric, theValue.snapshot()));
+            theResult.put(thePattern, theSnapshots);
+        });
+        return theResult;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.statistics;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+
+import lombok.Getter;
+
+/**
+ * Momentaufnahme eines {@link StatisticValue}.
+ */
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
+@Getter
+public class StatisticSnapshot {
+
+    private final long count;
+    private final long total;
+    private final long max;
+
+    public StatisticSnapshot(final long aCount, final long aTotal, final long aMax) {
+        count = aCount;
+        total = aTotal;
+        max = aMax;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+}
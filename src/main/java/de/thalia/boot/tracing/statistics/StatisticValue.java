@@ -0,0 +1,47 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.statistics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Eine fortlaufend aggregierte Kennzahl mit Anzahl, Summe und Maximum. Die Zähler sind gestreift ({@link LongAdder}), so dass
+ * parallele Requests sich beim Schreiben kaum behindern.
+ */
+public class StatisticValue {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    /**
+     * Nimmt einen Messwert auf.
+     *
+     * @param aValue
+     *            der Messwert
+     */
+    public void record(final long aValue) {
+        count.increment();
+        total.add(aValue);
+        max.accumulate(aValue);
+    }
+
+    public StatisticSnapshot snapshot() {
+        final long theCount = count.sum();
+        return new StatisticSnapshot(theCount, total.sum(), theCount == 0 ? 0 : max.get());
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.store;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Ein Eintrag im Index des {@link TraceStore}s. Das Trace-Log selbst bleibt im Segment und wird erst bei Bedarf über die
+ * {@link #getId() Id} gelesen.
+ */
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.ANY)
+@Getter
+public class StoredTrace {
+
+    @JsonIgnore
+    @Getter(AccessLevel.PACKAGE)
+    private final long sequence;
+    @JsonIgnore
+    @Getter(AccessLevel.PACKAGE)
+    private final int offset;
+    @JsonIgnore
+    @Getter(AccessLevel.PACKAGE)
+    private final byte format;
+    private final long startTime;
+    private final long duration;
+    private final String invokedPattern;
+
+    StoredTrace(final long aSequence, final int aOffset, final byte aFormat, final long aStartTime, final long aDuration,
+            final String aInvokedPattern) {
+        sequence = aSequence;
+        offset = aOffset;
+        format = aFormat;
+        startTime = aStartTime;
+        duration = aDuration;
+        invokedPattern = aInvokedPattern;
+    }
+
+    /**
+     * @return die Id des Eintrags aus Segment und Position, z.B. {@code 42-1024}
+     */
+    public String getId() {
+        return sequence + "-" + offset;
+    }
+}
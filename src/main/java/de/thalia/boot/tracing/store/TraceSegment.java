@@ -0,0 +1,283 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.store;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ein Segment des {@link TraceStore}s: eine Datei fester Größe, die per {@link MappedByteBuffer} eingeblendet ist und an die
+ * Trace-Logs nur angehängt werden.
+ *
+ * Aufbau eines Eintrags: Länge des Rests (int), CRC32 des Rests (int), Format (byte), Startzeit (long), Dauer (long), Länge des
+ * Patterns (short), Pattern (UTF-8), kodiertes Trace-Log. Die Länge wird zuletzt geschrieben, ein unvollständig geschriebener
+ * Eintrag am Ende wird beim Öffnen an der fehlenden Länge bzw. der falschen Prüfsumme erkannt und überschrieben.
+ *
+ * Nur der Writer-Thread des Stores schreibt; gelesen wird über Kopien des Buffers, so dass Leser die Position nicht verändern.
+ *
+ * Beim Schließen und Löschen wird das Mapping sofort aufgehoben, statt auf den GC zu warten. Erst dann gibt das Betriebssystem
+ * den Platz einer gelöschten Datei frei, unter Windows lässt sich eine eingeblendete Datei sonst gar nicht löschen. Der Buffer
+ * darf danach nicht mehr gelesen werden; der {@link TraceStore} liest und löscht deshalb unter derselben Sperre.
+ */
+@Slf4j
+class TraceSegment {
+
+    static final String FILE_SUFFIX = ".traces";
+
+    private static final int MAGIC = 0x54524331;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_PREFIX_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 1 + 8 + 8 + 2;
+
+    /**
+     * Hebt das Mapping eines Buffers auf, oder {@code null}, wenn die JVM dies nicht erlaubt. Dann bleibt die Datei
+     * eingeblendet, bis der Buffer vom GC eingesammelt wird.
+     */
+    private static final Consumer<MappedByteBuffer> UNMAPPER = unmapper();
+
+    @Getter
+    private final long sequence;
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final List<StoredTrace> index = new ArrayList<>();
+    private int position;
+
+    private TraceSegment(final long aSequence, final Path aFile, final FileChannel aChannel, final MappedByteBuffer aBuffer) {
+        sequence = aSequence;
+        file = aFile;
+        channel = aChannel;
+        buffer = aBuffer;
+    }
+
+    /**
+     * Öffnet ein Segment oder legt es neu an und liest den Index der enthaltenen Einträge ein.
+     *
+     * @param aDirectory
+     *            das Verzeichnis des Stores
+     * @param aSequence
+     *            die laufende Nummer des Segments
+     * @param aSize
+     *            die Größe neuer Segmente in Bytes
+     * @return das geöffnete Segment
+     * @throws IOException
+     *             falls die Datei nicht geöffnet werden kann
+     */
+    static TraceSegment open(final Path aDirectory, final long aSequence, final int aSize) throws IOException {
+        final Path theFile = aDirectory.resolve(fileNameOf(aSequence));
+        final boolean theExisting = Files.exists(theFile);
+        final FileChannel theChannel = FileChannel.open(theFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            // Bestehende Segmente behalten ihre Größe, auch wenn die Konfiguration geändert wurde
+            final long theSize = theExisting && theChannel.size() > FILE_HEADER_SIZE ? theChannel.size() : aSize;
+            final MappedByteBuffer theBuffer = theChannel.map(FileChannel.MapMode.READ_WRITE, 0, theSize);
+            final TraceSegment theSegment = new TraceSegment(aSequence, theFile, theChannel, theBuffer);
+            theSegment.recover();
+            return theSegment;
+        } catch (final IOException | RuntimeException e) {
+            theChannel.close();
+            throw e;
+        }
+    }
+
+    static String fileNameOf(final long aSequence) {
+        return String.format("%016d%s", aSequence, FILE_SUFFIX);
+    }
+
+    private void recover() {
+        if (buffer.getInt(0) != MAGIC) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, 0);
+            position = FILE_HEADER_SIZE;
+            return;
+        }
+        position = FILE_HEADER_SIZE;
+        while (position + RECORD_PREFIX_SIZE + RECORD_HEADER_SIZE <= buffer.capacity()) {
+            final int theLength = buffer.getInt(position);
+            if (theLength < RECORD_HEADER_SIZE || position + RECORD_PREFIX_SIZE + theLength > buffer.capacity()
+                    || buffer.getInt(position + 4) != checksumOf(position + RECORD_PREFIX_SIZE, theLength)) {
+                break;
+            }
+            index.add(readHeader(position));
+            position += RECORD_PREFIX_SIZE + theLength;
+        }
+    }
+
+    /**
+     * Hängt ein Trace-Log an.
+     *
+     * @param aFormat
+     *            das Format der Kodierung
+     * @param aStartTime
+     *            der Start des Requests
+     * @param aDuration
+     *            die Dauer des Requests
+     * @param aPattern
+     *            das aufgerufene Pattern
+     * @param aPayload
+     *            das kodierte Trace-Log
+     * @return der Eintrag im Index oder {@code null}, falls der Eintrag nicht mehr in das Segment passt
+     */
+    StoredTrace append(final byte aFormat, final long aStartTime, final long aDuration, final String aPattern,
+            final byte[] aPayload) {
+        final byte[] thePattern = aPattern.getBytes(StandardCharsets.UTF_8);
+        final int theLength = RECORD_HEADER_SIZE + thePattern.length + aPayload.length;
+        // Hinter dem Eintrag muss Platz für eine leere Länge bleiben, die das Ende markiert
+        if (thePattern.length > Short.MAX_VALUE || position + RECORD_PREFIX_SIZE + theLength + 4 > buffer.capacity()) {
+            return null;
+        }
+        final ByteBuffer theRecord = buffer.duplicate();
+        theRecord.position(position + RECORD_PREFIX_SIZE);
+        theRecord.put(aFormat).putLong(aStartTime).putLong(aDuration).putShort((short) thePattern.length).put(thePattern)
+                .put(aPayload);
+        buffer.putInt(position + RECORD_PREFIX_SIZE + theLength, 0);
+        buffer.putInt(position + 4, checksumOf(position + RECORD_PREFIX_SIZE, theLength));
+        buffer.putInt(position, theLength);
+
+        final StoredTrace theTrace = new StoredTrace(sequence, position, aFormat, aStartTime, aDuration, aPattern.intern());
+        synchronized (index) {
+            index.add(theTrace);
+        }
+        position += RECORD_PREFIX_SIZE + theLength;
+        return theTrace;
+    }
+
+    /**
+     * Liest das kodierte Trace-Log eines Eintrags.
+     *
+     * @param aOffset
+     *            die Position des Eintrags im Segment
+     * @return das kodierte Trace-Log
+     */
+    byte[] readPayload(final int aOffset) {
+        final int theLength = buffer.getInt(aOffset);
+        final int thePatternLength = buffer.getShort(aOffset + RECORD_PREFIX_SIZE + RECORD_HEADER_SIZE - 2);
+        final byte[] thePayload = new byte[theLength - RECORD_HEADER_SIZE - thePatternLength];
+        final ByteBuffer theRecord = buffer.duplicate();
+        theRecord.position(aOffset + RECORD_PREFIX_SIZE + RECORD_HEADER_SIZE + thePatternLength);
+        theRecord.get(thePayload);
+        return thePayload;
+    }
+
+    /**
+     * @return eine Kopie des Index in der Reihenfolge der Einträge
+     */
+    List<StoredTrace> getIndex() {
+        synchronized (index) {
+            return Collections.unmodifiableList(new ArrayList<>(index));
+        }
+    }
+
+    boolean isEmpty() {
+        synchronized (index) {
+            return index.isEmpty();
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        force();
+        channel.close();
+        unmap();
+    }
+
+    void delete() throws IOException {
+        channel.close();
+        unmap();
+        Files.deleteIfExists(file);
+    }
+
+    static boolean canUnmap() {
+        return null != UNMAPPER;
+    }
+
+    private void unmap() {
+        if (null != UNMAPPER) {
+            UNMAPPER.accept(buffer);
+        }
+    }
+
+    private static Consumer<MappedByteBuffer> unmapper() {
+        try {
+            // Ab Java 9 über Unsafe.invokeCleaner
+            final Class<?> theUnsafeClass = Class.forName("sun.misc.Unsafe");
+            final Method theInvokeCleaner = theUnsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            final Field theUnsafeField = theUnsafeClass.getDeclaredField("theUnsafe");
+            theUnsafeField.setAccessible(true);
+            final Object theUnsafe = theUnsafeField.get(null);
+            return aBuffer -> invoke(theInvokeCleaner, theUnsafe, aBuffer);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            log.debug("Unsafe.invokeCleaner ist nicht verfügbar", e);
+        }
+        try {
+            // Java 8 über den Cleaner des Buffers
+            final Method theCleanerMethod = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            final Method theCleanMethod = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            return aBuffer -> invoke(theCleanMethod, invoke(theCleanerMethod, aBuffer));
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            log.warn("Segmente des Trace-Stores bleiben bis zum nächsten GC eingeblendet", e);
+            return null;
+        }
+    }
+
+    private static Object invoke(final Method aMethod, final Object aTarget, final Object... aArguments) {
+        try {
+            return aMethod.invoke(aTarget, aArguments);
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Mapping konnte nicht aufgehoben werden", e);
+        }
+    }
+
+    private StoredTrace readHeader(final int aOffset) {
+        final ByteBuffer theRecord = buffer.duplicate();
+        theRecord.position(aOffset + RECORD_PREFIX_SIZE);
+        final byte theFormat = theRecord.get();
+        final long theStartTime = theRecord.getLong();
+        final long theDuration = theRecord.getLong();
+        final byte[] thePattern = new byte[theRecord.getShort()];
+        theRecord.get(thePattern);
+        return new StoredTrace(sequence, aOffset, theFormat, theStartTime, theDuration,
+                new String(thePattern, StandardCharsets.UTF_8).intern());
+    }
+
+    private int checksumOf(final int aOffset, final int aLength) {
+        final ByteBuffer theRecord = buffer.duplicate();
+        theRecord.position(aOffset).limit(aOffset + aLength);
+        final CRC32 theChecksum = new CRC32();
+        theChecksum.update(theRecord);
+        return (int) theChecksum.getValue();
+    }
+}
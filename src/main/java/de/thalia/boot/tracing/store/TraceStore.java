@@ -0,0 +1,341 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.store;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import de.thalia.boot.tracing.TraceLogExporter;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.analysis.ConcurrencyAnalysis;
+import de.thalia.boot.tracing.analysis.CriticalPathAnalyzer;
+import de.thalia.boot.tracing.analysis.SpanCoverage;
+import de.thalia.boot.tracing.codec.BinaryTraceFormat;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persistenter Speicher für langsame Trace-Logs, der einen Neustart der Anwendung übersteht.
+ *
+ * Die Trace-Logs werden im {@link BinaryTraceFormat} in Segmente fester Größe angehängt, die per Memory-Mapping eingeblendet
+ * sind. Ist das Volumen aller Segmente erreicht, wird das älteste gelöscht. Beim Start werden die vorhandenen Segmente eingelesen
+ * und ein kleiner Index aus Startzeit, Dauer und Pattern aufgebaut; die Trace-Logs selbst werden erst beim Abruf gelesen.
+ *
+ * Der Request-Thread legt das Trace-Log nur in eine begrenzte Warteschlange. Ist diese voll, wird das Trace-Log verworfen und
+ * gezählt, so dass Requests nie auf das Schreiben warten. Kodiert und geschrieben wird von einem eigenen Thread.
+ */
+@Slf4j
+public class TraceStore implements TraceLogExporter, AutoCloseable {
+
+    public static final int DEFAULT_SEGMENT_SIZE_MB = 16;
+    /**
+     * Ein Segment wird als Ganzes gemappt, die Größe muss deshalb als {@code int} in Bytes darstellbar sein.
+     */
+    public static final int MAX_SEGMENT_SIZE_MB = 1024;
+    public static final int DEFAULT_MAX_SIZE_MB = 256;
+    public static final long DEFAULT_MIN_DURATION = 1000;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    static final byte FORMAT_JSON = 1;
+    static final byte FORMAT_BINARY = 2;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final long minDuration;
+    private final BlockingQueue<PendingTrace> queue;
+    private final LongAdder droppedTraces = new LongAdder();
+    private final Deque<TraceSegment> segments = new LinkedList<>();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * @param aDirectory
+     *            das Verzeichnis der Segmente
+     * @param aSegmentSize
+     *            die Größe eines Segments in Bytes
+     * @param aMaxSize
+     *            das maximale Volumen aller Segmente in Bytes, mindestens zwei Segmente werden aber behalten
+     * @param aMinDuration
+     *            die Mindestdauer eines Requests in Millisekunden, damit sein Trace-Log gespeichert wird
+     * @param aQueueCapacity
+     *            die Anzahl der Trace-Logs, die maximal auf das Schreiben warten
+     */
+    public TraceStore(final Path aDirectory, final int aSegmentSize, final long aMaxSize, final long aMinDuration,
+            final int aQueueCapacity) {
+        directory = aDirectory;
+        segmentSize = aSegmentSize;
+        maxSegments = (int) Math.max(2, aMaxSize / aSegmentSize);
+        minDuration = aMinDuration;
+        queue = new ArrayBlockingQueue<>(aQueueCapacity);
+    }
+
+    /**
+     * Öffnet die vorhandenen Segmente und startet den Thread, der die Trace-Logs schreibt.
+     *
+     * @throws IOException
+     *             falls das Verzeichnis oder die Segmente nicht geöffnet werden können
+     */
+    public synchronized void start() throws IOException {
+        open();
+        running = true;
+        writer = new Thread(this::writeLoop, "trace-store-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        final List<Long> theSequences = new ArrayList<>();
+        try (DirectoryStream<Path> theFiles = Files.newDirectoryStream(directory, "*" + TraceSegment.FILE_SUFFIX)) {
+            for (final Path theFile : theFiles) {
+                final String theName = theFile.getFileName().toString();
+                try {
+                    theSequences.add(Long.parseLong(theName.substring(0, theName.length() - TraceSegment.FILE_SUFFIX.length())));
+                } catch (final NumberFormatException e) {
+                    log.warn("Ignoriere unbekannte Datei {} im Trace-Store", theFile);
+                }
+            }
+        }
+        Collections.sort(theSequences);
+        for (final Long theSequence : theSequences) {
+            segments.addLast(TraceSegment.open(directory, theSequence, segmentSize));
+        }
+        removeExpiredSegments();
+        log.info("Trace-Store in {} mit {} gespeicherten Trace-Logs geöffnet", directory, getStoredTraces());
+    }
+
+    /**
+     * Der {@link de.thalia.boot.tracing.TraceOutputFilter} übergibt einen Stand des Trace-Logs, der sich nicht mehr ändert und
+     * deshalb im Hintergrund verarbeitet werden kann.
+     */
+    @Override
+    public void export(final TraceLog theLog, final String invokedPattern) {
+        if (theLog.getDuration() >= minDuration && !queue.offer(new PendingTrace(theLog, invokedPattern))) {
+            droppedTraces.increment();
+        }
+    }
+
+    private void writeLoop() {
+        while (running) {
+            try {
+                final PendingTrace theTrace = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (null != theTrace) {
+                    write(theTrace);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final RuntimeException e) {
+                log.warn("Trace-Log konnte nicht gespeichert werden", e);
+            }
+        }
+    }
+
+    /**
+     * Schreibt alle wartenden Trace-Logs im aufrufenden Thread.
+     */
+    void writePending() {
+        PendingTrace theTrace;
+        while (null != (theTrace = queue.poll())) {
+            write(theTrace);
+        }
+    }
+
+    private void write(final PendingTrace aTrace) {
+        final byte[] thePayload = BinaryTraceFormat.encode(aTrace.log);
+        synchronized (this) {
+            final TraceSegment theCurrent = segments.peekLast();
+            StoredTrace theStored = null == theCurrent ? null
+                    : theCurrent.append(FORMAT_BINARY, aTrace.log.getStartTime(), aTrace.log.getDuration(), aTrace.pattern,
+                            thePayload);
+            if (null == theStored) {
+                try {
+                    theStored = nextSegment().append(FORMAT_BINARY, aTrace.log.getStartTime(), aTrace.log.getDuration(),
+                            aTrace.pattern, thePayload);
+                } catch (final IOException e) {
+                    log.warn("Neues Segment im Trace-Store konnte nicht angelegt werden", e);
+                }
+            }
+            if (null == theStored) {
+                droppedTraces.increment();
+            }
+        }
+    }
+
+    private TraceSegment nextSegment() throws IOException {
+        final TraceSegment theLast = segments.peekLast();
+        // Ein leeres Segment ist zu klein für das Trace-Log, ein weiteres hilft dann auch nicht
+        if (null != theLast && theLast.isEmpty()) {
+            return theLast;
+        }
+        if (null != theLast) {
+            theLast.force();
+        }
+        final TraceSegment theNext = TraceSegment.open(directory, null == theLast ? 1 : theLast.getSequence() + 1, segmentSize);
+        segments.addLast(theNext);
+        removeExpiredSegments();
+        return theNext;
+    }
+
+    private void removeExpiredSegments() throws IOException {
+        while (segments.size() > maxSegments) {
+            segments.pollFirst().delete();
+        }
+    }
+
+    /**
+     * Sucht gespeicherte Trace-Logs, die neuesten zuerst.
+     *
+     * @param aPattern
+     *            das aufgerufene Pattern oder {@code null} für alle
+     * @param aFrom
+     *            frühester Start des Requests in Millisekunden seit 1970 oder {@code null}
+     * @param aTo
+     *            spätester Start des Requests in Millisekunden seit 1970 oder {@code null}
+     * @param aLimit
+     *            die maximale Anzahl der Treffer
+     * @return die gefundenen Einträge des Index
+     */
+    public synchronized List<StoredTrace> find(final String aPattern, final Long aFrom, final Long aTo, final int aLimit) {
+        final List<StoredTrace> theResult = new ArrayList<>();
+        final Iterator<TraceSegment> theSegments = segments.descendingIterator();
+        while (theSegments.hasNext() && theResult.size() < aLimit) {
+            final List<StoredTrace> theIndex = theSegments.next().getIndex();
+            final ListIterator<StoredTrace> theEntries = theIndex.listIterator(theIndex.size());
+            while (theEntries.hasPrevious() && theResult.size() < aLimit) {
+                final StoredTrace theEntry = theEntries.previous();
+                if ((null == aPattern || aPattern.equals(theEntry.getInvokedPattern()))
+                        && (null == aFrom || theEntry.getStartTime() >= aFrom)
+                        && (null == aTo || theEntry.getStartTime() <= aTo)) {
+                    theResult.add(theEntry);
+                }
+            }
+        }
+        return theResult;
+    }
+
+    /**
+     * Liest ein gespeichertes Trace-Log.
+     *
+     * @param aId
+     *            die Id aus dem Index, siehe {@link StoredTrace#getId()}
+     * @return das Trace-Log oder {@code null}, falls es nicht (mehr) gespeichert ist
+     * @throws IOException
+     *             falls das Trace-Log nicht dekodiert werden kann
+     */
+    public TraceLog read(final String aId) throws IOException {
+        final int theSeparator = aId.indexOf('-');
+        final long theSequence;
+        final int theOffset;
+        try {
+            theSequence = Long.parseLong(aId.substring(0, Math.max(theSeparator, 0)));
+            theOffset = Integer.parseInt(aId.substring(theSeparator + 1));
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+        byte theFormat = 0;
+        byte[] thePayload = null;
+        synchronized (this) {
+            for (final TraceSegment theSegment : segments) {
+                if (theSegment.getSequence() == theSequence) {
+                    // Nur Positionen aus dem Index sind gültige Einträge
+                    for (final StoredTrace theEntry : theSegment.getIndex()) {
+                        if (theEntry.getOffset() == theOffset) {
+                            theFormat = theEntry.getFormat();
+                            thePayload = theSegment.readPayload(theOffset);
+                        }
+                    }
+                }
+            }
+        }
+        if (null == thePayload) {
+            return null;
+        }
+        if (FORMAT_JSON == theFormat) {
+            return TraceLog.fromJSON(new String(thePayload, StandardCharsets.UTF_8));
+        }
+        // Die Analysen sind nicht Teil des Binärformats und werden wie im TraceOutputFilter neu berechnet
+        final TraceLog theLog = BinaryTraceFormat.decode(thePayload);
+        theLog.setCriticalPath(CriticalPathAnalyzer.analyze(theLog));
+        theLog.setCoverage(SpanCoverage.of(theLog));
+        theLog.setConcurrency(ConcurrencyAnalysis.of(theLog));
+        return theLog;
+    }
+
+    public synchronized long getStoredTraces() {
+        long theCount = 0;
+        for (final TraceSegment theSegment : segments) {
+            theCount += theSegment.getIndex().size();
+        }
+        return theCount;
+    }
+
+    /**
+     * @return die Anzahl der Trace-Logs, die wegen voller Warteschlange, Fehlern oder Größe nicht gespeichert wurden
+     */
+    public long getDroppedTraces() {
+        return droppedTraces.sum();
+    }
+
+    /**
+     * Beendet den Writer-Thread, schreibt die noch wartenden Trace-Logs und schließt die Segmente.
+     */
+    @Override
+    public void close() throws IOException, InterruptedException {
+        running = false;
+        final Thread theWriter;
+        synchronized (this) {
+            theWriter = writer;
+            writer = null;
+        }
+        if (null != theWriter) {
+            theWriter.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        writePending();
+        synchronized (this) {
+            for (final TraceSegment theSegment : segments) {
+                theSegment.close();
+            }
+            segments.clear();
+        }
+    }
+
+    private static final class PendingTrace {
+
+        private final TraceLog log;
+        private final String pattern;
+
+        private PendingTrace(final TraceLog aLog, final String aPattern) {
+            log = aLog;
+            pattern = aPattern;
+        }
+    }
+}
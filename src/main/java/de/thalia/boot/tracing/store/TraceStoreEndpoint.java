@@ -0,0 +1,51 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.store;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+
+import de.thalia.boot.tracing.TraceLog;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Actuator-Endpoint {@code tracingstore}, über den die im {@link TraceStore} gespeicherten Trace-Logs gesucht und abgerufen
+ * werden können, z.B. {@code /actuator/tracingstore?pattern=/search/{term}&limit=10} und {@code /actuator/tracingstore/42-1024}.
+ */
+@Endpoint(id = "tracingstore")
+@RequiredArgsConstructor
+public class TraceStoreEndpoint {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final TraceStore store;
+
+    @ReadOperation
+    public List<StoredTrace> traces(@Nullable final String pattern, @Nullable final Long from, @Nullable final Long to,
+            @Nullable final Integer limit) {
+        return store.find(pattern, from, to, null == limit ? DEFAULT_LIMIT : limit);
+    }
+
+    @ReadOperation
+    public TraceLog trace(@Selector final String id) throws IOException {
+        return store.read(id);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import de.thalia.boot.tracing.analysis.SpanCoverage;
+import de.thalia.boot.tracing.cache.CacheSpan;
+import de.thalia.boot.tracing.database.QuerySpan;
+import de.thalia.boot.tracing.hystrix.HystrixSpan;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+
+/**
+ * Tests für {@link ServerTimingHeaderWriter}
+ */
+public class ServerTimingHeaderWriterTest {
+
+    @Test
+    public void fasstSpansNachTypUndNameZusammen() {
+        final List<Span> spans = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            spans.add(new QuerySpan("dataSource", i, 1, 1, "dataSource"));
+        }
+        spans.add(new HTTPSpan("Search-RestTemplate", 0, 50, HttpMethod.GET, URI.create("http://search"), HttpStatus.OK, null));
+        spans.add(new HystrixSpan("Pool#Command", 0, 30));
+
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        new ServerTimingHeaderWriter(10).write(new TraceLog("test", "host", 0, 500, spans), response);
+
+        assertThat(response.getHeaders(ServerTimingHeaderWriter.SERVER_TIMING_HEADER)).containsExactly(
+                "total;desc=\"Total\";dur=500", "db.dataSource;desc=\"dataSource (200x)\";dur=200",
+                "http.Search-RestTemplate;desc=\"Search-RestTemplate\";dur=50", "hystrix.Pool#Command;desc=\"Pool#Command\";dur=30");
+    }
+
+    @Test
+    public void zaehltZusammengefuehrteQueriesUndCacheZugriffe() {
+        final List<Span> spans = new ArrayList<>();
+        spans.add(new QuerySpan("dataSource", 0, 12, 5, "dataSource"));
+        spans.add(new QuerySpan("dataSource", 20, 3, 1, "dataSource"));
+        spans.add(new CacheSpan("books", 30, 2, CacheSpan.GET, true, 4, null, null));
+
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        new ServerTimingHeaderWriter(10).write(new TraceLog("test", "host", 0, 100, spans), response);
+
+        assertThat(response.getHeaders(ServerTimingHeaderWriter.SERVER_TIMING_HEADER)).containsExactly(
+                "total;desc=\"Total\";dur=100", "db.dataSource;desc=\"dataSource (6x)\";dur=15",
+                "cache.books;desc=\"books (4x)\";dur=2");
+    }
+
+    @Test
+    public void fasstAuchBeiVollerRegistryZusammen() {
+        for (int i = 0; i < SpanDescriptors.MAX_DESCRIPTORS_PER_TYPE; i++) {
+            SpanDescriptors.of(ManySpan.class, "span" + i);
+        }
+        final List<Span> spans = new ArrayList<>();
+        spans.add(new ManySpan("dynamic", 0, 10));
+        spans.add(new ManySpan("dynamic", 20, 5));
+
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        new ServerTimingHeaderWriter(10).write(new TraceLog("test", "host", 0, 100, spans), response);
+
+        assertThat(response.getHeaders(ServerTimingHeaderWriter.SERVER_TIMING_HEADER)).containsExactly(
+                "total;desc=\"Total\";dur=100", "span.dynamic;desc=\"dynamic (2x)\";dur=15");
+    }
+
+    @Test
+    public void begrenztAufTopKUndFasstDenRestZusammen() {
+        final List<Span> spans = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            spans.add(new HystrixSpan("Command" + i, 0, 10 * (i + 1)));
+        }
+
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        new ServerTimingHeaderWriter(2).write(new TraceLog("test", "host", 0, 500, spans), response);
+
+        assertThat(response.getHeaders(ServerTimingHeaderWriter.SERVER_TIMING_HEADER)).containsExactly(
+                "total;desc=\"Total\";dur=500", "hystrix.Command4;desc=\"Command4\";dur=50",
+                "hystrix.Command3;desc=\"Command3\";dur=40", "other;desc=\"Other (3x)\";dur=60");
+    }
+
+    @Test
+    public void schreibtNichtErfassteZeitZurGesamtzeit() {
+        final TraceLog log = new TraceLog("test", "host", 0, 100,
+                Collections.<Span> singletonList(new HystrixSpan("Command", 10, 60)));
+        log.setCoverage(SpanCoverage.of(log));
+
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        new ServerTimingHeaderWriter(10).write(log, response);
+
+        assertThat(response.getHeaders(ServerTimingHeaderWriter.SERVER_TIMING_HEADER)).containsExactly(
+                "total;desc=\"Total\";dur=100, untraced;desc=\"Untraced\";dur=40, gap;desc=\"Largest gap at +70ms\";dur=30",
+                "hystrix.Command;desc=\"Command\";dur=60");
+    }
+
+    @Test
+    public void maskiertNamen() {
+        assertThat(ServerTimingHeaderWriter.toToken("a b/c\"d")).isEqualTo("a_b_c_d");
+        assertThat(ServerTimingHeaderWriter.toQuotedStringContent("say \"hi\" \\ ü")).isEqualTo("say \\\"hi\\\" \\\\ ?");
+    }
+
+    /**
+     * Ein eigener Span-Typ, damit die volle Registry keine anderen Tests beeinflusst.
+     */
+    private static final class ManySpan extends Span {
+
+        ManySpan(final String name, final long startTime, final long duration) {
+            super(name, startTime, duration);
+        }
+    }
+}
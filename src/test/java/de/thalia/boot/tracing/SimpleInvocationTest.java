@@ -134,6 +134,9 @@ public class SimpleInvocationTest {
     @Autowired
     private SimpleResource simpleResource;
 
+    @Autowired
+    private MetricExporter metricExporter;
+
     private MockRestServiceServer restServiceServer;
 
     @Before
@@ -141,6 +144,12 @@ public class SimpleInvocationTest {
         restServiceServer = MockRestServiceServer.createServer(simpleResource.getRestTemplate());
     }
 
+    @Test
+    public void testDefaultMetricExporter() {
+        // Die Aufteilung der Laufzeit wird aggregiert, ohne den Standard-Exporter zu ersetzen
+        assertTrue(metricExporter instanceof DefaultMetricExporter);
+    }
+
     @Test
     public void testWithoutFeatureToggle() throws Exception {
         mvc.perform(get("/api/dosomething")).andExpect(status().is2xxSuccessful()).andExpect(header().doesNotExist("thaliatrace"))
@@ -0,0 +1,102 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * Tests für die typisierten Attribute eines {@link Span}s.
+ */
+public class SpanAttributesTest {
+
+    private static final AttributeKey RESULTS = AttributeKey.ofLong("test.results");
+    private static final AttributeKey SCORE = AttributeKey.ofDouble("test.score");
+    private static final AttributeKey HIT = AttributeKey.ofBoolean("test.hit");
+    private static final AttributeKey MODEL = AttributeKey.ofString("test.model");
+
+    @Test
+    public void speichertWerteJeTyp() {
+        final SpanAttributes attributes = new SpanAttributes();
+        attributes.put(RESULTS, 12);
+        attributes.put(SCORE, 0.25);
+        attributes.put(HIT, true);
+        attributes.put(MODEL, "v2");
+        attributes.put(RESULTS, 13);
+        // Ganzzahlen werden für Gleitkomma-Attribute umgewandelt
+        attributes.put(SCORE, 3);
+        for (int i = 0; i < 10; i++) {
+            attributes.put(AttributeKey.ofLong("test.counter" + i), i);
+        }
+
+        assertThat(attributes.size()).isEqualTo(14);
+        assertThat(attributes.getLong(RESULTS, -1)).isEqualTo(13);
+        assertThat(attributes.getDouble(SCORE, -1)).isEqualTo(3.0);
+        assertThat(attributes.getBoolean(HIT, false)).isTrue();
+        assertThat(attributes.getString(MODEL)).isEqualTo("v2");
+        assertThat(attributes.keyAt(13).getName()).isEqualTo("test.counter9");
+        assertThat(attributes.longAt(13)).isEqualTo(9);
+        assertThat(attributes.getLong(AttributeKey.ofLong("test.missing"), -1)).isEqualTo(-1);
+    }
+
+    @Test
+    public void prueftTypDerSchluessel() {
+        assertThat(AttributeKey.ofLong("test.results")).isSameAs(RESULTS);
+        assertThatThrownBy(() -> AttributeKey.ofString("test.results")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SpanAttributes().put(HIT, 1L)).isInstanceOf(IllegalArgumentException.class);
+        // Beim Lesen fremder Trace-Logs wird ein abweichender Typ nicht abgelehnt
+        assertThat(AttributeKey.forValue("test.results", AttributeKey.Type.STRING).getType())
+                .isEqualTo(AttributeKey.Type.STRING);
+    }
+
+    @Test
+    public void registriertGeleseneNamenNicht() {
+        final SpanAttributes read = new SpanAttributes();
+        read.put(AttributeKey.forValue("test.remote", AttributeKey.Type.STRING), "v1");
+
+        // Eine spätere Konstante legt den Typ selbst fest und findet den gelesenen Wert
+        final AttributeKey remote = AttributeKey.ofLong("test.remote");
+        assertThat(remote.getType()).isEqualTo(AttributeKey.Type.LONG);
+        read.put(AttributeKey.forValue("test.counted", AttributeKey.Type.LONG), 3L);
+        assertThat(read.getLong(AttributeKey.ofLong("test.counted"), -1)).isEqualTo(3);
+    }
+
+    @Test
+    public void schreibtUndLiestAttributeAlsJSON() throws Exception {
+        final Span span = new Span("ranking", 1000, 5);
+        span.setAttribute(RESULTS, 120);
+        span.setAttribute(SCORE, 0.5);
+        span.setAttribute(HIT, false);
+        span.setAttribute(MODEL, "v2");
+        final TraceLog log = new TraceLog("frontend", "host", 1000, 10, Collections.singletonList(span));
+
+        final String json = log.toJSON();
+        assertThat(json).contains("\"attributes\":{\"test.results\":120,\"test.score\":0.5,\"test.hit\":false,\"test.model\":\"v2\"}");
+
+        final SpanAttributes read = TraceLog.fromJSON(json).getSpans().get(0).getAttributes();
+        assertThat(read.size()).isEqualTo(4);
+        assertThat(read.keyAt(0)).isSameAs(RESULTS);
+        assertThat(read.getLong(RESULTS, -1)).isEqualTo(120);
+        assertThat(read.getDouble(SCORE, -1)).isEqualTo(0.5);
+        assertThat(read.getBoolean(HIT, true)).isFalse();
+        assertThat(read.getString(MODEL)).isEqualTo("v2");
+        assertThat(new Span("plain", 1000, 5).getAttributes()).isNull();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import de.thalia.boot.tracing.hystrix.HystrixSpan;
+import de.thalia.boot.tracing.resilience4j.CircuitBreakerSpan;
+
+/**
+ * Tests für {@link SpanDescriptors}
+ */
+public class SpanDescriptorsTest {
+
+    @Test
+    public void liefertJeTypUndNameDenselbenDeskriptor() {
+        final SpanDescriptor descriptor = SpanDescriptors.of(HystrixSpan.class, "Pool#Command");
+
+        assertThat(SpanDescriptors.of(HystrixSpan.class, "Pool#Command")).isSameAs(descriptor);
+        assertThat(SpanDescriptors.of(CircuitBreakerSpan.class, "Pool#Command")).isNotSameAs(descriptor);
+        assertThat(descriptor.getType()).isEqualTo("hystrix");
+        assertThat(descriptor.getCategory()).isEqualTo("hystrix.Pool#Command");
+        assertThat(descriptor.getServerTimingPrefix()).isEqualTo("hystrix.Pool#Command;desc=\"Pool#Command");
+    }
+
+    @Test
+    public void maskiertDenNamenFuerDenHeader() {
+        final SpanDescriptor descriptor = SpanDescriptors.of(Span.class, "say \"hi\"");
+
+        assertThat(descriptor.getType()).isEqualTo(SpanDescriptors.DEFAULT_TYPE);
+        assertThat(descriptor.getServerTimingPrefix()).isEqualTo("span.say__hi_;desc=\"say \\\"hi\\\"");
+    }
+
+    @Test
+    public void schreibtDenDeskriptorNichtInsJson() throws Exception {
+        final HystrixSpan span = new HystrixSpan(SpanDescriptors.of(HystrixSpan.class, "Pool#Command"), 0, 10);
+
+        assertThat(span.getName()).isEqualTo("Pool#Command");
+        assertThat(new TraceLog("test", "host", 0, 10, Arrays.<Span> asList(span)).toJSON()).doesNotContain("descriptor")
+                .contains("\"name\":\"Pool#Command\"");
+    }
+
+    @Test
+    public void fasstSpansMitUndOhneDeskriptorZusammen() {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        new ServerTimingHeaderWriter(10).write(new TraceLog("test", "host", 0, 100,
+                Arrays.<Span> asList(new HystrixSpan(SpanDescriptors.of(HystrixSpan.class, "Pool#Other"), 0, 10),
+                        new HystrixSpan("Pool#Other", 20, 30))),
+                response);
+
+        assertThat(response.getHeaders(ServerTimingHeaderWriter.SERVER_TIMING_HEADER)).containsExactly("total;desc=\"Total\";dur=100",
+                "hystrix.Pool#Other;desc=\"Pool#Other (2x)\";dur=40");
+    }
+}
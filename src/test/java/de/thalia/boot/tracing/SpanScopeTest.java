@@ -0,0 +1,111 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Tests für eigene Spans über {@link SpanScope}, {@link Tracer#trace(SpanDescriptor, java.util.function.Supplier)} und
+ * {@link Traced}.
+ */
+public class SpanScopeTest {
+
+    private static final SpanDescriptor RANKING = SpanDescriptors.of(Span.class, "ranking");
+
+    private final Tracer tracer = new Tracer();
+
+    @Before
+    public void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void erfasstSpansUeberScopeUndLambda() throws Exception {
+        try (SpanScope scope = tracer.startSpan("prices")) {
+            Thread.sleep(20);
+            // Mehrfaches Schließen erzeugt keinen weiteren Span
+            scope.close();
+        }
+        try (SpanScope scope = tracer.startSpan(RANKING)) {
+            scope.setAttribute(AttributeKey.ofLong("ranking.results"), 7);
+        }
+        assertThat(tracer.trace(RANKING, () -> 42)).isEqualTo(42);
+        assertThatThrownBy(() -> tracer.trace(RANKING, (Runnable) () -> {
+            throw new IllegalStateException();
+        })).isInstanceOf(IllegalStateException.class);
+
+        final List<Span> spans = tracer.getCollectedSpansForCurrentRequest().get();
+        assertThat(spans).extracting(Span::getName).containsExactly("prices", "ranking", "ranking", "ranking");
+        assertThat(spans.get(0).getDuration()).isGreaterThanOrEqualTo(19);
+        assertThat(spans.get(0).getAttributes()).isNull();
+        assertThat(spans.get(1).getDescriptor()).isSameAs(RANKING);
+        assertThat(spans.get(1).getAttributes().getLong(AttributeKey.ofLong("ranking.results"), 0)).isEqualTo(7);
+    }
+
+    @Test
+    public void erfasstAusserhalbEinesRequestsNichts() {
+        RequestContextHolder.resetRequestAttributes();
+
+        assertThat(tracer.startSpan(RANKING)).isSameAs(SpanScope.NOOP);
+        assertThat(tracer.trace(RANKING, () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    public void erfasstAnnotierteMethoden() {
+        final AspectJProxyFactory factory = new AspectJProxyFactory(new PriceCalculator());
+        factory.addAspect(new TracedAspect(tracer));
+        final PriceCalculator calculator = factory.getProxy();
+
+        calculator.calculate();
+        calculator.round();
+        calculator.calculate();
+
+        assertThat(tracer.getCollectedSpansForCurrentRequest().get())
+                .extracting(Span::getName, span -> SpanDescriptors.of(span).getCategory())
+                .containsExactly(tuple("prices", "span.prices"), tuple("PriceCalculator.round", "span.PriceCalculator.round"),
+                        tuple("prices", "span.prices"));
+    }
+
+    @Traced
+    public static class PriceCalculator {
+
+        @Traced("prices")
+        public int calculate() {
+            return 1;
+        }
+
+        public int round() {
+            return 2;
+        }
+    }
+}
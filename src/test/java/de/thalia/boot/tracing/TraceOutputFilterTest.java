@@ -0,0 +1,181 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import de.thalia.boot.tracing.queue.HeaderRequestStartResolver;
+import de.thalia.boot.tracing.queue.QueueWaitSpan;
+import de.thalia.boot.tracing.statistics.PatternStatistics;
+
+/**
+ * Tests für {@link TraceOutputFilter}
+ */
+public class TraceOutputFilterTest {
+
+    private final TraceOutputFilter filter = new TraceOutputFilter(new Tracer(), Collections.emptyList(), "test", "host",
+            new ServerTimingHeaderWriter(10), null, null, null, null);
+
+    @Test
+    public void schreibtCpuZeitUndAllokationInsTraceLog() throws Exception {
+        Assume.assumeTrue(ThreadResources.CPU_TIME_SUPPORTED && ThreadResources.ALLOCATION_SUPPORTED);
+
+        final TraceLog log = invoke();
+
+        assertThat(log.getCpuNanos()).isNotNull().isGreaterThanOrEqualTo(0);
+        // Der Servlet-Aufruf legt 1 MB an
+        assertThat(log.getAllocatedBytes()).isGreaterThan(1024 * 1024);
+    }
+
+    @Test
+    public void laesstNichtUnterstuetzteWerteWeg() throws Exception {
+        // Wie auf einer JVM, die nur die CPU-Zeit messen kann
+        final AtomicLong cpuTime = new AtomicLong();
+        filter.measureThreadResourcesWith(() -> cpuTime.addAndGet(1000), () -> -1);
+
+        final TraceLog log = invoke();
+
+        assertThat(log.getCpuNanos()).isEqualTo(1000);
+        assertThat(log.getAllocatedBytes()).isNull();
+    }
+
+    @Test
+    public void laesstOhneUnterstuetzungAlleWerteWeg() throws Exception {
+        filter.measureThreadResourcesWith(() -> -1, () -> -1);
+
+        final TraceLog log = invoke();
+
+        assertThat(log.getCpuNanos()).isNull();
+        assertThat(log.getAllocatedBytes()).isNull();
+    }
+
+    @Test
+    public void beginntMitDemStartDesProxys() throws Exception {
+        final PatternStatistics statistics = new PatternStatistics(10);
+        final TraceOutputFilter proxyFilter = new TraceOutputFilter(new Tracer(), Collections.emptyList(), "test", "host",
+                new ServerTimingHeaderWriter(10), statistics, null, new HeaderRequestStartResolver(
+                        Collections.singletonList(HeaderRequestStartResolver.REQUEST_START_HEADER)), null);
+        final long requestStart = System.currentTimeMillis() - 250;
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HeaderRequestStartResolver.REQUEST_START_HEADER, "t=" + requestStart);
+        request.setAttribute("org.springframework.web.servlet.HandlerMapping.bestMatchingPattern", "/test");
+
+        final TraceLog log = invoke(proxyFilter, request);
+
+        assertThat(log.getStartTime()).isEqualTo(requestStart);
+        assertThat(log.getDuration()).isGreaterThanOrEqualTo(250);
+        assertThat(log.getSpans()).hasSize(1);
+        assertThat(log.getSpans().get(0)).isInstanceOf(QueueWaitSpan.class);
+        assertThat(log.getSpans().get(0).getDuration()).isGreaterThanOrEqualTo(250);
+        assertThat(statistics.snapshot().get("/test").get("queueWait").getMax()).isGreaterThanOrEqualTo(250);
+    }
+
+    @Test
+    public void ignoriertUnplausibleStartzeitDesProxys() throws Exception {
+        final PatternStatistics statistics = new PatternStatistics(10);
+        final TraceOutputFilter proxyFilter = new TraceOutputFilter(new Tracer(), Collections.emptyList(), "test", "host",
+                new ServerTimingHeaderWriter(10), statistics, null, new HeaderRequestStartResolver(
+                        Collections.singletonList(HeaderRequestStartResolver.REQUEST_START_HEADER)), null, 1000,
+                Collections.emptyList());
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        // Wird als Sekunden gelesen, also 1 Sekunde nach 1970
+        request.addHeader(HeaderRequestStartResolver.REQUEST_START_HEADER, "t=1");
+        request.setAttribute("org.springframework.web.servlet.HandlerMapping.bestMatchingPattern", "/test");
+        final long filterStart = System.currentTimeMillis();
+
+        final TraceLog log = invoke(proxyFilter, request);
+
+        assertThat(log.getStartTime()).isGreaterThanOrEqualTo(filterStart);
+        assertThat(log.getSpans()).isNullOrEmpty();
+        assertThat(statistics.snapshot().get("/test").get("queueWait").getMax()).isEqualTo(0);
+    }
+
+    @Test
+    public void uebergibtDenExporternEinenStandDesTraceLogs() throws Exception {
+        final Tracer tracer = new Tracer(true);
+        final List<TraceLog> exported = new ArrayList<>();
+        final TraceOutputFilter exportingFilter = new TraceOutputFilter(tracer,
+                Collections.singletonList((theLog, invokedPattern) -> exported.add(theLog)), "test", "host",
+                new ServerTimingHeaderWriter(10), null, null, null, null);
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("org.springframework.web.servlet.HandlerMapping.bestMatchingPattern", "/test");
+
+        exportingFilter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> tracer.addToLog((MockHttpServletRequest) req, new Span("first", 0, 1)));
+        final TracingOverhead overhead = exported.get(0).getTracingOverhead();
+        final long cpuNanos = overhead.getCpuNanos();
+        // Wie ein verspäteter Hystrix-Thread
+        tracer.addToLog(request, new Span("late", 0, 1));
+        tracer.overheadFor(request).add(1_000_000, 1_000_000);
+
+        assertThat(exported.get(0).getSpans()).extracting(Span::getName).containsExactly("first");
+        assertThat(overhead.getCpuNanos()).isEqualTo(cpuNanos);
+    }
+
+    @Test
+    public void uebergibtDenExporternDenKritischenPfadAuchOhneAusgabe() throws Exception {
+        final Tracer tracer = new Tracer();
+        final List<TraceLog> exported = new ArrayList<>();
+        final TraceOutputFilter exportingFilter = new TraceOutputFilter(tracer,
+                Collections.singletonList((theLog, invokedPattern) -> exported.add(theLog)), "test", "host",
+                new ServerTimingHeaderWriter(10), null, null, null, null);
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("org.springframework.web.servlet.HandlerMapping.bestMatchingPattern", "/test");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        exportingFilter.doFilter(request, response, (req, res) -> {
+        });
+
+        assertThat(response.getHeader(Tracer.TRACE_HEADER_NAME)).isNull();
+        assertThat(exported.get(0).getCriticalPath()).isNotNull();
+    }
+
+    @Test
+    public void uebergibtDasTraceLogAuchOhneMetricExporter() throws Exception {
+        final List<String> exported = new ArrayList<>();
+        final TraceOutputFilter exportingFilter = new TraceOutputFilter(new Tracer(), Collections.emptyList(), "test", "host",
+                new ServerTimingHeaderWriter(10), null, null, null, null, TraceOutputFilter.DEFAULT_MAX_QUEUE_WAIT,
+                Collections.singletonList((theLog, invokedPattern) -> exported.add(invokedPattern)));
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("org.springframework.web.servlet.HandlerMapping.bestMatchingPattern", "/test");
+
+        exportingFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+        });
+
+        assertThat(exported).containsExactly("/test");
+    }
+
+    private TraceLog invoke() throws Exception {
+        return invoke(filter, new MockHttpServletRequest());
+    }
+
+    private static TraceLog invoke(final TraceOutputFilter filter, final MockHttpServletRequest request) throws Exception {
+        request.addHeader(Tracer.TRACE_HEADER_NAME, "true");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> res.getOutputStream().write(new byte[1024 * 1024]));
+        return TraceLog.fromJSON(response.getHeader(Tracer.TRACE_HEADER_NAME));
+    }
+}
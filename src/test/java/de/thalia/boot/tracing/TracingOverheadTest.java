@@ -0,0 +1,72 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import de.thalia.boot.tracing.statistics.PatternStatistics;
+import de.thalia.boot.tracing.statistics.StatisticSnapshot;
+
+/**
+ * Tests für die Selbstmessung des Tracings
+ */
+public class TracingOverheadTest {
+
+    private static final String PATTERN_ATTRIBUTE = "org.springframework.web.servlet.HandlerMapping.bestMatchingPattern";
+
+    @Test
+    public void misstNichtsWennAbgeschaltet() throws Exception {
+        final Tracer tracer = new Tracer();
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+
+        tracer.recordOverhead(request, tracer.overheadCpuStart(), tracer.overheadAllocationStart());
+
+        assertThat(tracer.overheadFor(request)).isNull();
+    }
+
+    @Test
+    public void schreibtTracingSteuerInLogUndStatistik() throws Exception {
+        Assume.assumeTrue(ThreadResources.ALLOCATION_SUPPORTED);
+
+        final Tracer tracer = new Tracer(true);
+        final PatternStatistics statistics = new PatternStatistics(10);
+        final TraceOutputFilter filter = new TraceOutputFilter(tracer, Collections.emptyList(), "test", "host",
+                new ServerTimingHeaderWriter(10), statistics, null, null, null);
+
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(Tracer.TRACE_HEADER_NAME, "true");
+        request.setAttribute(PATTERN_ATTRIBUTE, "/test");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+
+        final TraceLog log = TraceLog.fromJSON(response.getHeader(Tracer.TRACE_HEADER_NAME));
+        assertThat(log.getTracingOverhead()).isNotNull();
+        assertThat(log.getTracingOverhead().getAllocatedBytes()).isPositive();
+
+        final StatisticSnapshot allocated = statistics.snapshot().get("/test").get("tracingOverhead.allocatedBytes");
+        assertThat(allocated.getCount()).isEqualTo(1);
+        // Die Statistik enthält zusätzlich den Aufwand für JSON und Ausgabe
+        assertThat(allocated.getTotal()).isGreaterThan(log.getTracingOverhead().getAllocatedBytes());
+    }
+}
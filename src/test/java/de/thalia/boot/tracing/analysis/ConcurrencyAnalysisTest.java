@@ -0,0 +1,92 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.analysis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.net.URI;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.database.QuerySpan;
+import de.thalia.boot.tracing.hystrix.HystrixSpan;
+import de.thalia.boot.tracing.mvc.MvcSpan;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+
+/**
+ * Tests für {@link ConcurrencyAnalysis}
+ */
+public class ConcurrencyAnalysisTest {
+
+    @Test
+    public void misstParallelitaet() {
+        // Drei parallele Commands, ein HTTP-Aufruf innerhalb des ersten Commands zählt nicht
+        final TraceLog log = new TraceLog("test", "host", 0, 100,
+                Arrays.<Span> asList(new HystrixSpan("a", 0, 40), http("inner", 10, 20), new HystrixSpan("b", 5, 37),
+                        new HystrixSpan("c", 20, 45)));
+
+        final ConcurrencyAnalysis analysis = ConcurrencyAnalysis.of(log);
+
+        assertThat(analysis.getPeakConcurrency()).isEqualTo(3);
+        // 122ms Summe auf 65ms Abdeckung
+        assertThat(analysis.getParallelism()).isCloseTo(122.0 / 65, within(0.001));
+        assertThat(analysis.getSumToWallClockRatio()).isCloseTo(1.22, within(0.001));
+        assertThat(analysis.getSequentialCalls()).isNull();
+        assertThat(analysis.getFanOutSavings()).isZero();
+    }
+
+    @Test
+    public void erkenntSequentielleAufrufe() {
+        final TraceLog log = new TraceLog("test", "host", 0, 100, Arrays.<Span> asList(http("search", 0, 30),
+                new QuerySpan("ds", 30, 10, 1, "ds"), http("prices", 40, 20), http("stock", 60, 25)));
+
+        final ConcurrencyAnalysis analysis = ConcurrencyAnalysis.of(log);
+
+        assertThat(analysis.getPeakConcurrency()).isEqualTo(1);
+        assertThat(analysis.getParallelism()).isCloseTo(1.0, within(0.001));
+        assertThat(analysis.getSequentialCalls()).containsExactly("search", "prices", "stock");
+        assertThat(analysis.getFanOutSavings()).isEqualTo(45);
+    }
+
+    @Test
+    public void erkenntSequentielleAufrufeInnerhalbDerControllerMethode() {
+        final TraceLog log = new TraceLog("test", "host", 0, 100, Arrays.<Span> asList(new MvcSpan("Ctrl#get", 5, 80),
+                new HystrixSpan("P#A", 10, 30), http("a", 11, 28), new HystrixSpan("P#B", 45, 35), http("b", 46, 33)));
+
+        final ConcurrencyAnalysis analysis = ConcurrencyAnalysis.of(log);
+
+        assertThat(analysis.getSequentialCalls()).containsExactly("P#A", "P#B");
+        assertThat(analysis.getFanOutSavings()).isEqualTo(30);
+    }
+
+    @Test
+    public void laesstParallelitaetOhneSpansWeg() {
+        final ConcurrencyAnalysis analysis = ConcurrencyAnalysis.of(new TraceLog("test", "host", 0, 100, null));
+
+        assertThat(analysis.getParallelism()).isNull();
+        assertThat(analysis.getPeakConcurrency()).isZero();
+    }
+
+    private static HTTPSpan http(final String name, final long start, final long duration) {
+        return new HTTPSpan(name, start, duration, HttpMethod.GET, URI.create("http://" + name), HttpStatus.OK, null);
+    }
+}
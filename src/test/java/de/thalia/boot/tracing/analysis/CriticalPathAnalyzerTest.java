@@ -0,0 +1,105 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.analysis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.database.QuerySpan;
+import de.thalia.boot.tracing.hystrix.HystrixSpan;
+import de.thalia.boot.tracing.mvc.MvcSpan;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+
+/**
+ * Tests für {@link CriticalPathAnalyzer}
+ */
+public class CriticalPathAnalyzerTest {
+
+    private static TraceLog erzeugeVerschachteltesTraceLog() {
+        final TraceLog nested = new TraceLog("search", "host2", 25, 60,
+                Collections.singletonList(new QuerySpan("solrDb", 30, 40, 1, "solrDb")));
+        final HTTPSpan httpSpan = new HTTPSpan("Frontend-RestTemplate", 20, 70, HttpMethod.GET, URI.create("http://search/api"),
+                HttpStatus.OK, nested);
+        return new TraceLog("frontend", "host1", 0, 100,
+                Arrays.asList(new QuerySpan("frontendDb", 5, 10, 1, "frontendDb"), httpSpan, new HystrixSpan("Pool#Command", 40, 20)));
+    }
+
+    @Test
+    public void ermittleKritischenPfadUeberVerschachtelteTraceLogs() {
+        final CriticalPath path = CriticalPathAnalyzer.analyze(erzeugeVerschachteltesTraceLog());
+
+        assertThat(path.getSegments()).extracting(CriticalPathSegment::getService).containsExactly("frontend", "frontend",
+                "frontend", "search", "search", "search", "search", "search", "frontend");
+        assertThat(path.getSegments().stream().mapToLong(CriticalPathSegment::getDuration).sum()).isEqualTo(100);
+
+        assertThat(path.getSelfTimeByService()).containsEntry("frontend", 30L).containsEntry("search", 70L);
+        assertThat(path.getSelfTimeBySpan()).containsEntry("frontend/frontendDb", 10L).containsEntry("search/solrDb", 40L)
+                .containsEntry("search/Frontend-RestTemplate", 10L).doesNotContainKey("frontend/Pool#Command");
+        assertThat(path.getBottleneckService()).isEqualTo("search");
+    }
+
+    @Test
+    public void steigtUeberUmschliessendeSpansInDenHttpAufrufAb() {
+        // Wie in der Anwendung umschließt der Hystrix-Command den HTTP-Aufruf und die Controller-Methode alles
+        final TraceLog nested = new TraceLog("search", "host2", 25, 60,
+                Collections.singletonList(new QuerySpan("solrDb", 30, 40, 1, "solrDb")));
+        final HTTPSpan httpSpan = new HTTPSpan("Frontend-RestTemplate", 20, 70, HttpMethod.GET, URI.create("http://search/api"),
+                HttpStatus.OK, nested);
+        final TraceLog log = new TraceLog("frontend", "host1", 0, 100,
+                Arrays.asList(new MvcSpan("Ctrl#get", 2, 95), new QuerySpan("frontendDb", 5, 10, 1, "frontendDb"),
+                        new HystrixSpan("Pool#Command", 18, 75), httpSpan));
+
+        final CriticalPath path = CriticalPathAnalyzer.analyze(log);
+
+        assertThat(path.getSegments().stream().mapToLong(CriticalPathSegment::getDuration).sum()).isEqualTo(100);
+        assertThat(path.getSelfTimeByService()).containsEntry("frontend", 30L).containsEntry("search", 70L);
+        assertThat(path.getSelfTimeBySpan()).containsEntry("frontend/Ctrl#get", 10L).containsEntry("frontend/frontendDb", 10L)
+                .containsEntry("frontend/Pool#Command", 5L).containsEntry("search/Frontend-RestTemplate", 10L)
+                .containsEntry("search/solrDb", 40L);
+        assertThat(path.getBottleneckService()).isEqualTo("search");
+    }
+
+    @Test
+    public void ohneSpansIstAllesEigenzeit() {
+        final CriticalPath path = CriticalPathAnalyzer.analyze(new TraceLog("frontend", "host1", 0, 50, null));
+
+        assertThat(path.getSegments()).hasSize(1);
+        assertThat(path.getSelfTimeByService()).containsEntry("frontend", 50L);
+        assertThat(path.getSelfTimeBySpan()).isEmpty();
+    }
+
+    @Test
+    public void verschachtelteTraceLogsUeberlebenJSON() throws Exception {
+        final TraceLog log = erzeugeVerschachteltesTraceLog();
+        log.setCriticalPath(CriticalPathAnalyzer.analyze(log));
+
+        final TraceLog gelesen = TraceLog.fromJSON(log.toJSON());
+
+        assertThat(gelesen.getSpans().get(1)).isInstanceOf(HTTPSpan.class);
+        final TraceLog nested = ((HTTPSpan) gelesen.getSpans().get(1)).getNestedTraceLog();
+        assertThat(nested.getSpans().get(0)).isInstanceOf(QuerySpan.class);
+        assertThat(gelesen.getCriticalPath().getBottleneckService()).isEqualTo("search");
+        assertThat(CriticalPathAnalyzer.analyze(gelesen).getSelfTimeByService()).isEqualTo(log.getCriticalPath().getSelfTimeByService());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.analysis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.hystrix.HystrixSpan;
+
+/**
+ * Tests für {@link SpanCoverage}
+ */
+public class SpanCoverageTest {
+
+    @Test
+    public void zaehltUeberlappendeSpansNurEinmal() {
+        // Zwei parallele Commands von 10-40 und 20-50, danach ein Span von 70-80
+        final TraceLog log = new TraceLog("test", "host", 1000, 100, Arrays.<Span> asList(new HystrixSpan("a", 1010, 30),
+                new HystrixSpan("b", 1020, 30), new HystrixSpan("c", 1070, 10)));
+
+        final SpanCoverage coverage = SpanCoverage.of(log);
+
+        assertThat(coverage.getCoveredTime()).isEqualTo(50);
+        assertThat(coverage.getUntracedTime()).isEqualTo(50);
+        // Lücken: 0-10, 50-70, 80-100
+        assertThat(coverage.getLargestGapOffset()).isEqualTo(50);
+        assertThat(coverage.getLargestGapDuration()).isEqualTo(20);
+    }
+
+    @Test
+    public void schneidetSpansAusserhalbDesAufrufsAb() {
+        final TraceLog log = new TraceLog("test", "host", 1000, 100,
+                Collections.<Span> singletonList(new HystrixSpan("a", 990, 100)));
+
+        final SpanCoverage coverage = SpanCoverage.of(log);
+
+        assertThat(coverage.getCoveredTime()).isEqualTo(90);
+        assertThat(coverage.getLargestGapOffset()).isEqualTo(90);
+        assertThat(coverage.getLargestGapDuration()).isEqualTo(10);
+    }
+
+    @Test
+    public void ohneSpansIstAllesEineLuecke() {
+        final SpanCoverage coverage = SpanCoverage.of(new TraceLog("test", "host", 1000, 100, null));
+
+        assertThat(coverage.getUntracedTime()).isEqualTo(100);
+        assertThat(coverage.getLargestGapOffset()).isEqualTo(0);
+        assertThat(coverage.getLargestGapDuration()).isEqualTo(100);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import de.thalia.boot.tracing.ServerTimingHeaderWriter;
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.TraceOutputFilter;
+import de.thalia.boot.tracing.Tracer;
+import de.thalia.boot.tracing.statistics.PatternStatistics;
+import de.thalia.boot.tracing.statistics.StatisticSnapshot;
+
+/**
+ * Tests für das Tracing der Cache-Zugriffe
+ */
+public class TracingCacheTest {
+
+    private static final String PATTERN_ATTRIBUTE = "org.springframework.web.servlet.HandlerMapping.bestMatchingPattern";
+
+    private final Tracer tracer = new Tracer();
+    private final CacheManager cacheManager = new TracingCacheManager(new ConcurrentMapCacheManager("books"), tracer);
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void erfasstTrefferFehlschlaegeUndEingesparteZeit() throws Exception {
+        final PatternStatistics statistics = new PatternStatistics(10);
+        final TraceOutputFilter filter = new TraceOutputFilter(tracer, Collections.emptyList(), "test", "host",
+                new ServerTimingHeaderWriter(10), statistics, null, null, null);
+
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(Tracer.TRACE_HEADER_NAME, "true");
+        request.setAttribute(PATTERN_ATTRIBUTE, "/books/{id}");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final FilterChain chain = (aRequest, aResponse) -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes((HttpServletRequest) aRequest));
+            final Cache cache = cacheManager.getCache("books");
+            // Ablauf wie bei @Cacheable: Fehlschlag, Laden, Schreiben und anschließend zwei Treffer
+            assertThat(cache.get("4711")).isNull();
+            sleep(30);
+            cache.put("4711", "Faust");
+            assertThat(cache.get("4711").get()).isEqualTo("Faust");
+            assertThat(cache.get("4711", String.class)).isEqualTo("Faust");
+        };
+        filter.doFilter(request, response, chain);
+
+        final TraceLog log = TraceLog.fromJSON(response.getHeader(Tracer.TRACE_HEADER_NAME));
+        final List<CacheSpan> spans = cacheSpansOf(log);
+        assertThat(spans).extracting(CacheSpan::getOperation).containsExactly(CacheSpan.GET, CacheSpan.PUT, CacheSpan.GET);
+        assertThat(spans).extracting(CacheSpan::getHit).containsExactly(false, null, true);
+        assertThat(spans.get(1).getLoadTime()).isGreaterThanOrEqualTo(30);
+        // Die beiden Treffer sind zusammengefasst und sparen je die mittlere Ladezeit ein
+        assertThat(spans.get(2).getCount()).isEqualTo(2);
+        assertThat(spans.get(2).getSavedTime()).isEqualTo(2 * spans.get(1).getLoadTime());
+
+        final Map<String, StatisticSnapshot> metrics = statistics.snapshot().get("/books/{id}");
+        assertThat(metrics.get("cache.books.hits").getTotal()).isEqualTo(2);
+        assertThat(metrics.get("cache.books.misses").getTotal()).isEqualTo(1);
+        assertThat(metrics.get("cache.books.savedTime").getTotal()).isEqualTo(spans.get(2).getSavedTime());
+    }
+
+    @Test
+    public void misstLadezeitDesLoaders() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        final TracingCache cache = (TracingCache) cacheManager.getCache("books");
+
+        assertThat(cache.get("4711", () -> {
+            sleep(20);
+            return "Faust";
+        })).isEqualTo("Faust");
+        assertThat(cache.get("4711", () -> "Faust II")).isEqualTo("Faust");
+
+        final List<CacheSpan> spans = cacheSpansOf(tracer.getCollectedSpansForCurrentRequest().get());
+        assertThat(spans).extracting(CacheSpan::getHit).containsExactly(false, true);
+        assertThat(spans.get(0).getLoadTime()).isGreaterThanOrEqualTo(20);
+        assertThat(spans.get(0).getDuration()).isGreaterThanOrEqualTo(20);
+        assertThat(spans.get(1).getSavedTime()).isEqualTo(cache.meanLoadTime());
+        assertThat(cacheManager.getCache("books")).isSameAs(cache);
+    }
+
+    @Test
+    public void vergisstFehlschlagOhneSchreibenMitDemRequest() {
+        final Cache cache = cacheManager.getCache("books");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        // Z.B. eine Exception in der Methode, deren Ergebnis gecacht werden sollte
+        assertThat(cache.get("4711")).isNull();
+
+        // Ein späterer Request im selben Thread
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        cache.put("4711", "Faust");
+
+        final List<CacheSpan> spans = cacheSpansOf(tracer.getCollectedSpansForCurrentRequest().get());
+        assertThat(spans).extracting(CacheSpan::getOperation, CacheSpan::getLoadTime).containsExactly(
+                tuple(CacheSpan.PUT, null));
+    }
+
+    private static List<CacheSpan> cacheSpansOf(final TraceLog log) {
+        return cacheSpansOf(log.getSpans());
+    }
+
+    private static List<CacheSpan> cacheSpansOf(final List<Span> spans) {
+        return spans.stream().filter(CacheSpan.class::isInstance).map(CacheSpan.class::cast).collect(Collectors.toList());
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import de.thalia.boot.tracing.AttributeKey;
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.TracingOverhead;
+import de.thalia.boot.tracing.cache.CacheSpan;
+import de.thalia.boot.tracing.database.QuerySpan;
+import de.thalia.boot.tracing.database.TransactionSpan;
+import de.thalia.boot.tracing.hystrix.HystrixSpan;
+import de.thalia.boot.tracing.mvc.MvcSpan;
+import de.thalia.boot.tracing.queue.QueueWaitSpan;
+import de.thalia.boot.tracing.resilience4j.CircuitBreakerAttempt;
+import de.thalia.boot.tracing.resilience4j.CircuitBreakerSpan;
+import de.thalia.boot.tracing.rest.ClockSkew;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+import de.thalia.boot.tracing.rest.HttpPhases;
+
+/**
+ * Tests für das {@link BinaryTraceFormat}
+ */
+public class BinaryTraceFormatTest {
+
+    private static final long START = 1546300800000L;
+
+    @Test
+    public void liefertAlleSpanTypenUnveraendertZurueck() throws Exception {
+        final TraceLog log = traceLog(10);
+
+        final TraceLog decoded = BinaryTraceFormat.decode(BinaryTraceFormat.encode(log));
+
+        assertThat(decoded.toJSON()).isEqualTo(log.toJSON());
+        assertThat(decoded.getSpans()).extracting(Object::getClass).containsExactlyElementsOf(
+                () -> log.getSpans().stream().<Class<?>> map(Object::getClass).iterator());
+    }
+
+    @Test
+    public void istDeutlichKleinerAlsJson() throws Exception {
+        final TraceLog log = traceLog(25);
+
+        final int json = log.toJSON().getBytes(StandardCharsets.UTF_8).length;
+        final int binary = BinaryTraceFormat.encode(log).length;
+
+        assertThat(binary).isLessThan(json / 4);
+    }
+
+    @Test
+    public void nutztDasWoerterbuchUeberAlleTraceLogsDesStreams() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final BinaryTraceLogEncoder encoder = new BinaryTraceLogEncoder(bytes);
+        encoder.write(traceLog(1));
+        final int first = bytes.size();
+        encoder.write(traceLog(1));
+        final int second = bytes.size() - first;
+
+        assertThat(second).isLessThan(first / 2);
+
+        final BinaryTraceLogDecoder decoder = new BinaryTraceLogDecoder(new ByteArrayInputStream(bytes.toByteArray()));
+        assertThat(decoder.read().toJSON()).isEqualTo(traceLog(1).toJSON());
+        assertThat(decoder.read().toJSON()).isEqualTo(traceLog(1).toJSON());
+        assertThat(decoder.read()).isNull();
+    }
+
+    @Test
+    public void erkenntFremdeDaten() {
+        assertThatThrownBy(() -> BinaryTraceFormat.decode("{\"spans\":[]}".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> BinaryTraceFormat.decode(new byte[0])).isInstanceOf(IOException.class);
+    }
+
+    private static TraceLog traceLog(final int aSpansPerType) {
+        final TraceLog nested = new TraceLog("search", "search-1.example.com", START + 5, 40,
+                Arrays.asList(new QuerySpan("searchDataSource", START + 6, 12, 2, "searchDataSource"),
+                        new Span("custom", START + 20, 3)));
+        nested.setClockSkew(new ClockSkew(-3, 4, true, false));
+
+        final List<Span> spans = new ArrayList<>();
+        spans.add(new QueueWaitSpan("X-Request-Start", START - 7, 7));
+        for (int i = 0; i < aSpansPerType; i++) {
+            final HttpPhases phases = new HttpPhases();
+            phases.addLeaseWait(12_000);
+            phases.addTimeToFirstByte(8_500_000);
+            phases.addBodyRead(1_234_000);
+            spans.add(new HTTPSpan("SearchClient-RestTemplate", START + i, 50, HttpMethod.GET,
+                    URI.create("http://search.example.com/api/search?q=" + i), HttpStatus.OK, 0 == i ? nested : null,
+                    phases));
+            spans.add(new QuerySpan("dataSource", START + i, 1, 3, "dataSource", 0 == i ? 100 : null, 0 == i ? 98L : null));
+            spans.add(new HystrixSpan("Search#SearchCommand", START + i, 12));
+            spans.add(new CircuitBreakerSpan("searchBreaker", START + i, 11));
+            spans.add(new CircuitBreakerSpan("searchBreaker", START + i, 35, "HALF_OPEN", CircuitBreakerSpan.SUCCESS, 20_000L,
+                    1_500L, null, Arrays.asList(new CircuitBreakerAttempt(START + i, 5, CircuitBreakerSpan.ERROR, 1_500L, null),
+                            new CircuitBreakerAttempt(START + i + 25, 10, CircuitBreakerSpan.SUCCESS, null, null))));
+            final Span ranking = new Span("ranking", START + i, 4);
+            ranking.setAttribute(AttributeKey.ofLong("ranking.results"), 120 + i);
+            ranking.setAttribute(AttributeKey.ofDouble("ranking.topScore"), 0.5 + i);
+            ranking.setAttribute(AttributeKey.ofBoolean("ranking.personalized"), true);
+            ranking.setAttribute(AttributeKey.ofString("ranking.model"), "v2");
+            spans.add(ranking);
+            spans.add(new MvcSpan(MvcSpan.ARGUMENTS, START + i, 0));
+            spans.add(new CacheSpan("books", START + i, 0, CacheSpan.GET, true, 3, null, 45L));
+            spans.add(new TransactionSpan("dataSource", START + i, 20, TransactionSpan.ROLLBACK, 2, 4, "dataSource"));
+        }
+        final TraceLog log = new TraceLog("frontend", "frontend-1.example.com", START, 100, spans);
+        log.setCpuNanos(12_345_678L);
+        log.setAllocatedBytes(1_048_576L);
+        log.setGcPauseTime(0L);
+        final TracingOverhead overhead = new TracingOverhead();
+        overhead.add(40_000, 2048);
+        log.setTracingOverhead(overhead);
+        return log;
+    }
+}
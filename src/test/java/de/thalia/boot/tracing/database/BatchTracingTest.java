@@ -0,0 +1,113 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.Tracer;
+import de.thalia.boot.tracing.statistics.BatchSizeHistogram;
+import de.thalia.boot.tracing.statistics.BatchSizeSnapshot;
+
+/**
+ * Tests für die Erfassung von Batches und geänderten Zeilen
+ */
+public class BatchTracingTest {
+
+    private final Tracer tracer = new Tracer();
+    private final BatchSizeHistogram histogram = new BatchSizeHistogram();
+    private EmbeddedDatabase database;
+    private JdbcTemplate template;
+
+    @Before
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.HSQL).setName("batchtest")
+                .addScript("/database-tracing-setup.sql").build();
+        final DataSource dataSource = (DataSource) new DatasourceWrappingBeanPostProcessor(tracer, histogram)
+                .postProcessAfterInitialization(database, "serienDataSource");
+        template = new JdbcTemplate(dataSource);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        database.shutdown();
+    }
+
+    @Test
+    public void erfasstBatchgroesseUndGeaenderteZeilen() {
+        template.batchUpdate("INSERT INTO serien (name, jahr) VALUES (?, ?)", Arrays.asList(new Object[] { "Lost", 2004 },
+                new Object[] { "Fringe", 2008 }, new Object[] { "Firefly", 2002 }));
+
+        final QuerySpan span = lastSpan();
+        assertThat(span.getBatchSize()).isEqualTo(3);
+        assertThat(span.getRowsAffected()).isEqualTo(3);
+
+        template.update("UPDATE serien SET jahr = jahr + 1 WHERE jahr < 2000");
+
+        // Die aufeinander folgenden Statements werden zusammengefasst
+        final QuerySpan merged = lastSpan();
+        assertThat(merged.getNumberQueries()).isEqualTo(2);
+        assertThat(merged.getBatchSize()).isEqualTo(3);
+        assertThat(merged.getRowsAffected()).isEqualTo(5);
+
+        final BatchSizeSnapshot snapshot = histogram.snapshot().get("serienDataSource");
+        assertThat(snapshot.getBuckets()).containsEntry("1", 1L).containsEntry("2-3", 1L).containsEntry("1024+", 0L);
+        assertThat(snapshot.getBatchSize().getTotal()).isEqualTo(4);
+        assertThat(snapshot.getRowsAffected().getTotal()).isEqualTo(5);
+    }
+
+    @Test
+    public void ignoriertLesendeQueries() {
+        template.queryForList("SELECT * FROM serien");
+
+        final QuerySpan span = lastSpan();
+        assertThat(span.getBatchSize()).isNull();
+        assertThat(span.getRowsAffected()).isNull();
+        assertThat(span.getMicrosPerRow()).isNull();
+        assertThat(histogram.snapshot()).isEmpty();
+    }
+
+    @Test
+    public void zaehltNurGemeldeteZeilen() {
+        assertThat(TracingQueryExecutionListener.rowsAffectedOf(new int[] { 1, Statement.SUCCESS_NO_INFO, 2 }))
+                .isEqualTo(3);
+        assertThat(TracingQueryExecutionListener.rowsAffectedOf(Boolean.TRUE)).isNull();
+    }
+
+    private QuerySpan lastSpan() {
+        final List<Span> spans = tracer.getCollectedSpansForCurrentRequest().get();
+        return (QuerySpan) spans.get(spans.size() - 1);
+    }
+}
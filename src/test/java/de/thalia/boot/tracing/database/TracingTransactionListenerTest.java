@@ -0,0 +1,100 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import de.thalia.boot.tracing.Tracer;
+
+/**
+ * Tests für das Tracing der Datenbanktransaktionen
+ */
+public class TracingTransactionListenerTest {
+
+    private final Tracer tracer = new Tracer();
+    private EmbeddedDatabase database;
+    private JdbcTemplate template;
+    private TransactionTemplate transactionTemplate;
+
+    @Before
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.HSQL).setName("transactiontest")
+                .addScript("/database-tracing-setup.sql").build();
+        final DataSource dataSource = (DataSource) new DatasourceWrappingBeanPostProcessor(tracer)
+                .postProcessAfterInitialization(database, "serienDataSource");
+        template = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        database.shutdown();
+    }
+
+    @Test
+    public void erfasstCommitUndRollback() {
+        transactionTemplate.execute(status -> {
+            template.update("UPDATE serien SET jahr = 1994 WHERE name = 'Babylon 5'");
+            template.update("DELETE FROM serien WHERE jahr > 2016");
+            return null;
+        });
+        transactionTemplate.execute(status -> {
+            template.update("DELETE FROM serien");
+            status.setRollbackOnly();
+            return null;
+        });
+
+        final List<TransactionSpan> transactions = transactionSpans();
+        assertThat(transactions).extracting(TransactionSpan::getOutcome).containsExactly(TransactionSpan.COMMIT,
+                TransactionSpan.ROLLBACK);
+        assertThat(transactions).extracting(TransactionSpan::getNumberQueries).containsExactly(2, 1);
+        assertThat(transactions).extracting(TransactionSpan::getDatasourceName).containsOnly("serienDataSource");
+        assertThat(template.queryForObject("SELECT COUNT(*) FROM serien", Integer.class)).isEqualTo(3);
+    }
+
+    @Test
+    public void ignoriertQueriesImAutoCommit() {
+        template.queryForList("SELECT * FROM serien");
+        template.update("DELETE FROM serien WHERE jahr < 1990");
+
+        assertThat(transactionSpans()).isEmpty();
+    }
+
+    private List<TransactionSpan> transactionSpans() {
+        return tracer.getCollectedSpansForCurrentRequest().get().stream().filter(TransactionSpan.class::isInstance)
+                .map(TransactionSpan.class::cast).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+
+import com.sun.net.httpserver.HttpServer;
+
+import lombok.Getter;
+
+/**
+ * Ein lokaler Ersatz für OpenTelemetry Collector und Zipkin, der die empfangenen Requests entpackt und sammelt.
+ */
+final class FakeCollector implements AutoCloseable {
+
+    static final String PATH = "/v1/traces";
+
+    private final HttpServer server;
+
+    @Getter
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+
+    private volatile int status = 200;
+
+    FakeCollector() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(PATH, exchange -> {
+            try (InputStream body = "gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))
+                    ? new GZIPInputStream(exchange.getRequestBody())
+                    : exchange.getRequestBody()) {
+                requests.add(new Request(exchange.getRequestHeaders().getFirst("Content-Type"), readFully(body),
+                        exchange.getRemoteAddress().getPort()));
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    URL getEndpoint() throws IOException {
+        return new URL("http", "localhost", server.getAddress().getPort(), PATH);
+    }
+
+    void respondWith(final int aStatus) {
+        status = aStatus;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static byte[] readFully(final InputStream aIn) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int read;
+        while ((read = aIn.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    @Getter
+    static final class Request {
+
+        private final String contentType;
+        private final byte[] body;
+        private final int clientPort;
+
+        Request(final String aContentType, final byte[] aBody, final int aClientPort) {
+            contentType = aContentType;
+            body = aBody;
+            clientPort = aClientPort;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.thalia.boot.tracing.AttributeKey;
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.database.QuerySpan;
+import de.thalia.boot.tracing.hystrix.HystrixSpan;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+
+/**
+ * Tests für {@link OtlpTraceExporter} und {@link ZipkinTraceExporter} gegen einen {@link FakeCollector}
+ */
+public class TraceExportTest {
+
+    private static final long START = 1546300800000L;
+
+    private FakeCollector collector;
+
+    @Before
+    public void setUp() throws Exception {
+        collector = new FakeCollector();
+    }
+
+    @After
+    public void tearDown() {
+        collector.close();
+    }
+
+    @Test
+    public void sendetZipkinSpansInklusiveVerschachtelterTraceLogs() throws Exception {
+        final ZipkinTraceExporter exporter = new ZipkinTraceExporter(collector.getEndpoint(), 10, 10, 1000);
+        exporter.export(traceLog(), "/search");
+        exporter.flush();
+
+        assertThat(collector.getRequests()).hasSize(1);
+        assertThat(collector.getRequests().get(0).getContentType()).isEqualTo("application/json");
+        final JsonNode spans = new ObjectMapper().readTree(collector.getRequests().get(0).getBody());
+        assertThat(spans).hasSize(6);
+
+        final Map<String, JsonNode> byName = new HashMap<>();
+        spans.forEach(span -> byName.put(span.get("name").asText(), span));
+        final JsonNode root = byName.get("/search");
+        final JsonNode client = byName.get("http.Search-RestTemplate");
+        final JsonNode nestedRoot = byName.get("/api/search");
+        final JsonNode nestedQuery = byName.get("db.searchDataSource");
+
+        assertThat(root.get("traceId").asText()).hasSize(32);
+        assertThat(root.get("id").asText()).hasSize(16);
+        assertThat(root.has("parentId")).isFalse();
+        assertThat(root.get("kind").asText()).isEqualTo("SERVER");
+        assertThat(root.get("timestamp").asLong()).isEqualTo(TimeUnit.MILLISECONDS.toMicros(START));
+        assertThat(root.get("duration").asLong()).isEqualTo(100_000);
+        assertThat(root.get("localEndpoint").get("serviceName").asText()).isEqualTo("frontend");
+        assertThat(root.get("tags").get("http.route").asText()).isEqualTo("/search");
+
+        assertThat(client.get("parentId").asText()).isEqualTo(root.get("id").asText());
+        assertThat(client.get("kind").asText()).isEqualTo("CLIENT");
+        assertThat(client.get("tags").get("http.status_code").asText()).isEqualTo("503");
+        assertThat(client.get("tags").get("error").asText()).isEqualTo("true");
+        assertThat(nestedRoot.get("parentId").asText()).isEqualTo(client.get("id").asText());
+        assertThat(nestedRoot.get("localEndpoint").get("serviceName").asText()).isEqualTo("search");
+        assertThat(nestedQuery.get("parentId").asText()).isEqualTo(nestedRoot.get("id").asText());
+        assertThat(nestedQuery.get("tags").get("db.queries").asText()).isEqualTo("2");
+        final JsonNode hystrix = byName.get("hystrix.Pool#Command");
+        assertThat(hystrix.has("kind")).isFalse();
+        assertThat(hystrix.get("tags").get("search.results").asText()).isEqualTo("12");
+        assertThat(hystrix.get("tags").get("search.score").asText()).isEqualTo("0.75");
+        assertThat(hystrix.get("tags").get("search.fallback").asText()).isEqualTo("false");
+        spans.forEach(span -> assertThat(span.get("traceId")).isEqualTo(root.get("traceId")));
+    }
+
+    @Test
+    public void sendetOtlpProtobufJeServiceUndHost() throws Exception {
+        final OtlpTraceExporter exporter = new OtlpTraceExporter(collector.getEndpoint(), 10, 10, 1000);
+        exporter.export(traceLog(), "/search");
+        exporter.flush();
+
+        assertThat(collector.getRequests().get(0).getContentType()).isEqualTo("application/x-protobuf");
+        final List<Map<Integer, List<Object>>> resourceSpans = messages(decode(collector.getRequests().get(0).getBody()), 1);
+        assertThat(resourceSpans).hasSize(2);
+
+        final Map<Integer, List<Object>> frontend = resourceSpans.get(0);
+        final List<Map<Integer, List<Object>>> attributes = messages(messages(frontend, 1).get(0), 1);
+        assertThat(string(attributes.get(0), 1)).isEqualTo("service.name");
+        assertThat(string(messages(attributes.get(0), 2).get(0), 1)).isEqualTo("frontend");
+        final Map<Integer, List<Object>> scopeSpans = messages(frontend, 2).get(0);
+        assertThat(string(messages(scopeSpans, 1).get(0), 1)).isEqualTo(OtlpTraceExporter.SCOPE_NAME);
+
+        final List<Map<Integer, List<Object>>> spans = messages(scopeSpans, 2);
+        assertThat(spans).extracting(span -> string(span, 5)).containsExactly("/search", "db.dataSource",
+                "http.Search-RestTemplate", "hystrix.Pool#Command");
+        final Map<Integer, List<Object>> root = spans.get(0);
+        final Map<Integer, List<Object>> client = spans.get(2);
+        assertThat((byte[]) root.get(1).get(0)).hasSize(16);
+        assertThat(root.get(4)).isNull();
+        assertThat(root.get(6)).containsExactly(2L);
+        assertThat(root.get(7)).containsExactly(TimeUnit.MILLISECONDS.toNanos(START));
+        assertThat(root.get(8)).containsExactly(TimeUnit.MILLISECONDS.toNanos(START + 100));
+        assertThat((byte[]) client.get(4).get(0)).isEqualTo((byte[]) root.get(2).get(0));
+        assertThat(client.get(6)).containsExactly(3L);
+        assertThat(messages(client, 15).get(0).get(3)).containsExactly(2L);
+        final Map<String, Map<Integer, List<Object>>> clientAttributes = messages(client, 9).stream()
+                .collect(Collectors.toMap(kv -> string(kv, 1), kv -> messages(kv, 2).get(0)));
+        assertThat(clientAttributes.get("http.status_code").get(3)).containsExactly(503L);
+        assertThat(string(clientAttributes.get("http.method"), 1)).isEqualTo("GET");
+        final Map<String, Map<Integer, List<Object>>> hystrixAttributes = messages(spans.get(3), 9).stream()
+                .collect(Collectors.toMap(kv -> string(kv, 1), kv -> messages(kv, 2).get(0)));
+        assertThat(hystrixAttributes.get("search.results").get(3)).containsExactly(12L);
+        assertThat(hystrixAttributes.get("search.score").get(4)).containsExactly(Double.doubleToRawLongBits(0.75));
+        assertThat(hystrixAttributes.get("search.fallback").get(2)).containsExactly(0L);
+
+        final List<Map<Integer, List<Object>>> nestedSpans = messages(messages(resourceSpans.get(1), 2).get(0), 2);
+        assertThat(nestedSpans).extracting(span -> string(span, 5)).containsExactly("/api/search", "db.searchDataSource");
+        assertThat((byte[]) nestedSpans.get(0).get(4).get(0)).isEqualTo((byte[]) client.get(2).get(0));
+        assertThat((byte[]) nestedSpans.get(0).get(1).get(0)).isEqualTo((byte[]) root.get(1).get(0));
+    }
+
+    @Test
+    public void sendetVieleTraceLogsInBatches() throws Exception {
+        final int traces = 5000;
+        final ZipkinTraceExporter exporter = new ZipkinTraceExporter(collector.getEndpoint(), traces, 250, 50);
+        exporter.start();
+        final long started = System.nanoTime();
+        for (int i = 0; i < traces; i++) {
+            exporter.export(traceLog(), "/search");
+        }
+        final long enqueueNanos = System.nanoTime() - started;
+        exporter.close();
+
+        assertThat(exporter.getDroppedTraces()).isZero();
+        assertThat(exporter.getFailedBatches()).isZero();
+        assertThat(exporter.getExportedSpans()).isEqualTo(traces * 6L);
+        assertThat(collector.getRequests().size()).isEqualTo((int) exporter.getSentBatches()).isGreaterThanOrEqualTo(traces / 250)
+                .isLessThan(traces / 10);
+        long received = 0;
+        for (final FakeCollector.Request request : collector.getRequests()) {
+            received += new ObjectMapper().readTree(request.getBody()).size();
+        }
+        assertThat(received).isEqualTo(traces * 6L);
+        // Die Batches teilen sich per Keep-Alive die Verbindungen
+        assertThat(collector.getRequests().stream().map(FakeCollector.Request::getClientPort).distinct().count())
+                .isLessThan(collector.getRequests().size());
+        // Der Request-Thread legt die Trace-Logs nur in die Warteschlange
+        assertThat(TimeUnit.NANOSECONDS.toMillis(enqueueNanos)).isLessThan(1000);
+    }
+
+    @Test
+    public void verwirftTraceLogsBeiVollerWarteschlange() throws Exception {
+        final OtlpTraceExporter exporter = new OtlpTraceExporter(collector.getEndpoint(), 2, 10, 1000);
+        for (int i = 0; i < 5; i++) {
+            exporter.export(traceLog(), "/search");
+        }
+        exporter.flush();
+
+        assertThat(exporter.getDroppedTraces()).isEqualTo(3);
+        assertThat(exporter.getExportedSpans()).isEqualTo(12);
+    }
+
+    @Test
+    public void zaehltFehlgeschlageneBatches() throws Exception {
+        collector.respondWith(503);
+        final ZipkinTraceExporter exporter = new ZipkinTraceExporter(collector.getEndpoint(), 10, 10, 1000);
+        exporter.export(traceLog(), "/search");
+        exporter.flush();
+
+        assertThat(exporter.getFailedBatches()).isEqualTo(1);
+        assertThat(exporter.getExportedSpans()).isZero();
+    }
+
+    private static TraceLog traceLog() {
+        final HystrixSpan hystrix = new HystrixSpan("Pool#Command", START + 60, 20);
+        hystrix.setAttribute(AttributeKey.ofLong("search.results"), 12);
+        hystrix.setAttribute(AttributeKey.ofDouble("search.score"), 0.75);
+        hystrix.setAttribute(AttributeKey.ofBoolean("search.fallback"), false);
+        final TraceLog nested = new TraceLog("search", "search-1", START + 12, 30,
+                Arrays.<Span> asList(new QuerySpan("searchDataSource", START + 15, 20, 2, "searchDataSource")));
+        return new TraceLog("frontend", "frontend-1", START, 100,
+                Arrays.asList(new QuerySpan("dataSource", START + 1, 5, 1, "dataSource"),
+                        new HTTPSpan("Search-RestTemplate", START + 10, 40, HttpMethod.GET,
+                                URI.create("http://search/api/search?q=java"), HttpStatus.SERVICE_UNAVAILABLE, nested),
+                        hystrix));
+    }
+
+    /**
+     * Liest eine Protobuf-Nachricht in eine Map von Feldnummer auf Werte ({@link Long} oder {@code byte[]}).
+     */
+    private static Map<Integer, List<Object>> decode(final byte[] message) {
+        final Map<Integer, List<Object>> fields = new HashMap<>();
+        final int[] position = { 0 };
+        while (position[0] < message.length) {
+            final long tag = varint(message, position);
+            final Object value;
+            switch ((int) (tag & 7)) {
+            case 0:
+                value = varint(message, position);
+                break;
+            case 1:
+                long fixed = 0;
+                for (int i = 0; i < 8; i++) {
+                    fixed |= (message[position[0]++] & 0xFFL) << (8 * i);
+                }
+                value = fixed;
+                break;
+            case 2:
+                final int length = (int) varint(message, position);
+                value = Arrays.copyOfRange(message, position[0], position[0] + length);
+                position[0] += length;
+                break;
+            default:
+                throw new IllegalArgumentException("Unbekannter Wire-Type in Tag " + tag);
+            }
+            fields.computeIfAbsent((int) (tag >>> 3), k -> new ArrayList<>()).add(value);
+        }
+        return fields;
+    }
+
+    private static long varint(final byte[] message, final int[] position) {
+        long result = 0;
+        for (int shift = 0;; shift += 7) {
+            final byte b = message[position[0]++];
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+    }
+
+    private static List<Map<Integer, List<Object>>> messages(final Map<Integer, List<Object>> message, final int field) {
+        return message.get(field).stream().map(value -> decode((byte[]) value)).collect(Collectors.toList());
+    }
+
+    private static String string(final Map<Integer, List<Object>> message, final int field) {
+        return new String((byte[]) message.get(field).get(0), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.gc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Tests für {@link GcPauseRecorder}
+ */
+public class GcPauseRecorderTest {
+
+    @Test
+    public void summiertUeberlappendePausen() {
+        final GcPauseRecorder recorder = new GcPauseRecorder(4);
+        recorder.recordPause(100, 120);
+        recorder.recordPause(150, 160);
+        recorder.recordPause(300, 310);
+
+        assertThat(recorder.pauseTimeBetween(110, 200)).isEqualTo(20);
+        assertThat(recorder.pauseTimeBetween(200, 300)).isZero();
+    }
+
+    @Test
+    public void ueberschreibtAeltestePausen() {
+        final GcPauseRecorder recorder = new GcPauseRecorder(2);
+        recorder.recordPause(100, 120);
+        recorder.recordPause(150, 160);
+        recorder.recordPause(170, 180);
+
+        assertThat(recorder.pauseTimeBetween(0, 1000)).isEqualTo(20);
+    }
+
+    @Test
+    public void erfasstPausenDerJvm() throws Exception {
+        final GcPauseRecorder recorder = new GcPauseRecorder(GcPauseRecorder.DEFAULT_CAPACITY);
+        Assume.assumeTrue(recorder.start());
+        try {
+            System.gc();
+            // Die Notification wird asynchron zugestellt
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (recorder.getRecordedPauses() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(recorder.getRecordedPauses()).isPositive();
+        } finally {
+            recorder.close();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.mvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.TraceConfig;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.Tracer;
+
+/**
+ * Tests für die Phasen von Spring MVC
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "tracing.mvc.enabled=true")
+@AutoConfigureMockMvc
+@ContextConfiguration(classes = { TraceConfig.class, MvcTracingTest.Config.class })
+public class MvcTracingTest {
+
+    @Configuration
+    @ImportAutoConfiguration({ WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class })
+    public static class Config {
+
+        @RestController
+        public static class SearchResource {
+
+            @GetMapping("/api/search/{term}")
+            public Map<String, String> search(@PathVariable final String term) throws InterruptedException {
+                Thread.sleep(50);
+                return Collections.singletonMap("term", term);
+            }
+        }
+    }
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    public void erfasstPhasenDerVerarbeitung() throws Exception {
+        final MvcResult result = mvc.perform(get("/api/search/buch").header(Tracer.TRACE_HEADER_NAME, "true"))
+                .andExpect(status().isOk()).andExpect(content().json("{\"term\":\"buch\"}")).andReturn();
+
+        final TraceLog log = TraceLog.fromJSON(result.getResponse().getHeader(Tracer.TRACE_HEADER_NAME));
+        final List<String> phases = log.getSpans().stream().filter(MvcSpan.class::isInstance).map(Span::getName)
+                .collect(Collectors.toList());
+        assertThat(phases).containsExactly(MvcSpan.PRE_HANDLE, MvcSpan.ARGUMENTS, "SearchResource#search", MvcSpan.RETURN_VALUE,
+                MvcSpan.POST_HANDLE, MvcSpan.RENDER);
+        assertThat(log.getSpans().stream().filter(span -> span.getName().equals("SearchResource#search")).findFirst().get()
+                .getDuration()).isGreaterThanOrEqualTo(50);
+    }
+}
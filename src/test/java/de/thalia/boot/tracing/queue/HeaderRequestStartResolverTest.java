@@ -0,0 +1,52 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Tests für {@link HeaderRequestStartResolver}
+ */
+public class HeaderRequestStartResolverTest {
+
+    private static final long START = 1561385292123L;
+
+    @Test
+    public void erkenntEinheitDesZeitstempels() {
+        assertThat(HeaderRequestStartResolver.parseTimestamp("t=1561385292123")).isEqualTo(START);
+        assertThat(HeaderRequestStartResolver.parseTimestamp("t=1561385292.123")).isEqualTo(START);
+        assertThat(HeaderRequestStartResolver.parseTimestamp("1561385292123456")).isEqualTo(START);
+        assertThat(HeaderRequestStartResolver.parseTimestamp("t=1561385292123456789")).isEqualTo(START);
+        assertThat(HeaderRequestStartResolver.parseTimestamp("1561385292")).isEqualTo(1561385292000L);
+        assertThat(HeaderRequestStartResolver.parseTimestamp("gestern")).isEqualTo(-1);
+    }
+
+    @Test
+    public void liestErstenVorhandenenHeader() {
+        final HeaderRequestStartResolver resolver = new HeaderRequestStartResolver(
+                Arrays.asList(HeaderRequestStartResolver.REQUEST_START_HEADER, HeaderRequestStartResolver.QUEUE_START_HEADER));
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        assertThat(resolver.requestStartOf(request)).isEqualTo(-1);
+
+        request.addHeader(HeaderRequestStartResolver.QUEUE_START_HEADER, "t=" + START);
+        assertThat(resolver.requestStartOf(request)).isEqualTo(START);
+    }
+}
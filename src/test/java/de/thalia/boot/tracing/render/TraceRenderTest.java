@@ -0,0 +1,129 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.render;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.database.QuerySpan;
+import de.thalia.boot.tracing.hystrix.HystrixSpan;
+import de.thalia.boot.tracing.mvc.MvcSpan;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+
+/**
+ * Tests für {@link ChromeTraceFormat}, {@link CollapsedStacks} und den {@link TraceRenderEndpoint}
+ */
+public class TraceRenderTest {
+
+    @Test
+    public void schreibtJedesTraceLogAlsEigenenProzess() throws Exception {
+        final JsonNode trace = new ObjectMapper().readTree(ChromeTraceFormat.of(traceLog(), "/search"));
+
+        final List<JsonNode> events = new ArrayList<>();
+        final Map<Integer, String> processes = new HashMap<>();
+        trace.get("traceEvents").forEach(event -> {
+            if ("X".equals(event.get("ph").asText())) {
+                events.add(event);
+            } else if ("process_name".equals(event.get("name").asText())) {
+                processes.put(event.get("pid").asInt(), event.get("args").get("name").asText());
+            }
+        });
+        assertThat(processes).containsEntry(1, "frontend (frontend-1)").containsEntry(2, "search (search-1)");
+        assertThat(events).extracting(event -> event.get("name").asText() + "@" + event.get("pid") + "/" + event.get("tid"))
+                .containsExactly("/search@1/0", "Pool#Command@1/1", "Search-RestTemplate@1/2", "dataSource@1/3",
+                        "/api/search@2/0", "searchDataSource@2/1");
+
+        final JsonNode http = events.get(2);
+        assertThat(http.get("cat").asText()).isEqualTo("http");
+        assertThat(http.get("ts").asLong()).isEqualTo(10_000);
+        assertThat(http.get("dur").asLong()).isEqualTo(50_000);
+        assertThat(http.get("args").get("requestURI").asText()).isEqualTo("http://search/api/search?q=java");
+        assertThat(http.get("args").has("nestedTraceLog")).isFalse();
+        assertThat(events.get(0).get("args").get("cpuNanos").asLong()).isEqualTo(42_000_000);
+    }
+
+    @Test
+    public void schreibtEigenzeitenJeStapel() {
+        // Die Queries laufen parallel zum HTTP-Aufruf und liegen deshalb neben ihm im Hystrix-Command
+        assertThat(CollapsedStacks.of(traceLog(), "/search")).isEqualTo("/search 40\n"
+                + "/search;hystrix.Pool#Command 10\n"
+                + "/search;hystrix.Pool#Command;http.Search-RestTemplate 20\n"
+                + "/search;hystrix.Pool#Command;http.Search-RestTemplate;search 10\n"
+                + "/search;hystrix.Pool#Command;http.Search-RestTemplate;search;db.searchDataSource 20\n"
+                + "/search;hystrix.Pool#Command;db.dataSource 30\n");
+    }
+
+    @Test
+    public void zaehltUmschlosseneSpansNurEinmal() {
+        final TraceLog log = new TraceLog("frontend", "frontend-1", 0, 100,
+                Arrays.asList(new MvcSpan("Ctrl#get", 5, 90), new HystrixSpan("Pool#Command", 18, 75),
+                        new HTTPSpan("Search-RestTemplate", 20, 70, HttpMethod.GET, URI.create("http://search/api"), HttpStatus.OK,
+                                null)));
+
+        assertThat(CollapsedStacks.of(log, "/search")).isEqualTo("/search 10\n"
+                + "/search;mvc.Ctrl#get 15\n"
+                + "/search;mvc.Ctrl#get;hystrix.Pool#Command 5\n"
+                + "/search;mvc.Ctrl#get;hystrix.Pool#Command;http.Search-RestTemplate 70\n");
+    }
+
+    @Test
+    public void maskiertTrennzeichenInFrames() {
+        assertThat(CollapsedStacks.frame("a;b\nc")).isEqualTo("a,b c");
+    }
+
+    @Test
+    public void rendertTraceLogAusDemHeader() throws Exception {
+        final TraceRenderEndpoint endpoint = new TraceRenderEndpoint(null);
+
+        assertThat(endpoint.render(TraceRenderEndpoint.FLAMEGRAPH, traceLog().toJSON())).startsWith("frontend 40\n");
+        assertThat(endpoint.render(TraceRenderEndpoint.CHROME, traceLog().toJSON())).contains("\"traceEvents\"");
+        assertThat(endpoint.renderStored(TraceRenderEndpoint.CHROME, "1-8")).isNull();
+        assertThatThrownBy(() -> endpoint.render("svg", traceLog().toJSON())).isInstanceOf(InvalidEndpointRequestException.class);
+        assertThatThrownBy(() -> endpoint.render(TraceRenderEndpoint.CHROME, "{")).isInstanceOf(InvalidEndpointRequestException.class);
+    }
+
+    /**
+     * Ein Hystrix-Command mit einem HTTP-Aufruf darin, parallel dazu Queries.
+     */
+    private static TraceLog traceLog() {
+        final TraceLog nested = new TraceLog("search", "search-1", 20, 30,
+                Arrays.<Span> asList(new QuerySpan("searchDataSource", 25, 20, 2, "searchDataSource")));
+        final TraceLog log = new TraceLog("frontend", "frontend-1", 0, 100,
+                Arrays.asList(new HystrixSpan("Pool#Command", 5, 60),
+                        new HTTPSpan("Search-RestTemplate", 10, 50, HttpMethod.GET, URI.create("http://search/api/search?q=java"),
+                                HttpStatus.OK, nested),
+                        new QuerySpan("dataSource", 30, 30, 3, "dataSource")));
+        log.setCpuNanos(42_000_000L);
+        return log;
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.resilience4j;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.Tracer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.bulkhead.configure.BulkheadAspect;
+import io.github.resilience4j.bulkhead.configure.BulkheadConfigurationProperties;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.configure.CircuitBreakerAspect;
+import io.github.resilience4j.circuitbreaker.configure.CircuitBreakerConfigurationProperties;
+import io.github.resilience4j.fallback.FallbackDecorators;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import io.github.resilience4j.ratelimiter.configure.RateLimiterAspect;
+import io.github.resilience4j.ratelimiter.configure.RateLimiterConfigurationProperties;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.retry.annotation.Retry;
+import io.github.resilience4j.retry.configure.RetryAspect;
+import io.github.resilience4j.retry.configure.RetryConfigurationProperties;
+
+/**
+ * Tests für die Erfassung von Versuchen, Wartezeiten und Zustand der Resilience4J-Aspekte.
+ */
+public class CircuitBreakerSpanAspectTest {
+
+    private final Tracer tracer = new Tracer();
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final RetryRegistry retryRegistry = RetryRegistry
+            .of(RetryConfig.custom().maxAttempts(3).waitDuration(Duration.ofMillis(20)).build());
+    private final RateLimiterRegistry rateLimiterRegistry = RateLimiterRegistry.of(RateLimiterConfig.custom()
+            .limitForPeriod(1).limitRefreshPeriod(Duration.ofMillis(200)).timeoutDuration(Duration.ofSeconds(1)).build());
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry
+            .of(BulkheadConfig.custom().maxConcurrentCalls(1).maxWaitTimeDuration(Duration.ZERO).build());
+
+    private final Service target = new Service();
+    private Service service;
+
+    @Before
+    public void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        rateLimiterRegistry.rateLimiter("rejecting", RateLimiterConfig.custom().limitForPeriod(1)
+                .limitRefreshPeriod(Duration.ofSeconds(10)).timeoutDuration(Duration.ZERO).build());
+
+        // Reihenfolge wie in der Anwendung: Tracing, Retry, Circuit Breaker, Rate Limiter, Bulkhead
+        final AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        final FallbackDecorators fallbackDecorators = new FallbackDecorators(Collections.emptyList());
+        factory.addAspect(new CircuitBreakerSpanAspect(tracer, circuitBreakerRegistry,
+                Arrays.asList(new BulkheadModule(bulkheadRegistry), new RetryModule(retryRegistry),
+                        new RateLimiterModule(rateLimiterRegistry))));
+        factory.addAspect(new RetryAspect(new RetryConfigurationProperties(), retryRegistry, Collections.emptyList(),
+                fallbackDecorators));
+        factory.addAspect(new CircuitBreakerAspect(new CircuitBreakerConfigurationProperties(), circuitBreakerRegistry,
+                Collections.emptyList(), fallbackDecorators));
+        factory.addAspect(new RateLimiterAspect(rateLimiterRegistry, new RateLimiterConfigurationProperties(),
+                Collections.emptyList(), fallbackDecorators));
+        factory.addAspect(new BulkheadAspect(new BulkheadConfigurationProperties(), ThreadPoolBulkheadRegistry.ofDefaults(),
+                bulkheadRegistry, Collections.emptyList(), fallbackDecorators));
+        service = factory.getProxy();
+        target.self = service;
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void erfasstVersucheUndWartezeitenDerWiederholungen() {
+        target.failures = 2;
+
+        assertThat(service.search()).isEqualTo("Faust");
+
+        final CircuitBreakerSpan span = spans().get(0);
+        assertThat(span.getName()).isEqualTo("search");
+        assertThat(span.getState()).isEqualTo("CLOSED");
+        assertThat(span.getOutcome()).isEqualTo(CircuitBreakerSpan.SUCCESS);
+        assertThat(span.getRetryWaitMicros()).isEqualTo(40_000L);
+        assertThat(span.getAttempts()).extracting(CircuitBreakerAttempt::getOutcome).containsExactly(CircuitBreakerSpan.ERROR,
+                CircuitBreakerSpan.ERROR, CircuitBreakerSpan.SUCCESS);
+        // Zwischen den Versuchen liegt die Wartezeit des Retrys
+        final CircuitBreakerAttempt first = span.getAttempts().get(0);
+        final CircuitBreakerAttempt second = span.getAttempts().get(1);
+        assertThat(second.getStartTime() - first.getStartTime() - first.getDuration()).isBetween(15L, 25L);
+    }
+
+    @Test
+    public void erfasstZustandUndAbgelehnteAufrufeDesOffenenCircuitBreakers() {
+        circuitBreakerRegistry.circuitBreaker("search").transitionToOpenState();
+
+        assertThatThrownBy(() -> service.search()).isInstanceOf(CallNotPermittedException.class);
+
+        final CircuitBreakerSpan span = spans().get(0);
+        assertThat(span.getState()).isEqualTo("OPEN");
+        assertThat(span.getOutcome()).isEqualTo(CircuitBreakerSpan.NOT_PERMITTED);
+        assertThat(span.getAttempts()).extracting(CircuitBreakerAttempt::getOutcome).containsOnly(
+                CircuitBreakerSpan.NOT_PERMITTED);
+    }
+
+    @Test
+    public void erfasstWartezeitenDesRateLimiters() {
+        service.limited();
+        service.limited();
+        // Der zweite Aufruf hat die Erlaubnis zu Beginn einer Periode erhalten, der dritte wartet eine ganze Periode
+        service.limited();
+
+        final List<CircuitBreakerSpan> spans = spans();
+        assertThat(spans).extracting(CircuitBreakerSpan::getName, CircuitBreakerSpan::getState, CircuitBreakerSpan::getAttempts)
+                .containsOnly(tuple("limited", null, null));
+        assertThat(spans.get(2).getRateLimiterWaitMicros()).isGreaterThan(150_000L);
+        assertThat(spans.get(2).getDuration()).isGreaterThanOrEqualTo(150L);
+    }
+
+    @Test
+    public void erfasstAbgelehnteAufrufeVonRateLimiterUndBulkhead() {
+        service.rejecting();
+        assertThatThrownBy(() -> service.rejecting()).isInstanceOf(RequestNotPermitted.class);
+        // Der verschachtelte Aufruf findet das Bulkhead mit nur einem Platz belegt vor
+        assertThatThrownBy(() -> service.guarded(true)).isInstanceOf(BulkheadFullException.class);
+
+        assertThat(spans()).extracting(CircuitBreakerSpan::getName, CircuitBreakerSpan::getOutcome).containsExactly(
+                tuple("rejecting", CircuitBreakerSpan.SUCCESS), tuple("rejecting", CircuitBreakerSpan.RATE_LIMITED),
+                tuple("guarded", CircuitBreakerSpan.BULKHEAD_FULL), tuple("guarded", CircuitBreakerSpan.ERROR));
+        assertThat(spans().get(2).getBulkheadWaitMicros()).isNotNull();
+    }
+
+    @Test
+    public void erfasstOhneModuleNurCircuitBreaker() {
+        // Wie mit resilience4j-circuitbreaker als einzigem Modul
+        final AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new CircuitBreakerSpanAspect(tracer, circuitBreakerRegistry, Collections.emptyList()));
+        final Service circuitBreakerOnly = factory.getProxy();
+
+        circuitBreakerOnly.search();
+        circuitBreakerOnly.limited();
+
+        assertThat(spans()).extracting(CircuitBreakerSpan::getName, CircuitBreakerSpan::getState).containsExactly(
+                tuple("search", "CLOSED"));
+    }
+
+    private List<CircuitBreakerSpan> spans() {
+        final List<Span> spans = tracer.getCollectedSpansForCurrentRequest().get();
+        return spans.stream().map(CircuitBreakerSpan.class::cast).collect(Collectors.toList());
+    }
+
+    public static class Service {
+
+        private int failures;
+        private Service self;
+
+        @Retry(name = "search")
+        @CircuitBreaker(name = "search")
+        public String search() {
+            if (failures-- > 0) {
+                throw new IllegalStateException("Timeout");
+            }
+            return "Faust";
+        }
+
+        @RateLimiter(name = "limited")
+        public void limited() {
+        }
+
+        @RateLimiter(name = "rejecting")
+        public void rejecting() {
+        }
+
+        @Bulkhead(name = "guarded")
+        public void guarded(final boolean nested) {
+            if (nested) {
+                self.guarded(false);
+            }
+        }
+    }
+}
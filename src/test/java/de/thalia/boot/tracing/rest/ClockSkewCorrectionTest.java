@@ -0,0 +1,60 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.database.QuerySpan;
+
+/**
+ * Tests für {@link ClockSkewCorrection}
+ */
+public class ClockSkewCorrectionTest {
+
+    @Test
+    public void verschiebtTraceLogMitVorgehenderUhr() {
+        // Lokal 1000-1100, entfernt 1530-1590: die entfernte Uhr geht 500ms vor, Netzwerk 40ms
+        final TraceLog remote = new TraceLog("search", "host2", 1530, 60,
+                Collections.singletonList(new QuerySpan("db", 1540, 20, 1, "db")));
+
+        ClockSkewCorrection.correct(remote, 1000, 100);
+
+        assertThat(remote.getClockSkew().getOffset()).isEqualTo(510);
+        assertThat(remote.getClockSkew().getRoundTrip()).isEqualTo(40);
+        assertThat(remote.getClockSkew().isCorrected()).isTrue();
+        assertThat(remote.getClockSkew().isExceedsRoundTrip()).isTrue();
+        assertThat(remote.getStartTime()).isEqualTo(1020);
+        assertThat(remote.getSpans().get(0).getStartTime()).isEqualTo(1030);
+    }
+
+    @Test
+    public void laesstPlausiblesTraceLogUnveraendert() {
+        // Entfernt 1010-1070 liegt innerhalb des lokalen Aufrufs, die Asymmetrie ist kleiner als die Netzwerkzeit
+        final TraceLog remote = new TraceLog("search", "host2", 1010, 60, null);
+
+        ClockSkewCorrection.correct(remote, 1000, 100);
+
+        assertThat(remote.getClockSkew().getOffset()).isEqualTo(-10);
+        assertThat(remote.getClockSkew().isCorrected()).isFalse();
+        assertThat(remote.getClockSkew().isExceedsRoundTrip()).isFalse();
+        assertThat(remote.getStartTime()).isEqualTo(1010);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.rest.httpclient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.sun.net.httpserver.HttpServer;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.Tracer;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+import de.thalia.boot.tracing.rest.HttpPhases;
+import de.thalia.boot.tracing.rest.TraceRestTemplateCustomizer;
+
+/**
+ * Tests für {@link HttpPhaseTracing} gegen einen lokalen Stub-Server
+ */
+public class HttpPhaseTracingTest {
+
+    private static final int HEADER_DELAY = 50;
+    private static final int BODY_DELAY = 50;
+    private static final long PROBE_TIMEOUT = TimeUnit.SECONDS.toNanos(5);
+
+    private HttpServer server;
+    private RestTemplate restTemplate;
+    private final Tracer tracer = new Tracer();
+    private final AtomicLong headerDelayNanos = new AtomicLong();
+    private final AtomicLong bodyDelayNanos = new AtomicLong();
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        final Thread theClient = Thread.currentThread();
+        server.createContext("/slow", exchange -> {
+            try {
+                // Die Pausen werden auf dem Server gemessen. Die Messung im Client umschließt sie vollständig, sie sind
+                // deshalb eine untere Schranke für die erfassten Phasen.
+                headerDelayNanos.set(sleep(HEADER_DELAY));
+                exchange.sendResponseHeaders(200, 0);
+                awaitBlockingBodyRead(theClient);
+                bodyDelayNanos.set(sleep(BODY_DELAY));
+                final OutputStream body = exchange.getResponseBody();
+                body.write("Hello World".getBytes("UTF-8"));
+                body.close();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+
+        restTemplate = new RestTemplate(HttpPhaseTracing.requestFactory());
+        new TraceRestTemplateCustomizer(tracer).customize(restTemplate);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        server.stop(0);
+    }
+
+    @Test
+    public void erfasstPhasenDesAufrufs() {
+        assertThat(call()).isEqualTo("Hello World");
+
+        final HttpPhases phases = lastSpan().getPhases();
+        assertThat(phases).isNotNull();
+        assertThat(phases.getLeaseWaitMicros()).isNotNull();
+        assertThat(phases.getConnectMicros()).isNotNull();
+        assertThat(phases.getTlsHandshakeMicros()).isNull();
+        assertThat(phases.getTimeToFirstByteMicros()).isGreaterThanOrEqualTo(headerDelayNanos.get() / 1000);
+        assertThat(phases.getBodyReadMicros()).isGreaterThanOrEqualTo(bodyDelayNanos.get() / 1000);
+    }
+
+    @Test
+    public void verbindungAusDemPoolWirdNichtNeuAufgebaut() {
+        call();
+        call();
+
+        final HttpPhases phases = lastSpan().getPhases();
+        assertThat(phases.getLeaseWaitMicros()).isNotNull();
+        assertThat(phases.getConnectMicros()).isNull();
+    }
+
+    private static long sleep(final long aMillis) throws InterruptedException {
+        final long theStart = System.nanoTime();
+        Thread.sleep(aMillis);
+        return System.nanoTime() - theStart;
+    }
+
+    /**
+     * Wartet, bis der Client im gemessenen Lesen des Bodys auf dem Socket blockiert. Erst dann beginnt die Pause des
+     * Servers, so dass sie vollständig in der Messung des Clients liegt.
+     */
+    private static void awaitBlockingBodyRead(final Thread aClient) throws InterruptedException {
+        final long theStart = System.nanoTime();
+        while (!isBlockedInBodyRead(aClient.getStackTrace())) {
+            if (System.nanoTime() - theStart > PROBE_TIMEOUT) {
+                throw new IllegalStateException("Client liest den Body nicht");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static boolean isBlockedInBodyRead(final StackTraceElement[] aStackTrace) {
+        boolean theSocketRead = false;
+        for (final StackTraceElement theElement : aStackTrace) {
+            if (theElement.getMethodName().startsWith("socketRead")) {
+                theSocketRead = true;
+            } else if (theSocketRead && theElement.getClassName().endsWith("PhaseTimingClientHttpResponse$TimingInputStream")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String call() {
+        return restTemplate.getForObject("http://localhost:" + server.getAddress().getPort() + "/slow", String.class);
+    }
+
+    private HTTPSpan lastSpan() {
+        final List<Span> spans = tracer.getCollectedSpansForCurrentRequest().get();
+        return (HTTPSpan) spans.get(spans.size() - 1);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import de.thalia.boot.tracing.TraceLog;
+import de.thalia.boot.tracing.analysis.DependencyBreakdown;
+import de.thalia.boot.tracing.database.QuerySpan;
+import de.thalia.boot.tracing.rest.HTTPSpan;
+
+/**
+ * Tests für {@link DependencyBreakdownAggregator}
+ */
+public class DependencyBreakdownAggregatorTest {
+
+    private static final String PATTERN = "/search/{term}";
+
+    private final AtomicLong now = new AtomicLong(10 * DependencyBreakdownAggregator.BUCKET_MILLIS);
+    private final DependencyBreakdownAggregator aggregator = new DependencyBreakdownAggregator(10, 10, now::get);
+
+    @Test
+    public void teiltLaufzeitAufAbhaengigkeitenAuf() {
+        // DB-Queries überlappen sich teilweise und werden nur einmal gezählt
+        aggregator.record(new TraceLog("test", "host", 0, 100,
+                Arrays.asList(new QuerySpan("ds", 0, 20, 1, "ds"), new QuerySpan("ds", 10, 20, 1, "ds"),
+                        new HTTPSpan("Search-RestTemplate", 50, 40, HttpMethod.GET, URI.create("http://search"), HttpStatus.OK,
+                                null))),
+                PATTERN);
+
+        final BreakdownSnapshot snapshot = aggregator.snapshot().get(PATTERN).get("1m");
+        assertThat(snapshot.getRequests()).isEqualTo(1);
+        assertThat(snapshot.getWallTime()).isEqualTo(100);
+        assertThat(snapshot.getCategories().get("db").getTime()).isEqualTo(30);
+        assertThat(snapshot.getCategories().get("http.Search-RestTemplate").getPercent()).isCloseTo(40.0, within(0.001));
+        assertThat(snapshot.getCategories().get(DependencyBreakdown.UNTRACED).getTime()).isEqualTo(30);
+    }
+
+    @Test
+    public void vergisstAlteMinuten() {
+        aggregator.record(new TraceLog("test", "host", 0, 100, null), PATTERN);
+        now.addAndGet(3 * DependencyBreakdownAggregator.BUCKET_MILLIS);
+        aggregator.record(new TraceLog("test", "host", 0, 50, null), PATTERN);
+
+        final Map<String, BreakdownSnapshot> snapshots = aggregator.snapshot().get(PATTERN);
+        assertThat(snapshots.get("1m").getRequests()).isEqualTo(1);
+        assertThat(snapshots.get("5m").getRequests()).isEqualTo(2);
+        assertThat(snapshots.get("5m").getCategories().get(DependencyBreakdown.UNTRACED).getMeanTime()).isEqualTo(75.0);
+
+        // Der Ring wird nach einer Runde wiederverwendet
+        now.addAndGet(16 * DependencyBreakdownAggregator.BUCKET_MILLIS);
+        aggregator.record(new TraceLog("test", "host", 0, 10, null), PATTERN);
+        assertThat(aggregator.snapshot().get(PATTERN).get("15m").getWallTime()).isEqualTo(10);
+    }
+}
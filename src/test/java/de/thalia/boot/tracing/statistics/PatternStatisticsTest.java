@@ -0,0 +1,55 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests für {@link PatternStatistics}
+ */
+public class PatternStatisticsTest {
+
+    @Test
+    public void aggregiertJePatternUndKennzahl() {
+        final PatternStatistics statistics = new PatternStatistics(10);
+        statistics.record("/a", "x", 10);
+        statistics.record("/a", "x", 30);
+        statistics.record("/b", "x", 5);
+
+        final StatisticSnapshot snapshot = statistics.snapshot().get("/a").get("x");
+        assertThat(snapshot.getCount()).isEqualTo(2);
+        assertThat(snapshot.getTotal()).isEqualTo(40);
+        assertThat(snapshot.getMax()).isEqualTo(30);
+        assertThat(snapshot.getMean()).isEqualTo(20.0);
+    }
+
+    @Test
+    public void begrenztDieAnzahlDerPatterns() {
+        final PatternStatistics statistics = new PatternStatistics(2);
+        statistics.record("/a", "x", 1);
+        statistics.record("/b", "x", 1);
+        statistics.record("/c", "x", 1);
+        statistics.record("/d", "x", 1);
+
+        final Map<String, Map<String, StatisticSnapshot>> snapshot = statistics.snapshot();
+        assertThat(snapshot).containsOnlyKeys("/a", "/b", PatternStatistics.OVERFLOW_PATTERN);
+        assertThat(snapshot.get(PatternStatistics.OVERFLOW_PATTERN).get("x").getCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * (c) Copyright 2026 Thalia Bücher GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.thalia.boot.tracing.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.thalia.boot.tracing.Span;
+import de.thalia.boot.tracing.TraceLog;
+
+/**
+ * Tests für den {@link TraceStore}
+ */
+public class TraceStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TraceStore store;
+
+    @After
+    public void tearDown() throws Exception {
+        if (null != store) {
+            store.close();
+        }
+    }
+
+    @Test
+    public void findetLangsameTraceLogsNachNeustartWieder() throws Exception {
+        store = open(4096, 16384);
+        store.export(traceLog(1000, 50), "/search");
+        store.export(traceLog(2000, 150), "/search");
+        store.export(traceLog(3000, 200), "/detail/{id}");
+        store.writePending();
+
+        assertThat(store.find(null, null, null, 10)).extracting(StoredTrace::getStartTime).containsExactly(3000L, 2000L);
+        assertThat(store.find("/search", null, null, 10)).extracting(StoredTrace::getDuration).containsExactly(150L);
+        assertThat(store.find(null, 2500L, null, 10)).extracting(StoredTrace::getInvokedPattern).containsExactly("/detail/{id}");
+        assertThat(store.find(null, null, null, 1)).hasSize(1);
+
+        store.close();
+        store = open(4096, 16384);
+
+        final List<StoredTrace> traces = store.find(null, null, null, 10);
+        assertThat(traces).extracting(StoredTrace::getStartTime).containsExactly(3000L, 2000L);
+        final TraceLog log = store.read(traces.get(0).getId());
+        assertThat(log.getStartTime()).isEqualTo(3000);
+        assertThat(log.getSpans()).extracting(Span::getName).containsExactly("db");
+        assertThat(store.read("1-4711")).isNull();
+        assertThat(store.read("unbekannt")).isNull();
+    }
+
+    @Test
+    public void loeschtAelteSegmente() throws Exception {
+        store = open(1024, 2048);
+        for (int i = 0; i < 200; i++) {
+            store.export(traceLog(i, 100), "/search");
+            store.writePending();
+        }
+
+        assertThat(folder.getRoot().list()).hasSize(2);
+        final List<StoredTrace> traces = store.find(null, null, null, 100);
+        assertThat(traces.get(0).getStartTime()).isEqualTo(199);
+        assertThat(traces.size()).isLessThan(200);
+        assertThat(store.getStoredTraces()).isEqualTo(traces.size());
+        assertThat(store.read("1-8")).isNull();
+    }
+
+    @Test
+    public void gibtGeloeschteSegmenteSofortFrei() throws Exception {
+        final Path maps = Paths.get("/proc/self/maps");
+        Assume.assumeTrue(Files.isReadable(maps) && TraceSegment.canUnmap());
+        store = open(1024, 2048);
+        for (int i = 0; i < 200; i++) {
+            store.export(traceLog(i, 100), "/search");
+            store.writePending();
+        }
+
+        // Ohne Aufheben des Mappings blieben die gelöschten Dateien bis zum nächsten GC eingeblendet
+        final String directory = folder.getRoot().getCanonicalPath();
+        assertThat(Files.readAllLines(maps)).filteredOn(line -> line.contains(directory))
+                .noneMatch(line -> line.endsWith("(deleted)")).hasSize(2);
+    }
+
+    @Test
+    public void ignoriertUnvollstaendigGeschriebenenEintrag() throws Exception {
+        store = open(4096, 16384);
+        store.export(traceLog(1000, 100), "/search");
+        store.export(traceLog(2000, 100), "/search");
+        store.writePending();
+        final int theCorruptOffset = store.find(null, null, null, 10).get(0).getOffset();
+        store.close();
+
+        try (RandomAccessFile theFile = new RandomAccessFile(new File(folder.getRoot(), TraceSegment.fileNameOf(1)), "rw")) {
+            theFile.seek(theCorruptOffset + 40);
+            theFile.write('#');
+        }
+
+        store = open(4096, 16384);
+        assertThat(store.find(null, null, null, 10)).extracting(StoredTrace::getStartTime).containsExactly(1000L);
+        store.export(traceLog(3000, 100), "/search");
+        store.writePending();
+        final List<StoredTrace> traces = store.find(null, null, null, 10);
+        assertThat(traces).extracting(StoredTrace::getStartTime).containsExactly(3000L, 1000L);
+        assertThat(store.read(traces.get(0).getId()).getStartTime()).isEqualTo(3000);
+    }
+
+    @Test
+    public void schreibtImEigenenThread() throws Exception {
+        store = new TraceStore(folder.getRoot().toPath(), 4096, 16384, 100, 10);
+        store.start();
+        store.export(traceLog(1000, 100), "/search");
+
+        final long theDeadline = System.currentTimeMillis() + 5000;
+        while (store.getStoredTraces() == 0 && System.currentTimeMillis() < theDeadline) {
+            Thread.sleep(10);
+        }
+        assertThat(store.getStoredTraces()).isEqualTo(1);
+        assertThat(store.getDroppedTraces()).isZero();
+    }
+
+    @Test
+    public void verwirftBeiVollerWarteschlange() throws Exception {
+        store = new TraceStore(folder.getRoot().toPath(), 4096, 16384, 100, 1);
+        store.export(traceLog(1000, 100), "/search");
+        store.export(traceLog(2000, 100), "/search");
+
+        assertThat(store.getDroppedTraces()).isEqualTo(1);
+    }
+
+    private TraceStore open(final int aSegmentSize, final long aMaxSize) throws IOException {
+        final TraceStore theStore = new TraceStore(folder.getRoot().toPath(), aSegmentSize, aMaxSize, 100, 100);
+        theStore.open();
+        return theStore;
+    }
+
+    private static TraceLog traceLog(final long aStartTime, final long aDuration) {
+        return new TraceLog("test", "host", aStartTime, aDuration,
+                Collections.singletonList(new Span("db", aStartTime + 10, aDuration / 2)));
+    }
+}